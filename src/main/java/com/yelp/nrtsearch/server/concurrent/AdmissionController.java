@@ -0,0 +1,209 @@
+/*
+ * Copyright 2025 Yelp Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.yelp.nrtsearch.server.concurrent;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.yelp.nrtsearch.server.config.ThreadPoolConfiguration.AdmissionControlSettings;
+import com.yelp.nrtsearch.server.monitoring.ThreadPoolCollector;
+import io.grpc.Context;
+import io.grpc.Deadline;
+import io.grpc.Status;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks the queue delay of tasks in an executor, and decides if requests should be shed before
+ * they are queued. Overload is detected in the style of CoDel: the executor is overloaded when the
+ * minimum queue delay over an interval is above the target delay, meaning the queue did not drain
+ * at any point in the interval. Short bursts do not cause overload, since some task in the interval
+ * will see a small delay. Queue delay is only measured when a task starts, so the executor is also
+ * overloaded when tasks have been waiting for a full interval without any task starting, such as
+ * when every thread is busy with a long running task.
+ *
+ * <p>While overloaded, a request is shed if the expected queue delay is at least the time remaining
+ * before its deadline, since it would most likely expire in the queue. Requests without a deadline
+ * are always admitted.
+ */
+public class AdmissionController {
+  // weight of a new sample in the queue delay moving average is 1/2^EWMA_SHIFT
+  private static final int EWMA_SHIFT = 3;
+
+  private final String poolName;
+  private final boolean enabled;
+  private final long targetDelayNanos;
+  private final long intervalNanos;
+  private final AtomicLong intervalStartNanos;
+  private final AtomicLong intervalMinDelayNanos = new AtomicLong(Long.MAX_VALUE);
+  private volatile boolean overloaded = false;
+  // updates may race, which is acceptable for an estimate
+  private volatile long averageDelayNanos = 0;
+  // tasks submitted to the executor that have not started
+  private final AtomicInteger pendingTasks = new AtomicInteger();
+  // time since which tasks have been pending with none started
+  private volatile long stallStartNanos = 0;
+
+  /**
+   * Constructor.
+   *
+   * @param poolName executor name, used as metrics label
+   * @param settings admission control settings
+   */
+  public AdmissionController(String poolName, AdmissionControlSettings settings) {
+    this(poolName, settings, System.nanoTime());
+  }
+
+  @VisibleForTesting
+  AdmissionController(String poolName, AdmissionControlSettings settings, long startNanos) {
+    this.poolName = poolName;
+    this.enabled = settings.enabled();
+    this.targetDelayNanos = TimeUnit.MILLISECONDS.toNanos(settings.targetDelayMs());
+    this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(settings.intervalMs());
+    this.intervalStartNanos = new AtomicLong(startNanos);
+  }
+
+  /** Get if requests may be shed by this controller. */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Record that a task was submitted to the executor.
+   *
+   * @param nowNanos submit time, from {@link System#nanoTime()}
+   */
+  public void taskSubmitted(long nowNanos) {
+    if (pendingTasks.getAndIncrement() == 0) {
+      stallStartNanos = nowNanos;
+    }
+  }
+
+  /** Record that a submitted task was rejected by the executor, and will not be run. */
+  public void taskRejected() {
+    pendingTasks.updateAndGet(p -> Math.max(0, p - 1));
+  }
+
+  /**
+   * Record the time a task waited in the executor queue before starting.
+   *
+   * @param delayNanos queue delay
+   */
+  public void recordQueueDelay(long delayNanos) {
+    recordQueueDelay(delayNanos, System.nanoTime());
+  }
+
+  @VisibleForTesting
+  void recordQueueDelay(long delayNanos, long nowNanos) {
+    ThreadPoolCollector.queueDelay.labelValues(poolName).observe(delayNanos / 1_000_000_000.0);
+    long average = averageDelayNanos;
+    averageDelayNanos = average + ((delayNanos - average) >> EWMA_SHIFT);
+    pendingTasks.updateAndGet(p -> Math.max(0, p - 1));
+    stallStartNanos = nowNanos;
+
+    intervalMinDelayNanos.accumulateAndGet(delayNanos, Math::min);
+    long start = intervalStartNanos.get();
+    if (nowNanos - start >= intervalNanos && intervalStartNanos.compareAndSet(start, nowNanos)) {
+      long minDelay = intervalMinDelayNanos.getAndSet(Long.MAX_VALUE);
+      overloaded = minDelay > targetDelayNanos;
+    }
+  }
+
+  /** Get if the executor is currently overloaded. */
+  public boolean isOverloaded() {
+    return isOverloaded(System.nanoTime());
+  }
+
+  @VisibleForTesting
+  boolean isOverloaded(long nowNanos) {
+    // measurement is only current if a task started in the last interval
+    if (overloaded && nowNanos - intervalStartNanos.get() < 2 * intervalNanos) {
+      return true;
+    }
+    // tasks are waiting, but none started for a full interval
+    long stallNanos = getStallNanos(nowNanos);
+    return stallNanos >= intervalNanos && stallNanos > targetDelayNanos;
+  }
+
+  /**
+   * Get the expected queue delay of a new task. This is the moving average of task queue delay, or
+   * the time since a task last started while tasks are waiting, if that is larger.
+   */
+  public long getExpectedDelayNanos() {
+    return getExpectedDelayNanos(System.nanoTime());
+  }
+
+  @VisibleForTesting
+  long getExpectedDelayNanos(long nowNanos) {
+    return Math.max(averageDelayNanos, getStallNanos(nowNanos));
+  }
+
+  /**
+   * Get how long tasks have been pending without any task starting. This is a lower bound of the
+   * queue delay for the oldest pending task.
+   */
+  private long getStallNanos(long nowNanos) {
+    return pendingTasks.get() > 0 ? Math.max(0, nowNanos - stallStartNanos) : 0;
+  }
+
+  /**
+   * Get if a request should be shed.
+   *
+   * @param remainingNanos time remaining before the request deadline
+   * @return if request should be shed
+   */
+  public boolean shouldShed(long remainingNanos) {
+    return shouldShed(remainingNanos, System.nanoTime());
+  }
+
+  @VisibleForTesting
+  boolean shouldShed(long remainingNanos, long nowNanos) {
+    return enabled && isOverloaded(nowNanos) && getExpectedDelayNanos(nowNanos) >= remainingNanos;
+  }
+
+  /**
+   * Check if the current request should be admitted, based on the deadline in the current gRPC
+   * {@link Context}. This method is a noop if admission control is disabled, or if the request has
+   * no deadline.
+   *
+   * @param message context to add to exception message
+   * @throws io.grpc.StatusRuntimeException with RESOURCE_EXHAUSTED status if request is shed
+   */
+  public void checkAdmission(String message) {
+    if (!enabled) {
+      return;
+    }
+    Deadline deadline = Context.current().getDeadline();
+    if (deadline == null) {
+      return;
+    }
+    long remainingNanos = deadline.timeRemaining(TimeUnit.NANOSECONDS);
+    long nowNanos = System.nanoTime();
+    if (shouldShed(remainingNanos, nowNanos)) {
+      ThreadPoolCollector.shedCount.labelValues(poolName).inc();
+      throw Status.RESOURCE_EXHAUSTED
+          .withDescription(
+              "Request shed by admission control: "
+                  + message
+                  + ", pool: "
+                  + poolName
+                  + ", expected queue delay ms: "
+                  + TimeUnit.NANOSECONDS.toMillis(getExpectedDelayNanos(nowNanos))
+                  + ", deadline remaining ms: "
+                  + TimeUnit.NANOSECONDS.toMillis(remainingNanos))
+          .asRuntimeException();
+    }
+  }
+}
@@ -17,13 +17,15 @@ package com.yelp.nrtsearch.server.concurrent;
 
 import com.yelp.nrtsearch.server.config.ThreadPoolConfiguration;
 import com.yelp.nrtsearch.server.monitoring.ThreadPoolCollector;
+import java.util.EnumSet;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
-import java.util.concurrent.TimeUnit;
 import org.apache.lucene.util.NamedThreadFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -41,15 +43,22 @@ public class ExecutorFactory {
     FETCH,
     GRPC,
     METRICS,
-    VECTORMERGE
+    VECTORMERGE,
+    DOCUMENTCONVERSION
   }
 
   private static final Logger logger = LoggerFactory.getLogger(ExecutorFactory.class);
 
+  // executors that may schedule tasks fairly between index groups
+  private static final Set<ExecutorType> INDEX_ISOLATION_EXECUTORS =
+      EnumSet.of(ExecutorType.SEARCH, ExecutorType.FETCH);
+
   private static ExecutorFactory instance;
 
   private final ThreadPoolConfiguration threadPoolConfiguration;
   private final Map<ExecutorType, ExecutorService> executorMap = new ConcurrentHashMap<>();
+  private final Map<ExecutorType, Map<String, ExecutorService>> indexExecutorMap =
+      new ConcurrentHashMap<>();
 
   /**
    * Initialize the factory with the provided {@link ThreadPoolConfiguration}.
@@ -93,24 +102,81 @@ public class ExecutorFactory {
     return executorMap.computeIfAbsent(executorType, this::createExecutor);
   }
 
+  /**
+   * Get the {@link ExecutorService} for the provided {@link ExecutorType} to use for tasks of an
+   * index. When index isolation is enabled, the SEARCH and FETCH executors schedule tasks fairly
+   * between index groups, and this returns a view of the executor that adds tasks to the group for
+   * the index. Otherwise, this is the same as {@link #getExecutor(ExecutorType)}.
+   *
+   * @param executorType {@link ExecutorType}
+   * @param indexName index name
+   * @return {@link ExecutorService}
+   */
+  public ExecutorService getIndexExecutor(ExecutorType executorType, String indexName) {
+    ExecutorService executor = getExecutor(executorType);
+    if (!(executor instanceof ThreadPoolExecutor threadPoolExecutor)
+        || !(threadPoolExecutor.getQueue() instanceof WeightedFairQueue queue)) {
+      return executor;
+    }
+    ThreadPoolConfiguration.IndexGroupSettings groupSettings =
+        threadPoolConfiguration.getIndexIsolationSettings().getGroupForIndex(indexName);
+    return indexExecutorMap
+        .computeIfAbsent(executorType, k -> new ConcurrentHashMap<>())
+        .computeIfAbsent(
+            groupSettings.name(),
+            k ->
+                new IndexGroupExecutor(
+                    executor,
+                    queue.getGroup(
+                        groupSettings.name(),
+                        groupSettings.weight(),
+                        groupSettings.maxThreads())));
+  }
+
   private ExecutorService createExecutor(ExecutorType executorType) {
     ThreadPoolConfiguration.ThreadPoolSettings threadPoolSettings =
         threadPoolConfiguration.getThreadPoolSettings(executorType);
     logger.info(
-        "Creating {} of size {}",
+        "Creating {} of size {}, virtual threads: {}",
         threadPoolSettings.threadNamePrefix(),
-        threadPoolSettings.maxThreads());
-    BlockingQueue<Runnable> queue =
-        new LinkedBlockingQueue<>(threadPoolSettings.maxBufferedItems());
+        threadPoolSettings.maxThreads(),
+        threadPoolSettings.virtualThreads());
+    ThreadPoolConfiguration.IndexIsolationSettings indexIsolationSettings =
+        threadPoolConfiguration.getIndexIsolationSettings();
+    BlockingQueue<Runnable> queue;
+    if (indexIsolationSettings.enabled() && INDEX_ISOLATION_EXECUTORS.contains(executorType)) {
+      queue =
+          new WeightedFairQueue(
+              threadPoolSettings.maxBufferedItems(), indexIsolationSettings.defaultWeight());
+    } else {
+      queue = new LinkedBlockingQueue<>(threadPoolSettings.maxBufferedItems());
+    }
     ThreadPoolExecutor threadPoolExecutor =
-        new ThreadPoolExecutor(
-            threadPoolSettings.maxThreads(),
+        new QueueDelayThreadPoolExecutor(
             threadPoolSettings.maxThreads(),
-            0L,
-            TimeUnit.SECONDS,
             queue,
-            new NamedThreadFactory(threadPoolSettings.threadNamePrefix()));
+            createThreadFactory(threadPoolSettings),
+            new AdmissionController(
+                executorType.name(), threadPoolConfiguration.getAdmissionControlSettings()));
+    if (queue instanceof WeightedFairQueue) {
+      // all tasks must pass through the queue to be scheduled fairly
+      threadPoolExecutor.prestartAllCoreThreads();
+    }
     ThreadPoolCollector.addPool(executorType.name(), threadPoolExecutor);
     return threadPoolExecutor;
   }
+
+  /**
+   * Create the factory for executor threads. Virtual threads are still run by a fixed size pool,
+   * so that the max threads setting limits the number of concurrent tasks, and tasks past that
+   * limit wait in the bounded queue. Idle virtual threads only hold a small stack, so the limit
+   * can be much higher than for platform threads.
+   */
+  private static ThreadFactory createThreadFactory(
+      ThreadPoolConfiguration.ThreadPoolSettings threadPoolSettings) {
+    if (threadPoolSettings.virtualThreads()) {
+      return Thread.ofVirtual().name(threadPoolSettings.threadNamePrefix() + "-", 0).factory();
+    }
+    return new NamedThreadFactory(threadPoolSettings.threadNamePrefix());
+  }
 }
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2025 Yelp Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.yelp.nrtsearch.server.concurrent;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ExecutorService} view of a shared executor, which adds tasks to the queue of an index
+ * group in a {@link WeightedFairQueue}. The lifecycle of the shared executor is not controlled by
+ * this view, so it cannot be shut down.
+ */
+public class IndexGroupExecutor extends AbstractExecutorService {
+  private final ExecutorService executor;
+  private final WeightedFairQueue.TaskGroup group;
+
+  /**
+   * Constructor.
+   *
+   * @param executor shared executor, which must use a {@link WeightedFairQueue}
+   * @param group index group in the executor queue
+   */
+  public IndexGroupExecutor(ExecutorService executor, WeightedFairQueue.TaskGroup group) {
+    this.executor = executor;
+    this.group = group;
+  }
+
+  /** Get the shared executor. */
+  public ExecutorService getExecutor() {
+    return executor;
+  }
+
+  /** Get the index group. */
+  public WeightedFairQueue.TaskGroup getGroup() {
+    return group;
+  }
+
+  @Override
+  public void execute(Runnable command) {
+    executor.execute(group.wrap(command));
+  }
+
+  @Override
+  public void shutdown() {
+    throw new UnsupportedOperationException("Cannot shut down index group executor");
+  }
+
+  @Override
+  public List<Runnable> shutdownNow() {
+    throw new UnsupportedOperationException("Cannot shut down index group executor");
+  }
+
+  @Override
+  public boolean isShutdown() {
+    return executor.isShutdown();
+  }
+
+  @Override
+  public boolean isTerminated() {
+    return executor.isTerminated();
+  }
+
+  @Override
+  public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+    return executor.awaitTermination(timeout, unit);
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2025 Yelp Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.yelp.nrtsearch.server.concurrent;
+
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fixed size {@link ThreadPoolExecutor} that measures how long each task waits in the queue, and
+ * reports it to an {@link AdmissionController}. Tasks are wrapped when submitted, so the {@link
+ * Runnable}s in the queue are not the same instances passed to {@link #execute(Runnable)}.
+ */
+public class QueueDelayThreadPoolExecutor extends ThreadPoolExecutor {
+  private final AdmissionController admissionController;
+
+  /**
+   * Constructor.
+   *
+   * @param threads number of pool threads
+   * @param queue task queue
+   * @param threadFactory thread factory
+   * @param admissionController controller to receive task queue delays
+   */
+  public QueueDelayThreadPoolExecutor(
+      int threads,
+      BlockingQueue<Runnable> queue,
+      ThreadFactory threadFactory,
+      AdmissionController admissionController) {
+    super(threads, threads, 0L, TimeUnit.SECONDS, queue, threadFactory);
+    this.admissionController = admissionController;
+  }
+
+  /** Get the admission controller for this executor. */
+  public AdmissionController getAdmissionController() {
+    return admissionController;
+  }
+
+  @Override
+  public void execute(Runnable command) {
+    Objects.requireNonNull(command);
+    long nowNanos = System.nanoTime();
+    admissionController.taskSubmitted(nowNanos);
+    try {
+      super.execute(new TimedRunnable(command, nowNanos));
+    } catch (RejectedExecutionException e) {
+      admissionController.taskRejected();
+      throw e;
+    }
+  }
+
+  @Override
+  protected void beforeExecute(Thread t, Runnable r) {
+    super.beforeExecute(t, r);
+    if (r instanceof TimedRunnable timedRunnable) {
+      admissionController.recordQueueDelay(System.nanoTime() - timedRunnable.enqueueNanos());
+    }
+  }
+
+  /** Task wrapper that holds the time it was submitted. */
+  record TimedRunnable(Runnable delegate, long enqueueNanos) implements Runnable {
+    @Override
+    public void run() {
+      delegate.run();
+    }
+  }
+}
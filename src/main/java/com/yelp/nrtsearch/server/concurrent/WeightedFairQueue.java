@@ -0,0 +1,501 @@
+/*
+ * Copyright 2025 Yelp Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.yelp.nrtsearch.server.concurrent;
+
+import java.util.AbstractQueue;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded task queue for a {@link java.util.concurrent.ThreadPoolExecutor} that is shared by
+ * groups of tasks, such as the tasks for different indices. Each group has its own queue, and tasks
+ * are taken from the groups using stride scheduling: every group has a pass value that increases
+ * by 1/weight when one of its tasks is taken, and the next task is taken from the group with the
+ * lowest pass. When multiple groups have queued tasks, each receives executor threads in proportion
+ * to its weight. A group that becomes active starts from the current pass, so it does not build up
+ * credit while idle.
+ *
+ * <p>A group may also limit the number of its tasks running at the same time. Tasks are added to a
+ * group with {@link TaskGroup#wrap(Runnable)}, which is needed to track running tasks. Tasks that
+ * are not wrapped belong to the default group, which has no limit. The executor should prestart
+ * its core threads, since a task handed directly to a new thread does not pass through the queue.
+ */
+public class WeightedFairQueue extends AbstractQueue<Runnable> implements BlockingQueue<Runnable> {
+  public static final String DEFAULT_GROUP = "_default";
+
+  private final int capacity;
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition taskAvailable = lock.newCondition();
+  private final Condition notFull = lock.newCondition();
+  private final Map<String, TaskGroup> groups = new ConcurrentHashMap<>();
+  private final TaskGroup defaultGroup;
+  // guarded by lock
+  private int count = 0;
+  private double currentPass = 0;
+
+  /**
+   * Constructor.
+   *
+   * @param capacity max number of queued tasks, across all groups
+   * @param defaultWeight weight of the default group
+   */
+  public WeightedFairQueue(int capacity, double defaultWeight) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("capacity must be > 0");
+    }
+    this.capacity = capacity;
+    this.defaultGroup = getGroup(DEFAULT_GROUP, defaultWeight, 0);
+  }
+
+  /**
+   * Get a task group, creating it if needed. The weight and thread limit are only used when the
+   * group is created.
+   *
+   * @param name group name
+   * @param weight scheduling weight
+   * @param maxThreads max running tasks for the group, or 0 for no limit
+   * @return task group
+   */
+  public TaskGroup getGroup(String name, double weight, int maxThreads) {
+    if (weight <= 0) {
+      throw new IllegalArgumentException("weight must be > 0");
+    }
+    return groups.computeIfAbsent(name, k -> new TaskGroup(name, weight, maxThreads));
+  }
+
+  /** Get all task groups. */
+  public Collection<TaskGroup> getGroups() {
+    return groups.values();
+  }
+
+  /** Group of tasks sharing a queue and scheduling weight. */
+  public class TaskGroup {
+    private final String name;
+    private final double weight;
+    private final int maxThreads;
+    // guarded by lock
+    private final ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+    private double pass;
+    private int active = 0;
+    private long completed = 0;
+
+    private TaskGroup(String name, double weight, int maxThreads) {
+      this.name = name;
+      this.weight = weight;
+      this.maxThreads = maxThreads;
+      lock.lock();
+      try {
+        this.pass = currentPass;
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public double getWeight() {
+      return weight;
+    }
+
+    public int getMaxThreads() {
+      return maxThreads;
+    }
+
+    /** Wrap a task, so that it belongs to this group when added to the queue. */
+    public Runnable wrap(Runnable task) {
+      return new GroupTask(this, task);
+    }
+
+    /** Get the number of queued tasks for this group. */
+    public int getQueueSize() {
+      lock.lock();
+      try {
+        return tasks.size();
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    /** Get the number of running tasks for this group. Not tracked for the default group. */
+    public int getActiveCount() {
+      lock.lock();
+      try {
+        return active;
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    /** Get the number of completed tasks for this group. Not tracked for the default group. */
+    public long getCompletedCount() {
+      lock.lock();
+      try {
+        return completed;
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private boolean canRun() {
+      return !tasks.isEmpty() && (maxThreads <= 0 || active < maxThreads);
+    }
+
+    private void taskStarted(GroupTask task) {
+      lock.lock();
+      try {
+        if (!task.counted) {
+          task.counted = true;
+          active++;
+        }
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private void taskDone() {
+      lock.lock();
+      try {
+        active--;
+        completed++;
+        if (!tasks.isEmpty()) {
+          taskAvailable.signal();
+        }
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+
+  /** Task wrapper that tracks the running tasks of its group. */
+  static class GroupTask implements Runnable {
+    private final TaskGroup group;
+    private final Runnable delegate;
+    // guarded by the queue lock, set when the task is counted as running
+    private boolean counted = false;
+
+    GroupTask(TaskGroup group, Runnable delegate) {
+      this.group = group;
+      this.delegate = delegate;
+    }
+
+    Runnable getDelegate() {
+      return delegate;
+    }
+
+    @Override
+    public void run() {
+      // tasks handed directly to a new pool thread are not taken from the queue
+      group.taskStarted(this);
+      try {
+        delegate.run();
+      } finally {
+        group.taskDone();
+      }
+    }
+  }
+
+  private TaskGroup groupOf(Runnable task) {
+    if (task instanceof QueueDelayThreadPoolExecutor.TimedRunnable timedRunnable) {
+      task = timedRunnable.delegate();
+    }
+    if (task instanceof GroupTask groupTask) {
+      return groupTask.group;
+    }
+    return defaultGroup;
+  }
+
+  private static GroupTask groupTaskOf(Runnable task) {
+    if (task instanceof QueueDelayThreadPoolExecutor.TimedRunnable timedRunnable) {
+      task = timedRunnable.delegate();
+    }
+    return task instanceof GroupTask groupTask ? groupTask : null;
+  }
+
+  /** Get the group to take the next task from, or null if no task can run. Lock must be held. */
+  private TaskGroup nextGroup() {
+    TaskGroup next = null;
+    for (TaskGroup group : groups.values()) {
+      if (group.canRun() && (next == null || group.pass < next.pass)) {
+        next = group;
+      }
+    }
+    return next;
+  }
+
+  /** Take the next task that can run, or null if there is none. Lock must be held. */
+  private Runnable dequeue() {
+    TaskGroup group = nextGroup();
+    if (group == null) {
+      return null;
+    }
+    Runnable task = group.tasks.poll();
+    currentPass = group.pass;
+    group.pass += 1.0 / group.weight;
+    count--;
+    GroupTask groupTask = groupTaskOf(task);
+    if (groupTask != null) {
+      groupTask.counted = true;
+      group.active++;
+    }
+    notFull.signal();
+    return task;
+  }
+
+  private void enqueue(Runnable task) {
+    TaskGroup group = groupOf(task);
+    if (group.tasks.isEmpty()) {
+      group.pass = Math.max(group.pass, currentPass);
+    }
+    group.tasks.add(task);
+    count++;
+    taskAvailable.signal();
+  }
+
+  @Override
+  public boolean offer(Runnable task) {
+    if (task == null) {
+      throw new NullPointerException();
+    }
+    lock.lock();
+    try {
+      if (count >= capacity) {
+        return false;
+      }
+      enqueue(task);
+      return true;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public boolean offer(Runnable task, long timeout, TimeUnit unit) throws InterruptedException {
+    if (task == null) {
+      throw new NullPointerException();
+    }
+    long nanos = unit.toNanos(timeout);
+    lock.lockInterruptibly();
+    try {
+      while (count >= capacity) {
+        if (nanos <= 0) {
+          return false;
+        }
+        nanos = notFull.awaitNanos(nanos);
+      }
+      enqueue(task);
+      return true;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void put(Runnable task) throws InterruptedException {
+    if (task == null) {
+      throw new NullPointerException();
+    }
+    lock.lockInterruptibly();
+    try {
+      while (count >= capacity) {
+        notFull.await();
+      }
+      enqueue(task);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public Runnable take() throws InterruptedException {
+    lock.lockInterruptibly();
+    try {
+      Runnable task;
+      while ((task = dequeue()) == null) {
+        taskAvailable.await();
+      }
+      return task;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public Runnable poll(long timeout, TimeUnit unit) throws InterruptedException {
+    long nanos = unit.toNanos(timeout);
+    lock.lockInterruptibly();
+    try {
+      Runnable task;
+      while ((task = dequeue()) == null) {
+        if (nanos <= 0) {
+          return null;
+        }
+        nanos = taskAvailable.awaitNanos(nanos);
+      }
+      return task;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public Runnable poll() {
+    lock.lock();
+    try {
+      return dequeue();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public Runnable peek() {
+    lock.lock();
+    try {
+      TaskGroup group = nextGroup();
+      return group == null ? null : group.tasks.peek();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public int size() {
+    lock.lock();
+    try {
+      return count;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public int remainingCapacity() {
+    lock.lock();
+    try {
+      return capacity - count;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public boolean remove(Object o) {
+    lock.lock();
+    try {
+      for (TaskGroup group : groups.values()) {
+        if (group.tasks.remove(o)) {
+          count--;
+          notFull.signal();
+          return true;
+        }
+      }
+      return false;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void clear() {
+    lock.lock();
+    try {
+      for (TaskGroup group : groups.values()) {
+        group.tasks.clear();
+      }
+      count = 0;
+      notFull.signalAll();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public int drainTo(Collection<? super Runnable> c) {
+    return drainTo(c, Integer.MAX_VALUE);
+  }
+
+  /** Drain queued tasks from all groups, ignoring group thread limits. */
+  @Override
+  public int drainTo(Collection<? super Runnable> c, int maxElements) {
+    if (c == this) {
+      throw new IllegalArgumentException();
+    }
+    lock.lock();
+    try {
+      int drained = 0;
+      for (TaskGroup group : groups.values()) {
+        while (drained < maxElements && !group.tasks.isEmpty()) {
+          c.add(group.tasks.poll());
+          drained++;
+        }
+      }
+      count -= drained;
+      notFull.signalAll();
+      return drained;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Iterator over a snapshot of the queued tasks. */
+  @Override
+  public Iterator<Runnable> iterator() {
+    List<Runnable> snapshot = new ArrayList<>();
+    lock.lock();
+    try {
+      for (TaskGroup group : groups.values()) {
+        snapshot.addAll(group.tasks);
+      }
+    } finally {
+      lock.unlock();
+    }
+    Iterator<Runnable> snapshotIterator = snapshot.iterator();
+    return new Iterator<>() {
+      private Runnable last;
+
+      @Override
+      public boolean hasNext() {
+        return snapshotIterator.hasNext();
+      }
+
+      @Override
+      public Runnable next() {
+        last = snapshotIterator.next();
+        return last;
+      }
+
+      @Override
+      public void remove() {
+        if (last == null) {
+          throw new IllegalStateException();
+        }
+        WeightedFairQueue.this.remove(last);
+        last = null;
+      }
+    };
+  }
+}
@@ -20,11 +20,15 @@ public class FileCopyConfig {
   static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
   static final int DEFAULT_ACK_EVERY = 1000;
   static final int DEFAULT_MAX_IN_FLIGHT = 2000;
+  static final int DEFAULT_PARALLELISM = 1;
+  static final String DEFAULT_MAX_IN_FLIGHT_BYTES = "1GB";
 
   private final boolean ackedCopy;
   private final int chunkSize;
   private final int ackEvery;
   private final int maxInFlight;
+  private final int parallelism;
+  private final long maxInFlightBytes;
 
   /**
    * Create instance from provided configuration reader.
@@ -37,11 +41,20 @@ public class FileCopyConfig {
     int chunkSize = configReader.getInteger("FileCopyConfig.chunkSize", DEFAULT_CHUNK_SIZE);
     int ackEvery = configReader.getInteger("FileCopyConfig.ackEvery", DEFAULT_ACK_EVERY);
     int maxInFlight = configReader.getInteger("FileCopyConfig.maxInFlight", DEFAULT_MAX_IN_FLIGHT);
-    return new FileCopyConfig(ackedCopy, chunkSize, ackEvery, maxInFlight);
+    int parallelism = configReader.getInteger("FileCopyConfig.parallelism", DEFAULT_PARALLELISM);
+    String maxInFlightBytes =
+        configReader.getString("FileCopyConfig.maxInFlightBytes", DEFAULT_MAX_IN_FLIGHT_BYTES);
+    return new FileCopyConfig(
+        ackedCopy,
+        chunkSize,
+        ackEvery,
+        maxInFlight,
+        parallelism,
+        QueryCacheConfig.sizeStrToBytes(maxInFlightBytes));
   }
 
   /**
-   * Constructor.
+   * Constructor, using the default copy parallelism.
    *
    * @param ackedCopy if acked file copy should be used
    * @param chunkSize file chunk size
@@ -49,13 +62,48 @@ public class FileCopyConfig {
    * @param maxInFlight maximum in flight chunks
    */
   public FileCopyConfig(boolean ackedCopy, int chunkSize, int ackEvery, int maxInFlight) {
+    this(
+        ackedCopy,
+        chunkSize,
+        ackEvery,
+        maxInFlight,
+        DEFAULT_PARALLELISM,
+        QueryCacheConfig.sizeStrToBytes(DEFAULT_MAX_IN_FLIGHT_BYTES));
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param ackedCopy if acked file copy should be used
+   * @param chunkSize file chunk size
+   * @param ackEvery chunks to send between acks
+   * @param maxInFlight maximum in flight chunks
+   * @param parallelism maximum number of files a replica copy job transfers concurrently
+   * @param maxInFlightBytes maximum total bytes of files being concurrently transferred by a copy
+   *     job
+   */
+  public FileCopyConfig(
+      boolean ackedCopy,
+      int chunkSize,
+      int ackEvery,
+      int maxInFlight,
+      int parallelism,
+      long maxInFlightBytes) {
     if (ackEvery > maxInFlight) {
       throw new IllegalArgumentException("ackEvery must be less than or equal to maxInFlight");
     }
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("parallelism must be >= 1");
+    }
+    if (maxInFlightBytes <= 0) {
+      throw new IllegalArgumentException("maxInFlightBytes must be > 0");
+    }
     this.ackedCopy = ackedCopy;
     this.chunkSize = chunkSize;
     this.ackEvery = ackEvery;
     this.maxInFlight = maxInFlight;
+    this.parallelism = parallelism;
+    this.maxInFlightBytes = maxInFlightBytes;
   }
 
   /** Get if acked copy should be used. */
@@ -77,4 +125,14 @@ public class FileCopyConfig {
   public int getMaxInFlight() {
     return maxInFlight;
   }
+
+  /** Get maximum number of files a replica copy job transfers concurrently. */
+  public int getParallelism() {
+    return parallelism;
+  }
+
+  /** Get maximum total bytes of the files being concurrently transferred by a copy job. */
+  public long getMaxInFlightBytes() {
+    return maxInFlightBytes;
+  }
 }
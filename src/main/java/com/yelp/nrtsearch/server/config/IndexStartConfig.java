@@ -22,6 +22,8 @@ import java.util.Objects;
 public class IndexStartConfig {
   public static final String CONFIG_PREFIX = "indexStartConfig.";
   public static final String PRIMARY_DISCOVERY_PREFIX = "primaryDiscovery.";
+  static final int DEFAULT_PARALLELISM = 1;
+  static final String DEFAULT_MAX_DOWNLOAD_RATE = "0";
 
   public enum IndexDataLocationType {
     LOCAL,
@@ -34,6 +36,8 @@ public class IndexStartConfig {
   private final Integer discoveryPort;
   private final String discoveryFile;
   private final IndexDataLocationType dataLocationType;
+  private final int parallelism;
+  private final long maxDownloadBytesPerSecond;
 
   /**
    * Create instance from provided configuration reader.
@@ -54,8 +58,18 @@ public class IndexStartConfig {
     IndexDataLocationType dataLocationType =
         IndexDataLocationType.valueOf(
             configReader.getString(CONFIG_PREFIX + "dataLocationType", "LOCAL"));
+    int parallelism = configReader.getInteger(CONFIG_PREFIX + "parallelism", DEFAULT_PARALLELISM);
+    String maxDownloadRate =
+        configReader.getString(CONFIG_PREFIX + "maxDownloadRate", DEFAULT_MAX_DOWNLOAD_RATE);
     return new IndexStartConfig(
-        autoStart, mode, discoveryHost, discoveryPort, discoveryFile, dataLocationType);
+        autoStart,
+        mode,
+        discoveryHost,
+        discoveryPort,
+        discoveryFile,
+        dataLocationType,
+        parallelism,
+        QueryCacheConfig.sizeStrToBytes(maxDownloadRate));
   }
 
   /**
@@ -75,12 +89,53 @@ public class IndexStartConfig {
       Integer discoveryPort,
       String discoveryFile,
       IndexDataLocationType dataLocationType) {
+    this(
+        autoStart,
+        mode,
+        discoveryHost,
+        discoveryPort,
+        discoveryFile,
+        dataLocationType,
+        DEFAULT_PARALLELISM,
+        0);
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param autoStart if indices should be automatically started
+   * @param mode mode to start indices in
+   * @param discoveryHost primary host address
+   * @param discoveryPort primary host replication port
+   * @param discoveryFile file containing primary host/port
+   * @param dataLocationType where index data is present
+   * @param parallelism max number of indices to start concurrently
+   * @param maxDownloadBytesPerSecond limit on the total rate of index data downloads from the
+   *     remote backend, or 0 for no limit
+   */
+  public IndexStartConfig(
+      boolean autoStart,
+      Mode mode,
+      String discoveryHost,
+      Integer discoveryPort,
+      String discoveryFile,
+      IndexDataLocationType dataLocationType,
+      int parallelism,
+      long maxDownloadBytesPerSecond) {
+    if (parallelism <= 0) {
+      throw new IllegalArgumentException("indexStartConfig.parallelism must be > 0");
+    }
+    if (maxDownloadBytesPerSecond < 0) {
+      throw new IllegalArgumentException("indexStartConfig.maxDownloadRate must be >= 0");
+    }
     this.autoStart = autoStart;
     this.mode = mode;
     this.discoveryHost = discoveryHost;
     this.discoveryPort = discoveryPort;
     this.discoveryFile = discoveryFile;
     this.dataLocationType = dataLocationType;
+    this.parallelism = parallelism;
+    this.maxDownloadBytesPerSecond = maxDownloadBytesPerSecond;
     // this limitation exists because we do not handle backup/restore of the taxonomy index
     // properly, which is only used in STANDALONE mode
     if (Mode.STANDALONE.equals(mode) && IndexDataLocationType.REMOTE.equals(dataLocationType)) {
@@ -117,4 +172,14 @@ public class IndexStartConfig {
   public IndexDataLocationType getDataLocationType() {
     return dataLocationType;
   }
+
+  /** Get max number of indices to start concurrently. */
+  public int getParallelism() {
+    return parallelism;
+  }
+
+  /** Get limit on the total rate of index data downloads, or 0 for no limit. */
+  public long getMaxDownloadBytesPerSecond() {
+    return maxDownloadBytesPerSecond;
+  }
 }
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2025 Yelp Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.yelp.nrtsearch.server.config;
+
+/** Configuration class for document indexing. */
+public class IndexingConfig {
+  static final String CONFIG_PREFIX = "indexingConfig.";
+  static final int DEFAULT_CONVERSION_BATCH_SIZE = 0;
+  static final int DEFAULT_MAX_IN_FLIGHT_CONVERSION_BATCHES =
+      Runtime.getRuntime().availableProcessors();
+  static final int DEFAULT_MAX_IN_FLIGHT_CHUNKS = Runtime.getRuntime().availableProcessors();
+  static final double DEFAULT_MAX_INDEX_QUEUE_UTILIZATION = 0.9;
+  static final double DEFAULT_MAX_WRITER_RAM_BUFFER_RATIO = 2.0;
+  static final long DEFAULT_PRESSURE_RECHECK_MS = 10;
+
+  private final int conversionBatchSize;
+  private final int maxInFlightConversionBatches;
+  private final boolean flowControl;
+  private final int maxInFlightChunks;
+  private final double maxIndexQueueUtilization;
+  private final double maxWriterRamBufferRatio;
+  private final long pressureRecheckMs;
+
+  /**
+   * Create instance from provided configuration reader.
+   *
+   * @param configReader config reader
+   * @return class instance
+   */
+  public static IndexingConfig fromConfig(YamlConfigReader configReader) {
+    int conversionBatchSize =
+        configReader.getInteger(
+            CONFIG_PREFIX + "conversionBatchSize", DEFAULT_CONVERSION_BATCH_SIZE);
+    int maxInFlightConversionBatches =
+        configReader.getInteger(
+            CONFIG_PREFIX + "maxInFlightConversionBatches",
+            DEFAULT_MAX_IN_FLIGHT_CONVERSION_BATCHES);
+    boolean flowControl = configReader.getBoolean(CONFIG_PREFIX + "flowControl", false);
+    int maxInFlightChunks =
+        configReader.getInteger(CONFIG_PREFIX + "maxInFlightChunks", DEFAULT_MAX_IN_FLIGHT_CHUNKS);
+    double maxIndexQueueUtilization =
+        configReader.getDouble(
+            CONFIG_PREFIX + "maxIndexQueueUtilization", DEFAULT_MAX_INDEX_QUEUE_UTILIZATION);
+    double maxWriterRamBufferRatio =
+        configReader.getDouble(
+            CONFIG_PREFIX + "maxWriterRamBufferRatio", DEFAULT_MAX_WRITER_RAM_BUFFER_RATIO);
+    long pressureRecheckMs =
+        configReader.getLong(CONFIG_PREFIX + "pressureRecheckMs", DEFAULT_PRESSURE_RECHECK_MS);
+    return new IndexingConfig(
+        conversionBatchSize,
+        maxInFlightConversionBatches,
+        flowControl,
+        maxInFlightChunks,
+        maxIndexQueueUtilization,
+        maxWriterRamBufferRatio,
+        pressureRecheckMs);
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param conversionBatchSize number of documents converted together by a conversion worker, or
+   *     0 to convert documents on the indexing thread
+   * @param maxInFlightConversionBatches maximum batches being converted ahead of the index writer
+   *     for a single indexing job
+   * @param flowControl if inbound flow control should be used for addDocuments streams
+   * @param maxInFlightChunks maximum indexing chunks submitted by a single addDocuments stream
+   *     before it stops reading messages
+   * @param maxIndexQueueUtilization fraction of the indexing thread pool queue that may be used
+   *     before addDocuments streams stop reading messages
+   * @param maxWriterRamBufferRatio multiple of the index ram buffer size that the IndexWriter may
+   *     use before addDocuments streams stop reading messages
+   * @param pressureRecheckMs interval to recheck indexing pressure for a paused stream
+   */
+  public IndexingConfig(
+      int conversionBatchSize,
+      int maxInFlightConversionBatches,
+      boolean flowControl,
+      int maxInFlightChunks,
+      double maxIndexQueueUtilization,
+      double maxWriterRamBufferRatio,
+      long pressureRecheckMs) {
+    if (conversionBatchSize < 0) {
+      throw new IllegalArgumentException("conversionBatchSize must be >= 0");
+    }
+    if (maxInFlightConversionBatches < 1) {
+      throw new IllegalArgumentException("maxInFlightConversionBatches must be >= 1");
+    }
+    if (maxInFlightChunks < 1) {
+      throw new IllegalArgumentException("maxInFlightChunks must be >= 1");
+    }
+    if (maxIndexQueueUtilization <= 0 || maxIndexQueueUtilization > 1) {
+      throw new IllegalArgumentException("maxIndexQueueUtilization must be in (0, 1]");
+    }
+    if (maxWriterRamBufferRatio <= 0) {
+      throw new IllegalArgumentException("maxWriterRamBufferRatio must be > 0");
+    }
+    if (pressureRecheckMs < 1) {
+      throw new IllegalArgumentException("pressureRecheckMs must be >= 1");
+    }
+    this.conversionBatchSize = conversionBatchSize;
+    this.maxInFlightConversionBatches = maxInFlightConversionBatches;
+    this.flowControl = flowControl;
+    this.maxInFlightChunks = maxInFlightChunks;
+    this.maxIndexQueueUtilization = maxIndexQueueUtilization;
+    this.maxWriterRamBufferRatio = maxWriterRamBufferRatio;
+    this.pressureRecheckMs = pressureRecheckMs;
+  }
+
+  /** Get if document conversion is done on the conversion thread pool. */
+  public boolean isParallelConversion() {
+    return conversionBatchSize > 0;
+  }
+
+  /** Get number of documents converted together by a conversion worker. */
+  public int getConversionBatchSize() {
+    return conversionBatchSize;
+  }
+
+  /** Get maximum batches being converted ahead of the index writer for a single indexing job. */
+  public int getMaxInFlightConversionBatches() {
+    return maxInFlightConversionBatches;
+  }
+
+  /** Get if inbound flow control should be used for addDocuments streams. */
+  public boolean getFlowControl() {
+    return flowControl;
+  }
+
+  /** Get maximum indexing chunks in flight for a single addDocuments stream. */
+  public int getMaxInFlightChunks() {
+    return maxInFlightChunks;
+  }
+
+  /** Get maximum utilization of the indexing thread pool queue before pausing streams. */
+  public double getMaxIndexQueueUtilization() {
+    return maxIndexQueueUtilization;
+  }
+
+  /** Get maximum IndexWriter ram usage, as a multiple of the ram buffer size, before pausing. */
+  public double getMaxWriterRamBufferRatio() {
+    return maxWriterRamBufferRatio;
+  }
+
+  /** Get interval to recheck indexing pressure for a paused stream. */
+  public long getPressureRecheckMs() {
+    return pressureRecheckMs;
+  }
+}
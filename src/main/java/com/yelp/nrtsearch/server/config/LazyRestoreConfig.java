@@ -0,0 +1,84 @@
+/*
+ * Copyright 2025 Yelp Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.yelp.nrtsearch.server.config;
+
+/**
+ * Class containing configuration for lazily restoring replica index data from the remote backend.
+ * When enabled, a replica starts without downloading the restored index files. Files are read in
+ * blocks from the remote backend on demand, while being fully downloaded in the background.
+ */
+public class LazyRestoreConfig {
+  private static final String CONFIG_PREFIX = "lazyRestore.";
+  static final String DEFAULT_BLOCK_SIZE = "1MB";
+  static final int DEFAULT_HYDRATION_THREADS = 4;
+
+  private final boolean enabled;
+  private final int blockSize;
+  private final int hydrationThreads;
+
+  /**
+   * Create instance from provided configuration reader.
+   *
+   * @param configReader config reader
+   * @return class instance
+   */
+  public static LazyRestoreConfig fromConfig(YamlConfigReader configReader) {
+    boolean enabled = configReader.getBoolean(CONFIG_PREFIX + "enabled", false);
+    String blockSize = configReader.getString(CONFIG_PREFIX + "blockSize", DEFAULT_BLOCK_SIZE);
+    int hydrationThreads =
+        configReader.getInteger(CONFIG_PREFIX + "hydrationThreads", DEFAULT_HYDRATION_THREADS);
+    long blockSizeBytes = QueryCacheConfig.sizeStrToBytes(blockSize);
+    if (blockSizeBytes > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("lazyRestore.blockSize must be < 2GB");
+    }
+    return new LazyRestoreConfig(enabled, (int) blockSizeBytes, hydrationThreads);
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param enabled if replicas should restore index data lazily
+   * @param blockSize size of blocks read from the remote backend
+   * @param hydrationThreads number of threads downloading files in the background, or 0 to only
+   *     download blocks on demand
+   */
+  public LazyRestoreConfig(boolean enabled, int blockSize, int hydrationThreads) {
+    if (blockSize <= 0) {
+      throw new IllegalArgumentException("lazyRestore.blockSize must be > 0");
+    }
+    if (hydrationThreads < 0) {
+      throw new IllegalArgumentException("lazyRestore.hydrationThreads must be >= 0");
+    }
+    this.enabled = enabled;
+    this.blockSize = blockSize;
+    this.hydrationThreads = hydrationThreads;
+  }
+
+  /** Get if replicas should restore index data lazily. */
+  public boolean getEnabled() {
+    return enabled;
+  }
+
+  /** Get size of blocks read from the remote backend. */
+  public int getBlockSize() {
+    return blockSize;
+  }
+
+  /** Get number of threads downloading files in the background. */
+  public int getHydrationThreads() {
+    return hydrationThreads;
+  }
+}
@@ -83,6 +83,7 @@ public class NrtsearchConfig {
   private final ThreadPoolConfiguration threadPoolConfiguration;
   private final IndexPreloadConfig preloadConfig;
   private final QueryCacheConfig queryCacheConfig;
+  private final RequestCacheConfig requestCacheConfig;
   private final WarmerConfig warmerConfig;
   private final boolean virtualSharding;
   private final boolean decInitialCommit;
@@ -91,8 +92,12 @@ public class NrtsearchConfig {
   private final long initialSyncMaxTimeMs;
   private final boolean indexVerbose;
   private final FileCopyConfig fileCopyConfig;
+  private final LazyRestoreConfig lazyRestoreConfig;
+  private final IndexingConfig indexingConfig;
   private final ScriptCacheConfig scriptCacheConfig;
   private final boolean deadlineCancellation;
+  private final boolean asyncSearcherVersionWait;
+  private final boolean parallelFacets;
   private final StateConfig stateConfig;
   private final IndexStartConfig indexStartConfig;
   private final int discoveryFileUpdateIntervalMs;
@@ -155,6 +160,7 @@ public class NrtsearchConfig {
     serviceName = configReader.getString("serviceName", DEFAULT_SERVICE_NAME);
     preloadConfig = IndexPreloadConfig.fromConfig(configReader);
     queryCacheConfig = QueryCacheConfig.fromConfig(configReader);
+    requestCacheConfig = RequestCacheConfig.fromConfig(configReader);
     warmerConfig = WarmerConfig.fromConfig(configReader);
     virtualSharding = configReader.getBoolean("virtualSharding", false);
     decInitialCommit = configReader.getBoolean("decInitialCommit", true);
@@ -165,9 +171,13 @@ public class NrtsearchConfig {
         configReader.getLong("initialSyncMaxTimeMs", DEFAULT_INITIAL_SYNC_MAX_TIME_MS);
     indexVerbose = configReader.getBoolean("indexVerbose", false);
     fileCopyConfig = FileCopyConfig.fromConfig(configReader);
+    lazyRestoreConfig = LazyRestoreConfig.fromConfig(configReader);
+    indexingConfig = IndexingConfig.fromConfig(configReader);
     threadPoolConfiguration = new ThreadPoolConfiguration(configReader);
     scriptCacheConfig = ScriptCacheConfig.fromConfig(configReader);
     deadlineCancellation = configReader.getBoolean("deadlineCancellation", true);
+    asyncSearcherVersionWait = configReader.getBoolean("asyncSearcherVersionWait", false);
+    parallelFacets = configReader.getBoolean("parallelFacets", true);
     stateConfig = StateConfig.fromConfig(configReader);
     indexStartConfig = IndexStartConfig.fromConfig(configReader);
     discoveryFileUpdateIntervalMs =
@@ -283,6 +293,10 @@ public class NrtsearchConfig {
     return queryCacheConfig;
   }
 
+  public RequestCacheConfig getRequestCacheConfig() {
+    return requestCacheConfig;
+  }
+
   public WarmerConfig getWarmerConfig() {
     return warmerConfig;
   }
@@ -315,6 +329,14 @@ public class NrtsearchConfig {
     return fileCopyConfig;
   }
 
+  public LazyRestoreConfig getLazyRestoreConfig() {
+    return lazyRestoreConfig;
+  }
+
+  public IndexingConfig getIndexingConfig() {
+    return indexingConfig;
+  }
+
   public YamlConfigReader getConfigReader() {
     return configReader;
   }
@@ -327,6 +349,22 @@ public class NrtsearchConfig {
     return deadlineCancellation;
   }
 
+  /**
+   * Get if search requests for a searcher version that is not yet visible should be parked until a
+   * refresh exposes the version, instead of blocking a server thread.
+   */
+  public boolean getAsyncSearcherVersionWait() {
+    return asyncSearcherVersionWait;
+  }
+
+  /**
+   * Get if doc values and script facet counts should be computed for each segment in parallel,
+   * using the search executor.
+   */
+  public boolean getParallelFacets() {
+    return parallelFacets;
+  }
+
   public StateConfig getStateConfig() {
     return stateConfig;
   }
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2025 Yelp Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.yelp.nrtsearch.server.config;
+
+/**
+ * Class containing configuration for the shard request cache, which caches complete search
+ * responses for a searcher version. Requests only use the cache when enabled by the request, or the
+ * index live settings.
+ */
+public class RequestCacheConfig {
+  private static final String CONFIG_PREFIX = "requestCache.";
+  static final String DEFAULT_MAX_MEMORY = "64MB";
+  static final String DEFAULT_MAX_ENTRY_SIZE = "1MB";
+
+  private final boolean enabled;
+  private final long maxMemoryBytes;
+  private final long maxEntryBytes;
+
+  /**
+   * Create instance from provided configuration reader.
+   *
+   * @param configReader config reader
+   * @return class instance
+   */
+  public static RequestCacheConfig fromConfig(YamlConfigReader configReader) {
+    boolean enabled = configReader.getBoolean(CONFIG_PREFIX + "enabled", true);
+    String maxMemory = configReader.getString(CONFIG_PREFIX + "maxMemory", DEFAULT_MAX_MEMORY);
+    String maxEntrySize =
+        configReader.getString(CONFIG_PREFIX + "maxEntrySize", DEFAULT_MAX_ENTRY_SIZE);
+    return new RequestCacheConfig(
+        enabled,
+        QueryCacheConfig.sizeStrToBytes(maxMemory),
+        QueryCacheConfig.sizeStrToBytes(maxEntrySize));
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param enabled toggle for enabling request cache
+   * @param maxMemoryBytes maximum cache memory size
+   * @param maxEntryBytes maximum size of a single cached response
+   */
+  public RequestCacheConfig(boolean enabled, long maxMemoryBytes, long maxEntryBytes) {
+    if (maxMemoryBytes <= 0) {
+      throw new IllegalArgumentException("requestCache.maxMemory must be > 0");
+    }
+    if (maxEntryBytes <= 0) {
+      throw new IllegalArgumentException("requestCache.maxEntrySize must be > 0");
+    }
+    this.enabled = enabled;
+    this.maxMemoryBytes = maxMemoryBytes;
+    this.maxEntryBytes = maxEntryBytes;
+  }
+
+  /** Get if request cache is enabled. */
+  public boolean getEnabled() {
+    return enabled;
+  }
+
+  /** Get maximum memory to use for cache. */
+  public long getMaxMemoryBytes() {
+    return maxMemoryBytes;
+  }
+
+  /** Get maximum size of a single cached response. */
+  public long getMaxEntryBytes() {
+    return maxEntryBytes;
+  }
+}
@@ -18,12 +18,20 @@ package com.yelp.nrtsearch.server.config;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.yelp.nrtsearch.server.concurrent.ExecutorFactory;
 import com.yelp.nrtsearch.server.utils.JsonUtils;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /** Configuration for various ThreadPool Settings used in nrtsearch */
 public class ThreadPoolConfiguration {
   public static final String CONFIG_PREFIX = "threadPoolConfiguration.";
+  public static final String ADMISSION_CONTROL_PREFIX = CONFIG_PREFIX + "admissionControl.";
+  public static final String INDEX_ISOLATION_PREFIX = CONFIG_PREFIX + "indexIsolation.";
 
   private static final int AVAILABLE_PROCESSORS = Runtime.getRuntime().availableProcessors();
   public static final int DEFAULT_SEARCHING_THREADS = ((AVAILABLE_PROCESSORS * 3) / 2) + 1;
@@ -54,14 +62,89 @@ public class ThreadPoolConfiguration {
   public static final int DEFAULT_VECTOR_MERGE_BUFFERED_ITEMS =
       Math.max(100, 2 * DEFAULT_VECTOR_MERGE_THREADS);
 
+  public static final int DEFAULT_DOCUMENT_CONVERSION_THREADS = AVAILABLE_PROCESSORS;
+  public static final int DEFAULT_DOCUMENT_CONVERSION_BUFFERED_ITEMS =
+      Math.max(200, 2 * DEFAULT_DOCUMENT_CONVERSION_THREADS);
+
+  public static final int DEFAULT_VIRTUAL_THREADS = 1024;
+
+  // executors that run grpc handlers, which spend much of their time blocked
+  private static final Set<ExecutorFactory.ExecutorType> VIRTUAL_THREAD_EXECUTORS =
+      EnumSet.of(
+          ExecutorFactory.ExecutorType.SERVER,
+          ExecutorFactory.ExecutorType.REPLICATIONSERVER,
+          ExecutorFactory.ExecutorType.GRPC,
+          ExecutorFactory.ExecutorType.METRICS);
+
+  public static final long DEFAULT_ADMISSION_TARGET_DELAY_MS = 5;
+  public static final long DEFAULT_ADMISSION_INTERVAL_MS = 100;
+
   /**
    * Settings for a {@link ExecutorFactory.ExecutorType}.
    *
-   * @param maxThreads max number of threads
+   * @param maxThreads max number of threads, which limits concurrent tasks when using virtual
+   *     threads
    * @param maxBufferedItems max number of buffered items
    * @param threadNamePrefix prefix for thread names
+   * @param virtualThreads if tasks run on virtual threads
+   */
+  public record ThreadPoolSettings(
+      int maxThreads, int maxBufferedItems, String threadNamePrefix, boolean virtualThreads) {
+
+    public ThreadPoolSettings(int maxThreads, int maxBufferedItems, String threadNamePrefix) {
+      this(maxThreads, maxBufferedItems, threadNamePrefix, false);
+    }
+  }
+
+  /**
+   * Settings for sharing the search and fetch executors fairly between indices.
+   *
+   * @param enabled if tasks are scheduled by weighted fair queuing across index groups
+   * @param defaultWeight scheduling weight of indices not in a configured group, each of which is
+   *     its own group
+   * @param groups configured index groups
+   */
+  public record IndexIsolationSettings(
+      boolean enabled, double defaultWeight, List<IndexGroupSettings> groups) {
+
+    /**
+     * Get the settings for the group containing an index. If the index is not in a configured
+     * group, it is in its own group with the default weight.
+     *
+     * @param indexName index name
+     * @return group settings
+     */
+    public IndexGroupSettings getGroupForIndex(String indexName) {
+      for (IndexGroupSettings group : groups) {
+        if (group.indices().contains(indexName)) {
+          return group;
+        }
+      }
+      return new IndexGroupSettings(indexName, List.of(indexName), defaultWeight, 0);
+    }
+  }
+
+  /**
+   * Settings for a group of indices that share scheduling in the search and fetch executors.
+   *
+   * @param name group name
+   * @param indices names of indices in the group
+   * @param weight scheduling weight, a group receives executor threads in proportion to its weight
+   *     when other groups also have queued tasks
+   * @param maxThreads max executor threads running group tasks at the same time, or 0 for no limit
    */
-  public record ThreadPoolSettings(int maxThreads, int maxBufferedItems, String threadNamePrefix) {}
+  public record IndexGroupSettings(
+      String name, List<String> indices, double weight, int maxThreads) {}
+
+  /**
+   * Settings for queue delay based admission control of requests.
+   *
+   * @param enabled if requests may be shed when executor queue delay exceeds their deadline
+   * @param targetDelayMs acceptable queue delay, an executor is overloaded when the minimum queue
+   *     delay over an interval is above this value
+   * @param intervalMs interval over which the minimum queue delay is measured
+   */
+  public record AdmissionControlSettings(boolean enabled, long targetDelayMs, long intervalMs) {}
 
   private static final Map<ExecutorFactory.ExecutorType, ThreadPoolSettings>
       defaultThreadPoolSettings =
@@ -97,18 +180,35 @@ public class ThreadPoolConfiguration {
               new ThreadPoolSettings(
                   DEFAULT_VECTOR_MERGE_THREADS,
                   DEFAULT_VECTOR_MERGE_BUFFERED_ITEMS,
-                  "VectorMergeExecutor"));
+                  "VectorMergeExecutor"),
+              ExecutorFactory.ExecutorType.DOCUMENTCONVERSION,
+              new ThreadPoolSettings(
+                  DEFAULT_DOCUMENT_CONVERSION_THREADS,
+                  DEFAULT_DOCUMENT_CONVERSION_BUFFERED_ITEMS,
+                  "DocumentConversionExecutor"));
 
   private final Map<ExecutorFactory.ExecutorType, ThreadPoolSettings> threadPoolSettings;
+  private final AdmissionControlSettings admissionControlSettings;
+  private final IndexIsolationSettings indexIsolationSettings;
 
   public ThreadPoolConfiguration(YamlConfigReader configReader) {
     threadPoolSettings = new HashMap<>();
     for (ExecutorFactory.ExecutorType executorType : ExecutorFactory.ExecutorType.values()) {
       ThreadPoolSettings defaultSettings = defaultThreadPoolSettings.get(executorType);
       String poolConfigPrefix = CONFIG_PREFIX + executorType.name().toLowerCase() + ".";
+      boolean virtualThreads = configReader.getBoolean(poolConfigPrefix + "virtualThreads", false);
+      if (virtualThreads && !VIRTUAL_THREAD_EXECUTORS.contains(executorType)) {
+        throw new IllegalArgumentException(
+            "Virtual threads are not supported for executor: "
+                + executorType.name().toLowerCase()
+                + ", must be one of: "
+                + VIRTUAL_THREAD_EXECUTORS);
+      }
       int maxThreads =
           getNumThreads(
-              configReader, poolConfigPrefix + "maxThreads", defaultSettings.maxThreads());
+              configReader,
+              poolConfigPrefix + "maxThreads",
+              virtualThreads ? DEFAULT_VIRTUAL_THREADS : defaultSettings.maxThreads());
       int maxBufferedItems =
           configReader.getInteger(
               poolConfigPrefix + "maxBufferedItems", defaultSettings.maxBufferedItems());
@@ -116,7 +216,91 @@ public class ThreadPoolConfiguration {
           configReader.getString(
               poolConfigPrefix + "threadNamePrefix", defaultSettings.threadNamePrefix());
       threadPoolSettings.put(
-          executorType, new ThreadPoolSettings(maxThreads, maxBufferedItems, threadNamePrefix));
+          executorType,
+          new ThreadPoolSettings(maxThreads, maxBufferedItems, threadNamePrefix, virtualThreads));
+    }
+
+    boolean admissionEnabled = configReader.getBoolean(ADMISSION_CONTROL_PREFIX + "enabled", false);
+    long targetDelayMs =
+        configReader.getLong(
+            ADMISSION_CONTROL_PREFIX + "targetDelayMs", DEFAULT_ADMISSION_TARGET_DELAY_MS);
+    long intervalMs =
+        configReader.getLong(
+            ADMISSION_CONTROL_PREFIX + "intervalMs", DEFAULT_ADMISSION_INTERVAL_MS);
+    if (targetDelayMs < 0) {
+      throw new IllegalArgumentException("admissionControl.targetDelayMs must be >= 0");
+    }
+    if (intervalMs <= 0) {
+      throw new IllegalArgumentException("admissionControl.intervalMs must be > 0");
+    }
+    admissionControlSettings =
+        new AdmissionControlSettings(admissionEnabled, targetDelayMs, intervalMs);
+    indexIsolationSettings = readIndexIsolationSettings(configReader);
+  }
+
+  private static IndexIsolationSettings readIndexIsolationSettings(YamlConfigReader configReader) {
+    boolean enabled = configReader.getBoolean(INDEX_ISOLATION_PREFIX + "enabled", false);
+    double defaultWeight = configReader.getDouble(INDEX_ISOLATION_PREFIX + "defaultWeight", 1.0);
+    if (defaultWeight <= 0) {
+      throw new IllegalArgumentException("indexIsolation.defaultWeight must be > 0");
+    }
+    List<IndexGroupConfig> groupConfigs =
+        configReader.getList(
+            INDEX_ISOLATION_PREFIX + "groups",
+            obj -> JsonUtils.convertValue(obj, IndexGroupConfig.class),
+            Collections.emptyList());
+    List<IndexGroupSettings> groups = new ArrayList<>();
+    Set<String> groupNames = new HashSet<>();
+    Set<String> groupIndices = new HashSet<>();
+    for (IndexGroupConfig groupConfig : groupConfigs) {
+      if (groupConfig.name == null || groupConfig.name.isEmpty()) {
+        throw new IllegalArgumentException("Index group name must be set");
+      }
+      if (!groupNames.add(groupConfig.name)) {
+        throw new IllegalArgumentException("Duplicate index group name: " + groupConfig.name);
+      }
+      for (String index : groupConfig.indices) {
+        if (!groupIndices.add(index)) {
+          throw new IllegalArgumentException("Index is in multiple groups: " + index);
+        }
+      }
+      groups.add(
+          new IndexGroupSettings(
+              groupConfig.name,
+              List.copyOf(groupConfig.indices),
+              groupConfig.weight,
+              groupConfig.maxThreads));
+    }
+    return new IndexIsolationSettings(enabled, defaultWeight, List.copyOf(groups));
+  }
+
+  @JsonIgnoreProperties(ignoreUnknown = true)
+  static class IndexGroupConfig {
+    private String name;
+    private List<String> indices = Collections.emptyList();
+    private double weight = 1.0;
+    private int maxThreads = 0;
+
+    public void setName(String name) {
+      this.name = name;
+    }
+
+    public void setIndices(List<String> indices) {
+      this.indices = indices;
+    }
+
+    public void setWeight(double weight) {
+      if (weight <= 0) {
+        throw new IllegalArgumentException("weight must be > 0");
+      }
+      this.weight = weight;
+    }
+
+    public void setMaxThreads(int maxThreads) {
+      if (maxThreads < 0) {
+        throw new IllegalArgumentException("maxThreads must be >= 0");
+      }
+      this.maxThreads = maxThreads;
     }
   }
 
@@ -176,4 +360,12 @@ public class ThreadPoolConfiguration {
   public ThreadPoolSettings getThreadPoolSettings(ExecutorFactory.ExecutorType executorType) {
     return threadPoolSettings.get(executorType);
   }
+
+  public AdmissionControlSettings getAdmissionControlSettings() {
+    return admissionControlSettings;
+  }
+
+  public IndexIsolationSettings getIndexIsolationSettings() {
+    return indexIsolationSettings;
+  }
 }
@@ -60,12 +60,17 @@ import org.apache.lucene.util.NumericUtils;
  * no values for the field. All implementations throw an IndexOutOfBoundsException when trying to
  * access an invalid index.
  *
+ * <p>Numeric implementations also provide primitive accessors ({@link #getInt(int)}, {@link
+ * #getLong(int)}, {@link #getFloat(int)}, {@link #getDouble(int)}) that read values without boxing.
+ * These should be preferred over {@link #get(int)} in code that runs for every document, such as
+ * scripts and collectors. Accessors for types that cannot be represented without loss of precision
+ * throw an UnsupportedOperationException.
+ *
  * @param <T> the loaded doc values type. This could be a simple boxed primitive, or something more
  *     complex like a {@link GeoPoint}.
  */
 public abstract class LoadedDocValues<T> extends AbstractList<T> {
   // long decoders
-  private static final LongFunction<Instant> DATE_DECODER = Instant::ofEpochMilli;
   private static final LongFunction<GeoPoint> GEO_POINT_DECODER =
       (longValue) ->
           new GeoPoint(
@@ -81,6 +86,56 @@ public abstract class LoadedDocValues<T> extends AbstractList<T> {
 
   public abstract SearchResponse.Hit.FieldValue toFieldValue(int index);
 
+  /**
+   * Get the value at the given index as a primitive int.
+   *
+   * @param index value index
+   * @return int value
+   * @throws UnsupportedOperationException if the values cannot be read as an int
+   */
+  public int getInt(int index) {
+    throw unsupportedAccessor("int");
+  }
+
+  /**
+   * Get the value at the given index as a primitive long. Date time values are provided as epoch
+   * milliseconds.
+   *
+   * @param index value index
+   * @return long value
+   * @throws UnsupportedOperationException if the values cannot be read as a long
+   */
+  public long getLong(int index) {
+    throw unsupportedAccessor("long");
+  }
+
+  /**
+   * Get the value at the given index as a primitive float.
+   *
+   * @param index value index
+   * @return float value
+   * @throws UnsupportedOperationException if the values cannot be read as a float
+   */
+  public float getFloat(int index) {
+    throw unsupportedAccessor("float");
+  }
+
+  /**
+   * Get the value at the given index as a primitive double.
+   *
+   * @param index value index
+   * @return double value
+   * @throws UnsupportedOperationException if the values cannot be read as a double
+   */
+  public double getDouble(int index) {
+    throw unsupportedAccessor("double");
+  }
+
+  private UnsupportedOperationException unsupportedAccessor(String type) {
+    return new UnsupportedOperationException(
+        getClass().getSimpleName() + " values cannot be accessed as " + type);
+  }
+
   public abstract static class SingleNumericValue<T> extends LoadedDocValues<T> {
     private final NumericDocValues docValues;
     private final LongFunction<T> decoder;
@@ -189,6 +244,7 @@ public abstract class LoadedDocValues<T> extends AbstractList<T> {
       return getInt(index);
     }
 
+    @Override
     public int getInt(int index) {
       if (!isSet) {
         throw new IllegalStateException("No doc values for document");
@@ -198,6 +254,16 @@ public abstract class LoadedDocValues<T> extends AbstractList<T> {
       return value;
     }
 
+    @Override
+    public long getLong(int index) {
+      return getInt(index);
+    }
+
+    @Override
+    public double getDouble(int index) {
+      return getInt(index);
+    }
+
     @Override
     public int size() {
       return isSet ? 1 : 0;
@@ -238,6 +304,7 @@ public abstract class LoadedDocValues<T> extends AbstractList<T> {
       return getLong(index);
     }
 
+    @Override
     public long getLong(int index) {
       if (!isSet) {
         throw new IllegalStateException("No doc values for document");
@@ -247,6 +314,11 @@ public abstract class LoadedDocValues<T> extends AbstractList<T> {
       return value;
     }
 
+    @Override
+    public double getDouble(int index) {
+      return getLong(index);
+    }
+
     @Override
     public int size() {
       return isSet ? 1 : 0;
@@ -287,6 +359,7 @@ public abstract class LoadedDocValues<T> extends AbstractList<T> {
       return getFloat(index);
     }
 
+    @Override
     public float getFloat(int index) {
       if (!isSet) {
         throw new IllegalStateException("No doc values for document");
@@ -296,6 +369,11 @@ public abstract class LoadedDocValues<T> extends AbstractList<T> {
       return value;
     }
 
+    @Override
+    public double getDouble(int index) {
+      return getFloat(index);
+    }
+
     @Override
     public int size() {
       return isSet ? 1 : 0;
@@ -336,6 +414,7 @@ public abstract class LoadedDocValues<T> extends AbstractList<T> {
       return getDouble(index);
     }
 
+    @Override
     public double getDouble(int index) {
       if (!isSet) {
         throw new IllegalStateException("No doc values for document");
@@ -360,9 +439,44 @@ public abstract class LoadedDocValues<T> extends AbstractList<T> {
     }
   }
 
-  public static final class SingleDateTime extends SingleNumericValue<Instant> {
+  public static final class SingleDateTime extends LoadedDocValues<Instant> {
+    private final NumericDocValues docValues;
+    private long value;
+    private boolean isSet;
+
     public SingleDateTime(NumericDocValues docValues) {
-      super(docValues, DATE_DECODER);
+      this.docValues = docValues;
+      this.isSet = false;
+    }
+
+    @Override
+    public void setDocId(int docID) throws IOException {
+      if (docValues.advanceExact(docID)) {
+        value = docValues.longValue();
+        isSet = true;
+      } else {
+        isSet = false;
+      }
+    }
+
+    @Override
+    public Instant get(int index) {
+      return Instant.ofEpochMilli(getLong(index));
+    }
+
+    @Override
+    public long getLong(int index) {
+      if (!isSet) {
+        throw new IllegalStateException("No doc values for document");
+      } else if (index != 0) {
+        throw new IndexOutOfBoundsException("No doc value for index: " + index);
+      }
+      return value;
+    }
+
+    @Override
+    public int size() {
+      return isSet ? 1 : 0;
     }
 
     public Instant getValue() {
@@ -371,8 +485,7 @@ public abstract class LoadedDocValues<T> extends AbstractList<T> {
 
     @Override
     public SearchResponse.Hit.FieldValue toFieldValue(int index) {
-      long epochMs = get(index).toEpochMilli();
-      return SearchResponse.Hit.FieldValue.newBuilder().setLongValue(epochMs).build();
+      return SearchResponse.Hit.FieldValue.newBuilder().setLongValue(getLong(index)).build();
     }
   }
 
@@ -508,6 +621,7 @@ public abstract class LoadedDocValues<T> extends AbstractList<T> {
       return getInt(index);
     }
 
+    @Override
     public int getInt(int index) {
       if (size == 0) {
         throw new IllegalStateException("No doc values for document");
@@ -517,6 +631,16 @@ public abstract class LoadedDocValues<T> extends AbstractList<T> {
       return values[index];
     }
 
+    @Override
+    public long getLong(int index) {
+      return getInt(index);
+    }
+
+    @Override
+    public double getDouble(int index) {
+      return getInt(index);
+    }
+
     @Override
     public int size() {
       return size;
@@ -560,6 +684,7 @@ public abstract class LoadedDocValues<T> extends AbstractList<T> {
       return getLong(index);
     }
 
+    @Override
     public long getLong(int index) {
       if (size == 0) {
         throw new IllegalStateException("No doc values for document");
@@ -569,6 +694,11 @@ public abstract class LoadedDocValues<T> extends AbstractList<T> {
       return values[index];
     }
 
+    @Override
+    public double getDouble(int index) {
+      return getLong(index);
+    }
+
     @Override
     public int size() {
       return size;
@@ -612,6 +742,7 @@ public abstract class LoadedDocValues<T> extends AbstractList<T> {
       return getFloat(index);
     }
 
+    @Override
     public float getFloat(int index) {
       if (size == 0) {
         throw new IllegalStateException("No doc values for document");
@@ -621,6 +752,11 @@ public abstract class LoadedDocValues<T> extends AbstractList<T> {
       return values[index];
     }
 
+    @Override
+    public double getDouble(int index) {
+      return getFloat(index);
+    }
+
     @Override
     public int size() {
       return size;
@@ -664,6 +800,7 @@ public abstract class LoadedDocValues<T> extends AbstractList<T> {
       return getDouble(index);
     }
 
+    @Override
     public double getDouble(int index) {
       if (size == 0) {
         throw new IllegalStateException("No doc values for document");
@@ -735,9 +872,47 @@ public abstract class LoadedDocValues<T> extends AbstractList<T> {
     }
   }
 
-  public static final class SortedDateTimes extends SortedNumericValues<Instant> {
+  public static final class SortedDateTimes extends LoadedDocValues<Instant> {
+    private final SortedNumericDocValues docValues;
+    private long[] values = new long[0];
+    private int size;
+
     public SortedDateTimes(SortedNumericDocValues docValues) {
-      super(docValues, DATE_DECODER);
+      this.docValues = docValues;
+      this.size = 0;
+    }
+
+    @Override
+    public void setDocId(int docID) throws IOException {
+      if (docValues.advanceExact(docID)) {
+        size = docValues.docValueCount();
+        values = ArrayUtil.grow(values, size);
+        for (int i = 0; i < size; ++i) {
+          values[i] = docValues.nextValue();
+        }
+      } else {
+        size = 0;
+      }
+    }
+
+    @Override
+    public Instant get(int index) {
+      return Instant.ofEpochMilli(getLong(index));
+    }
+
+    @Override
+    public long getLong(int index) {
+      if (size == 0) {
+        throw new IllegalStateException("No doc values for document");
+      } else if (index < 0 || index >= size) {
+        throw new IndexOutOfBoundsException("No doc value for index: " + index);
+      }
+      return values[index];
+    }
+
+    @Override
+    public int size() {
+      return size;
     }
 
     public Instant getValue() {
@@ -746,8 +921,7 @@ public abstract class LoadedDocValues<T> extends AbstractList<T> {
 
     @Override
     public SearchResponse.Hit.FieldValue toFieldValue(int index) {
-      long epochMs = get(index).toEpochMilli();
-      return SearchResponse.Hit.FieldValue.newBuilder().setLongValue(epochMs).build();
+      return SearchResponse.Hit.FieldValue.newBuilder().setLongValue(getLong(index)).build();
     }
   }
 
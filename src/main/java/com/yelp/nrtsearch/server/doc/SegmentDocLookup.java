@@ -31,13 +31,15 @@ import org.apache.lucene.index.LeafReaderContext;
  * accessed through the Map interface, with each field name mapping to its {@link LoadedDocValues}.
  *
  * <p>The {@link LoadedDocValues} for each field are cached and can be reused for all subsequent
- * documents in the segment.
+ * documents in the segment. Code that reads the same fields for every document may instead resolve
+ * a {@link FieldHandle} once with {@link #getFieldHandle(String)}, which avoids the field name
+ * lookup on each access.
  */
 public class SegmentDocLookup implements Map<String, LoadedDocValues<?>> {
 
   private final Function<String, FieldDef> fieldDefLookup;
   private final LeafReaderContext context;
-  private final Map<String, LoadedDocValues<?>> loaderCache = new HashMap<>();
+  private final Map<String, FieldHandle> handleCache = new HashMap<>();
 
   private int docId = -1;
 
@@ -105,9 +107,23 @@ public class SegmentDocLookup implements Map<String, LoadedDocValues<?>> {
   @Override
   public LoadedDocValues<?> get(Object key) {
     Objects.requireNonNull(key);
-    String fieldName = key.toString();
-    LoadedDocValues<?> docValues = loaderCache.get(fieldName);
-    if (docValues == null) {
+    return getFieldHandle(key.toString()).getDocValues();
+  }
+
+  /**
+   * Get a handle to the doc values of a field in this segment. The handle is resolved once, and
+   * always provides the values for the current set document id.
+   *
+   * @param fieldName field name
+   * @return handle for the field doc values
+   * @throws IllegalArgumentException if the field does not support doc values, or if the field
+   *     does not exist in the index
+   * @throws NullPointerException if fieldName is null
+   */
+  public FieldHandle getFieldHandle(String fieldName) {
+    Objects.requireNonNull(fieldName);
+    FieldHandle handle = handleCache.get(fieldName);
+    if (handle == null) {
       FieldDef fieldDef = fieldDefLookup.apply(fieldName);
       if (fieldDef == null) {
         throw new IllegalArgumentException("Field does not exist: " + fieldName);
@@ -116,19 +132,82 @@ public class SegmentDocLookup implements Map<String, LoadedDocValues<?>> {
         throw new IllegalArgumentException("Field cannot have doc values: " + fieldName);
       }
       try {
-        docValues = indexableFieldDef.getDocValues(context);
+        handle = new FieldHandle(fieldName, indexableFieldDef.getDocValues(context));
       } catch (IOException e) {
         throw new IllegalArgumentException("Could not get doc values for field: " + fieldName, e);
       }
-      loaderCache.put(fieldName, docValues);
+      handleCache.put(fieldName, handle);
     }
-    try {
-      docValues.setDocId(docId);
-    } catch (IOException e) {
-      throw new IllegalArgumentException(
-          "Could not set doc: " + docId + ", field: " + fieldName, e);
+    return handle;
+  }
+
+  /**
+   * Pre-resolved access to the doc values of a single field. The values are only advanced when
+   * accessed after the document id of the lookup changes, so a field may be read any number of
+   * times per document. The primitive accessors read numeric values without boxing.
+   */
+  public final class FieldHandle {
+    private final String fieldName;
+    private final LoadedDocValues<?> docValues;
+    private int loadedDocId = -1;
+
+    private FieldHandle(String fieldName, LoadedDocValues<?> docValues) {
+      this.fieldName = fieldName;
+      this.docValues = docValues;
+    }
+
+    /** Get the field name. */
+    public String getFieldName() {
+      return fieldName;
+    }
+
+    /**
+     * Get the field doc values, loaded for the current document.
+     *
+     * @throws IllegalArgumentException if there is a problem setting the target doc id
+     */
+    public LoadedDocValues<?> getDocValues() {
+      if (loadedDocId != docId) {
+        try {
+          docValues.setDocId(docId);
+        } catch (IOException e) {
+          throw new IllegalArgumentException(
+              "Could not set doc: " + docId + ", field: " + fieldName, e);
+        }
+        loadedDocId = docId;
+      }
+      return docValues;
+    }
+
+    /** Get the number of values for the current document. */
+    public int size() {
+      return getDocValues().size();
+    }
+
+    /** Get if the current document has no values. */
+    public boolean isEmpty() {
+      return getDocValues().isEmpty();
+    }
+
+    /** Get value at index for the current document, see {@link LoadedDocValues#getInt(int)}. */
+    public int getInt(int index) {
+      return getDocValues().getInt(index);
+    }
+
+    /** Get value at index for the current document, see {@link LoadedDocValues#getLong(int)}. */
+    public long getLong(int index) {
+      return getDocValues().getLong(index);
+    }
+
+    /** Get value at index for the current document, see {@link LoadedDocValues#getFloat(int)}. */
+    public float getFloat(int index) {
+      return getDocValues().getFloat(index);
+    }
+
+    /** Get value at index for the current document, see {@link LoadedDocValues#getDouble(int)}. */
+    public double getDouble(int index) {
+      return getDocValues().getDouble(index);
     }
-    return docValues;
   }
 
   @Override
@@ -16,7 +16,6 @@
 package com.yelp.nrtsearch.server.facet;
 
 import com.google.protobuf.ProtocolStringList;
-import com.yelp.nrtsearch.server.doc.LoadedDocValues;
 import com.yelp.nrtsearch.server.field.DoubleFieldDef;
 import com.yelp.nrtsearch.server.field.FieldDef;
 import com.yelp.nrtsearch.server.field.FloatFieldDef;
@@ -46,7 +45,6 @@ import org.apache.lucene.facet.DrillSideways;
 import org.apache.lucene.facet.FacetResult;
 import org.apache.lucene.facet.Facets;
 import org.apache.lucene.facet.FacetsCollector;
-import org.apache.lucene.facet.FacetsCollector.MatchingDocs;
 import org.apache.lucene.facet.FacetsConfig;
 import org.apache.lucene.facet.LabelAndValue;
 import org.apache.lucene.facet.range.DoubleRange;
@@ -57,7 +55,6 @@ import org.apache.lucene.facet.sortedset.SortedSetDocValuesFacetCounts;
 import org.apache.lucene.facet.taxonomy.FastTaxonomyFacetCounts;
 import org.apache.lucene.facet.taxonomy.SearcherTaxonomyManager;
 import org.apache.lucene.facet.taxonomy.TaxonomyReader;
-import org.apache.lucene.search.DocIdSetIterator;
 import org.apache.lucene.search.IndexSearcher;
 
 public class DrillSidewaysImpl extends DrillSideways {
@@ -67,6 +64,7 @@ public class DrillSidewaysImpl extends DrillSideways {
   private final ShardState shardState;
   private final Map<String, FieldDef> dynamicFields;
   private final List<com.yelp.nrtsearch.server.grpc.FacetResult> grpcFacetResults;
+  private final ExecutorService facetExecutor;
   private final Diagnostics.Builder diagnostics;
 
   /**
@@ -77,6 +75,10 @@ public class DrillSidewaysImpl extends DrillSideways {
    * @param searcherAndTaxonomyManager
    * @param shardState
    * @param dynamicFields
+   * @param grpcFacetResults
+   * @param executorService executor for drill sideways queries
+   * @param facetExecutor executor to compute doc values and script facet counts for segments in
+   *     parallel, or null to compute them on the calling thread
    * @param diagnostics diagnostics builder for storing facet timing
    */
   public DrillSidewaysImpl(
@@ -90,6 +92,7 @@ public class DrillSidewaysImpl extends DrillSideways {
       Map<String, FieldDef> dynamicFields,
       List<com.yelp.nrtsearch.server.grpc.FacetResult> grpcFacetResults,
       ExecutorService executorService,
+      ExecutorService facetExecutor,
       Diagnostics.Builder diagnostics) {
     super(searcher, config, taxoReader, null, executorService);
     this.grpcFacets = grpcFacets;
@@ -98,6 +101,7 @@ public class DrillSidewaysImpl extends DrillSideways {
     this.shardState = shardState;
     this.dynamicFields = dynamicFields;
     this.grpcFacetResults = grpcFacetResults;
+    this.facetExecutor = facetExecutor;
     this.diagnostics = diagnostics;
   }
 
@@ -114,6 +118,7 @@ public class DrillSidewaysImpl extends DrillSideways {
         dynamicFields,
         searcherAndTaxonomyManager,
         grpcFacetResults,
+        facetExecutor,
         diagnostics);
     return null;
   }
@@ -128,6 +133,7 @@ public class DrillSidewaysImpl extends DrillSideways {
       Map<String, FieldDef> dynamicFields,
       SearcherTaxonomyManager.SearcherAndTaxonomy searcherAndTaxonomyManager,
       List<com.yelp.nrtsearch.server.grpc.FacetResult> grpcFacetResults,
+      ExecutorService facetExecutor,
       Diagnostics.Builder diagnostics)
       throws IOException {
 
@@ -157,7 +163,7 @@ public class DrillSidewaysImpl extends DrillSideways {
       com.yelp.nrtsearch.server.grpc.FacetResult facetResult;
       if (facet.hasScript()) {
         // this facet is a FacetScript, run script against all matching documents
-        facetResult = getScriptFacetResult(facet, drillDowns, indexState);
+        facetResult = getScriptFacetResult(facet, drillDowns, indexState, facetExecutor);
       } else {
         facetResult =
             getFieldFacetResult(
@@ -168,7 +174,8 @@ public class DrillSidewaysImpl extends DrillSideways {
                 facet,
                 dynamicFields,
                 searcherAndTaxonomyManager,
-                indexFieldNameToFacets);
+                indexFieldNameToFacets,
+                facetExecutor);
       }
       if (facetResult != null) {
         grpcFacetResults.add(facetResult);
@@ -179,7 +186,8 @@ public class DrillSidewaysImpl extends DrillSideways {
   }
 
   private static com.yelp.nrtsearch.server.grpc.FacetResult getScriptFacetResult(
-      Facet facet, FacetsCollector drillDowns, IndexState indexState) throws IOException {
+      Facet facet, FacetsCollector drillDowns, IndexState indexState, ExecutorService executor)
+      throws IOException {
 
     FacetScript.Factory factory =
         ScriptService.getInstance().compile(facet.getScript(), FacetScript.CONTEXT);
@@ -187,67 +195,22 @@ public class DrillSidewaysImpl extends DrillSideways {
         factory.newFactory(
             ScriptParamsUtils.decodeParams(facet.getScript().getParamsMap()), indexState.docLookup);
 
-    Map<Object, Integer> countsMap = new HashMap<>();
-    int totalDocs = 0;
     // run script against all match docs, and aggregate counts
-    for (MatchingDocs matchingDocs : drillDowns.getMatchingDocs()) {
-      FacetScript script = segmentFactory.newInstance(matchingDocs.context());
-      DocIdSetIterator iterator = matchingDocs.bits().iterator();
-      if (iterator == null) {
-        continue;
-      }
-      int docId = iterator.nextDoc();
-      while (docId != DocIdSetIterator.NO_MORE_DOCS) {
-        script.setDocId(docId);
-        Object scriptResult = script.execute();
-        if (scriptResult != null) {
-          processScriptResult(scriptResult, countsMap);
-        }
-        totalDocs++;
-        docId = iterator.nextDoc();
-      }
-    }
-    return buildFacetResultFromCountsGrpc(countsMap, facet, totalDocs);
+    FacetValueCounts.Counts<?> counts =
+        FacetValueCounts.countScript(segmentFactory, drillDowns.getMatchingDocs(), executor);
+    return buildFacetResultFromCountsGrpc(counts.toCountsMap(), facet, counts.getTotalDocs());
   }
 
   private static com.yelp.nrtsearch.server.grpc.FacetResult getDocValuesFacetResult(
-      Facet facet, FacetsCollector drillDowns, IndexableFieldDef<?> fieldDef) throws IOException {
-    Map<Object, Integer> countsMap = new HashMap<>();
-    int totalDocs = 0;
+      Facet facet,
+      FacetsCollector drillDowns,
+      IndexableFieldDef<?> fieldDef,
+      ExecutorService executor)
+      throws IOException {
     // get doc values for all match docs, and aggregate counts
-    for (MatchingDocs matchingDocs : drillDowns.getMatchingDocs()) {
-      LoadedDocValues<?> docValues = fieldDef.getDocValues(matchingDocs.context());
-      DocIdSetIterator iterator = matchingDocs.bits().iterator();
-      if (iterator == null) {
-        continue;
-      }
-      int docId = iterator.nextDoc();
-      while (docId != DocIdSetIterator.NO_MORE_DOCS) {
-        docValues.setDocId(docId);
-        if (!docValues.isEmpty()) {
-          for (Object value : docValues) {
-            countsMap.merge(value, 1, Integer::sum);
-          }
-          totalDocs++;
-        }
-        docId = iterator.nextDoc();
-      }
-    }
-    return buildFacetResultFromCountsGrpc(countsMap, facet, totalDocs);
-  }
-
-  private static void processScriptResult(Object scriptResult, Map<Object, Integer> countsMap) {
-    if (scriptResult instanceof Iterable) {
-      ((Iterable<?>) scriptResult)
-          .forEach(
-              v -> {
-                if (v != null) {
-                  countsMap.merge(v, 1, Integer::sum);
-                }
-              });
-    } else {
-      countsMap.merge(scriptResult, 1, Integer::sum);
-    }
+    FacetValueCounts.Counts<?> counts =
+        FacetValueCounts.countDocValues(fieldDef, drillDowns.getMatchingDocs(), executor);
+    return buildFacetResultFromCountsGrpc(counts.toCountsMap(), facet, counts.getTotalDocs());
   }
 
   /**
@@ -312,7 +275,8 @@ public class DrillSidewaysImpl extends DrillSideways {
       Facet facet,
       Map<String, FieldDef> dynamicFields,
       SearcherTaxonomyManager.SearcherAndTaxonomy searcherAndTaxonomyManager,
-      Map<String, Facets> indexFieldNameToFacets)
+      Map<String, Facets> indexFieldNameToFacets,
+      ExecutorService facetExecutor)
       throws IOException {
 
     String fieldName = facet.getDim();
@@ -508,7 +472,7 @@ public class DrillSidewaysImpl extends DrillSideways {
         throw new IllegalArgumentException(
             "Doc values facet requires doc values enabled : " + fieldName);
       }
-      return getDocValuesFacetResult(facet, drillDowns, indexableFieldDef);
+      return getDocValuesFacetResult(facet, drillDowns, indexableFieldDef, facetExecutor);
     }
     return buildFacetResultGrpc(facetResult, facet.getName());
   }
@@ -0,0 +1,569 @@
+/*
+ * Copyright 2025 Yelp Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.yelp.nrtsearch.server.facet;
+
+import com.yelp.nrtsearch.server.doc.LoadedDocValues;
+import com.yelp.nrtsearch.server.field.DateTimeFieldDef;
+import com.yelp.nrtsearch.server.field.DoubleFieldDef;
+import com.yelp.nrtsearch.server.field.FloatFieldDef;
+import com.yelp.nrtsearch.server.field.IndexableFieldDef;
+import com.yelp.nrtsearch.server.field.IntFieldDef;
+import com.yelp.nrtsearch.server.field.LongFieldDef;
+import com.yelp.nrtsearch.server.field.TextBaseFieldDef;
+import com.yelp.nrtsearch.server.script.FacetScript;
+import it.unimi.dsi.fastutil.doubles.Double2IntOpenHashMap;
+import it.unimi.dsi.fastutil.floats.Float2IntOpenHashMap;
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.LongFunction;
+import org.apache.lucene.facet.FacetsCollector.MatchingDocs;
+import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.DocValuesType;
+import org.apache.lucene.index.SortedDocValues;
+import org.apache.lucene.index.SortedSetDocValues;
+import org.apache.lucene.search.DocIdSetIterator;
+
+/**
+ * Value counts for doc values and script facets. Counts are computed for each segment of the
+ * matching docs into type specialized primitive maps, and the partial counts are merged once all
+ * segments are done. When an executor is provided, segments are counted in parallel. The calling
+ * thread also counts any segment that has not been started by the executor, so progress does not
+ * depend on executor capacity.
+ *
+ * <p>String fields with sorted or sorted set doc values are counted by segment ordinal, and only
+ * the ordinals that were seen are resolved to labels.
+ */
+class FacetValueCounts {
+  // use a dense ordinal count array when there are at most this many ordinals per matching doc
+  private static final int MAX_DENSE_ORDINALS_PER_HIT = 16;
+
+  private FacetValueCounts() {}
+
+  /**
+   * Count the values of a doc values field for all matching documents.
+   *
+   * @param fieldDef field to count, must have doc values
+   * @param matchingDocs matching docs for each segment
+   * @param executor executor to count segments in parallel, or null to count on this thread
+   * @return merged counts
+   * @throws IOException on error reading doc values
+   */
+  static Counts<?> countDocValues(
+      IndexableFieldDef<?> fieldDef, List<MatchingDocs> matchingDocs, ExecutorService executor)
+      throws IOException {
+    return switch (fieldDef) {
+      case IntFieldDef intFieldDef ->
+          countSegments(matchingDocs, executor, md -> countInts(fieldDef, md));
+      case LongFieldDef longFieldDef ->
+          countSegments(matchingDocs, executor, md -> countLongs(fieldDef, md, Long::valueOf));
+      case DateTimeFieldDef dateTimeFieldDef ->
+          countSegments(
+              matchingDocs, executor, md -> countLongs(fieldDef, md, Instant::ofEpochMilli));
+      case FloatFieldDef floatFieldDef ->
+          countSegments(matchingDocs, executor, md -> countFloats(fieldDef, md));
+      case DoubleFieldDef doubleFieldDef ->
+          countSegments(matchingDocs, executor, md -> countDoubles(fieldDef, md));
+      case TextBaseFieldDef textBaseFieldDef
+          when fieldDef.getDocValuesType() == DocValuesType.SORTED
+              || fieldDef.getDocValuesType() == DocValuesType.SORTED_SET ->
+          countSegments(matchingDocs, executor, md -> countOrdinals(fieldDef, md));
+      default -> countSegments(matchingDocs, executor, md -> countObjects(fieldDef, md));
+    };
+  }
+
+  /**
+   * Count the values produced by a facet script for all matching documents. A script result may be
+   * a single value, or an Iterable of values. Null values are not counted.
+   *
+   * @param segmentFactory factory to create the script for each segment
+   * @param matchingDocs matching docs for each segment
+   * @param executor executor to count segments in parallel, or null to count on this thread
+   * @return merged counts
+   * @throws IOException on error creating a segment script
+   */
+  static Counts<?> countScript(
+      FacetScript.SegmentFactory segmentFactory,
+      List<MatchingDocs> matchingDocs,
+      ExecutorService executor)
+      throws IOException {
+    return countSegments(matchingDocs, executor, md -> countScriptResults(segmentFactory, md));
+  }
+
+  /** Counts one segment of matching docs. */
+  @FunctionalInterface
+  interface SegmentCounter<C extends Counts<C>> {
+    C count(MatchingDocs matchingDocs) throws IOException;
+  }
+
+  static <C extends Counts<C>> C countSegments(
+      List<MatchingDocs> matchingDocs, ExecutorService executor, SegmentCounter<C> counter)
+      throws IOException {
+    if (matchingDocs.isEmpty()) {
+      return counter.count(null);
+    }
+    if (executor == null || matchingDocs.size() == 1) {
+      C total = counter.count(matchingDocs.get(0));
+      for (int i = 1; i < matchingDocs.size(); ++i) {
+        total.merge(counter.count(matchingDocs.get(i)));
+      }
+      return total;
+    }
+
+    List<FutureTask<C>> tasks = new ArrayList<>(matchingDocs.size());
+    for (MatchingDocs segmentDocs : matchingDocs) {
+      FutureTask<C> task = new FutureTask<>(() -> counter.count(segmentDocs));
+      tasks.add(task);
+      try {
+        executor.execute(task);
+      } catch (RejectedExecutionException e) {
+        // executor is saturated, the task will be run by this thread
+      }
+    }
+    C total = null;
+    try {
+      for (FutureTask<C> task : tasks) {
+        // no-op if the task was already started by the executor
+        task.run();
+        C segmentCounts = getCounts(task);
+        if (total == null) {
+          total = segmentCounts;
+        } else {
+          total.merge(segmentCounts);
+        }
+      }
+    } finally {
+      for (FutureTask<C> task : tasks) {
+        task.cancel(false);
+      }
+    }
+    return total;
+  }
+
+  private static <C> C getCounts(FutureTask<C> task) throws IOException {
+    try {
+      return task.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Interrupted while counting facet values", e);
+    } catch (ExecutionException e) {
+      switch (e.getCause()) {
+        case IOException ioException -> throw ioException;
+        case RuntimeException runtimeException -> throw runtimeException;
+        case Error error -> throw error;
+        default -> throw new RuntimeException(e.getCause());
+      }
+    }
+  }
+
+  private static DocIdSetIterator getIterator(MatchingDocs matchingDocs) throws IOException {
+    return matchingDocs == null ? null : matchingDocs.bits().iterator();
+  }
+
+  private static IntCounts countInts(IndexableFieldDef<?> fieldDef, MatchingDocs matchingDocs)
+      throws IOException {
+    IntCounts counts = new IntCounts();
+    DocIdSetIterator iterator = getIterator(matchingDocs);
+    if (iterator == null) {
+      return counts;
+    }
+    LoadedDocValues<?> docValues = fieldDef.getDocValues(matchingDocs.context());
+    for (int docId = iterator.nextDoc();
+        docId != DocIdSetIterator.NO_MORE_DOCS;
+        docId = iterator.nextDoc()) {
+      docValues.setDocId(docId);
+      int size = docValues.size();
+      if (size > 0) {
+        for (int i = 0; i < size; ++i) {
+          counts.counts.addTo(docValues.getInt(i), 1);
+        }
+        counts.totalDocs++;
+      }
+    }
+    return counts;
+  }
+
+  private static LongCounts countLongs(
+      IndexableFieldDef<?> fieldDef, MatchingDocs matchingDocs, LongFunction<Object> labelDecoder)
+      throws IOException {
+    LongCounts counts = new LongCounts(labelDecoder);
+    DocIdSetIterator iterator = getIterator(matchingDocs);
+    if (iterator == null) {
+      return counts;
+    }
+    LoadedDocValues<?> docValues = fieldDef.getDocValues(matchingDocs.context());
+    for (int docId = iterator.nextDoc();
+        docId != DocIdSetIterator.NO_MORE_DOCS;
+        docId = iterator.nextDoc()) {
+      docValues.setDocId(docId);
+      int size = docValues.size();
+      if (size > 0) {
+        for (int i = 0; i < size; ++i) {
+          counts.counts.addTo(docValues.getLong(i), 1);
+        }
+        counts.totalDocs++;
+      }
+    }
+    return counts;
+  }
+
+  private static FloatCounts countFloats(IndexableFieldDef<?> fieldDef, MatchingDocs matchingDocs)
+      throws IOException {
+    FloatCounts counts = new FloatCounts();
+    DocIdSetIterator iterator = getIterator(matchingDocs);
+    if (iterator == null) {
+      return counts;
+    }
+    LoadedDocValues<?> docValues = fieldDef.getDocValues(matchingDocs.context());
+    for (int docId = iterator.nextDoc();
+        docId != DocIdSetIterator.NO_MORE_DOCS;
+        docId = iterator.nextDoc()) {
+      docValues.setDocId(docId);
+      int size = docValues.size();
+      if (size > 0) {
+        for (int i = 0; i < size; ++i) {
+          counts.counts.addTo(docValues.getFloat(i), 1);
+        }
+        counts.totalDocs++;
+      }
+    }
+    return counts;
+  }
+
+  private static DoubleCounts countDoubles(
+      IndexableFieldDef<?> fieldDef, MatchingDocs matchingDocs) throws IOException {
+    DoubleCounts counts = new DoubleCounts();
+    DocIdSetIterator iterator = getIterator(matchingDocs);
+    if (iterator == null) {
+      return counts;
+    }
+    LoadedDocValues<?> docValues = fieldDef.getDocValues(matchingDocs.context());
+    for (int docId = iterator.nextDoc();
+        docId != DocIdSetIterator.NO_MORE_DOCS;
+        docId = iterator.nextDoc()) {
+      docValues.setDocId(docId);
+      int size = docValues.size();
+      if (size > 0) {
+        for (int i = 0; i < size; ++i) {
+          counts.counts.addTo(docValues.getDouble(i), 1);
+        }
+        counts.totalDocs++;
+      }
+    }
+    return counts;
+  }
+
+  private static ObjectCounts countObjects(
+      IndexableFieldDef<?> fieldDef, MatchingDocs matchingDocs) throws IOException {
+    ObjectCounts counts = new ObjectCounts();
+    DocIdSetIterator iterator = getIterator(matchingDocs);
+    if (iterator == null) {
+      return counts;
+    }
+    LoadedDocValues<?> docValues = fieldDef.getDocValues(matchingDocs.context());
+    for (int docId = iterator.nextDoc();
+        docId != DocIdSetIterator.NO_MORE_DOCS;
+        docId = iterator.nextDoc()) {
+      docValues.setDocId(docId);
+      if (!docValues.isEmpty()) {
+        for (Object value : docValues) {
+          counts.counts.addTo(value, 1);
+        }
+        counts.totalDocs++;
+      }
+    }
+    return counts;
+  }
+
+  private static ObjectCounts countOrdinals(
+      IndexableFieldDef<?> fieldDef, MatchingDocs matchingDocs) throws IOException {
+    ObjectCounts counts = new ObjectCounts();
+    DocIdSetIterator iterator = getIterator(matchingDocs);
+    if (iterator == null) {
+      return counts;
+    }
+    OrdinalCounts ordinalCounts;
+    if (fieldDef.getDocValuesType() == DocValuesType.SORTED) {
+      SortedDocValues docValues =
+          DocValues.getSorted(matchingDocs.context().reader(), fieldDef.getName());
+      ordinalCounts = new OrdinalCounts(docValues.getValueCount(), matchingDocs.totalHits());
+      for (int docId = iterator.nextDoc();
+          docId != DocIdSetIterator.NO_MORE_DOCS;
+          docId = iterator.nextDoc()) {
+        if (docValues.advanceExact(docId)) {
+          ordinalCounts.increment(docValues.ordValue());
+          counts.totalDocs++;
+        }
+      }
+      ordinalCounts.addLabels(counts, ord -> docValues.lookupOrd(ord).utf8ToString());
+    } else {
+      SortedSetDocValues docValues =
+          DocValues.getSortedSet(matchingDocs.context().reader(), fieldDef.getName());
+      ordinalCounts =
+          new OrdinalCounts(
+              (int) Math.min(docValues.getValueCount(), Integer.MAX_VALUE),
+              matchingDocs.totalHits());
+      for (int docId = iterator.nextDoc();
+          docId != DocIdSetIterator.NO_MORE_DOCS;
+          docId = iterator.nextDoc()) {
+        if (docValues.advanceExact(docId)) {
+          int count = docValues.docValueCount();
+          for (int i = 0; i < count; ++i) {
+            ordinalCounts.increment((int) docValues.nextOrd());
+          }
+          counts.totalDocs++;
+        }
+      }
+      ordinalCounts.addLabels(counts, ord -> docValues.lookupOrd(ord).utf8ToString());
+    }
+    return counts;
+  }
+
+  private static ObjectCounts countScriptResults(
+      FacetScript.SegmentFactory segmentFactory, MatchingDocs matchingDocs) throws IOException {
+    ObjectCounts counts = new ObjectCounts();
+    DocIdSetIterator iterator = getIterator(matchingDocs);
+    if (iterator == null) {
+      return counts;
+    }
+    FacetScript script = segmentFactory.newInstance(matchingDocs.context());
+    for (int docId = iterator.nextDoc();
+        docId != DocIdSetIterator.NO_MORE_DOCS;
+        docId = iterator.nextDoc()) {
+      script.setDocId(docId);
+      Object scriptResult = script.execute();
+      if (scriptResult instanceof Iterable<?> iterable) {
+        for (Object value : iterable) {
+          if (value != null) {
+            counts.counts.addTo(value, 1);
+          }
+        }
+      } else if (scriptResult != null) {
+        counts.counts.addTo(scriptResult, 1);
+      }
+      counts.totalDocs++;
+    }
+    return counts;
+  }
+
+  /** Resolves a segment ordinal to its label. */
+  @FunctionalInterface
+  private interface OrdinalLabeler {
+    String label(int ord) throws IOException;
+  }
+
+  /** Counts of segment ordinals, stored in a dense array or a hash map based on density. */
+  private static class OrdinalCounts {
+    private final int[] denseCounts;
+    private final Int2IntOpenHashMap sparseCounts;
+
+    OrdinalCounts(int valueCount, int totalHits) {
+      if (valueCount <= (long) totalHits * MAX_DENSE_ORDINALS_PER_HIT) {
+        denseCounts = new int[valueCount];
+        sparseCounts = null;
+      } else {
+        denseCounts = null;
+        sparseCounts = new Int2IntOpenHashMap();
+      }
+    }
+
+    void increment(int ord) {
+      if (denseCounts != null) {
+        denseCounts[ord]++;
+      } else {
+        sparseCounts.addTo(ord, 1);
+      }
+    }
+
+    void addLabels(ObjectCounts counts, OrdinalLabeler labeler) throws IOException {
+      if (denseCounts != null) {
+        for (int ord = 0; ord < denseCounts.length; ++ord) {
+          if (denseCounts[ord] > 0) {
+            counts.counts.addTo(labeler.label(ord), denseCounts[ord]);
+          }
+        }
+      } else {
+        for (Int2IntOpenHashMap.Entry entry : sparseCounts.int2IntEntrySet()) {
+          counts.counts.addTo(labeler.label(entry.getIntKey()), entry.getIntValue());
+        }
+      }
+    }
+  }
+
+  /**
+   * Value counts for some number of segments.
+   *
+   * @param <C> concrete counts type
+   */
+  abstract static class Counts<C extends Counts<C>> {
+    int totalDocs = 0;
+
+    /** Get the number of documents that had at least one value. */
+    int getTotalDocs() {
+      return totalDocs;
+    }
+
+    /** Add the counts from another instance into this one. */
+    void merge(C other) {
+      totalDocs += other.totalDocs;
+      mergeCounts(other);
+    }
+
+    abstract void mergeCounts(C other);
+
+    /** Get the number of unique values. */
+    abstract int size();
+
+    /** Get a map of each value to its count, boxing only the unique values. */
+    abstract Map<Object, Integer> toCountsMap();
+  }
+
+  static class IntCounts extends Counts<IntCounts> {
+    final Int2IntOpenHashMap counts = new Int2IntOpenHashMap();
+
+    @Override
+    void mergeCounts(IntCounts other) {
+      other.counts.int2IntEntrySet().fastForEach(e -> counts.addTo(e.getIntKey(), e.getIntValue()));
+    }
+
+    @Override
+    int size() {
+      return counts.size();
+    }
+
+    @Override
+    Map<Object, Integer> toCountsMap() {
+      Map<Object, Integer> countsMap = new HashMap<>(counts.size() * 2);
+      counts.int2IntEntrySet().fastForEach(e -> countsMap.put(e.getIntKey(), e.getIntValue()));
+      return countsMap;
+    }
+  }
+
+  static class LongCounts extends Counts<LongCounts> {
+    final Long2IntOpenHashMap counts = new Long2IntOpenHashMap();
+    private final LongFunction<Object> labelDecoder;
+
+    LongCounts(LongFunction<Object> labelDecoder) {
+      this.labelDecoder = labelDecoder;
+    }
+
+    @Override
+    void mergeCounts(LongCounts other) {
+      other
+          .counts
+          .long2IntEntrySet()
+          .fastForEach(e -> counts.addTo(e.getLongKey(), e.getIntValue()));
+    }
+
+    @Override
+    int size() {
+      return counts.size();
+    }
+
+    @Override
+    Map<Object, Integer> toCountsMap() {
+      Map<Object, Integer> countsMap = new HashMap<>(counts.size() * 2);
+      counts
+          .long2IntEntrySet()
+          .fastForEach(e -> countsMap.put(labelDecoder.apply(e.getLongKey()), e.getIntValue()));
+      return countsMap;
+    }
+  }
+
+  static class FloatCounts extends Counts<FloatCounts> {
+    final Float2IntOpenHashMap counts = new Float2IntOpenHashMap();
+
+    @Override
+    void mergeCounts(FloatCounts other) {
+      other
+          .counts
+          .float2IntEntrySet()
+          .fastForEach(e -> counts.addTo(e.getFloatKey(), e.getIntValue()));
+    }
+
+    @Override
+    int size() {
+      return counts.size();
+    }
+
+    @Override
+    Map<Object, Integer> toCountsMap() {
+      Map<Object, Integer> countsMap = new HashMap<>(counts.size() * 2);
+      counts.float2IntEntrySet().fastForEach(e -> countsMap.put(e.getFloatKey(), e.getIntValue()));
+      return countsMap;
+    }
+  }
+
+  static class DoubleCounts extends Counts<DoubleCounts> {
+    final Double2IntOpenHashMap counts = new Double2IntOpenHashMap();
+
+    @Override
+    void mergeCounts(DoubleCounts other) {
+      other
+          .counts
+          .double2IntEntrySet()
+          .fastForEach(e -> counts.addTo(e.getDoubleKey(), e.getIntValue()));
+    }
+
+    @Override
+    int size() {
+      return counts.size();
+    }
+
+    @Override
+    Map<Object, Integer> toCountsMap() {
+      Map<Object, Integer> countsMap = new HashMap<>(counts.size() * 2);
+      counts
+          .double2IntEntrySet()
+          .fastForEach(e -> countsMap.put(e.getDoubleKey(), e.getIntValue()));
+      return countsMap;
+    }
+  }
+
+  static class ObjectCounts extends Counts<ObjectCounts> {
+    final Object2IntOpenHashMap<Object> counts = new Object2IntOpenHashMap<>();
+
+    @Override
+    void mergeCounts(ObjectCounts other) {
+      other
+          .counts
+          .object2IntEntrySet()
+          .fastForEach(e -> counts.addTo(e.getKey(), e.getIntValue()));
+    }
+
+    @Override
+    int size() {
+      return counts.size();
+    }
+
+    @Override
+    Map<Object, Integer> toCountsMap() {
+      Map<Object, Integer> countsMap = new HashMap<>(counts.size() * 2);
+      counts.object2IntEntrySet().fastForEach(e -> countsMap.put(e.getKey(), e.getIntValue()));
+      return countsMap;
+    }
+  }
+}
@@ -281,27 +281,51 @@ public class DateTimeFieldDef extends IndexableFieldDef<Instant>
     }
 
     for (String fieldStr : fieldValues) {
-      long indexValue = getTimeToIndex(fieldStr);
-      if (hasDocValues()) {
-        if (docValuesType == DocValuesType.NUMERIC) {
-          document.add(new NumericDocValuesField(getName(), indexValue));
-        } else if (docValuesType == DocValuesType.SORTED_NUMERIC) {
-          document.add(new SortedNumericDocValuesField(getName(), indexValue));
-        } else {
-          throw new IllegalArgumentException(
-              String.format(
-                  "Unsupported doc value type %s for field %s", docValuesType, this.getName()));
-        }
-      }
-      if (isSearchable()) {
-        document.add(new LongPoint(getName(), indexValue));
-      }
-      if (isStored()) {
-        document.add(new FieldWithData(getName(), fieldType, indexValue));
-      }
+      addFieldValue(document, getTimeToIndex(fieldStr));
+    }
+  }
 
-      addFacet(document, indexValue);
+  @Override
+  public void parseTypedDocumentField(
+      Document document, TypedValues typedValues, List<List<String>> facetHierarchyPaths) {
+    if (!acceptsTypedValues(typedValues.getValuesCase())) {
+      throw TypedValuesUtils.unsupportedTypedValues(this, typedValues);
     }
+    TypedValues.LongValues epochMillisValues = typedValues.getEpochMillisValues();
+    if (epochMillisValues.getValuesCount() > 1 && !isMultiValue()) {
+      throw new IllegalArgumentException(
+          "Cannot index multiple values into single value field: " + getName());
+    }
+    for (int i = 0; i < epochMillisValues.getValuesCount(); ++i) {
+      addFieldValue(document, epochMillisValues.getValues(i));
+    }
+  }
+
+  @Override
+  protected boolean acceptsTypedValues(TypedValues.ValuesCase valuesCase) {
+    return valuesCase == TypedValues.ValuesCase.EPOCH_MILLIS_VALUES;
+  }
+
+  private void addFieldValue(Document document, long indexValue) {
+    if (hasDocValues()) {
+      if (docValuesType == DocValuesType.NUMERIC) {
+        document.add(new NumericDocValuesField(getName(), indexValue));
+      } else if (docValuesType == DocValuesType.SORTED_NUMERIC) {
+        document.add(new SortedNumericDocValuesField(getName(), indexValue));
+      } else {
+        throw new IllegalArgumentException(
+            String.format(
+                "Unsupported doc value type %s for field %s", docValuesType, this.getName()));
+      }
+    }
+    if (isSearchable()) {
+      document.add(new LongPoint(getName(), indexValue));
+    }
+    if (isStored()) {
+      document.add(new FieldWithData(getName(), fieldType, indexValue));
+    }
+
+    addFacet(document, indexValue);
   }
 
   private void addFacet(Document document, long value) {
@@ -19,6 +19,7 @@ import com.yelp.nrtsearch.server.doc.LoadedDocValues;
 import com.yelp.nrtsearch.server.grpc.Field;
 import com.yelp.nrtsearch.server.grpc.RangeQuery;
 import com.yelp.nrtsearch.server.grpc.SearchResponse;
+import com.yelp.nrtsearch.server.grpc.TypedValues;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.function.LongToDoubleFunction;
@@ -74,6 +75,11 @@ public class DoubleFieldDef extends NumberFieldDef<Double> {
     return BindingValuesSources.SORTED_DOUBLE_DECODER;
   }
 
+  @Override
+  protected boolean acceptsTypedValues(TypedValues.ValuesCase valuesCase) {
+    return valuesCase == TypedValues.ValuesCase.DOUBLE_VALUES;
+  }
+
   @Override
   protected SortField.Type getSortFieldType() {
     return SortField.Type.DOUBLE;
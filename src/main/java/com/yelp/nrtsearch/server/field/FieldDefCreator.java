@@ -39,8 +39,10 @@ public class FieldDefCreator {
    * Addition context for field definition creation.
    *
    * @param config service configuration
+   * @param indexName name of the index owning the field, or null if the field is not owned by a
+   *     single index
    */
-  public record FieldDefCreatorContext(NrtsearchConfig config) {}
+  public record FieldDefCreatorContext(NrtsearchConfig config, String indexName) {}
 
   public FieldDefCreator(NrtsearchConfig configuration) {
     register("ATOM", AtomFieldDef::new);
@@ -98,13 +100,24 @@ public class FieldDefCreator {
   }
 
   /**
-   * Create a new {@link FieldDefCreatorContext} instance.
+   * Create a new {@link FieldDefCreatorContext} instance, for fields not owned by a single index.
    *
    * @param globalState global state
    * @return new context instance
    */
   public static FieldDefCreatorContext createContext(GlobalState globalState) {
-    return new FieldDefCreatorContext(globalState.getConfiguration());
+    return createContext(globalState, null);
+  }
+
+  /**
+   * Create a new {@link FieldDefCreatorContext} instance.
+   *
+   * @param globalState global state
+   * @param indexName name of the index owning the created fields
+   * @return new context instance
+   */
+  public static FieldDefCreatorContext createContext(GlobalState globalState, String indexName) {
+    return new FieldDefCreatorContext(globalState.getConfiguration(), indexName);
   }
 
   private void register(Map<String, FieldDefProvider<? extends FieldDef>> fieldDefs) {
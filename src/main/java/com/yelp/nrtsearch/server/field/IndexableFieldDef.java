@@ -18,6 +18,7 @@ package com.yelp.nrtsearch.server.field;
 import com.yelp.nrtsearch.server.doc.LoadedDocValues;
 import com.yelp.nrtsearch.server.grpc.Field;
 import com.yelp.nrtsearch.server.grpc.SearchResponse;
+import com.yelp.nrtsearch.server.grpc.TypedValues;
 import com.yelp.nrtsearch.server.handler.AddDocumentHandler;
 import com.yelp.nrtsearch.server.index.IndexState;
 import com.yelp.nrtsearch.server.similarity.SimilarityCreator;
@@ -328,6 +329,75 @@ public abstract class IndexableFieldDef<T> extends FieldDef {
         (k, v) -> v.parseFieldWithChildren(document, fieldValues, facetHierarchyPaths));
   }
 
+  /**
+   * Parse typed field values for this field and its children. The values will be the {@link
+   * TypedValues} present in a {@link
+   * com.yelp.nrtsearch.server.grpc.AddDocumentRequest.MultiValuedField}.
+   *
+   * @param documentsContext DocumentsContext which holds lucene documents to be added to the index
+   * @param typedValues typed field values
+   * @param facetHierarchyPaths list of list of String encoded paths for each field value be
+   *     determine hierarchy for faceting
+   */
+  public void parseTypedFieldWithChildren(
+      AddDocumentHandler.DocumentsContext documentsContext,
+      TypedValues typedValues,
+      List<List<String>> facetHierarchyPaths) {
+    parseTypedFieldWithChildren(
+        documentsContext.getRootDocument(), typedValues, facetHierarchyPaths);
+  }
+
+  /**
+   * Parse typed field values for this field and its children.
+   *
+   * @param document lucene document to be added to the index
+   * @param typedValues typed field values
+   * @param facetHierarchyPaths list of list of String encoded paths for each field value be
+   *     determine hierarchy for faceting
+   */
+  public void parseTypedFieldWithChildren(
+      Document document, TypedValues typedValues, List<List<String>> facetHierarchyPaths) {
+    parseTypedDocumentField(document, typedValues, facetHierarchyPaths);
+    // children that cannot index the typed values share a single string conversion
+    List<String> stringValues = null;
+    for (IndexableFieldDef<?> childField : childFields.values()) {
+      if (childField.acceptsTypedValues(typedValues.getValuesCase())) {
+        childField.parseTypedFieldWithChildren(document, typedValues, facetHierarchyPaths);
+      } else {
+        if (stringValues == null) {
+          stringValues = TypedValuesUtils.toStringValues(typedValues);
+        }
+        childField.parseFieldWithChildren(document, stringValues, facetHierarchyPaths);
+      }
+    }
+  }
+
+  /**
+   * Get if values with the given typed encoding can be indexed into this field directly, without
+   * conversion to their string encoding.
+   *
+   * @param valuesCase typed values encoding
+   * @return if typed values can be indexed directly
+   */
+  protected boolean acceptsTypedValues(TypedValues.ValuesCase valuesCase) {
+    return false;
+  }
+
+  /**
+   * Parse typed field values and add them to the document for indexing. The default implementation
+   * converts the values to their string encoding and calls {@link #parseDocumentField(Document,
+   * List, List)}. Field types that can index typed values directly should override this method.
+   *
+   * @param document lucene document to be added to the index
+   * @param typedValues typed field values
+   * @param facetHierarchyPaths list of list of String encoded paths for each field value be
+   *     determine hierarchy for faceting
+   */
+  public void parseTypedDocumentField(
+      Document document, TypedValues typedValues, List<List<String>> facetHierarchyPaths) {
+    parseDocumentField(document, TypedValuesUtils.toStringValues(typedValues), facetHierarchyPaths);
+  }
+
   /**
    * Parse a list of field values and add them to the document for indexing. The values will be
    * those present in a {@link com.yelp.nrtsearch.server.grpc.AddDocumentRequest.MultiValuedField}.
@@ -19,6 +19,7 @@ import com.yelp.nrtsearch.server.doc.LoadedDocValues;
 import com.yelp.nrtsearch.server.grpc.Field;
 import com.yelp.nrtsearch.server.grpc.RangeQuery;
 import com.yelp.nrtsearch.server.grpc.SearchResponse;
+import com.yelp.nrtsearch.server.grpc.TypedValues;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.function.LongToDoubleFunction;
@@ -72,6 +73,11 @@ public class IntFieldDef extends NumberFieldDef<Integer> {
     return BindingValuesSources.INT_DECODER;
   }
 
+  @Override
+  protected boolean acceptsTypedValues(TypedValues.ValuesCase valuesCase) {
+    return valuesCase == TypedValues.ValuesCase.INT_VALUES;
+  }
+
   @Override
   protected SortField.Type getSortFieldType() {
     return SortField.Type.INT;
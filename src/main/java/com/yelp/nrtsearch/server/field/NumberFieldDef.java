@@ -25,12 +25,19 @@ import com.yelp.nrtsearch.server.field.properties.TermQueryable;
 import com.yelp.nrtsearch.server.grpc.FacetType;
 import com.yelp.nrtsearch.server.grpc.Field;
 import com.yelp.nrtsearch.server.grpc.SortType;
+import com.yelp.nrtsearch.server.grpc.TypedValues;
 import java.io.IOException;
 import java.util.List;
 import java.util.function.Function;
 import java.util.function.LongToDoubleFunction;
 import java.util.function.ToLongFunction;
 import org.apache.lucene.document.Document;
+import org.apache.lucene.document.DoublePoint;
+import org.apache.lucene.document.FloatPoint;
+import org.apache.lucene.document.IntPoint;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.SortedNumericDocValuesField;
 import org.apache.lucene.facet.FacetField;
 import org.apache.lucene.index.DocValues;
 import org.apache.lucene.index.DocValuesType;
@@ -193,23 +200,131 @@ public abstract class NumberFieldDef<T> extends IndexableFieldDef<T>
           "Cannot index multiple values into single value field: " + getName());
     }
     for (String fieldStr : fieldValues) {
-      Number fieldValue = parseNumberString(fieldStr);
-      if (hasDocValues()) {
-        document.add(getDocValueField(fieldValue));
+      addFieldValue(document, parseNumberString(fieldStr));
+    }
+  }
+
+  @Override
+  public void parseTypedDocumentField(
+      Document document, TypedValues typedValues, List<List<String>> facetHierarchyPaths) {
+    if (!acceptsTypedValues(typedValues.getValuesCase())) {
+      throw TypedValuesUtils.unsupportedTypedValues(this, typedValues);
+    }
+    // read the primitive values directly, only boxing when a stored field or facet needs them
+    switch (typedValues.getValuesCase()) {
+      case INT_VALUES -> {
+        TypedValues.IntValues values = typedValues.getIntValues();
+        verifyValueCount(values.getValuesCount());
+        for (int i = 0; i < values.getValuesCount(); ++i) {
+          int value = values.getValues(i);
+          addTypedDocValue(document, value);
+          if (isSearchable()) {
+            document.add(new IntPoint(getName(), value));
+          }
+          if (isStored() || hasFacetValues()) {
+            addStoredAndFacet(document, value);
+          }
+        }
       }
-      if (isSearchable()) {
-        document.add(getPointField(fieldValue));
+      case LONG_VALUES -> {
+        TypedValues.LongValues values = typedValues.getLongValues();
+        verifyValueCount(values.getValuesCount());
+        for (int i = 0; i < values.getValuesCount(); ++i) {
+          long value = values.getValues(i);
+          addTypedDocValue(document, value);
+          if (isSearchable()) {
+            document.add(new LongPoint(getName(), value));
+          }
+          if (isStored() || hasFacetValues()) {
+            addStoredAndFacet(document, value);
+          }
+        }
       }
-      if (isStored()) {
-        document.add(new FieldWithData(getName(), fieldType, fieldValue));
+      case FLOAT_VALUES -> {
+        TypedValues.FloatValues values = typedValues.getFloatValues();
+        verifyValueCount(values.getValuesCount());
+        for (int i = 0; i < values.getValuesCount(); ++i) {
+          float value = values.getValues(i);
+          addTypedDocValue(document, NumericUtils.floatToSortableInt(value));
+          if (isSearchable()) {
+            document.add(new FloatPoint(getName(), value));
+          }
+          if (isStored() || hasFacetValues()) {
+            addStoredAndFacet(document, value);
+          }
+        }
       }
+      case DOUBLE_VALUES -> {
+        TypedValues.DoubleValues values = typedValues.getDoubleValues();
+        verifyValueCount(values.getValuesCount());
+        for (int i = 0; i < values.getValuesCount(); ++i) {
+          double value = values.getValues(i);
+          addTypedDocValue(document, NumericUtils.doubleToSortableLong(value));
+          if (isSearchable()) {
+            document.add(new DoublePoint(getName(), value));
+          }
+          if (isStored() || hasFacetValues()) {
+            addStoredAndFacet(document, value);
+          }
+        }
+      }
+      default -> throw TypedValuesUtils.unsupportedTypedValues(this, typedValues);
+    }
+  }
+
+  private void addTypedDocValue(Document document, long docValue) {
+    if (!hasDocValues()) {
+      return;
+    }
+    if (docValuesType == DocValuesType.NUMERIC) {
+      document.add(new NumericDocValuesField(getName(), docValue));
+    } else if (docValuesType == DocValuesType.SORTED_NUMERIC) {
+      document.add(new SortedNumericDocValuesField(getName(), docValue));
+    } else {
+      throw new IllegalStateException(
+          "Unsupported doc value type " + docValuesType + " for field " + getName());
+    }
+  }
+
+  private void addStoredAndFacet(Document document, Number fieldValue) {
+    if (isStored()) {
+      document.add(new FieldWithData(getName(), fieldType, fieldValue));
+    }
+    addFacet(document, fieldValue);
+  }
 
-      addFacet(document, fieldValue);
+  private boolean hasFacetValues() {
+    return facetValueType == FacetValueType.HIERARCHY || facetValueType == FacetValueType.FLAT;
+  }
+
+  private void verifyValueCount(int valueCount) {
+    if (valueCount > 1 && !isMultiValue()) {
+      throw new IllegalArgumentException(
+          "Cannot index multiple values into single value field: " + getName());
+    }
+  }
+
+  /**
+   * Get if values with the given typed encoding can be indexed into this field. The encoding must
+   * match the field number type, so that stored values have the expected type.
+   *
+   * @param valuesCase typed values encoding
+   * @return if values can be indexed
+   */
+  protected abstract boolean acceptsTypedValues(TypedValues.ValuesCase valuesCase);
+
+  private void addFieldValue(Document document, Number fieldValue) {
+    if (hasDocValues()) {
+      document.add(getDocValueField(fieldValue));
+    }
+    if (isSearchable()) {
+      document.add(getPointField(fieldValue));
     }
+    addStoredAndFacet(document, fieldValue);
   }
 
   private void addFacet(Document document, Number value) {
-    if (facetValueType == FacetValueType.HIERARCHY || facetValueType == FacetValueType.FLAT) {
+    if (hasFacetValues()) {
       String facetValue = value.toString();
       document.add(new FacetField(getName(), facetValue));
     }
@@ -25,6 +25,7 @@ import com.google.protobuf.util.JsonFormat;
 import com.yelp.nrtsearch.server.doc.LoadedDocValues;
 import com.yelp.nrtsearch.server.grpc.Field;
 import com.yelp.nrtsearch.server.grpc.SearchResponse;
+import com.yelp.nrtsearch.server.grpc.TypedValues;
 import com.yelp.nrtsearch.server.handler.AddDocumentHandler;
 import com.yelp.nrtsearch.server.index.IndexState;
 import java.io.IOException;
@@ -63,6 +64,12 @@ public class ObjectFieldDef extends IndexableFieldDef<Struct> {
   public void parseDocumentField(
       Document document, List<String> fieldValues, List<List<String>> facetHierarchyPaths) {}
 
+  @Override
+  public void parseTypedDocumentField(
+      Document document, TypedValues typedValues, List<List<String>> facetHierarchyPaths) {
+    throw TypedValuesUtils.unsupportedTypedValues(this, typedValues);
+  }
+
   @Override
   public void parseFieldWithChildren(
       AddDocumentHandler.DocumentsContext documentsContext,
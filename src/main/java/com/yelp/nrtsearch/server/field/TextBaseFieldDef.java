@@ -22,14 +22,17 @@ import com.yelp.nrtsearch.server.field.properties.GlobalOrdinalable;
 import com.yelp.nrtsearch.server.field.properties.TermQueryable;
 import com.yelp.nrtsearch.server.grpc.*;
 import com.yelp.nrtsearch.server.grpc.Field;
+import com.yelp.nrtsearch.server.monitoring.IndexMetrics;
 import com.yelp.nrtsearch.server.search.GlobalOrdinalLookup;
 import com.yelp.nrtsearch.server.search.GlobalOrdinalLookup.SortedLookup;
 import com.yelp.nrtsearch.server.search.GlobalOrdinalLookup.SortedSetLookup;
+import com.yelp.nrtsearch.server.search.IncrementalGlobalOrdinalLookup;
 import java.io.IOException;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
 import org.apache.lucene.analysis.Analyzer;
@@ -59,9 +62,12 @@ public abstract class TextBaseFieldDef extends IndexableFieldDef<String>
   private final Analyzer indexAnalyzer;
   private final Analyzer searchAnalyzer;
   private final boolean eagerFieldGlobalOrdinals;
+  private final String indexName;
 
   public final Map<IndexReader.CacheKey, GlobalOrdinalLookup> ordinalLookupCache = new HashMap<>();
   private final Object ordinalBuilderLock = new Object();
+  // lookup for the last multi segment reader, base for building the next lookup incrementally
+  private IncrementalGlobalOrdinalLookup lastIncrementalLookup = null;
   private final int ignoreAbove;
 
   /**
@@ -80,6 +86,7 @@ public abstract class TextBaseFieldDef extends IndexableFieldDef<String>
     indexAnalyzer = parseIndexAnalyzer(requestField);
     searchAnalyzer = parseSearchAnalyzer(requestField);
     eagerFieldGlobalOrdinals = requestField.getEagerFieldGlobalOrdinals();
+    indexName = Objects.requireNonNullElse(context.indexName(), "");
     ignoreAbove = requestField.hasIgnoreAbove() ? requestField.getIgnoreAbove() : Integer.MAX_VALUE;
   }
 
@@ -328,15 +335,11 @@ public abstract class TextBaseFieldDef extends IndexableFieldDef<String>
           ordinalLookup = ordinalLookupCache.get(cacheKey);
         }
         if (ordinalLookup == null) {
-          // build lookup based on doc value type
-          if (docValuesType == DocValuesType.SORTED) {
-            ordinalLookup = new SortedLookup(reader, getName());
-          } else if (docValuesType == DocValuesType.SORTED_SET) {
-            ordinalLookup = new SortedSetLookup(reader, getName());
-          } else {
-            throw new IllegalStateException(
-                "Doc value type not usable for ordinals: " + docValuesType);
-          }
+          long buildStartNs = System.nanoTime();
+          ordinalLookup = buildOrdinalLookup(reader);
+          IndexMetrics.globalOrdinalBuildTime
+              .labelValues(indexName, getName(), "field")
+              .observe((System.nanoTime() - buildStartNs) / 1_000_000.0);
 
           // add lookup to the cache
           synchronized (ordinalLookupCache) {
@@ -357,6 +360,32 @@ public abstract class TextBaseFieldDef extends IndexableFieldDef<String>
     return ordinalLookup;
   }
 
+  private GlobalOrdinalLookup buildOrdinalLookup(IndexReader reader) throws IOException {
+    if (docValuesType != DocValuesType.SORTED && docValuesType != DocValuesType.SORTED_SET) {
+      throw new IllegalStateException("Doc value type not usable for ordinals: " + docValuesType);
+    }
+    if (reader.leaves().size() <= 1) {
+      // segment ordinals are already global
+      if (docValuesType == DocValuesType.SORTED) {
+        return new SortedLookup(reader, getName());
+      } else {
+        return new SortedSetLookup(reader, getName());
+      }
+    }
+    // reuse segment mappings from the last reader, and only merge the terms of new segments
+    IncrementalGlobalOrdinalLookup lookup =
+        IncrementalGlobalOrdinalLookup.build(
+            reader, getName(), docValuesType == DocValuesType.SORTED_SET, lastIncrementalLookup);
+    lastIncrementalLookup = lookup;
+    IndexMetrics.globalOrdinalSegments
+        .labelValues(indexName, getName(), "reused")
+        .inc(lookup.getReusedSegments());
+    IndexMetrics.globalOrdinalSegments
+        .labelValues(indexName, getName(), "merged")
+        .inc(lookup.getMergedSegments());
+    return lookup;
+  }
+
   static void setIndexOptions(
       IndexOptions grpcIndexOptions,
       FieldType fieldType,
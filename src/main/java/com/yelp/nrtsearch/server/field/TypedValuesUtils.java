@@ -0,0 +1,123 @@
+/*
+ * Copyright 2025 Yelp Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.yelp.nrtsearch.server.field;
+
+import com.google.protobuf.ByteString;
+import com.yelp.nrtsearch.server.grpc.TypedValues;
+import java.util.ArrayList;
+import java.util.List;
+
+/** Utility methods for working with {@link TypedValues} document field values. */
+public class TypedValuesUtils {
+
+  private TypedValuesUtils() {}
+
+  /**
+   * Get the number of field values contained in the typed values. Vector encodings contain a single
+   * value.
+   *
+   * @param typedValues typed values
+   * @return number of field values
+   */
+  public static int getValueCount(TypedValues typedValues) {
+    return switch (typedValues.getValuesCase()) {
+      case INT_VALUES -> typedValues.getIntValues().getValuesCount();
+      case LONG_VALUES -> typedValues.getLongValues().getValuesCount();
+      case FLOAT_VALUES -> typedValues.getFloatValues().getValuesCount();
+      case DOUBLE_VALUES -> typedValues.getDoubleValues().getValuesCount();
+      case EPOCH_MILLIS_VALUES -> typedValues.getEpochMillisValues().getValuesCount();
+      case FLOAT_VECTOR, BYTE_VECTOR -> 1;
+      case VALUES_NOT_SET -> 0;
+    };
+  }
+
+  /**
+   * Convert typed values into the equivalent string encoded values. This is used by field types
+   * that do not support parsing typed values directly.
+   *
+   * @param typedValues typed values
+   * @return string encoded field values
+   */
+  public static List<String> toStringValues(TypedValues typedValues) {
+    List<String> stringValues = new ArrayList<>(getValueCount(typedValues));
+    switch (typedValues.getValuesCase()) {
+      case INT_VALUES -> {
+        for (int value : typedValues.getIntValues().getValuesList()) {
+          stringValues.add(String.valueOf(value));
+        }
+      }
+      case LONG_VALUES -> {
+        for (long value : typedValues.getLongValues().getValuesList()) {
+          stringValues.add(String.valueOf(value));
+        }
+      }
+      case FLOAT_VALUES -> {
+        for (float value : typedValues.getFloatValues().getValuesList()) {
+          stringValues.add(String.valueOf(value));
+        }
+      }
+      case DOUBLE_VALUES -> {
+        for (double value : typedValues.getDoubleValues().getValuesList()) {
+          stringValues.add(String.valueOf(value));
+        }
+      }
+      case EPOCH_MILLIS_VALUES -> {
+        for (long value : typedValues.getEpochMillisValues().getValuesList()) {
+          stringValues.add(String.valueOf(value));
+        }
+      }
+      case FLOAT_VECTOR -> {
+        StringBuilder sb = new StringBuilder("[");
+        List<Float> vector = typedValues.getFloatVector().getValuesList();
+        for (int i = 0; i < vector.size(); ++i) {
+          if (i > 0) {
+            sb.append(',');
+          }
+          sb.append(vector.get(i));
+        }
+        stringValues.add(sb.append(']').toString());
+      }
+      case BYTE_VECTOR -> {
+        StringBuilder sb = new StringBuilder("[");
+        ByteString vector = typedValues.getByteVector();
+        for (int i = 0; i < vector.size(); ++i) {
+          if (i > 0) {
+            sb.append(',');
+          }
+          sb.append(vector.byteAt(i));
+        }
+        stringValues.add(sb.append(']').toString());
+      }
+      case VALUES_NOT_SET -> {}
+    }
+    return stringValues;
+  }
+
+  /**
+   * Create an exception for typed values that cannot be indexed into the given field.
+   *
+   * @param fieldDef field definition
+   * @param typedValues typed values
+   * @return exception to throw
+   */
+  public static IllegalArgumentException unsupportedTypedValues(
+      FieldDef fieldDef, TypedValues typedValues) {
+    return new IllegalArgumentException(
+        String.format(
+            "Field: %s of type %s does not support typed values: %s",
+            fieldDef.getName(), fieldDef.getType(), typedValues.getValuesCase()));
+  }
+}
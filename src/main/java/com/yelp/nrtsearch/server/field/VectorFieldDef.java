@@ -26,7 +26,9 @@ import com.yelp.nrtsearch.server.grpc.ExactVectorQuery;
 import com.yelp.nrtsearch.server.grpc.Field;
 import com.yelp.nrtsearch.server.grpc.FieldType;
 import com.yelp.nrtsearch.server.grpc.KnnQuery;
+import com.yelp.nrtsearch.server.grpc.TypedValues;
 import com.yelp.nrtsearch.server.grpc.VectorIndexingOptions;
+import com.yelp.nrtsearch.server.query.vector.ExactVectorRescorer;
 import com.yelp.nrtsearch.server.query.vector.NrtDiversifyingChildrenByteKnnVectorQuery;
 import com.yelp.nrtsearch.server.query.vector.NrtDiversifyingChildrenFloatKnnVectorQuery;
 import com.yelp.nrtsearch.server.query.vector.NrtKnnByteVectorQuery;
@@ -380,10 +382,29 @@ public abstract class VectorFieldDef<T> extends IndexableFieldDef<T> implements
     if (numCandidates > NUM_CANDIDATES_LIMIT) {
       throw new IllegalArgumentException("Vector search numCandidates > " + NUM_CANDIDATES_LIMIT);
     }
+    if (knnQuery.getRescoreOversample() != 0) {
+      if (!(knnQuery.getRescoreOversample() >= 1.0f)) {
+        throw new IllegalArgumentException("Vector search rescoreOversample must be >= 1");
+      }
+      if (getNumRescoreCandidates(knnQuery) > numCandidates) {
+        throw new IllegalArgumentException(
+            "Vector search k * rescoreOversample must be <= numCandidates");
+      }
+    }
 
     return getTypeKnnQuery(knnQuery, k, filterQuery, numCandidates, parentBitSetProducer);
   }
 
+  /**
+   * Get the number of top vector search hits to rescore, when rescoring with exact similarity.
+   *
+   * @param knnQuery knn query definition
+   * @return number of hits to rescore
+   */
+  static int getNumRescoreCandidates(KnnQuery knnQuery) {
+    return (int) Math.ceil((double) knnQuery.getK() * knnQuery.getRescoreOversample());
+  }
+
   @Override
   public Query getExactQuery(ExactVectorQuery exactVectorQuery) {
     if (!isSearchable()) {
@@ -437,16 +458,43 @@ public abstract class VectorFieldDef<T> extends IndexableFieldDef<T> implements
 
     @Override
     void parseVectorField(String value, Document document) {
-      float[] floatArr = null;
+      if (hasDocValues() || isSearchable()) {
+        addVectorField(parseVectorFieldToFloatArr(value), document);
+      }
+    }
+
+    @Override
+    public void parseTypedDocumentField(
+        Document document, TypedValues typedValues, List<List<String>> facetHierarchyPaths) {
+      if (!acceptsTypedValues(typedValues.getValuesCase())) {
+        throw TypedValuesUtils.unsupportedTypedValues(this, typedValues);
+      }
+      TypedValues.FloatValues vector = typedValues.getFloatVector();
+      if (vector.getValuesCount() != getVectorDimensions()) {
+        throw new IllegalArgumentException(
+            "The size of the vector data: "
+                + vector.getValuesCount()
+                + " should match vectorDimensions field property: "
+                + getVectorDimensions());
+      }
+      float[] floatArr = new float[vector.getValuesCount()];
+      for (int i = 0; i < floatArr.length; ++i) {
+        floatArr[i] = vector.getValues(i);
+      }
+      addVectorField(floatArr, document);
+    }
+
+    @Override
+    protected boolean acceptsTypedValues(TypedValues.ValuesCase valuesCase) {
+      return valuesCase == TypedValues.ValuesCase.FLOAT_VECTOR;
+    }
+
+    private void addVectorField(float[] floatArr, Document document) {
       if (hasDocValues() && docValuesType == DocValuesType.BINARY) {
-        floatArr = parseVectorFieldToFloatArr(value);
         byte[] floatBytes = convertFloatArrToBytes(floatArr);
         document.add(new BinaryDocValuesField(getName(), new BytesRef(floatBytes)));
       }
       if (isSearchable()) {
-        if (floatArr == null) {
-          floatArr = parseVectorFieldToFloatArr(value);
-        }
         float magnitude2 = validateVectorForSearch(floatArr);
         if (magnitudeField != null) {
           float magnitude = (float) Math.sqrt(magnitude2);
@@ -513,11 +561,21 @@ public abstract class VectorFieldDef<T> extends IndexableFieldDef<T> implements
         float magnitude = (float) Math.sqrt(magnitude2);
         normalizeVector(queryVector, magnitude);
       }
+      // Rescore with the raw vectors, since the vector search may use quantized vectors
+      ExactVectorRescorer rescorer = null;
+      if (knnQuery.getRescoreOversample() != 0) {
+        rescorer =
+            new ExactVectorRescorer(
+                new com.yelp.nrtsearch.server.query.vector.ExactVectorQuery.ExactFloatVectorQuery(
+                    getName(), queryVector, similarityFunction),
+                getNumRescoreCandidates(knnQuery));
+      }
       if (parentBitSetProducer != null) {
         return new NrtDiversifyingChildrenFloatKnnVectorQuery(
-            getName(), queryVector, filterQuery, k, numCandidates, parentBitSetProducer);
+            getName(), queryVector, filterQuery, k, numCandidates, parentBitSetProducer, rescorer);
       } else {
-        return new NrtKnnFloatVectorQuery(getName(), queryVector, k, filterQuery, numCandidates);
+        return new NrtKnnFloatVectorQuery(
+            getName(), queryVector, k, filterQuery, numCandidates, rescorer);
       }
     }
 
@@ -629,15 +687,37 @@ public abstract class VectorFieldDef<T> extends IndexableFieldDef<T> implements
 
     @Override
     void parseVectorField(String value, Document document) {
-      byte[] byteArr = null;
+      if (hasDocValues() || isSearchable()) {
+        addVectorField(parseVectorFieldToByteArr(value), document);
+      }
+    }
+
+    @Override
+    public void parseTypedDocumentField(
+        Document document, TypedValues typedValues, List<List<String>> facetHierarchyPaths) {
+      if (!acceptsTypedValues(typedValues.getValuesCase())) {
+        throw TypedValuesUtils.unsupportedTypedValues(this, typedValues);
+      }
+      if (typedValues.getByteVector().size() != getVectorDimensions()) {
+        throw new IllegalArgumentException(
+            "The size of the vector data: "
+                + typedValues.getByteVector().size()
+                + " should match vectorDimensions field property: "
+                + getVectorDimensions());
+      }
+      addVectorField(typedValues.getByteVector().toByteArray(), document);
+    }
+
+    @Override
+    protected boolean acceptsTypedValues(TypedValues.ValuesCase valuesCase) {
+      return valuesCase == TypedValues.ValuesCase.BYTE_VECTOR;
+    }
+
+    private void addVectorField(byte[] byteArr, Document document) {
       if (hasDocValues() && docValuesType == DocValuesType.BINARY) {
-        byteArr = parseVectorFieldToByteArr(value);
         document.add(new BinaryDocValuesField(getName(), new BytesRef(byteArr)));
       }
       if (isSearchable()) {
-        if (byteArr == null) {
-          byteArr = parseVectorFieldToByteArr(value);
-        }
         validateVectorForSearch(byteArr);
         document.add(new KnnByteVectorField(getName(), byteArr, similarityFunction));
       }
@@ -683,6 +763,10 @@ public abstract class VectorFieldDef<T> extends IndexableFieldDef<T> implements
         Query filterQuery,
         int numCandidates,
         BitSetProducer parentBitSetProducer) {
+      if (knnQuery.getRescoreOversample() != 0) {
+        throw new IllegalArgumentException(
+            "Vector search rescoreOversample is only supported for float vectors");
+      }
       if (knnQuery.getQueryByteVector().size() != getVectorDimensions()) {
         throw new IllegalArgumentException(
             "Invalid query byte vector size, expected: "
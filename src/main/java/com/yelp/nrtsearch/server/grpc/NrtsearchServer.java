@@ -88,8 +88,10 @@ import com.yelp.nrtsearch.server.monitoring.IndexMetrics;
 import com.yelp.nrtsearch.server.monitoring.MergeSchedulerCollector;
 import com.yelp.nrtsearch.server.monitoring.NrtMetrics;
 import com.yelp.nrtsearch.server.monitoring.NrtsearchMonitoringServerInterceptor;
+import com.yelp.nrtsearch.server.monitoring.ParentBitSetCacheCollector;
 import com.yelp.nrtsearch.server.monitoring.ProcStatCollector;
 import com.yelp.nrtsearch.server.monitoring.QueryCacheCollector;
+import com.yelp.nrtsearch.server.monitoring.RequestCacheCollector;
 import com.yelp.nrtsearch.server.monitoring.SearchResponseCollector;
 import com.yelp.nrtsearch.server.monitoring.ThreadPoolCollector;
 import com.yelp.nrtsearch.server.monitoring.ThreadPoolCollector.RejectionCounterWrapper;
@@ -101,6 +103,7 @@ import com.yelp.nrtsearch.server.script.ScriptService;
 import com.yelp.nrtsearch.server.search.FetchTaskCreator;
 import com.yelp.nrtsearch.server.search.cache.NrtQueryCache;
 import com.yelp.nrtsearch.server.search.collectors.CollectorCreator;
+import com.yelp.nrtsearch.server.search.slicing.SearchSlicerCreator;
 import com.yelp.nrtsearch.server.similarity.SimilarityCreator;
 import com.yelp.nrtsearch.server.state.GlobalState;
 import com.yelp.nrtsearch.tools.cli.VersionProvider;
@@ -246,18 +249,23 @@ public class NrtsearchServer {
     // register thread pool metrics
     prometheusRegistry.register(new ThreadPoolCollector());
     prometheusRegistry.register(RejectionCounterWrapper.rejectionCounter);
+    prometheusRegistry.register(ThreadPoolCollector.queueDelay);
+    prometheusRegistry.register(ThreadPoolCollector.shedCount);
     // register nrt metrics
     NrtMetrics.register(prometheusRegistry);
     // register index metrics
     IndexMetrics.register(prometheusRegistry);
     // register query cache metrics
     prometheusRegistry.register(new QueryCacheCollector());
+    // register request cache metrics
+    prometheusRegistry.register(new RequestCacheCollector(globalState));
     // register deadline cancellation metrics
     DeadlineMetrics.register(prometheusRegistry);
     // register directory size metrics
     prometheusRegistry.register(new DirSizeCollector(globalState));
     prometheusRegistry.register(new ProcStatCollector());
     prometheusRegistry.register(new MergeSchedulerCollector(globalState));
+    prometheusRegistry.register(new ParentBitSetCacheCollector(globalState));
     prometheusRegistry.register(new SearchResponseCollector(globalState));
   }
 
@@ -442,6 +450,7 @@ public class NrtsearchServer {
       HitsLoggerCreator.initialize(configuration, plugins);
       RescorerCreator.initialize(configuration, plugins);
       ScriptService.initialize(configuration, plugins);
+      SearchSlicerCreator.initialize(configuration, plugins);
       SimilarityCreator.initialize(configuration, plugins);
     }
 
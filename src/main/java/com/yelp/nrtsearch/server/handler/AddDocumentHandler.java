@@ -18,9 +18,12 @@ package com.yelp.nrtsearch.server.handler;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Multimap;
 import com.google.protobuf.ProtocolStringList;
+import com.yelp.nrtsearch.server.concurrent.ExecutorFactory;
+import com.yelp.nrtsearch.server.config.IndexingConfig;
 import com.yelp.nrtsearch.server.field.FieldDef;
 import com.yelp.nrtsearch.server.field.IdFieldDef;
 import com.yelp.nrtsearch.server.field.IndexableFieldDef;
+import com.yelp.nrtsearch.server.field.TypedValuesUtils;
 import com.yelp.nrtsearch.server.grpc.AddDocumentRequest;
 import com.yelp.nrtsearch.server.grpc.AddDocumentResponse;
 import com.yelp.nrtsearch.server.grpc.DeadlineUtils;
@@ -30,11 +33,11 @@ import com.yelp.nrtsearch.server.index.ShardState;
 import com.yelp.nrtsearch.server.state.GlobalState;
 import io.grpc.Context;
 import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
@@ -60,6 +63,16 @@ public class AddDocumentHandler extends Handler<AddDocumentRequest, AddDocumentR
   @Override
   public StreamObserver<AddDocumentRequest> handle(
       StreamObserver<AddDocumentResponse> responseObserver) {
+    IndexingConfig indexingConfig = getGlobalState().getConfiguration().getIndexingConfig();
+    AddDocumentsFlowControl flowControl =
+        indexingConfig.getFlowControl()
+                && responseObserver instanceof ServerCallStreamObserver<?> callObserver
+            ? new AddDocumentsFlowControl(getGlobalState(), indexingConfig, callObserver)
+            : null;
+    if (flowControl != null) {
+      // messages are delivered once the request observer is returned
+      flowControl.start();
+    }
     return new StreamObserver<>() {
       final Multimap<String, Future<Long>> futures = HashMultimap.create();
       // Map of {indexName: addDocumentRequestQueue}
@@ -103,6 +116,24 @@ public class AddDocumentHandler extends Handler<AddDocumentRequest, AddDocumentR
         }
       }
 
+      /**
+       * Track the indexing chunk in flow control, so reading from the stream can be paused while
+       * too many chunks are in flight.
+       */
+      private Callable<Long> withFlowControl(String indexName, Callable<Long> indexingTask) {
+        if (flowControl == null) {
+          return indexingTask;
+        }
+        flowControl.onChunkSubmitted(indexName);
+        return () -> {
+          try {
+            return indexingTask.call();
+          } finally {
+            flowControl.onChunkCompleted(indexName);
+          }
+        };
+      }
+
       @Override
       public void onNext(AddDocumentRequest addDocumentRequest) {
         String indexName = addDocumentRequest.getIndexName();
@@ -128,13 +159,18 @@ public class AddDocumentHandler extends Handler<AddDocumentRequest, AddDocumentR
             DeadlineUtils.checkDeadline("addDocuments: onNext", "INDEXING");
 
             List<AddDocumentRequest> addDocRequestList = new ArrayList<>(addDocumentRequestQueue);
-            Future<Long> future =
-                getGlobalState()
-                    .submitIndexingTask(
-                        Context.current()
-                            .wrap(
-                                new DocumentIndexer(
-                                    getGlobalState(), addDocRequestList, indexName)));
+            Callable<Long> indexingTask =
+                withFlowControl(
+                    indexName, new DocumentIndexer(getGlobalState(), addDocRequestList, indexName));
+            Future<Long> future;
+            try {
+              future = getGlobalState().submitIndexingTask(Context.current().wrap(indexingTask));
+            } catch (RejectedExecutionException e) {
+              if (flowControl != null) {
+                flowControl.onChunkCompleted(indexName);
+              }
+              throw e;
+            }
             futures.put(indexName, future);
           } catch (Exception e) {
             responseObserver.onError(e);
@@ -142,11 +178,17 @@ public class AddDocumentHandler extends Handler<AddDocumentRequest, AddDocumentR
             addDocumentRequestQueue.clear();
           }
         }
+        if (flowControl != null) {
+          flowControl.onMessageProcessed(indexName);
+        }
       }
 
       @Override
       public void onError(Throwable t) {
         logger.warn("addDocuments Cancelled", t);
+        if (flowControl != null) {
+          flowControl.close();
+        }
         responseObserver.onError(t);
       }
 
@@ -212,6 +254,9 @@ public class AddDocumentHandler extends Handler<AddDocumentRequest, AddDocumentR
 
       @Override
       public void onCompleted() {
+        if (flowControl != null) {
+          flowControl.close();
+        }
         try {
           getGlobalState()
               .submitIndexingTask(
@@ -330,34 +375,52 @@ public class AddDocumentHandler extends Handler<AddDocumentRequest, AddDocumentR
       parseMultiValueField(indexState.getFieldOrThrow(fieldName), value, documentsContext);
     }
 
-    /** Parse MultiValuedField for a single field, which is always a List<String>. */
+    /**
+     * Parse MultiValuedField for a single field. Values are either a List<String>, or typed values
+     * that are indexed without string parsing.
+     */
     private static void parseMultiValueField(
         FieldDef field,
         AddDocumentRequest.MultiValuedField value,
         DocumentsContext documentsContext)
         throws AddDocumentHandlerException {
       ProtocolStringList fieldValues = value.getValueList();
+      boolean hasTypedValues = value.hasTypedValues();
+      if (hasTypedValues && !fieldValues.isEmpty()) {
+        throw new AddDocumentHandlerException(
+            String.format(
+                "Field: %s, cannot specify both string values and typed values", field.getName()));
+      }
+      int valueCount =
+          hasTypedValues
+              ? TypedValuesUtils.getValueCount(value.getTypedValues())
+              : fieldValues.size();
       List<FacetHierarchyPath> facetHierarchyPaths = value.getFaceHierarchyPathsList();
       List<List<String>> facetHierarchyPathValues =
           facetHierarchyPaths.stream()
               .map(FacetHierarchyPath::getValueList)
               .collect(Collectors.toList());
       if (!facetHierarchyPathValues.isEmpty()) {
-        if (facetHierarchyPathValues.size() != fieldValues.size()) {
+        if (facetHierarchyPathValues.size() != valueCount) {
           throw new AddDocumentHandlerException(
               String.format(
                   "Field: %s, fieldValues.size(): %s !=  "
                       + "facetHierarchyPaths.size(): %s, must have same list size for "
                       + "fieldValues and facetHierarchyPaths",
-                  field.getName(), fieldValues.size(), facetHierarchyPathValues.size()));
+                  field.getName(), valueCount, facetHierarchyPathValues.size()));
         }
       }
       if (!(field instanceof IndexableFieldDef<?> indexableFieldDef)) {
         throw new AddDocumentHandlerException(
             String.format("Field: %s is not indexable", field.getName()));
       }
-      indexableFieldDef.parseFieldWithChildren(
-          documentsContext, fieldValues, facetHierarchyPathValues);
+      if (hasTypedValues) {
+        indexableFieldDef.parseTypedFieldWithChildren(
+            documentsContext, value.getTypedValues(), facetHierarchyPathValues);
+      } else {
+        indexableFieldDef.parseFieldWithChildren(
+            documentsContext, fieldValues, facetHierarchyPathValues);
+      }
     }
   }
 
@@ -404,33 +467,38 @@ public class AddDocumentHandler extends Handler<AddDocumentRequest, AddDocumentR
       try {
         indexState = globalState.getIndexOrThrow(this.indexName);
         shardState = indexState.getShard(0);
+        if (shardState.isReplica()) {
+          throw new IllegalStateException(
+              "Adding documents to an index on a replica node is not supported");
+        }
         idFieldDef = indexState.getIdFieldDef().orElse(null);
-        for (AddDocumentRequest addDocumentRequest : addDocumentRequestList) {
-          DocumentsContext documentsContext =
-              AddDocumentHandler.LuceneDocumentBuilder.getDocumentsContext(
-                  addDocumentRequest, indexState);
-          if (documentsContext.hasNested()) {
-            try {
-              if (idFieldDef != null) {
-                // update documents in the queue to keep order
-                updateDocuments(documents, idFieldDef, indexState, shardState);
-                updateNestedDocuments(documentsContext, idFieldDef, indexState, shardState);
-              } else {
-                // add documents in the queue to keep order
-                addDocuments(documents, indexState, shardState);
-                addNestedDocuments(documentsContext, indexState, shardState);
+        try (DocumentConversionPipeline conversionPipeline =
+            createConversionPipeline(indexState, shardState)) {
+          DocumentConversionPipeline.ConvertedDocument convertedDocument;
+          while ((convertedDocument = conversionPipeline.next()) != null) {
+            if (convertedDocument.nested()) {
+              try {
+                if (idFieldDef != null) {
+                  // update documents in the queue to keep order
+                  updateDocuments(documents, idFieldDef, shardState);
+                  updateNestedDocuments(convertedDocument, idFieldDef, shardState);
+                } else {
+                  // add documents in the queue to keep order
+                  addDocuments(documents, shardState);
+                  addNestedDocuments(convertedDocument, shardState);
+                }
+                documents.clear();
+              } catch (IOException e) { // This exception should be caught in parent to and set
+                // responseObserver.onError(e) so client knows the job failed
+                logger.warn(
+                    String.format(
+                        "ThreadId: %s, IndexWriter.addDocuments failed",
+                        Thread.currentThread().getName() + Thread.currentThread().threadId()));
+                throw new IOException(e);
               }
-              documents.clear();
-            } catch (IOException e) { // This exception should be caught in parent to and set
-              // responseObserver.onError(e) so client knows the job failed
-              logger.warn(
-                  String.format(
-                      "ThreadId: %s, IndexWriter.addDocuments failed",
-                      Thread.currentThread().getName() + Thread.currentThread().threadId()));
-              throw new IOException(e);
+            } else {
+              documents.add(convertedDocument.rootDocument());
             }
-          } else {
-            documents.add(documentsContext.getRootDocument());
           }
         }
       } catch (Exception e) {
@@ -440,9 +508,9 @@ public class AddDocumentHandler extends Handler<AddDocumentRequest, AddDocumentR
 
       try {
         if (idFieldDef != null) {
-          updateDocuments(documents, idFieldDef, indexState, shardState);
+          updateDocuments(documents, idFieldDef, shardState);
         } else {
-          addDocuments(documents, indexState, shardState);
+          addDocuments(documents, shardState);
         }
       } catch (IOException e) { // This exception should be caught in parent to and set
         // responseObserver.onError(e) so client knows the job failed
@@ -460,26 +528,45 @@ public class AddDocumentHandler extends Handler<AddDocumentRequest, AddDocumentR
       return shardState.writer.getMaxCompletedSequenceNumber();
     }
 
+    /**
+     * Create the pipeline that converts requests into lucene documents. If parallel conversion is
+     * enabled and there is more than one batch of requests, conversion is done on the {@link
+     * ExecutorFactory.ExecutorType#DOCUMENTCONVERSION} executor while this thread writes the
+     * converted documents. Otherwise, documents are converted on this thread.
+     */
+    private DocumentConversionPipeline createConversionPipeline(
+        IndexState indexState, ShardState shardState) {
+      IndexingConfig indexingConfig = globalState.getConfiguration().getIndexingConfig();
+      if (indexingConfig.isParallelConversion()
+          && addDocumentRequestList.size() > indexingConfig.getConversionBatchSize()) {
+        return new DocumentConversionPipeline(
+            addDocumentRequestList,
+            indexState,
+            shardState,
+            ExecutorFactory.getInstance()
+                .getExecutor(ExecutorFactory.ExecutorType.DOCUMENTCONVERSION),
+            indexingConfig.getConversionBatchSize(),
+            indexingConfig.getMaxInFlightConversionBatches());
+      }
+      return new DocumentConversionPipeline(
+          addDocumentRequestList, indexState, shardState, null, 0, 0);
+    }
+
     /**
      * update documents with nested objects
      *
-     * @param documentsContext
+     * @param convertedDocument
      * @param idFieldDef
      * @param shardState
      * @throws IOException
      */
     private void updateNestedDocuments(
-        DocumentsContext documentsContext,
+        DocumentConversionPipeline.ConvertedDocument convertedDocument,
         IdFieldDef idFieldDef,
-        IndexState indexState,
         ShardState shardState)
         throws IOException {
-      List<Document> documents = new ArrayList<>();
-      for (Map.Entry<String, List<Document>> e : documentsContext.getChildDocuments().entrySet()) {
-        documents.addAll(
-            e.getValue().stream().map(v -> handleFacets(indexState, shardState, v)).toList());
-      }
-      Document rootDoc = handleFacets(indexState, shardState, documentsContext.getRootDocument());
+      List<Document> documents = new ArrayList<>(convertedDocument.childDocuments());
+      Document rootDoc = convertedDocument.rootDocument();
 
       for (Document doc : documents) {
         for (IndexableField f : rootDoc.getFields(idFieldDef.getName())) {
@@ -494,82 +581,29 @@ public class AddDocumentHandler extends Handler<AddDocumentRequest, AddDocumentR
     /**
      * Add documents with nested object
      *
-     * @param documentsContext
+     * @param convertedDocument
      * @param shardState
      * @throws IOException
      */
     private void addNestedDocuments(
-        DocumentsContext documentsContext, IndexState indexState, ShardState shardState)
+        DocumentConversionPipeline.ConvertedDocument convertedDocument, ShardState shardState)
         throws IOException {
-      List<Document> documents = new ArrayList<>();
-      for (Map.Entry<String, List<Document>> e : documentsContext.getChildDocuments().entrySet()) {
-        documents.addAll(
-            e.getValue().stream().map(v -> handleFacets(indexState, shardState, v)).toList());
-      }
-      Document rootDoc = handleFacets(indexState, shardState, documentsContext.getRootDocument());
-      documents.add(rootDoc);
+      List<Document> documents = new ArrayList<>(convertedDocument.childDocuments());
+      documents.add(convertedDocument.rootDocument());
       shardState.writer.addDocuments(documents);
     }
 
     private void updateDocuments(
-        Queue<Document> documents,
-        IdFieldDef idFieldDef,
-        IndexState indexState,
-        ShardState shardState)
+        Queue<Document> documents, IdFieldDef idFieldDef, ShardState shardState)
         throws IOException {
-      if (shardState.isReplica()) {
-        throw new IllegalStateException(
-            "Adding documents to an index on a replica node is not supported");
-      }
       for (Document nextDoc : documents) {
-        nextDoc = handleFacets(indexState, shardState, nextDoc);
         shardState.writer.updateDocument(idFieldDef.getTerm(nextDoc), nextDoc);
       }
     }
 
-    private void addDocuments(
-        Queue<Document> documents, IndexState indexState, ShardState shardState)
+    private void addDocuments(Queue<Document> documents, ShardState shardState)
         throws IOException {
-      if (shardState.isReplica()) {
-        throw new IllegalStateException(
-            "Adding documents to an index on a replica node is not supported");
-      }
-      shardState.writer.addDocuments(
-          (Iterable<Document>)
-              () ->
-                  new Iterator<>() {
-                    private Document nextDoc;
-
-                    @Override
-                    public boolean hasNext() {
-                      if (!documents.isEmpty()) {
-                        nextDoc = documents.poll();
-                        nextDoc = handleFacets(indexState, shardState, nextDoc);
-                        return true;
-                      } else {
-                        nextDoc = null;
-                        return false;
-                      }
-                    }
-
-                    @Override
-                    public Document next() {
-                      return nextDoc;
-                    }
-                  });
-    }
-
-    private Document handleFacets(IndexState indexState, ShardState shardState, Document nextDoc) {
-      final boolean hasFacets = indexState.hasFacets();
-      if (hasFacets) {
-        try {
-          nextDoc = indexState.getFacetsConfig().build(shardState.taxoWriter, nextDoc);
-        } catch (IOException ioe) {
-          throw new RuntimeException(
-              String.format("document: %s hit exception building facets", nextDoc), ioe);
-        }
-      }
-      return nextDoc;
+      shardState.writer.addDocuments(documents);
     }
 
     @Override
@@ -0,0 +1,240 @@
+/*
+ * Copyright 2025 Yelp Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.yelp.nrtsearch.server.handler;
+
+import com.yelp.nrtsearch.server.concurrent.ExecutorFactory;
+import com.yelp.nrtsearch.server.config.IndexingConfig;
+import com.yelp.nrtsearch.server.index.IndexState;
+import com.yelp.nrtsearch.server.index.ShardState;
+import com.yelp.nrtsearch.server.monitoring.IndexMetrics;
+import com.yelp.nrtsearch.server.state.GlobalState;
+import io.grpc.stub.ServerCallStreamObserver;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.apache.lucene.index.IndexWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Inbound flow control for an addDocuments stream. Automatic message requests are disabled, and
+ * the next message is only requested from the client once the previous one has been processed and
+ * indexing is not under pressure. Pressure is detected when the stream has too many indexing chunks
+ * in flight, the indexing thread pool queue is close to full, or the IndexWriter is using too much
+ * memory relative to its ram buffer size. While paused, gRPC flow control stops the client from
+ * sending, instead of failing the stream when the indexing pool rejects work.
+ */
+class AddDocumentsFlowControl {
+  private static final Logger logger = LoggerFactory.getLogger(AddDocumentsFlowControl.class);
+
+  enum PressureReason {
+    IN_FLIGHT_CHUNKS("in_flight_chunks"),
+    INDEX_QUEUE("index_queue"),
+    WRITER_RAM("writer_ram");
+
+    private final String label;
+
+    PressureReason(String label) {
+      this.label = label;
+    }
+
+    String getLabel() {
+      return label;
+    }
+  }
+
+  private final GlobalState globalState;
+  private final IndexingConfig indexingConfig;
+  private final ServerCallStreamObserver<?> callObserver;
+  private final Executor recheckExecutor;
+
+  // guarded by this
+  private int inFlightChunks = 0;
+  private boolean paused = false;
+  private boolean recheckScheduled = false;
+  private boolean done = false;
+  private String lastIndexName = null;
+
+  /**
+   * Constructor. Disables automatic inbound message requests for the call, so this must be created
+   * before the handler returns the request observer.
+   *
+   * @param globalState global state
+   * @param indexingConfig indexing config
+   * @param callObserver response observer for the addDocuments call
+   */
+  AddDocumentsFlowControl(
+      GlobalState globalState,
+      IndexingConfig indexingConfig,
+      ServerCallStreamObserver<?> callObserver) {
+    this.globalState = globalState;
+    this.indexingConfig = indexingConfig;
+    this.callObserver = callObserver;
+    this.recheckExecutor =
+        CompletableFuture.delayedExecutor(
+            indexingConfig.getPressureRecheckMs(), TimeUnit.MILLISECONDS);
+    callObserver.disableAutoRequest();
+  }
+
+  /** Request the first message from the client. */
+  void start() {
+    callObserver.request(1);
+  }
+
+  /**
+   * Record that an indexing chunk was submitted for the index.
+   *
+   * @param indexName index name
+   */
+  synchronized void onChunkSubmitted(String indexName) {
+    inFlightChunks++;
+    IndexMetrics.addDocumentsInFlightChunks.labelValues(indexName).inc();
+  }
+
+  /**
+   * Record that an indexing chunk for the index completed, or failed to be submitted. May resume
+   * reading messages if the stream is paused.
+   *
+   * @param indexName index name
+   */
+  void onChunkCompleted(String indexName) {
+    synchronized (this) {
+      inFlightChunks--;
+      IndexMetrics.addDocumentsInFlightChunks.labelValues(indexName).dec();
+    }
+    maybeResume(false);
+  }
+
+  /**
+   * Called when a message for the index has been processed. Requests the next message, unless
+   * indexing is under pressure, in which case the stream is paused until pressure is relieved.
+   *
+   * @param indexName index name
+   */
+  void onMessageProcessed(String indexName) {
+    PressureReason reason;
+    synchronized (this) {
+      lastIndexName = indexName;
+      if (done || paused) {
+        return;
+      }
+      reason = getPressureReason();
+      if (reason != null) {
+        pause(reason);
+        return;
+      }
+    }
+    callObserver.request(1);
+  }
+
+  /** Stop requesting messages, called when the stream completes or fails. */
+  synchronized void close() {
+    done = true;
+  }
+
+  /** Get if the stream is currently paused. */
+  synchronized boolean isPaused() {
+    return paused;
+  }
+
+  private void maybeResume(boolean fromRecheck) {
+    synchronized (this) {
+      if (fromRecheck) {
+        recheckScheduled = false;
+      }
+      if (!paused || done) {
+        return;
+      }
+      if (callObserver.isCancelled()) {
+        done = true;
+        return;
+      }
+      if (getPressureReason() != null) {
+        scheduleRecheck();
+        return;
+      }
+      paused = false;
+    }
+    callObserver.request(1);
+  }
+
+  private void pause(PressureReason reason) {
+    logger.debug("Pausing addDocuments stream for index {}: {}", lastIndexName, reason);
+    IndexMetrics.addDocumentsPausedCount.labelValues(lastIndexName, reason.getLabel()).inc();
+    paused = true;
+    scheduleRecheck();
+  }
+
+  private void scheduleRecheck() {
+    // pressure from other streams or the writer may clear without any chunk completing for
+    // this stream, so poll while paused
+    if (!recheckScheduled) {
+      recheckScheduled = true;
+      recheckExecutor.execute(() -> maybeResume(true));
+    }
+  }
+
+  private PressureReason getPressureReason() {
+    if (inFlightChunks >= indexingConfig.getMaxInFlightChunks()) {
+      return PressureReason.IN_FLIGHT_CHUNKS;
+    }
+    if (isIndexQueueSaturated()) {
+      return PressureReason.INDEX_QUEUE;
+    }
+    if (lastIndexName != null && isWriterRamSaturated(lastIndexName)) {
+      return PressureReason.WRITER_RAM;
+    }
+    return null;
+  }
+
+  private boolean isIndexQueueSaturated() {
+    ExecutorService indexExecutor =
+        ExecutorFactory.getInstance().getExecutor(ExecutorFactory.ExecutorType.INDEX);
+    if (indexExecutor instanceof ThreadPoolExecutor threadPoolExecutor) {
+      BlockingQueue<Runnable> queue = threadPoolExecutor.getQueue();
+      int queued = queue.size();
+      int capacity = queued + queue.remainingCapacity();
+      return queued >= indexingConfig.getMaxIndexQueueUtilization() * capacity;
+    }
+    return false;
+  }
+
+  private boolean isWriterRamSaturated(String indexName) {
+    try {
+      IndexState indexState = globalState.getIndex(indexName);
+      if (indexState == null) {
+        return false;
+      }
+      ShardState shardState = indexState.getShard(0);
+      IndexWriter writer = shardState != null ? shardState.writer : null;
+      if (writer == null) {
+        return false;
+      }
+      double maxRamBytes =
+          indexingConfig.getMaxWriterRamBufferRatio()
+              * indexState.getIndexRamBufferSizeMB()
+              * 1024
+              * 1024;
+      return writer.ramBytesUsed() > maxRamBytes;
+    } catch (Exception e) {
+      logger.debug("Unable to check writer ram usage for index {}", indexName, e);
+      return false;
+    }
+  }
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright 2025 Yelp Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.yelp.nrtsearch.server.handler;
+
+import com.yelp.nrtsearch.server.grpc.AddDocumentRequest;
+import com.yelp.nrtsearch.server.index.IndexState;
+import com.yelp.nrtsearch.server.index.ShardState;
+import io.grpc.Context;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import org.apache.lucene.document.Document;
+
+/**
+ * Converts {@link AddDocumentRequest}s into lucene {@link Document}s ready to be added to the
+ * {@link org.apache.lucene.index.IndexWriter}, including building facet fields. When an executor is
+ * provided, requests are split into batches that are converted in parallel by the executor
+ * threads, while the indexing thread consumes the converted documents in request order. At most
+ * {@code maxInFlightBatches} batches are converted ahead of the consumer, which bounds the memory
+ * used by converted documents that have not been written. If the executor rejects a batch, the
+ * batch is converted by the consuming thread.
+ */
+class DocumentConversionPipeline implements Closeable {
+  private final List<AddDocumentRequest> requests;
+  private final IndexState indexState;
+  private final ShardState shardState;
+  private final ExecutorService executor;
+  private final int batchSize;
+  private final int maxInFlightBatches;
+  private final Deque<Future<List<ConvertedDocument>>> inFlightBatches = new ArrayDeque<>();
+  private int nextRequestIndex = 0;
+  private Iterator<ConvertedDocument> currentBatch = Collections.emptyIterator();
+
+  /**
+   * Lucene documents for a single {@link AddDocumentRequest}.
+   *
+   * @param rootDocument root document
+   * @param childDocuments nested child documents, added to the index before the root document
+   * @param nested if the request contains nested object fields
+   */
+  record ConvertedDocument(Document rootDocument, List<Document> childDocuments, boolean nested) {}
+
+  /**
+   * Constructor.
+   *
+   * @param requests requests to convert
+   * @param indexState index state
+   * @param shardState shard state
+   * @param executor executor for parallel conversion, or null to convert on the consuming thread
+   * @param batchSize number of requests converted by each executor task
+   * @param maxInFlightBatches maximum number of batches converted ahead of the consumer
+   */
+  DocumentConversionPipeline(
+      List<AddDocumentRequest> requests,
+      IndexState indexState,
+      ShardState shardState,
+      ExecutorService executor,
+      int batchSize,
+      int maxInFlightBatches) {
+    this.requests = requests;
+    this.indexState = indexState;
+    this.shardState = shardState;
+    this.executor = executor;
+    this.batchSize = batchSize;
+    this.maxInFlightBatches = maxInFlightBatches;
+  }
+
+  /**
+   * Get the next converted document in request order, blocking until its batch is converted.
+   *
+   * @return converted document, or null if all requests have been consumed
+   * @throws Exception on conversion error
+   */
+  ConvertedDocument next() throws Exception {
+    if (executor == null) {
+      if (nextRequestIndex < requests.size()) {
+        return convert(requests.get(nextRequestIndex++), indexState, shardState);
+      }
+      return null;
+    }
+    while (!currentBatch.hasNext()) {
+      submitBatches();
+      Future<List<ConvertedDocument>> batch = inFlightBatches.poll();
+      if (batch == null) {
+        return null;
+      }
+      currentBatch = getBatch(batch).iterator();
+    }
+    return currentBatch.next();
+  }
+
+  /** Cancel any batches still being converted. */
+  @Override
+  public void close() {
+    for (Future<List<ConvertedDocument>> batch : inFlightBatches) {
+      batch.cancel(false);
+    }
+    inFlightBatches.clear();
+  }
+
+  private void submitBatches() {
+    while (inFlightBatches.size() < maxInFlightBatches && nextRequestIndex < requests.size()) {
+      int end = Math.min(nextRequestIndex + batchSize, requests.size());
+      List<AddDocumentRequest> batchRequests = requests.subList(nextRequestIndex, end);
+      nextRequestIndex = end;
+      FutureTask<List<ConvertedDocument>> task =
+          new FutureTask<>(Context.current().wrap(() -> convertBatch(batchRequests)));
+      try {
+        executor.execute(task);
+      } catch (RejectedExecutionException e) {
+        // conversion pool is saturated, do the work on this thread
+        task.run();
+      }
+      inFlightBatches.add(task);
+    }
+  }
+
+  private List<ConvertedDocument> convertBatch(List<AddDocumentRequest> batchRequests)
+      throws Exception {
+    List<ConvertedDocument> converted = new ArrayList<>(batchRequests.size());
+    for (AddDocumentRequest request : batchRequests) {
+      converted.add(convert(request, indexState, shardState));
+    }
+    return converted;
+  }
+
+  private static List<ConvertedDocument> getBatch(Future<List<ConvertedDocument>> batch)
+      throws Exception {
+    try {
+      return batch.get();
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof Exception cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Convert a single request into lucene documents, including facet fields.
+   *
+   * @param request add document request
+   * @param indexState index state
+   * @param shardState shard state
+   * @return converted documents
+   * @throws AddDocumentHandler.AddDocumentHandlerException on error parsing document fields
+   */
+  static ConvertedDocument convert(
+      AddDocumentRequest request, IndexState indexState, ShardState shardState)
+      throws AddDocumentHandler.AddDocumentHandlerException {
+    AddDocumentHandler.DocumentsContext documentsContext =
+        AddDocumentHandler.LuceneDocumentBuilder.getDocumentsContext(request, indexState);
+    List<Document> childDocuments;
+    if (documentsContext.hasNested()) {
+      childDocuments = new ArrayList<>();
+      for (Map.Entry<String, List<Document>> e : documentsContext.getChildDocuments().entrySet()) {
+        for (Document childDocument : e.getValue()) {
+          childDocuments.add(buildFacets(indexState, shardState, childDocument));
+        }
+      }
+    } else {
+      childDocuments = Collections.emptyList();
+    }
+    return new ConvertedDocument(
+        buildFacets(indexState, shardState, documentsContext.getRootDocument()),
+        childDocuments,
+        documentsContext.hasNested());
+  }
+
+  private static Document buildFacets(
+      IndexState indexState, ShardState shardState, Document document) {
+    if (indexState.hasFacets()) {
+      try {
+        return indexState.getFacetsConfig().build(shardState.taxoWriter, document);
+      } catch (IOException ioe) {
+        throw new RuntimeException(
+            String.format("document: %s hit exception building facets", document), ioe);
+      }
+    }
+    return document;
+  }
+}
@@ -18,14 +18,18 @@ package com.yelp.nrtsearch.server.handler;
 import com.google.common.base.Splitter;
 import com.google.common.collect.Sets;
 import com.yelp.nrtsearch.server.grpc.HealthCheckResponse;
+import com.yelp.nrtsearch.server.grpc.IndexStartupInfo;
 import com.yelp.nrtsearch.server.grpc.ReadyCheckRequest;
 import com.yelp.nrtsearch.server.grpc.TransferStatusCode;
+import com.yelp.nrtsearch.server.index.IndexStartupStatus;
 import com.yelp.nrtsearch.server.index.IndexState;
 import com.yelp.nrtsearch.server.state.GlobalState;
 import io.grpc.Status;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -64,23 +68,47 @@ public class ReadyHandler extends Handler<ReadyCheckRequest, HealthCheckResponse
     }
 
     List<String> indicesNotStarted = new ArrayList<>();
+    Map<String, IndexStartupStatus> startingIndices = new TreeMap<>();
+    HealthCheckResponse.Builder replyBuilder =
+        HealthCheckResponse.newBuilder().setHealth(TransferStatusCode.Done);
     for (String indexName : indexNames) {
       IndexState indexState = getGlobalState().getIndexOrThrow(indexName);
+      IndexStartupStatus startupStatus = indexState.getShard(0).getStartupStatus();
       if (!indexState.isStarted()) {
         indicesNotStarted.add(indexName);
+        if (startupStatus != null && !startupStatus.isDone()) {
+          startingIndices.put(indexName, startupStatus);
+        }
+      } else if (startupStatus != null) {
+        replyBuilder.addIndexStartup(toStartupInfo(indexName, startupStatus));
       }
     }
 
     if (indicesNotStarted.isEmpty()) {
-      HealthCheckResponse reply =
-          HealthCheckResponse.newBuilder().setHealth(TransferStatusCode.Done).build();
+      HealthCheckResponse reply = replyBuilder.build();
       logger.debug("Ready check returned " + reply);
       return reply;
     } else {
-      logger.warn("Indices not started: {}", indicesNotStarted);
-      throw Status.UNAVAILABLE
-          .withDescription(String.format("Indices not started: %s", indicesNotStarted))
-          .asRuntimeException();
+      String description = String.format("Indices not started: %s", indicesNotStarted);
+      if (!startingIndices.isEmpty()) {
+        description += String.format(", starting: %s", startingIndices);
+      }
+      logger.warn(description);
+      throw Status.UNAVAILABLE.withDescription(description).asRuntimeException();
+    }
+  }
+
+  private static IndexStartupInfo toStartupInfo(
+      String indexName, IndexStartupStatus startupStatus) {
+    IndexStartupInfo.Builder builder =
+        IndexStartupInfo.newBuilder()
+            .setIndexName(indexName)
+            .setPhase(startupStatus.getCurrentPhase().label())
+            .setTotalTimeMs(startupStatus.getTotalTimeMs());
+    for (Map.Entry<IndexStartupStatus.Phase, Double> entry :
+        startupStatus.getPhaseTimesMs().entrySet()) {
+      builder.putPhaseTimeMs(entry.getKey().label(), entry.getValue());
     }
+    return builder.build();
   }
 }
@@ -15,23 +15,22 @@
  */
 package com.yelp.nrtsearch.server.handler;
 
-import com.google.protobuf.ByteString;
 import com.yelp.nrtsearch.server.grpc.FileInfo;
 import com.yelp.nrtsearch.server.grpc.RawFileChunk;
 import com.yelp.nrtsearch.server.index.IndexState;
 import com.yelp.nrtsearch.server.index.IndexStateManager;
 import com.yelp.nrtsearch.server.index.ShardState;
+import com.yelp.nrtsearch.server.nrt.FileChunkReader;
 import com.yelp.nrtsearch.server.state.GlobalState;
 import io.grpc.Status;
 import io.grpc.StatusRuntimeException;
 import io.grpc.stub.StreamObserver;
-import org.apache.lucene.store.IOContext;
-import org.apache.lucene.store.IndexInput;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public class RecvRawFileHandler extends Handler<FileInfo, RawFileChunk> {
   private static final Logger logger = LoggerFactory.getLogger(RecvRawFileHandler.class);
+  private static final int CHUNK_SIZE = 1024 * 64;
   private final boolean verifyIndexId;
 
   public RecvRawFileHandler(GlobalState globalState, boolean verifyIndexId) {
@@ -47,23 +46,17 @@ public class RecvRawFileHandler extends Handler<FileInfo, RawFileChunk> {
 
       IndexState indexState = indexStateManager.getCurrent();
       ShardState shardState = indexState.getShard(0);
-      try (IndexInput luceneFile =
-          shardState.indexDir.openInput(fileInfoRequest.getFileName(), IOContext.READONCE)) {
-        long len = luceneFile.length();
-        long pos = fileInfoRequest.getFpStart();
-        luceneFile.seek(pos);
-        byte[] buffer = new byte[1024 * 64];
-        long totalRead;
-        totalRead = pos;
-        while (totalRead < len) {
-          int chunkSize = (int) Math.min(buffer.length, (len - totalRead));
-          luceneFile.readBytes(buffer, 0, chunkSize);
+      try (FileChunkReader chunkReader =
+          FileChunkReader.open(
+              shardState.indexDir,
+              fileInfoRequest.getFileName(),
+              fileInfoRequest.getFpStart(),
+              CHUNK_SIZE,
+              false)) {
+        while (chunkReader.hasNext()) {
           RawFileChunk rawFileChunk =
-              RawFileChunk.newBuilder()
-                  .setContent(ByteString.copyFrom(buffer, 0, chunkSize))
-                  .build();
+              RawFileChunk.newBuilder().setContent(chunkReader.nextChunk()).build();
           responseObserver.onNext(rawFileChunk);
-          totalRead += chunkSize;
         }
         // EOF
         responseObserver.onCompleted();
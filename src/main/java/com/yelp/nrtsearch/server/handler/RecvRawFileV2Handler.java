@@ -15,17 +15,15 @@
  */
 package com.yelp.nrtsearch.server.handler;
 
-import com.google.protobuf.ByteString;
 import com.yelp.nrtsearch.server.grpc.FileInfo;
 import com.yelp.nrtsearch.server.grpc.RawFileChunk;
 import com.yelp.nrtsearch.server.index.IndexState;
 import com.yelp.nrtsearch.server.index.IndexStateManager;
 import com.yelp.nrtsearch.server.index.ShardState;
+import com.yelp.nrtsearch.server.nrt.FileChunkReader;
 import com.yelp.nrtsearch.server.state.GlobalState;
 import io.grpc.stub.StreamObserver;
 import java.io.IOException;
-import org.apache.lucene.store.IOContext;
-import org.apache.lucene.store.IndexInput;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -42,16 +40,13 @@ public class RecvRawFileV2Handler extends Handler<FileInfo, RawFileChunk> {
   public StreamObserver<FileInfo> handle(StreamObserver<RawFileChunk> responseObserver) {
     return new StreamObserver<>() {
       private IndexState indexState;
-      private IndexInput luceneFile;
-      private byte[] buffer;
+      private FileChunkReader chunkReader;
       private final int ackEvery =
           getGlobalState().getConfiguration().getFileCopyConfig().getAckEvery();
       private final int maxInflight =
           getGlobalState().getConfiguration().getFileCopyConfig().getMaxInFlight();
       private int lastAckedSeq = 0;
       private int currentSeq = 0;
-      private long fileOffset;
-      private long fileLength;
 
       @Override
       public void onNext(FileInfo fileInfoRequest) {
@@ -69,13 +64,13 @@ public class RecvRawFileV2Handler extends Handler<FileInfo, RawFileChunk> {
               throw new IllegalStateException(
                   "Error getting shard state for: " + fileInfoRequest.getIndexName());
             }
-            luceneFile =
-                shardState.indexDir.openInput(fileInfoRequest.getFileName(), IOContext.DEFAULT);
-            luceneFile.seek(fileInfoRequest.getFpStart());
-            fileOffset = fileInfoRequest.getFpStart();
-            fileLength = luceneFile.length();
-            buffer =
-                new byte[getGlobalState().getConfiguration().getFileCopyConfig().getChunkSize()];
+            chunkReader =
+                FileChunkReader.open(
+                    shardState.indexDir,
+                    fileInfoRequest.getFileName(),
+                    fileInfoRequest.getFpStart(),
+                    getGlobalState().getConfiguration().getFileCopyConfig().getChunkSize(),
+                    true);
           } else {
             // ack existing transfer
             lastAckedSeq = fileInfoRequest.getAckSeqNum();
@@ -84,19 +79,16 @@ public class RecvRawFileV2Handler extends Handler<FileInfo, RawFileChunk> {
                   "Invalid ackSeqNum: " + fileInfoRequest.getAckSeqNum());
             }
           }
-          while (fileOffset < fileLength && (currentSeq - lastAckedSeq) < maxInflight) {
-            int chunkSize = (int) Math.min(buffer.length, (fileLength - fileOffset));
-            luceneFile.readBytes(buffer, 0, chunkSize);
+          while (chunkReader.hasNext() && (currentSeq - lastAckedSeq) < maxInflight) {
             currentSeq++;
             RawFileChunk rawFileChunk =
                 RawFileChunk.newBuilder()
-                    .setContent(ByteString.copyFrom(buffer, 0, chunkSize))
+                    .setContent(chunkReader.nextChunk())
                     .setSeqNum(currentSeq)
                     .setAck((currentSeq % ackEvery) == 0)
                     .build();
             responseObserver.onNext(rawFileChunk);
-            fileOffset += chunkSize;
-            if (fileOffset == fileLength) {
+            if (!chunkReader.hasNext()) {
               responseObserver.onCompleted();
             }
           }
@@ -123,13 +115,13 @@ public class RecvRawFileV2Handler extends Handler<FileInfo, RawFileChunk> {
       }
 
       private void maybeCloseFile() {
-        if (luceneFile != null) {
+        if (chunkReader != null) {
           try {
-            luceneFile.close();
+            chunkReader.close();
           } catch (IOException e) {
             logger.warn("Error closing index file", e);
           }
-          luceneFile = null;
+          chunkReader = null;
         }
       }
     };
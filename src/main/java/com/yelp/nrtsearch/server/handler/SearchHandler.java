@@ -19,6 +19,9 @@ import com.google.common.collect.Lists;
 import com.google.common.util.concurrent.MoreExecutors;
 import com.google.protobuf.InvalidProtocolBufferException;
 import com.google.protobuf.util.JsonFormat.Printer;
+import com.yelp.nrtsearch.server.concurrent.AdmissionController;
+import com.yelp.nrtsearch.server.concurrent.ExecutorFactory;
+import com.yelp.nrtsearch.server.concurrent.QueueDelayThreadPoolExecutor;
 import com.yelp.nrtsearch.server.doc.LoadedDocValues;
 import com.yelp.nrtsearch.server.facet.DrillSidewaysImpl;
 import com.yelp.nrtsearch.server.facet.FacetTopDocs;
@@ -50,9 +53,12 @@ import com.yelp.nrtsearch.server.search.SearchContext;
 import com.yelp.nrtsearch.server.search.SearchCutoffWrapper.CollectionTimeoutException;
 import com.yelp.nrtsearch.server.search.SearchRequestProcessor;
 import com.yelp.nrtsearch.server.search.SearcherResult;
+import com.yelp.nrtsearch.server.search.cache.SearchResponseCache;
 import com.yelp.nrtsearch.server.state.GlobalState;
 import com.yelp.nrtsearch.server.utils.ObjectToCompositeFieldTransformer;
 import com.yelp.nrtsearch.server.utils.ProtoMessagePrinter;
+import io.grpc.Context;
+import io.grpc.Deadline;
 import io.grpc.Status;
 import io.grpc.StatusRuntimeException;
 import io.grpc.stub.StreamObserver;
@@ -65,9 +71,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.*;
-import java.util.concurrent.locks.Condition;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
 import org.apache.lucene.document.Document;
 import org.apache.lucene.facet.DrillDownQuery;
@@ -86,11 +89,19 @@ public class SearchHandler extends Handler<SearchRequest, SearchResponse> {
   private static final Logger logger = LoggerFactory.getLogger(SearchHandler.class);
   private final ExecutorService searchExecutor;
   private final boolean warming;
+  private final boolean asyncVersionWait;
+  private final boolean parallelFacets;
+  private final SearchResponseCache searchResponseCache;
+  private final AdmissionController searchAdmissionController;
 
   public SearchHandler(GlobalState globalState) {
     super(globalState);
     this.searchExecutor = globalState.getSearchExecutor();
     this.warming = false;
+    this.asyncVersionWait = globalState.getConfiguration().getAsyncSearcherVersionWait();
+    this.parallelFacets = globalState.getConfiguration().getParallelFacets();
+    this.searchResponseCache = globalState.getSearchResponseCache();
+    this.searchAdmissionController = getAdmissionController(searchExecutor);
   }
 
   /**
@@ -101,39 +112,183 @@ public class SearchHandler extends Handler<SearchRequest, SearchResponse> {
     super(globalState);
     this.searchExecutor = searchExecutor;
     this.warming = warming;
+    this.asyncVersionWait = false;
+    this.parallelFacets = globalState.getConfiguration().getParallelFacets();
+    // warming queries should not populate the request cache
+    this.searchResponseCache = null;
+    // warming queries are never shed
+    this.searchAdmissionController = null;
+  }
+
+  /**
+   * Get the executor for parallel search of an index. Warming uses the executor provided on
+   * creation, otherwise this is the index search executor, which may be isolated from other
+   * indices.
+   */
+  private ExecutorService getSearchExecutor(IndexState indexState) {
+    return warming ? searchExecutor : indexState.getSearchExecutor();
+  }
+
+  private static AdmissionController getAdmissionController(ExecutorService executor) {
+    if (executor instanceof QueueDelayThreadPoolExecutor queueDelayExecutor) {
+      return queueDelayExecutor.getAdmissionController();
+    }
+    return null;
   }
 
   @Override
   public void handle(SearchRequest searchRequest, StreamObserver<SearchResponse> responseObserver) {
+    if (asyncVersionWait && searchRequest.getSearcherCase() == SearchRequest.SearcherCase.VERSION) {
+      CompletableFuture<Void> versionFuture;
+      try {
+        versionFuture = getSearcherVersionFuture(searchRequest);
+      } catch (Exception e) {
+        onSearchError(searchRequest, responseObserver, e);
+        return;
+      }
+      if (!versionFuture.isDone()) {
+        // Park this request until a refresh exposes the requested version, instead of blocking
+        // the server thread. Resume on the server executor in the current grpc context, so the
+        // request deadline is still applied.
+        Executor resumeExecutor =
+            Context.currentContextExecutor(
+                ExecutorFactory.getInstance().getExecutor(ExecutorFactory.ExecutorType.SERVER));
+        versionFuture.whenCompleteAsync(
+            (v, t) -> {
+              if (t != null) {
+                onSearchError(
+                    searchRequest,
+                    responseObserver,
+                    versionWaitException(searchRequest.getVersion(), t));
+              } else {
+                // The requested version is visible, so the current searcher satisfies the request.
+                // The exact version may not be tracked by the searcher lifetime manager if
+                // multiple refreshes happened while waiting.
+                handleSearch(searchRequest.toBuilder().clearVersion().build(), responseObserver);
+              }
+            },
+            resumeExecutor);
+        return;
+      }
+    }
+    handleSearch(searchRequest, responseObserver);
+  }
+
+  private void handleSearch(
+      SearchRequest searchRequest, StreamObserver<SearchResponse> responseObserver) {
     try {
-      SearchResponse reply = getSearchResponse(searchRequest);
+      SearchResponse reply;
+      if (Thread.currentThread().isVirtual() && searchExecutor != null) {
+        reply = getSearchResponseOnSearchExecutor(searchRequest);
+      } else {
+        reply = getSearchResponse(searchRequest);
+      }
       setResponseCompression(searchRequest.getResponseCompression(), responseObserver);
       responseObserver.onNext(reply);
       responseObserver.onCompleted();
     } catch (Exception e) {
-      String requestStr;
-      try {
-        requestStr = protoMessagePrinter.print(searchRequest);
-      } catch (InvalidProtocolBufferException ignored) {
-        // Ignore as invalid proto would have thrown an exception earlier
-        requestStr = searchRequest.toString();
-      }
-      logger.warn("Error handling search request: {}", requestStr, e);
-      if (e instanceof StatusRuntimeException) {
-        responseObserver.onError(e);
-      } else {
-        responseObserver.onError(
-            Status.INTERNAL
-                .withDescription(
-                    String.format(
-                        "Error while trying to execute search for index %s. check logs for full searchRequest.",
-                        searchRequest.getIndexName()))
-                .augmentDescription(e.getMessage())
-                .asRuntimeException());
+      onSearchError(searchRequest, responseObserver, e);
+    }
+  }
+
+  /**
+   * Execute the search on the search executor, waiting for the result. This keeps CPU bound search
+   * work on the platform search threads when the request handler runs on a virtual thread. The
+   * search can run in the same executor as its slices, since the calling thread executes any slice
+   * tasks that have not started. Admission control is checked before the search is queued, instead
+   * of after it waited for a search thread.
+   */
+  private SearchResponse getSearchResponseOnSearchExecutor(SearchRequest searchRequest)
+      throws Exception {
+    IndexState indexState = getIndexState(searchRequest.getIndexName());
+    checkAdmission("SearchHandler: submit");
+    Future<SearchResponse> future =
+        getSearchExecutor(indexState)
+            .submit(Context.current().wrap(() -> handle(indexState, searchRequest, false)));
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      future.cancel(true);
+      Thread.currentThread().interrupt();
+      throw Status.CANCELLED
+          .withDescription("Interrupted waiting for search")
+          .withCause(e)
+          .asRuntimeException();
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof Exception cause) {
+        throw cause;
       }
+      throw e;
+    }
+  }
+
+  private void onSearchError(
+      SearchRequest searchRequest, StreamObserver<SearchResponse> responseObserver, Exception e) {
+    String requestStr;
+    try {
+      requestStr = protoMessagePrinter.print(searchRequest);
+    } catch (InvalidProtocolBufferException ignored) {
+      // Ignore as invalid proto would have thrown an exception earlier
+      requestStr = searchRequest.toString();
+    }
+    logger.warn("Error handling search request: {}", requestStr, e);
+    if (e instanceof StatusRuntimeException) {
+      responseObserver.onError(e);
+    } else {
+      responseObserver.onError(
+          Status.INTERNAL
+              .withDescription(
+                  String.format(
+                      "Error while trying to execute search for index %s. check logs for full searchRequest.",
+                      searchRequest.getIndexName()))
+              .augmentDescription(e.getMessage())
+              .asRuntimeException());
     }
   }
 
+  /**
+   * Get a future that completes once the searcher version requested by the given search request is
+   * visible on the index shard.
+   */
+  private CompletableFuture<Void> getSearcherVersionFuture(SearchRequest searchRequest)
+      throws IOException {
+    IndexState indexState = getIndexState(searchRequest.getIndexName());
+    indexState.verifyStarted();
+    return indexState
+        .getShard(0)
+        .waitForSearcherVersion(searchRequest.getVersion(), getVersionWaitTimeoutMs());
+  }
+
+  /**
+   * Get the max time to wait for a searcher version to become visible, based on the request
+   * deadline.
+   *
+   * @return remaining deadline time, or -1 if the request has no deadline
+   */
+  private static long getVersionWaitTimeoutMs() {
+    Deadline deadline = Context.current().getDeadline();
+    if (deadline == null) {
+      return -1;
+    }
+    return Math.max(1, deadline.timeRemaining(TimeUnit.MILLISECONDS));
+  }
+
+  private static StatusRuntimeException versionWaitException(long version, Throwable cause) {
+    if (cause instanceof CompletionException && cause.getCause() != null) {
+      cause = cause.getCause();
+    }
+    if (cause instanceof TimeoutException) {
+      return Status.DEADLINE_EXCEEDED
+          .withDescription("Request deadline exceeded waiting for searcher version " + version)
+          .asRuntimeException();
+    }
+    return Status.UNAVAILABLE
+        .withDescription("Error waiting for searcher version " + version)
+        .augmentDescription(String.valueOf(cause.getMessage()))
+        .withCause(cause)
+        .asRuntimeException();
+  }
+
   public SearchResponse getSearchResponse(SearchRequest searchRequest)
       throws IOException, SearchHandlerException {
     IndexState indexState = getIndexState(searchRequest.getIndexName());
@@ -142,13 +297,34 @@ public class SearchHandler extends Handler<SearchRequest, SearchResponse> {
 
   public SearchResponse handle(IndexState indexState, SearchRequest searchRequest)
       throws SearchHandlerException {
+    return handle(indexState, searchRequest, true);
+  }
+
+  /**
+   * Shed the request if it is likely to expire waiting for a search thread.
+   *
+   * @param message context to add to exception message
+   */
+  private void checkAdmission(String message) {
+    if (searchAdmissionController != null) {
+      searchAdmissionController.checkAdmission(message);
+    }
+  }
+
+  private SearchResponse handle(
+      IndexState indexState, SearchRequest searchRequest, boolean checkAdmission)
+      throws SearchHandlerException {
     // this request may have been waiting in the grpc queue too long
     DeadlineUtils.checkDeadline("SearchHandler: start", "SEARCH");
+    if (checkAdmission) {
+      checkAdmission("SearchHandler: start");
+    }
 
     var diagnostics = SearchResponse.Diagnostics.newBuilder();
     diagnostics.setInitialDeadlineMs(DeadlineUtils.getDeadlineRemainingMs());
 
     ShardState shardState = indexState.getShard(0);
+    ExecutorService indexSearchExecutor = getSearchExecutor(indexState);
 
     // Index won't be started if we are currently warming
     if (!warming) {
@@ -157,10 +333,26 @@ public class SearchHandler extends Handler<SearchRequest, SearchResponse> {
 
     SearcherTaxonomyManager.SearcherAndTaxonomy s = null;
     SearchContext searchContext;
+    SearchResponseCache.Key cacheKey = null;
     try {
       s =
           getSearcherAndTaxonomy(
-              searchRequest, indexState, shardState, diagnostics, searchExecutor);
+              searchRequest, indexState, shardState, diagnostics, indexSearchExecutor);
+
+      if (useRequestCache(indexState, searchRequest)) {
+        cacheKey =
+            SearchResponseCache.createKey(
+                indexState, (DirectoryReader) s.searcher().getIndexReader(), searchRequest);
+        SearchResponse cachedResponse = searchResponseCache.get(cacheKey);
+        if (cachedResponse != null) {
+          diagnostics.setRequestCacheHit(true);
+          SearchResponse searchResponse =
+              cachedResponse.toBuilder().setDiagnostics(diagnostics).build();
+          SearchResponseCollector.updateSearchResponseMetrics(
+              searchResponse, indexState.getName(), indexState.getVerboseMetrics());
+          return searchResponse;
+        }
+      }
 
       ProfileResult.Builder profileResultBuilder = null;
       if (searchRequest.getProfile()) {
@@ -195,6 +387,7 @@ public class SearchHandler extends Handler<SearchRequest, SearchResponse> {
                 searchContext.getQueryFields(),
                 grpcFacetResults,
                 DIRECT_EXECUTOR,
+                parallelFacets ? indexSearchExecutor : null,
                 diagnostics);
         DrillSideways.ConcurrentDrillSidewaysResult<SearcherResult> concurrentDrillSidewaysResult;
         try {
@@ -318,6 +511,7 @@ public class SearchHandler extends Handler<SearchRequest, SearchResponse> {
         diagnostics.setLoggingHitsTimeMs(
             searchContext.getFetchTasks().getHitsLoggerFetchTask().getTimeTakenMs());
       }
+      diagnostics.putAllFetchTaskTimeMs(searchContext.getFetchTasks().getTaskTimeMs());
       if (searchContext.getFetchTasks().getInnerHitFetchTaskList() != null) {
         diagnostics.putAllInnerHitsDiagnostics(
             searchContext.getFetchTasks().getInnerHitFetchTaskList().stream()
@@ -356,7 +550,11 @@ public class SearchHandler extends Handler<SearchRequest, SearchResponse> {
     // Add searchRequest to warmer if needed
     try {
       if (!warming && indexState.getWarmer() != null) {
-        indexState.getWarmer().addSearchRequest(searchRequest);
+        double searchTimeMs =
+            diagnostics.getFirstPassSearchTimeMs()
+                + diagnostics.getRescoreTimeMs()
+                + diagnostics.getGetFieldsTimeMs();
+        indexState.getWarmer().addSearchRequest(searchRequest, searchTimeMs);
       }
     } catch (Exception e) {
       logger.error("Unable to add warming query", e);
@@ -371,9 +569,29 @@ public class SearchHandler extends Handler<SearchRequest, SearchResponse> {
           searchContext.getIndexState().getName(),
           searchContext.getIndexState().getVerboseMetrics());
     }
+    // partial results from a timeout must not be served to later requests
+    if (cacheKey != null && !searchResponse.getHitTimeout()) {
+      searchResponseCache.put(cacheKey, searchResponse);
+    }
     return searchResponse;
   }
 
+  /**
+   * Get if the shard request cache should be used for this request. The request setting takes
+   * precedence over the index default. Profiled requests and requests that log hits always execute
+   * the search.
+   */
+  private boolean useRequestCache(IndexState indexState, SearchRequest searchRequest) {
+    if (searchResponseCache == null
+        || searchRequest.getProfile()
+        || searchRequest.hasLoggingHits()) {
+      return false;
+    }
+    return searchRequest.hasRequestCache()
+        ? searchRequest.getRequestCache().getValue()
+        : indexState.getDefaultRequestCache();
+  }
+
   /**
    * Fetch/compute field values for the top hits. This operation may be done in parallel, based on
    * the setting for the fetch thread pool. In addition to filling hit fields, any query {@link
@@ -450,10 +668,8 @@ public class SearchHandler extends Handler<SearchRequest, SearchResponse> {
       }
 
       // execute per hit fetch tasks
-      for (int hitIndex = 0; hitIndex < hitBuilders.size(); ++hitIndex) {
-        var hitResponse = hitBuilders.get(hitIndex);
-        LeafReaderContext leaf = hitIdToLeaves.get(hitIndex);
-        if (searchContext.isExplain()) {
+      if (searchContext.isExplain()) {
+        for (Hit.Builder hitResponse : hitBuilders) {
           hitResponse.setExplain(
               searchContext
                   .getSearcherAndTaxonomy()
@@ -461,8 +677,14 @@ public class SearchHandler extends Handler<SearchRequest, SearchResponse> {
                   .explain(searchContext.getQuery(), hitResponse.getLuceneDocId())
                   .toString());
         }
-        searchContext.getFetchTasks().processHit(searchContext, leaf, hitResponse);
       }
+      for (SegmentHits segmentHits : groupBySegment(hitBuilders, leaves)) {
+        searchContext
+            .getFetchTasks()
+            .processSequentialSegmentHits(
+                searchContext, segmentHits.segment(), segmentHits.hits());
+      }
+      processParallelFetchTasks(searchContext, hitBuilders, parallelFetchConfig);
     } else if (!parallelFetchConfig.parallelFetchByField()
         && parallelFetchConfig.maxParallelism() > 1
         && hitBuilders.size() > parallelFetchConfig.parallelFetchChunkSize()) {
@@ -481,20 +703,18 @@ public class SearchHandler extends Handler<SearchRequest, SearchResponse> {
       // process each document chunk in parallel
       List<Future<?>> futures = new ArrayList<>();
       for (List<Hit.Builder> docChunk : docChunks) {
+        Runnable fillDocsTask = new FillDocsTask(searchContext, docChunk, searchContext.getQuery());
         futures.add(
-            parallelFetchConfig
-                .fetchExecutor()
-                .submit(new FillDocsTask(searchContext, docChunk, searchContext.getQuery())));
-      }
-      for (Future<?> future : futures) {
-        future.get();
+            parallelFetchConfig.fetchExecutor().submit(Context.current().wrap(fillDocsTask)));
       }
+      getAll(futures);
       // no need to run the per hit fetch tasks here, since they were done in the FillDocsTask
     } else {
-      // single threaded fetch
+      // single threaded fetch, fetch tasks that support parallel hits are run separately
       FillDocsTask fillDocsTask =
-          new FillDocsTask(searchContext, hitBuilders, searchContext.getQuery());
+          new FillDocsTask(searchContext, hitBuilders, searchContext.getQuery(), false);
       fillDocsTask.run();
+      processParallelFetchTasks(searchContext, hitBuilders, parallelFetchConfig);
     }
 
     // execute all hits fetch tasks
@@ -503,6 +723,111 @@ public class SearchHandler extends Handler<SearchRequest, SearchResponse> {
         .processAllHits(searchContext, searchContext.getResponseBuilder().getHitsBuilderList());
   }
 
+  /**
+   * Execute the {@link FetchTasks.FetchTask}s that support parallel processing of hits, such as
+   * highlighting and inner hits. Hits are grouped by lucene segment, and the groups are split into
+   * batches that are processed concurrently on the fetch executor. Parallelism is limited the same
+   * way as parallel fetch by document. The request deadline is checked before processing each
+   * batch.
+   *
+   * @param searchContext search parameters
+   * @param hitBuilders all hits, in lucene doc id order
+   * @param parallelFetchConfig parallel fetch config for index
+   * @throws IOException on error reading index data
+   * @throws ExecutionException on error when performing parallel fetch
+   * @throws InterruptedException if parallel fetch is interrupted
+   */
+  private static void processParallelFetchTasks(
+      SearchContext searchContext,
+      List<Hit.Builder> hitBuilders,
+      IndexState.ParallelFetchConfig parallelFetchConfig)
+      throws IOException, ExecutionException, InterruptedException {
+    FetchTasks fetchTasks = searchContext.getFetchTasks();
+    if (!fetchTasks.hasParallelHitTasks()) {
+      return;
+    }
+    List<SegmentHits> allSegmentHits =
+        groupBySegment(
+            hitBuilders,
+            searchContext.getSearcherAndTaxonomy().searcher().getIndexReader().leaves());
+
+    // parallelism is min of maxParallelism and hitsBuilder.size() / parallelFetchChunkSize
+    // round up
+    int parallelism =
+        Math.min(
+            parallelFetchConfig.maxParallelism(),
+            (hitBuilders.size() + parallelFetchConfig.parallelFetchChunkSize() - 1)
+                / parallelFetchConfig.parallelFetchChunkSize());
+    if (parallelism <= 1) {
+      for (SegmentHits segmentHits : allSegmentHits) {
+        DeadlineUtils.checkDeadline("SearchHandler: fetch tasks", "SEARCH");
+        fetchTasks.processParallelSegmentHits(
+            searchContext, segmentHits.segment(), segmentHits.hits());
+      }
+      return;
+    }
+
+    int batchSize = (hitBuilders.size() + parallelism - 1) / parallelism;
+    List<Future<?>> futures = new ArrayList<>();
+    for (SegmentHits segmentHits : allSegmentHits) {
+      for (List<Hit.Builder> batch : Lists.partition(segmentHits.hits(), batchSize)) {
+        Callable<Void> batchTask =
+            () -> {
+              DeadlineUtils.checkDeadline("SearchHandler: fetch tasks", "SEARCH");
+              fetchTasks.processParallelSegmentHits(searchContext, segmentHits.segment(), batch);
+              return null;
+            };
+        futures.add(parallelFetchConfig.fetchExecutor().submit(Context.current().wrap(batchTask)));
+      }
+    }
+    getAll(futures);
+  }
+
+  /**
+   * Wait for all futures to complete. If any future fails, the remaining futures are cancelled. A
+   * {@link StatusRuntimeException}, such as from an expired deadline, is rethrown directly.
+   */
+  private static void getAll(List<Future<?>> futures)
+      throws ExecutionException, InterruptedException {
+    try {
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } catch (ExecutionException | InterruptedException e) {
+      for (Future<?> future : futures) {
+        future.cancel(true);
+      }
+      if (e.getCause() instanceof StatusRuntimeException statusRuntimeException) {
+        throw statusRuntimeException;
+      }
+      throw e;
+    }
+  }
+
+  /** Hits that are all in the same lucene segment. */
+  record SegmentHits(LeafReaderContext segment, List<Hit.Builder> hits) {}
+
+  /**
+   * Group hits by lucene segment.
+   *
+   * @param sortedHits hits, in lucene doc id order
+   * @param leaves index reader leaves
+   * @return hits for each segment, in lucene doc id order
+   */
+  static List<SegmentHits> groupBySegment(
+      List<Hit.Builder> sortedHits, List<LeafReaderContext> leaves) {
+    List<SegmentHits> allSegmentHits = new ArrayList<>();
+    int hitIndex = 0;
+    while (hitIndex < sortedHits.size()) {
+      LeafReaderContext segment =
+          leaves.get(ReaderUtil.subIndex(sortedHits.get(hitIndex).getLuceneDocId(), leaves));
+      List<Hit.Builder> segmentHits = FillDocsTask.getSliceHits(sortedHits, hitIndex, segment);
+      allSegmentHits.add(new SegmentHits(segment, segmentHits));
+      hitIndex += segmentHits.size();
+    }
+    return allSegmentHits;
+  }
+
   /**
    * Given all the top documents, produce a slice of the documents starting from a start offset and
    * going up to the query needed maximum hits. There may be more top docs than the hitsCount limit,
@@ -611,76 +936,19 @@ public class SearchHandler extends Handler<SearchRequest, SearchResponse> {
           if (currentVersion == version) {
             s = current;
           } else if (version > currentVersion) {
-            logger.info(
-                "SearchHandler: now await version="
-                    + version
-                    + " vs currentVersion="
-                    + currentVersion);
-
-            // TODO: should we have some timeout here? if user passes bogus future version, we hang
-            // forever:
-
             // user is asking for search version beyond what we are currently searching ... wait for
-            // us to refresh to it:
-
+            // us to refresh to it, bounded by the request deadline:
             state.release(current);
-
-            // TODO: Use FutureTask<SearcherAndTaxonomy> here?
-
-            // nocommit: do this in an async way instead!  this task should be parked somewhere and
-            // resumed once refresh runs and exposes
-            // the requested version, instead of blocking the current search thread
-            Lock lock = new ReentrantLock();
-            Condition cond = lock.newCondition();
-            ReferenceManager.RefreshListener listener =
-                new ReferenceManager.RefreshListener() {
-                  @Override
-                  public void beforeRefresh() {}
-
-                  @Override
-                  public void afterRefresh(boolean didRefresh) throws IOException {
-                    SearcherTaxonomyManager.SearcherAndTaxonomy current = state.acquire();
-                    logger.info(
-                        "SearchHandler: refresh completed newVersion="
-                            + ((DirectoryReader) current.searcher().getIndexReader()).getVersion());
-                    try {
-                      if (((DirectoryReader) current.searcher().getIndexReader()).getVersion()
-                          >= version) {
-                        lock.lock();
-                        try {
-                          logger.info("SearchHandler: now signal new version");
-                          cond.signal();
-                        } finally {
-                          lock.unlock();
-                        }
-                      }
-                    } finally {
-                      state.release(current);
-                    }
-                  }
-                };
-            state.addRefreshListener(listener);
-            lock.lock();
+            long t0 = System.nanoTime();
             try {
-              current = state.acquire();
-              if (((DirectoryReader) current.searcher().getIndexReader()).getVersion() < version) {
-                // still not there yet
-                state.release(current);
-                cond.await();
-                current = state.acquire();
-                logger.info(
-                    "SearchHandler: await released,  current version "
-                        + ((DirectoryReader) current.searcher().getIndexReader()).getVersion()
-                        + " required minimum version "
-                        + version);
-                assert ((DirectoryReader) current.searcher().getIndexReader()).getVersion()
-                    >= version;
-              }
-              s = current;
-            } finally {
-              lock.unlock();
-              state.removeRefreshListener(listener);
+              state.waitForSearcherVersion(version, getVersionWaitTimeoutMs()).get();
+            } catch (ExecutionException e) {
+              throw versionWaitException(version, e.getCause());
+            }
+            if (diagnostics != null) {
+              diagnostics.setNrtWaitTimeMs((System.nanoTime() - t0) / 1000000.0);
             }
+            s = state.acquire();
           } else {
             // Specific searcher version was requested,
             // but this searcher has timed out.  App
@@ -766,13 +1034,7 @@ public class SearchHandler extends Handler<SearchRequest, SearchResponse> {
 
       SearcherTaxonomyManager.SearcherAndTaxonomy result =
           new SearcherTaxonomyManager.SearcherAndTaxonomy(
-              MyIndexSearcher.create(
-                  r,
-                  searchExecutor,
-                  new MyIndexSearcher.SlicingParams(
-                      indexState.getSliceMaxDocs(),
-                      indexState.getSliceMaxSegments(),
-                      indexState.getVirtualShards())),
+              MyIndexSearcher.create(r, searchExecutor, indexState.getSearchSlicer()),
               s.taxonomyReader());
       state.slm.record(result.searcher());
       long t1 = System.nanoTime();
@@ -922,6 +1184,7 @@ public class SearchHandler extends Handler<SearchRequest, SearchResponse> {
     private final FieldFetchContext fieldFetchContext;
     private final List<Hit.Builder> docChunk;
     private final Query explainQuery;
+    private final boolean includeParallelHitTasks;
 
     record NameAndFieldDef(String name, IndexableFieldDef<?> fieldDef) {}
 
@@ -960,9 +1223,27 @@ public class SearchHandler extends Handler<SearchRequest, SearchResponse> {
 
     public FillDocsTask(
         FieldFetchContext fieldFetchContext, List<Hit.Builder> docChunk, Query explainQuery) {
+      this(fieldFetchContext, docChunk, explainQuery, true);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param fieldFetchContext context info needed to retrieve field data
+     * @param docChunk list of hit builders for query response, must be in lucene doc id order
+     * @param explainQuery query to explain hits with, or null to use the search context query
+     * @param includeParallelHitTasks if fetch tasks that support parallel processing of hits should
+     *     be run, otherwise they must be run separately
+     */
+    public FillDocsTask(
+        FieldFetchContext fieldFetchContext,
+        List<Hit.Builder> docChunk,
+        Query explainQuery,
+        boolean includeParallelHitTasks) {
       this.fieldFetchContext = fieldFetchContext;
       this.docChunk = docChunk;
       this.explainQuery = explainQuery;
+      this.includeParallelHitTasks = includeParallelHitTasks;
     }
 
     @Override
@@ -986,7 +1267,12 @@ public class SearchHandler extends Handler<SearchRequest, SearchResponse> {
         List<Hit.Builder> sliceHits = getSliceHits(docChunk, hitIndex, sliceSegment);
         try {
           fetchSlice(
-              fieldFetchContext, explainQuery, sliceHits, sliceSegment, storedFieldFetchContext);
+              fieldFetchContext,
+              explainQuery,
+              includeParallelHitTasks,
+              sliceHits,
+              sliceSegment,
+              storedFieldFetchContext);
         } catch (IOException e) {
           throw new RuntimeException("Error fetching field data", e);
         }
@@ -1023,6 +1309,7 @@ public class SearchHandler extends Handler<SearchRequest, SearchResponse> {
     private static void fetchSlice(
         FieldFetchContext context,
         Query explainQuery,
+        boolean includeParallelHitTasks,
         List<SearchResponse.Hit.Builder> sliceHits,
         LeafReaderContext sliceSegment,
         StoredFieldFetchContext storedFieldFetchContext)
@@ -1074,7 +1361,16 @@ public class SearchHandler extends Handler<SearchRequest, SearchResponse> {
                   .explain(resolvedExplainQuery, hit.getLuceneDocId())
                   .toString());
         }
-        context.getFetchTasks().processHit(context.getSearchContext(), sliceSegment, hit);
+      }
+      DeadlineUtils.checkDeadline("SearchHandler: fetch tasks", "SEARCH");
+      if (includeParallelHitTasks) {
+        context
+            .getFetchTasks()
+            .processSegmentHits(context.getSearchContext(), sliceSegment, sliceHits);
+      } else {
+        context
+            .getFetchTasks()
+            .processSequentialSegmentHits(context.getSearchContext(), sliceSegment, sliceHits);
       }
     }
 
@@ -94,6 +94,12 @@ public class HighlightFetchTask implements FetchTask {
     timeTakenMs.add(((System.nanoTime() - startTime) / TEN_TO_THE_POWER_SIX));
   }
 
+  /** Highlighters keep no per request state, so batches of hits may be processed in parallel. */
+  @Override
+  public boolean supportsParallelHits() {
+    return true;
+  }
+
   /**
    * Get the total time taken so far to generate highlights.
    *
@@ -233,6 +233,7 @@ public class HighlightUtils {
       case PLAIN ->
           throw new UnsupportedOperationException("plain-highlighter is not supported yet.");
       case FAST_VECTOR -> NRTFastVectorHighlighter.HIGHLIGHTER_NAME;
+      case UNIFIED -> NRTUnifiedHighlighter.HIGHLIGHTER_NAME;
       case CUSTOM -> settings.getCustomHighlighterName();
       default ->
           throw new IllegalArgumentException(
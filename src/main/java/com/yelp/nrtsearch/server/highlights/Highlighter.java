@@ -24,7 +24,8 @@ import org.apache.lucene.index.LeafReaderContext;
  * This is the highlighter interface to provide the new highlighters with different implementations.
  * Highlighters are supposed to be initiated once at the startup time and registered in the {@link
  * HighlighterService}. Therefore, a single instance of the highlighter will be responsible for
- * handling all the corresponding highlighting fetch tasks.
+ * handling all the corresponding highlighting fetch tasks. Hits may be highlighted concurrently
+ * on the fetch executor, so implementations must be thread safe.
  */
 public interface Highlighter {
 
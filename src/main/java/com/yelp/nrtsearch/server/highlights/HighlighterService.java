@@ -49,6 +49,8 @@ public class HighlighterService {
   private static void initializeBuiltinHighlighters() {
     NRTFastVectorHighlighter nrtFastVectorHighlighter = NRTFastVectorHighlighter.getInstance();
     instance.register(nrtFastVectorHighlighter.getName(), nrtFastVectorHighlighter);
+    NRTUnifiedHighlighter nrtUnifiedHighlighter = NRTUnifiedHighlighter.getInstance();
+    instance.register(nrtUnifiedHighlighter.getName(), nrtUnifiedHighlighter);
   }
 
   /**
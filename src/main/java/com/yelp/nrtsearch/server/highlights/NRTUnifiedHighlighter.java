@@ -0,0 +1,268 @@
+/*
+ * Copyright 2025 Yelp Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.yelp.nrtsearch.server.highlights;
+
+import com.yelp.nrtsearch.server.field.TextBaseFieldDef;
+import com.yelp.nrtsearch.server.search.SearchContext;
+import java.io.IOException;
+import java.text.BreakIterator;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.document.FieldType;
+import org.apache.lucene.index.IndexOptions;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.uhighlight.LengthGoalBreakIterator;
+import org.apache.lucene.search.uhighlight.Passage;
+import org.apache.lucene.search.uhighlight.PassageFormatter;
+import org.apache.lucene.search.uhighlight.UnifiedHighlighter;
+import org.apache.lucene.search.uhighlight.WholeBreakIterator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The unified highlighter class for a search query, based on the Lucene {@link UnifiedHighlighter}.
+ * The highlighted field must be stored. Term offsets are read from the postings when the field is
+ * indexed with offsets, from term vectors when they have positions and offsets, and otherwise by
+ * re-analyzing the stored text. Re-analysis is only done for the first {@link
+ * UnifiedHighlighter#DEFAULT_MAX_LENGTH} characters of the field, so it is best suited to small
+ * fields. The values of multivalue fields are joined, and fragments may cross values.
+ */
+public class NRTUnifiedHighlighter implements Highlighter {
+
+  static final String HIGHLIGHTER_NAME = "unified-highlighter";
+  // the highlighter does not allow Integer.MAX_VALUE
+  private static final int UNLIMITED_MAX_LENGTH = Integer.MAX_VALUE - 1;
+
+  private static final NRTUnifiedHighlighter INSTANCE = new NRTUnifiedHighlighter();
+
+  private static final Logger logger = LoggerFactory.getLogger(NRTUnifiedHighlighter.class);
+
+  public static NRTUnifiedHighlighter getInstance() {
+    return INSTANCE;
+  }
+
+  @Override
+  public String getName() {
+    return HIGHLIGHTER_NAME;
+  }
+
+  /**
+   * Use a {@link UnifiedHighlighter} to obtain highlighted fragments for a document.
+   *
+   * @param hitLeaf {@link LeafReaderContext} for the index
+   * @param settings {@link HighlightSettings} created from the search request
+   * @param textBaseFieldDef Field in document to highlight
+   * @param leafDocId Lucene document ID of the document to highlight
+   * @param _searchContext not in used in unified highlighter
+   * @return Array of highlight fragments
+   * @throws IOException if there is a low-level IO error
+   */
+  @Override
+  public String[] getHighlights(
+      LeafReaderContext hitLeaf,
+      HighlightSettings settings,
+      TextBaseFieldDef textBaseFieldDef,
+      int leafDocId,
+      SearchContext _searchContext)
+      throws IOException {
+    Analyzer analyzer =
+        textBaseFieldDef
+            .getIndexAnalyzer()
+            .orElseThrow(
+                () ->
+                    new IllegalArgumentException(
+                        "No index analyzer for field: " + textBaseFieldDef.getName()));
+    try {
+      return highlight(
+          hitLeaf.reader(),
+          analyzer,
+          hasIndexedOffsets(textBaseFieldDef.getFieldType()),
+          textBaseFieldDef.getName(),
+          leafDocId,
+          settings);
+    } catch (RuntimeException runtimeException) {
+      logger.warn(
+          "Unified highlighter failed creating fragments for the luceneDocId: {}, highlight query:"
+              + " {}, exception: {}",
+          leafDocId + hitLeaf.docBase,
+          settings.getHighlightQuery(),
+          runtimeException.getMessage(),
+          runtimeException);
+      return new String[0];
+    }
+  }
+
+  /**
+   * Highlight a field of a segment document.
+   *
+   * @param leafReader segment reader
+   * @param analyzer index analyzer for the field, used when offsets are not indexed
+   * @param indexedOffsets if offsets are indexed in the postings or term vectors
+   * @param fieldName field to highlight
+   * @param leafDocId segment document id
+   * @param settings highlight settings
+   * @return highlight fragments, may be empty
+   * @throws IOException on error reading index
+   */
+  static String[] highlight(
+      LeafReader leafReader,
+      Analyzer analyzer,
+      boolean indexedOffsets,
+      String fieldName,
+      int leafDocId,
+      HighlightSettings settings)
+      throws IOException {
+    int maxPassages = settings.getMaxNumFragments();
+    BreakIterator breakIterator;
+    if (maxPassages == 0) {
+      // return the entire text as a single fragment
+      maxPassages = 1;
+      breakIterator = new WholeBreakIterator();
+    } else if (settings.getFragmentSize() == 0
+        || settings.getFragmentSize() == Integer.MAX_VALUE) {
+      breakIterator = new WholeBreakIterator();
+    } else {
+      breakIterator =
+          LengthGoalBreakIterator.createClosestToLength(
+              getBoundaryIterator(settings), settings.getFragmentSize());
+    }
+
+    IndexSearcher searcher = new IndexSearcher(leafReader);
+    searcher.setQueryCache(null);
+    UnifiedHighlighter.Builder builder =
+        UnifiedHighlighter.builder(searcher, analyzer)
+            .withBreakIterator(() -> breakIterator)
+            .withFormatter(
+                new FragmentsFormatter(
+                    settings.getPreTags()[0],
+                    settings.getPostTags()[0],
+                    settings.isScoreOrdered()))
+            .withMaxNoHighlightPassages(0)
+            .withMaxLength(
+                indexedOffsets ? UNLIMITED_MAX_LENGTH : UnifiedHighlighter.DEFAULT_MAX_LENGTH);
+    if (!settings.getFieldMatch()) {
+      builder.withFieldMatcher(queryField -> true);
+    }
+    Query query = settings.getHighlightQuery();
+    Map<String, Object[]> highlights =
+        builder
+            .build()
+            .highlightFieldsAsObjects(
+                new String[] {fieldName}, query, new int[] {leafDocId}, new int[] {maxPassages});
+    Object[] fieldHighlights = highlights.get(fieldName);
+    if (fieldHighlights == null || fieldHighlights[0] == null) {
+      return new String[0];
+    }
+    return (String[]) fieldHighlights[0];
+  }
+
+  private static BreakIterator getBoundaryIterator(HighlightSettings settings) {
+    if (settings.getBoundaryScanner() == null
+        || settings.getBoundaryScanner().equalsIgnoreCase("simple")
+        || settings.getBoundaryScanner().equalsIgnoreCase("sentence")) {
+      return BreakIterator.getSentenceInstance(settings.getBoundaryScannerLocale());
+    } else if (settings.getBoundaryScanner().equalsIgnoreCase("word")) {
+      return BreakIterator.getWordInstance(settings.getBoundaryScannerLocale());
+    } else {
+      throw new IllegalArgumentException(
+          "Unknown boundary scanner: " + settings.getBoundaryScanner());
+    }
+  }
+
+  private static boolean hasIndexedOffsets(FieldType fieldType) {
+    return fieldType.indexOptions() == IndexOptions.DOCS_AND_FREQS_AND_POSITIONS_AND_OFFSETS
+        || (fieldType.storeTermVectorPositions() && fieldType.storeTermVectorOffsets());
+  }
+
+  @Override
+  public void verifyFieldIsSupported(TextBaseFieldDef fieldDef) {
+    FieldType fieldType = fieldDef.getFieldType();
+    if (!fieldDef.isStored()) {
+      throw new IllegalArgumentException(
+          String.format(
+              "Field %s is not stored and cannot support unified-highlighter",
+              fieldDef.getName()));
+    }
+    // offsets are taken from term vectors if present, even when they do not contain offsets
+    if (fieldType.storeTermVectors() && !hasIndexedOffsets(fieldType)) {
+      throw new IllegalArgumentException(
+          String.format(
+              "Field %s has term vectors without positions and offsets and cannot support"
+                  + " unified-highlighter",
+              fieldDef.getName()));
+    }
+  }
+
+  /**
+   * Formatter that produces an array of fragments, with the matched terms wrapped in the pre and
+   * post tags. Fragments are sorted by score if requested, otherwise they are in the order they
+   * appear in the field.
+   */
+  static class FragmentsFormatter extends PassageFormatter {
+    private static final Comparator<Passage> SCORE_ORDER =
+        Comparator.comparingDouble(Passage::getScore).reversed();
+
+    private final String preTag;
+    private final String postTag;
+    private final boolean scoreOrdered;
+
+    FragmentsFormatter(String preTag, String postTag, boolean scoreOrdered) {
+      this.preTag = preTag;
+      this.postTag = postTag;
+      this.scoreOrdered = scoreOrdered;
+    }
+
+    @Override
+    public String[] format(Passage[] passages, String content) {
+      Passage[] orderedPassages = passages;
+      if (scoreOrdered) {
+        orderedPassages = passages.clone();
+        Arrays.sort(orderedPassages, SCORE_ORDER);
+      }
+      String[] fragments = new String[orderedPassages.length];
+      for (int i = 0; i < orderedPassages.length; ++i) {
+        fragments[i] = formatPassage(orderedPassages[i], content);
+      }
+      return fragments;
+    }
+
+    private String formatPassage(Passage passage, String content) {
+      StringBuilder sb = new StringBuilder();
+      int pos = passage.getStartOffset();
+      int[] matchStarts = passage.getMatchStarts();
+      int[] matchEnds = passage.getMatchEnds();
+      for (int i = 0; i < passage.getNumMatches(); ++i) {
+        int start = matchStarts[i];
+        int end = matchEnds[i];
+        // merge overlapping matches
+        while (i + 1 < passage.getNumMatches() && matchStarts[i + 1] < end) {
+          end = Math.max(end, matchEnds[++i]);
+        }
+        end = Math.min(end, passage.getEndOffset());
+        sb.append(content, pos, start).append(preTag);
+        sb.append(content, start, end).append(postTag);
+        pos = end;
+      }
+      sb.append(content, pos, Math.max(pos, passage.getEndOffset()));
+      return sb.toString().strip();
+    }
+  }
+}
@@ -25,6 +25,7 @@ import com.yelp.nrtsearch.server.grpc.Mode;
 import com.yelp.nrtsearch.server.grpc.ReplicationServerClient;
 import com.yelp.nrtsearch.server.index.FieldUpdateUtils.UpdatedFieldInfo;
 import com.yelp.nrtsearch.server.nrt.NrtDataManager;
+import com.yelp.nrtsearch.server.search.cache.SearchResponseCache;
 import com.yelp.nrtsearch.server.state.BackendGlobalState;
 import com.yelp.nrtsearch.server.state.GlobalState;
 import com.yelp.nrtsearch.server.state.backend.StateBackend;
@@ -91,7 +92,7 @@ public class BackendStateManager implements IndexStateManager {
             new FieldAndFacetState(),
             Collections.emptyMap(),
             stateInfo.getFieldsMap().values(),
-            FieldDefCreator.createContext(globalState));
+            FieldDefCreator.createContext(globalState, indexName));
     currentState =
         createIndexState(stateInfo, updatedFieldInfo.fieldAndFacetState, liveSettingsOverrides);
   }
@@ -154,6 +155,7 @@ public class BackendStateManager implements IndexStateManager {
             updatedStateInfo, currentState.getFieldAndFacetState(), liveSettingsOverrides);
     stateBackend.commitIndexState(indexUniqueName, updatedStateInfo);
     currentState = updatedIndexState;
+    invalidateRequestCache();
     return updatedIndexState.getMergedSettings();
   }
 
@@ -192,6 +194,7 @@ public class BackendStateManager implements IndexStateManager {
       stateBackend.commitIndexState(indexUniqueName, updatedStateInfo);
     }
     currentState = updatedIndexState;
+    invalidateRequestCache();
     for (Map.Entry<Integer, ShardState> entry : currentState.getShards().entrySet()) {
       entry.getValue().updatedLiveSettings(liveSettings);
     }
@@ -208,7 +211,7 @@ public class BackendStateManager implements IndexStateManager {
             currentState.getFieldAndFacetState(),
             currentState.getIndexStateInfo().getFieldsMap(),
             fields,
-            FieldDefCreator.createContext(globalState));
+            FieldDefCreator.createContext(globalState, indexName));
     IndexStateInfo updatedStateInfo =
         replaceFields(currentState.getIndexStateInfo(), updatedFieldInfo.fields);
     ImmutableIndexState updatedIndexState =
@@ -216,6 +219,7 @@ public class BackendStateManager implements IndexStateManager {
             updatedStateInfo, updatedFieldInfo.fieldAndFacetState, liveSettingsOverrides);
     stateBackend.commitIndexState(indexUniqueName, updatedStateInfo);
     currentState = updatedIndexState;
+    invalidateRequestCache();
     return updatedIndexState.getAllFieldsJSON();
   }
 
@@ -319,6 +323,15 @@ public class BackendStateManager implements IndexStateManager {
     if (currentState != null) {
       currentState.close();
     }
+    invalidateRequestCache();
+  }
+
+  /** Remove cached responses computed with a previous state of this index. */
+  private void invalidateRequestCache() {
+    SearchResponseCache searchResponseCache = globalState.getSearchResponseCache();
+    if (searchResponseCache != null) {
+      searchResponseCache.invalidateIndex(indexName);
+    }
   }
 
   @Override
@@ -42,6 +42,10 @@ import com.yelp.nrtsearch.server.grpc.ReplicationServerClient;
 import com.yelp.nrtsearch.server.handler.SearchHandler.SearchHandlerException;
 import com.yelp.nrtsearch.server.nrt.NrtDataManager;
 import com.yelp.nrtsearch.server.remote.RemoteBackend;
+import com.yelp.nrtsearch.server.search.slicing.DocCountSlicer;
+import com.yelp.nrtsearch.server.search.slicing.SearchSlicer;
+import com.yelp.nrtsearch.server.search.slicing.SearchSlicerCreator;
+import com.yelp.nrtsearch.server.search.slicing.SlicingParams;
 import com.yelp.nrtsearch.server.search.sort.SortParser;
 import com.yelp.nrtsearch.server.state.GlobalState;
 import java.io.IOException;
@@ -75,6 +79,8 @@ public class ImmutableIndexState extends IndexState {
   public static final double DEFAULT_NRT_CACHING_MAX_SIZE_MB = 60.0;
   public static final boolean DEFAULT_MERGE_AUTO_THROTTLE = false;
   public static final String DEFAULT_DIRECTORY = "FSDirectory";
+  public static final boolean DEFAULT_MERGE_DIRECT_IO = false;
+  public static final double DEFAULT_MERGE_DIRECT_IO_MIN_SIZE_MB = 10.0;
 
   // default settings as message, so they can be merged with saved settings
   public static final IndexSettings DEFAULT_INDEX_SETTINGS =
@@ -94,6 +100,9 @@ public class ImmutableIndexState extends IndexState {
           .setIndexMergeSchedulerAutoThrottle(
               BoolValue.newBuilder().setValue(DEFAULT_MERGE_AUTO_THROTTLE).build())
           .setDirectory(StringValue.newBuilder().setValue(DEFAULT_DIRECTORY).build())
+          .setMergeDirectIO(BoolValue.newBuilder().setValue(DEFAULT_MERGE_DIRECT_IO).build())
+          .setMergeDirectIOMinSizeMB(
+              DoubleValue.newBuilder().setValue(DEFAULT_MERGE_DIRECT_IO_MIN_SIZE_MB).build())
           .build();
 
   // Settings
@@ -104,6 +113,8 @@ public class ImmutableIndexState extends IndexState {
   private final Sort indexSort;
   private final boolean indexMergeSchedulerAutoThrottle;
   private final DirectoryFactory directoryFactory;
+  private final boolean mergeDirectIO;
+  private final double mergeDirectIOMinSizeMB;
 
   public static final double DEFAULT_MAX_REFRESH_SEC = 1.0;
   public static final double DEFAULT_MIN_REFRESH_SEC = 0.05;
@@ -129,6 +140,8 @@ public class ImmutableIndexState extends IndexState {
               Int32Value.newBuilder().setValue(DEFAULT_ADD_DOCS_MAX_BUFFER_LEN).build())
           .setSliceMaxDocs(Int32Value.newBuilder().setValue(DEFAULT_SLICE_MAX_DOCS).build())
           .setSliceMaxSegments(Int32Value.newBuilder().setValue(DEFAULT_SLICE_MAX_SEGMENTS).build())
+          .setSliceSegmentPartitions(BoolValue.newBuilder().setValue(false).build())
+          .setSliceStrategy(StringValue.newBuilder().setValue(DocCountSlicer.NAME).build())
           .setVirtualShards(Int32Value.newBuilder().setValue(DEFAULT_VIRTUAL_SHARDS).build())
           .setSegmentsPerTier(Int32Value.newBuilder().setValue(DEFAULT_SEGMENTS_PER_TIER).build())
           .setMaxMergedSegmentMB(
@@ -140,6 +153,7 @@ public class ImmutableIndexState extends IndexState {
           .setDefaultTerminateAfterMaxRecallCount(Int32Value.newBuilder().setValue(0).build())
           .setMaxMergePreCopyDurationSec(UInt64Value.newBuilder().setValue(0))
           .setVerboseMetrics(BoolValue.newBuilder().setValue(false).build())
+          .setDefaultRequestCache(BoolValue.newBuilder().setValue(false).build())
           .setParallelFetchByField(BoolValue.newBuilder().setValue(false).build())
           .setParallelFetchChunkSize(
               Int32Value.newBuilder().setValue(DEFAULT_PARALLEL_FETCH_CHUNK_SIZE).build())
@@ -153,6 +167,9 @@ public class ImmutableIndexState extends IndexState {
   private final int addDocumentsMaxBufferLen;
   private final int sliceMaxDocs;
   private final int sliceMaxSegments;
+  private final boolean sliceSegmentPartitions;
+  private final String sliceStrategy;
+  private final SearchSlicer searchSlicer;
   private final int virtualShards;
   private final int maxMergedSegmentMB;
   private final int segmentsPerTier;
@@ -162,6 +179,7 @@ public class ImmutableIndexState extends IndexState {
   private final int defaultTerminateAfterMaxRecallCount;
   private final long maxMergePreCopyDurationSec;
   private final boolean verboseMetrics;
+  private final boolean defaultRequestCache;
   private final ParallelFetchConfig parallelFetchConfig;
 
   private final IndexStateManager indexStateManager;
@@ -233,6 +251,8 @@ public class ImmutableIndexState extends IndexState {
     directoryFactory =
         DirectoryFactory.get(
             mergedSettings.getDirectory().getValue(), globalState.getConfiguration());
+    mergeDirectIO = mergedSettings.getMergeDirectIO().getValue();
+    mergeDirectIOMinSizeMB = mergedSettings.getMergeDirectIOMinSizeMB().getValue();
 
     // live settings
     mergedLiveSettings =
@@ -248,6 +268,7 @@ public class ImmutableIndexState extends IndexState {
     addDocumentsMaxBufferLen = mergedLiveSettingsWithLocal.getAddDocumentsMaxBufferLen().getValue();
     sliceMaxDocs = mergedLiveSettingsWithLocal.getSliceMaxDocs().getValue();
     sliceMaxSegments = mergedLiveSettingsWithLocal.getSliceMaxSegments().getValue();
+    sliceSegmentPartitions = mergedLiveSettingsWithLocal.getSliceSegmentPartitions().getValue();
     virtualShards = mergedLiveSettingsWithLocal.getVirtualShards().getValue();
     maxMergedSegmentMB = mergedLiveSettingsWithLocal.getMaxMergedSegmentMB().getValue();
     segmentsPerTier = mergedLiveSettingsWithLocal.getSegmentsPerTier().getValue();
@@ -260,6 +281,14 @@ public class ImmutableIndexState extends IndexState {
     maxMergePreCopyDurationSec =
         mergedLiveSettingsWithLocal.getMaxMergePreCopyDurationSec().getValue();
     verboseMetrics = mergedLiveSettingsWithLocal.getVerboseMetrics().getValue();
+    defaultRequestCache = mergedLiveSettingsWithLocal.getDefaultRequestCache().getValue();
+    sliceStrategy = mergedLiveSettingsWithLocal.getSliceStrategy().getValue();
+    searchSlicer =
+        SearchSlicerCreator.getInstance()
+            .createSlicer(
+                sliceStrategy,
+                new SlicingParams(
+                    sliceMaxDocs, sliceMaxSegments, getVirtualShards(), sliceSegmentPartitions));
     // Parallel fetch config
     int maxParallelism =
         globalState
@@ -273,7 +302,7 @@ public class ImmutableIndexState extends IndexState {
             maxParallelism,
             parallelFetchByField,
             parallelFetchChunkSize,
-            globalState.getFetchExecutor());
+            globalState.getFetchExecutor(name));
 
     // If there is previous shard state, use it. Otherwise, initialize the shard.
     if (previousShardState != null) {
@@ -640,6 +669,16 @@ public class ImmutableIndexState extends IndexState {
     return directoryFactory;
   }
 
+  @Override
+  public boolean getMergeDirectIO() {
+    return mergeDirectIO;
+  }
+
+  @Override
+  public double getMergeDirectIOMinSizeMB() {
+    return mergeDirectIOMinSizeMB;
+  }
+
   @Override
   public double getNrtCachingDirectoryMaxMergeSizeMB() {
     return nrtCachingDirectoryMaxMergeSizeMB;
@@ -685,6 +724,11 @@ public class ImmutableIndexState extends IndexState {
     return sliceMaxSegments;
   }
 
+  @Override
+  public boolean getSliceSegmentPartitions() {
+    return sliceSegmentPartitions;
+  }
+
   @Override
   public int getVirtualShards() {
     if (!getGlobalState().getConfiguration().getVirtualSharding()) {
@@ -693,6 +737,16 @@ public class ImmutableIndexState extends IndexState {
     return virtualShards;
   }
 
+  @Override
+  public String getSliceStrategy() {
+    return sliceStrategy;
+  }
+
+  @Override
+  public SearchSlicer getSearchSlicer() {
+    return searchSlicer;
+  }
+
   @Override
   public int getMaxMergedSegmentMB() {
     return maxMergedSegmentMB;
@@ -733,6 +787,11 @@ public class ImmutableIndexState extends IndexState {
     return verboseMetrics;
   }
 
+  @Override
+  public boolean getDefaultRequestCache() {
+    return defaultRequestCache;
+  }
+
   @Override
   public void initWarmer(RemoteBackend remoteBackend) {
     initWarmer(remoteBackend, uniqueName);
@@ -752,6 +811,9 @@ public class ImmutableIndexState extends IndexState {
     if (settings.getNrtCachingDirectoryMaxMergeSizeMB().getValue() < 0) {
       throw new IllegalArgumentException("nrtCachingDirectoryMaxMergeSizeMB must be >= 0");
     }
+    if (settings.getMergeDirectIOMinSizeMB().getValue() < 0) {
+      throw new IllegalArgumentException("mergeDirectIOMinSizeMB must be >= 0");
+    }
     int maxMergeCount = settings.getConcurrentMergeSchedulerMaxMergeCount().getValue();
     int maxThreadCount = settings.getConcurrentMergeSchedulerMaxThreadCount().getValue();
     if (maxMergeCount != ConcurrentMergeScheduler.AUTO_DETECT_MERGES_AND_THREADS
@@ -794,6 +856,7 @@ public class ImmutableIndexState extends IndexState {
     if (liveSettings.getVirtualShards().getValue() <= 0) {
       throw new IllegalArgumentException("virtualShards must be > 0");
     }
+    SearchSlicerCreator.getInstance().validateName(liveSettings.getSliceStrategy().getValue());
     if (liveSettings.getMaxMergedSegmentMB().getValue() < 0) {
       throw new IllegalArgumentException("maxMergedSegmentMB must be >= 0");
     }
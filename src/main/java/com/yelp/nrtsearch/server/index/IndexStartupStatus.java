@@ -0,0 +1,154 @@
+/*
+ * Copyright 2025 Yelp Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.yelp.nrtsearch.server.index;
+
+import com.yelp.nrtsearch.server.monitoring.IndexMetrics;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Tracks the time spent in each phase of starting an index shard. The time of each phase is
+ * recorded in the {@link IndexMetrics#startupPhaseTime} metric when the phase ends.
+ */
+public class IndexStartupStatus {
+
+  /** Phases of shard startup, in the order they are run. */
+  public enum Phase {
+    /** Restoring index data from the remote backend */
+    RESTORE,
+    /** Opening the index directory, writer, and nrt node */
+    OPEN,
+    /** Initial nrt point sync from the primary */
+    SYNC,
+    /** Running warming queries */
+    WARM,
+    /** Startup completed */
+    STARTED,
+    /** Startup failed */
+    FAILED;
+
+    /** Get phase name used in metrics and responses. */
+    public String label() {
+      return name().toLowerCase();
+    }
+  }
+
+  private final String indexName;
+  private final long startTimeNs;
+
+  // use synchronized access
+  private final Map<Phase, Double> phaseTimesMs = new EnumMap<>(Phase.class);
+  private Phase currentPhase = null;
+  private long phaseStartNs;
+  private long endTimeNs = -1;
+
+  /**
+   * Constructor.
+   *
+   * @param indexName index name
+   */
+  public IndexStartupStatus(String indexName) {
+    this.indexName = indexName;
+    this.startTimeNs = System.nanoTime();
+    this.phaseStartNs = startTimeNs;
+  }
+
+  /**
+   * End the current phase, and start the given phase.
+   *
+   * @param phase phase to start
+   */
+  public synchronized void startPhase(Phase phase) {
+    endCurrentPhase();
+    currentPhase = phase;
+    if (phase == Phase.STARTED || phase == Phase.FAILED) {
+      endTimeNs = phaseStartNs;
+      IndexMetrics.startupPhaseTime.labelValues(indexName, "total").set(getTotalTimeMs());
+    }
+  }
+
+  /** Mark startup as complete. */
+  public void started() {
+    startPhase(Phase.STARTED);
+  }
+
+  /** Mark startup as failed. */
+  public void failed() {
+    startPhase(Phase.FAILED);
+  }
+
+  private void endCurrentPhase() {
+    long now = System.nanoTime();
+    if (currentPhase != null && currentPhase != Phase.STARTED && currentPhase != Phase.FAILED) {
+      double phaseTimeMs = (now - phaseStartNs) / 1_000_000.0;
+      // a phase may be entered more than once, report the total time spent in it
+      double totalPhaseTimeMs = phaseTimesMs.merge(currentPhase, phaseTimeMs, Double::sum);
+      IndexMetrics.startupPhaseTime
+          .labelValues(indexName, currentPhase.label())
+          .set(totalPhaseTimeMs);
+    }
+    phaseStartNs = now;
+  }
+
+  /** Get the current startup phase, or null if no phase has started. */
+  public synchronized Phase getCurrentPhase() {
+    return currentPhase;
+  }
+
+  /** Get if startup has finished, either successfully or with a failure. */
+  public synchronized boolean isDone() {
+    return endTimeNs >= 0;
+  }
+
+  /** Get the time spent in each completed phase (ms). */
+  public synchronized Map<Phase, Double> getPhaseTimesMs() {
+    return new EnumMap<>(phaseTimesMs);
+  }
+
+  /** Get the time spent in the current phase (ms), or 0 if startup has finished. */
+  public synchronized double getCurrentPhaseTimeMs() {
+    if (isDone()) {
+      return 0;
+    }
+    return (System.nanoTime() - phaseStartNs) / 1_000_000.0;
+  }
+
+  /** Get the total startup time (ms), or the time since startup began if not yet finished. */
+  public synchronized double getTotalTimeMs() {
+    long end = endTimeNs >= 0 ? endTimeNs : System.nanoTime();
+    return (end - startTimeNs) / 1_000_000.0;
+  }
+
+  @Override
+  public synchronized String toString() {
+    StringBuilder sb = new StringBuilder();
+    sb.append(currentPhase == null ? "pending" : currentPhase.label());
+    if (!isDone()) {
+      sb.append(String.format(" %.1fms", getCurrentPhaseTimeMs()));
+    }
+    sb.append(", phases: {");
+    boolean first = true;
+    for (Map.Entry<Phase, Double> entry : phaseTimesMs.entrySet()) {
+      if (!first) {
+        sb.append(", ");
+      }
+      sb.append(entry.getKey().label()).append(String.format("=%.1fms", entry.getValue()));
+      first = false;
+    }
+    sb.append("}");
+    return sb.toString();
+  }
+}
@@ -31,8 +31,10 @@ import com.yelp.nrtsearch.server.field.properties.GlobalOrdinalable;
 import com.yelp.nrtsearch.server.grpc.*;
 import com.yelp.nrtsearch.server.nrt.NrtDataManager;
 import com.yelp.nrtsearch.server.remote.RemoteBackend;
+import com.yelp.nrtsearch.server.search.slicing.SearchSlicer;
 import com.yelp.nrtsearch.server.state.GlobalState;
 import com.yelp.nrtsearch.server.utils.FileUtils;
+import com.yelp.nrtsearch.server.warming.QueryShapeSampler;
 import com.yelp.nrtsearch.server.warming.Warmer;
 import com.yelp.nrtsearch.server.warming.WarmerConfig;
 import java.io.Closeable;
@@ -41,6 +43,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.regex.Pattern;
 import org.apache.lucene.analysis.Analyzer;
 import org.apache.lucene.analysis.AnalyzerWrapper;
@@ -83,6 +86,9 @@ public abstract class IndexState implements Closeable {
   private final Path rootDir;
 
   private static final Pattern reSimpleName = Pattern.compile("^[a-zA-Z_][a-zA-Z_0-9]*$");
+  private static final AtomicLong nextStateId = new AtomicLong();
+  // unique for each state instance, a new instance is created for every state update
+  private final long stateId = nextStateId.incrementAndGet();
   private final ExecutorService searchExecutor;
   private Warmer warmer = null;
 
@@ -227,7 +233,7 @@ public abstract class IndexState implements Closeable {
       Files.createDirectories(rootDir);
     }
 
-    searchExecutor = globalState.getSearchExecutor();
+    searchExecutor = globalState.getSearchExecutor(name);
   }
 
   /** Get index name. */
@@ -235,6 +241,11 @@ public abstract class IndexState implements Closeable {
     return name;
   }
 
+  /** Get the id of this state instance, which changes whenever the index state is updated. */
+  public long getStateId() {
+    return stateId;
+  }
+
   /** Get global state */
   public GlobalState getGlobalState() {
     return globalState;
@@ -258,7 +269,8 @@ public abstract class IndexState implements Closeable {
               remoteBackend,
               configuration.getServiceName(),
               indexName,
-              warmerConfig.getMaxWarmingQueries());
+              warmerConfig.getMaxWarmingQueries(),
+              QueryShapeSampler.fromConfig(warmerConfig));
     }
   }
 
@@ -467,6 +479,12 @@ public abstract class IndexState implements Closeable {
   /** Max size to use for nrt caching directory wrapper. */
   public abstract double getNrtCachingDirectoryMaxSizeMB();
 
+  /** If merged segment files should be read and written with direct I/O. */
+  public abstract boolean getMergeDirectIO();
+
+  /** Min estimated merge size to use direct I/O. */
+  public abstract double getMergeDirectIOMinSizeMB();
+
   // Live Settings
 
   /** Min time before the IndexSearch is automatically re-opened. */
@@ -493,12 +511,21 @@ public abstract class IndexState implements Closeable {
   /** Get the maximum segments per parallel search slice. */
   public abstract int getSliceMaxSegments();
 
+  /** Get if segments with more than the slice max docs are split into multiple search slices. */
+  public abstract boolean getSliceSegmentPartitions();
+
   /**
    * Get the number of virtual shards for this index. If virtual sharding is disabled, this always
    * returns 1.
    */
   public abstract int getVirtualShards();
 
+  /** Get the name of the strategy used to divide index segments into parallel search slices. */
+  public abstract String getSliceStrategy();
+
+  /** Get the slicer used to divide index segments into parallel search slices. */
+  public abstract SearchSlicer getSearchSlicer();
+
   /** Get maximum sized segment to produce during normal merging */
   public abstract int getMaxMergedSegmentMB();
 
@@ -523,6 +550,9 @@ public abstract class IndexState implements Closeable {
   /** Get if additional index metrics should be collected and published. */
   public abstract boolean getVerboseMetrics();
 
+  /** Get if search requests use the shard request cache, when not specified in the request. */
+  public abstract boolean getDefaultRequestCache();
+
   @Override
   public void close() throws IOException {}
 
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2025 Yelp Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.yelp.nrtsearch.server.index;
+
+import com.yelp.nrtsearch.server.monitoring.IndexMetrics;
+import java.io.IOException;
+import java.util.OptionalLong;
+import org.apache.lucene.misc.store.DirectIODirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.store.IOContext;
+import org.apache.lucene.store.IndexInput;
+import org.apache.lucene.store.IndexOutput;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link DirectIODirectory} that reads and writes the files of large merges with direct I/O, so
+ * that merges do not evict the index data used by searches from the OS page cache. All other files
+ * use the delegate directory. The number and size of files accessed with direct I/O are recorded
+ * in index metrics. The file system must support O_DIRECT.
+ */
+public class MergeDirectIODirectory extends DirectIODirectory {
+  private static final Logger logger = LoggerFactory.getLogger(MergeDirectIODirectory.class);
+
+  private final String indexName;
+
+  /**
+   * Wrap an index directory with direct I/O for merges, if enabled in the index settings.
+   *
+   * @param directory index directory
+   * @param indexState index state
+   * @return wrapped directory, or the provided directory if direct I/O is not enabled or supported
+   * @throws IOException on error creating directory
+   */
+  public static Directory maybeWrap(Directory directory, IndexState indexState) throws IOException {
+    if (!indexState.getMergeDirectIO()) {
+      return directory;
+    }
+    if (directory instanceof FSDirectory fsDirectory) {
+      long minBytesDirect = (long) (indexState.getMergeDirectIOMinSizeMB() * 1024 * 1024);
+      return new MergeDirectIODirectory(fsDirectory, indexState.getName(), minBytesDirect);
+    }
+    logger.warn(
+        "mergeDirectIO requires a file system directory, index: {}, directory: {}",
+        indexState.getName(),
+        directory.getClass().getName());
+    return directory;
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param delegate file system directory
+   * @param indexName index name for metrics
+   * @param minBytesDirect min estimated merge size to use direct I/O
+   * @throws IOException on error getting file system block size
+   */
+  public MergeDirectIODirectory(FSDirectory delegate, String indexName, long minBytesDirect)
+      throws IOException {
+    super(delegate, DEFAULT_MERGE_BUFFER_SIZE, minBytesDirect);
+    this.indexName = indexName;
+  }
+
+  @Override
+  public IndexInput openInput(String name, IOContext context) throws IOException {
+    IndexInput input = super.openInput(name, context);
+    if (super.useDirectIO(name, context, OptionalLong.of(input.length()))) {
+      IndexMetrics.mergeDirectIOFiles.labelValues(indexName, "read").inc();
+      IndexMetrics.mergeDirectIOBytes.labelValues(indexName, "read").inc(input.length());
+    }
+    return input;
+  }
+
+  @Override
+  public IndexOutput createOutput(String name, IOContext context) throws IOException {
+    IndexOutput output = super.createOutput(name, context);
+    if (super.useDirectIO(name, context, OptionalLong.empty())) {
+      IndexMetrics.mergeDirectIOFiles.labelValues(indexName, "write").inc();
+      return new CountingIndexOutput(output, indexName);
+    }
+    return output;
+  }
+
+  /** Output that records the bytes written when it is closed. */
+  static class CountingIndexOutput extends IndexOutput {
+    private final IndexOutput out;
+    private final String indexName;
+    private boolean closed = false;
+
+    CountingIndexOutput(IndexOutput out, String indexName) {
+      super("CountingIndexOutput(" + out + ")", out.getName());
+      this.out = out;
+      this.indexName = indexName;
+    }
+
+    @Override
+    public void close() throws IOException {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      long bytes = out.getFilePointer();
+      out.close();
+      IndexMetrics.mergeDirectIOBytes.labelValues(indexName, "write").inc(bytes);
+    }
+
+    @Override
+    public long getFilePointer() {
+      return out.getFilePointer();
+    }
+
+    @Override
+    public long getChecksum() throws IOException {
+      return out.getChecksum();
+    }
+
+    @Override
+    public void writeByte(byte b) throws IOException {
+      out.writeByte(b);
+    }
+
+    @Override
+    public void writeBytes(byte[] b, int offset, int length) throws IOException {
+      out.writeBytes(b, offset, length);
+    }
+
+    @Override
+    public void writeShort(short i) throws IOException {
+      out.writeShort(i);
+    }
+
+    @Override
+    public void writeInt(int i) throws IOException {
+      out.writeInt(i);
+    }
+
+    @Override
+    public void writeLong(long i) throws IOException {
+      out.writeLong(i);
+    }
+  }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2025 Yelp Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.yelp.nrtsearch.server.index;
+
+import com.yelp.nrtsearch.server.monitoring.NrtMetrics;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.apache.lucene.search.ReferenceManager;
+
+/**
+ * Tracks requests waiting for a searcher version that is not yet visible on a shard. Instead of
+ * blocking a thread until a refresh exposes the version, a waiter registers a {@link
+ * CompletableFuture} that is completed by this refresh listener once the current searcher version
+ * reaches the requested version. Futures may be bounded by a timeout, usually derived from the
+ * request deadline.
+ */
+public class SearcherVersionWaiter implements ReferenceManager.RefreshListener, Closeable {
+  private final String indexName;
+  private final VersionSupplier versionSupplier;
+  private final NavigableMap<Long, List<Waiter>> waiters = new TreeMap<>();
+  private volatile int numWaiters = 0;
+
+  /** Provides the version of the current searcher for the shard. */
+  @FunctionalInterface
+  public interface VersionSupplier {
+    long getCurrentVersion() throws IOException;
+  }
+
+  private record Waiter(CompletableFuture<Void> future, long startNanos) {}
+
+  /**
+   * Constructor.
+   *
+   * @param indexName index name, used for metrics
+   * @param versionSupplier supplier of the current searcher version
+   */
+  public SearcherVersionWaiter(String indexName, VersionSupplier versionSupplier) {
+    this.indexName = indexName;
+    this.versionSupplier = versionSupplier;
+  }
+
+  /**
+   * Get a future that completes once a searcher with at least the given version is visible. If the
+   * version is already visible, the returned future is already complete. Otherwise, the future is
+   * completed from the refresh thread, so dependent work should be run with an async executor.
+   *
+   * @param version minimum searcher version
+   * @param timeoutMs max time to wait, the future completes exceptionally with a {@link
+   *     java.util.concurrent.TimeoutException} once exceeded. No timeout is applied if &lt;= 0.
+   * @return future completed when the version is visible
+   * @throws IOException on error getting the current searcher version
+   */
+  public CompletableFuture<Void> waitForVersion(long version, long timeoutMs) throws IOException {
+    if (versionSupplier.getCurrentVersion() >= version) {
+      return CompletableFuture.completedFuture(null);
+    }
+    Waiter waiter = new Waiter(new CompletableFuture<>(), System.nanoTime());
+    synchronized (waiters) {
+      waiters.computeIfAbsent(version, k -> new ArrayList<>()).add(waiter);
+      numWaiters++;
+      NrtMetrics.searcherVersionWaiters.labelValues(indexName).set(numWaiters);
+    }
+    waiter
+        .future()
+        .whenComplete(
+            (v, t) -> {
+              if (t != null) {
+                removeWaiter(version, waiter);
+              }
+              NrtMetrics.searcherVersionWaitTime
+                  .labelValues(indexName)
+                  .observe((System.nanoTime() - waiter.startNanos()) / 1000000.0);
+            });
+    if (timeoutMs > 0) {
+      waiter.future().orTimeout(timeoutMs, TimeUnit.MILLISECONDS);
+    }
+    // a refresh may have completed between the version check and registration
+    completeWaiters(versionSupplier.getCurrentVersion());
+    return waiter.future();
+  }
+
+  /** Get the number of requests currently waiting for a searcher version. */
+  public int getNumWaiters() {
+    return numWaiters;
+  }
+
+  @Override
+  public void beforeRefresh() {}
+
+  @Override
+  public void afterRefresh(boolean didRefresh) throws IOException {
+    if (didRefresh && numWaiters > 0) {
+      completeWaiters(versionSupplier.getCurrentVersion());
+    }
+  }
+
+  /** Fail all pending waiters, called when the shard is closed. */
+  @Override
+  public void close() {
+    List<Waiter> pending = new ArrayList<>();
+    synchronized (waiters) {
+      for (List<Waiter> versionWaiters : waiters.values()) {
+        pending.addAll(versionWaiters);
+      }
+      waiters.clear();
+      numWaiters = 0;
+      NrtMetrics.searcherVersionWaiters.labelValues(indexName).set(0);
+    }
+    for (Waiter waiter : pending) {
+      waiter
+          .future()
+          .completeExceptionally(
+              new IllegalStateException(
+                  "Index " + indexName + " closed while waiting for searcher version"));
+    }
+  }
+
+  private void completeWaiters(long currentVersion) {
+    List<Waiter> ready = new ArrayList<>();
+    synchronized (waiters) {
+      NavigableMap<Long, List<Waiter>> visible = waiters.headMap(currentVersion, true);
+      if (visible.isEmpty()) {
+        return;
+      }
+      for (List<Waiter> versionWaiters : visible.values()) {
+        ready.addAll(versionWaiters);
+      }
+      visible.clear();
+      numWaiters -= ready.size();
+      NrtMetrics.searcherVersionWaiters.labelValues(indexName).set(numWaiters);
+    }
+    // complete outside the lock, since completion may run dependent stages
+    for (Waiter waiter : ready) {
+      waiter.future().complete(null);
+    }
+  }
+
+  private void removeWaiter(long version, Waiter waiter) {
+    synchronized (waiters) {
+      List<Waiter> versionWaiters = waiters.get(version);
+      if (versionWaiters != null && versionWaiters.remove(waiter)) {
+        if (versionWaiters.isEmpty()) {
+          waiters.remove(version);
+        }
+        numWaiters--;
+        NrtMetrics.searcherVersionWaiters.labelValues(indexName).set(numWaiters);
+      }
+    }
+  }
+}
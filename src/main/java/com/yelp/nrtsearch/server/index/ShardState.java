@@ -15,6 +15,7 @@
  */
 package com.yelp.nrtsearch.server.index;
 
+import com.yelp.nrtsearch.server.config.LazyRestoreConfig;
 import com.yelp.nrtsearch.server.config.NrtsearchConfig;
 import com.yelp.nrtsearch.server.field.FieldDef;
 import com.yelp.nrtsearch.server.field.IndexableFieldDef.FacetValueType;
@@ -28,8 +29,11 @@ import com.yelp.nrtsearch.server.nrt.NRTPrimaryNode;
 import com.yelp.nrtsearch.server.nrt.NRTReplicaNode;
 import com.yelp.nrtsearch.server.nrt.NrtDataManager;
 import com.yelp.nrtsearch.server.search.MyIndexSearcher;
+import com.yelp.nrtsearch.server.search.cache.ParentBitSetCache;
+import com.yelp.nrtsearch.server.search.cache.SearchResponseCache;
 import com.yelp.nrtsearch.server.utils.FileUtils;
 import com.yelp.nrtsearch.server.utils.HostPort;
+import com.yelp.nrtsearch.server.warming.RefreshWarmer;
 import com.yelp.nrtsearch.server.warming.WarmerConfig;
 import io.grpc.StatusRuntimeException;
 import java.io.Closeable;
@@ -71,6 +75,7 @@ import org.apache.lucene.search.ReferenceManager;
 import org.apache.lucene.search.SearcherFactory;
 import org.apache.lucene.search.SearcherLifetimeManager;
 import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FilterDirectory;
 import org.apache.lucene.store.MMapDirectory;
 import org.apache.lucene.store.NRTCachingDirectory;
 import org.apache.lucene.util.IOUtils;
@@ -155,9 +160,15 @@ public class ShardState implements Closeable {
 
   public final Map<IndexReader.CacheKey, Map<String, SortedSetDocValuesReaderState>> ssdvStates =
       new HashMap<>();
-  private final Object ordinalBuilderLock = new Object();
+  private final Map<String, Object> ordinalBuilderLocks = new ConcurrentHashMap<>();
 
   private final String name;
+
+  /** Startup phase timings of the last start of this shard */
+  private volatile IndexStartupStatus startupStatus;
+
+  private final SearcherVersionWaiter versionWaiter;
+  private final ParentBitSetCache parentBitSetCache = new ParentBitSetCache();
   private KeepAlive keepAlive;
   private volatile boolean started = false;
 
@@ -222,6 +233,11 @@ public class ShardState implements Closeable {
     }
   }
 
+  /** Get the startup phase timings of the last start of this shard, or null if never started. */
+  public IndexStartupStatus getStartupStatus() {
+    return startupStatus;
+  }
+
   /** True if this index is started. */
   public boolean isStarted() {
     if (started) {
@@ -296,6 +312,12 @@ public class ShardState implements Closeable {
     this.name = indexName + ":" + shardOrd;
     this.doCreate = doCreate;
     this.searchExecutor = searchExecutor;
+    this.versionWaiter = new SearcherVersionWaiter(indexName, this::getCurrentSearcherVersion);
+  }
+
+  /** Get the cache of parent document bit sets used to join nested documents. */
+  public ParentBitSetCache getParentBitSetCache() {
+    return parentBitSetCache;
   }
 
   @Override
@@ -304,6 +326,7 @@ public class ShardState implements Closeable {
 
     started = false;
     List<Closeable> closeables = new ArrayList<>();
+    closeables.add(versionWaiter);
     // nocommit catch exc & rollback:
     if (nrtPrimaryNode != null) {
       closeables.add(reopenThreadPrimary);
@@ -340,6 +363,7 @@ public class ShardState implements Closeable {
     slm = new SearcherLifetimeManager();
 
     IOUtils.close(closeables);
+    parentBitSetCache.clear();
   }
 
   /** Set if the index should be created on next start. */
@@ -487,6 +511,7 @@ public class ShardState implements Closeable {
   private class ShardSearcherFactory extends SearcherFactory {
     private final boolean loadEagerOrdinals;
     private final boolean collectMetrics;
+    private final RefreshWarmer refreshWarmer;
 
     /**
      * Constructor.
@@ -497,6 +522,9 @@ public class ShardState implements Closeable {
     ShardSearcherFactory(boolean loadEagerOrdinals, boolean collectMetrics) {
       this.loadEagerOrdinals = loadEagerOrdinals;
       this.collectMetrics = collectMetrics;
+      NrtsearchConfig configuration =
+          indexStateManager.getCurrent().getGlobalState().getConfiguration();
+      this.refreshWarmer = RefreshWarmer.fromConfig(configuration.getWarmerConfig());
     }
 
     @Override
@@ -504,13 +532,7 @@ public class ShardState implements Closeable {
         throws IOException {
       IndexState indexState = indexStateManager.getCurrent();
       IndexSearcher searcher =
-          MyIndexSearcher.create(
-              reader,
-              searchExecutor,
-              new MyIndexSearcher.SlicingParams(
-                  indexState.getSliceMaxDocs(),
-                  indexState.getSliceMaxSegments(),
-                  indexState.getVirtualShards()));
+          MyIndexSearcher.create(reader, searchExecutor, indexState.getSearchSlicer());
       searcher.setSimilarity(indexState.searchSimilarity);
       if (loadEagerOrdinals) {
         loadEagerGlobalOrdinals(reader, indexState);
@@ -519,6 +541,10 @@ public class ShardState implements Closeable {
         IndexMetrics.updateReaderStats(indexState.getName(), reader);
         IndexMetrics.updateSearcherStats(indexState.getName(), searcher);
       }
+      if (refreshWarmer != null) {
+        // warm new segments before the searcher is published
+        refreshWarmer.warm(indexState, ShardState.this, searcher, previousReader);
+      }
       return searcher;
     }
 
@@ -558,6 +584,7 @@ public class ShardState implements Closeable {
     if (isStarted()) {
       throw new IllegalStateException("index \"" + name + "\" was already started");
     }
+    startupStatus = new IndexStartupStatus(indexStateManager.getCurrent().getName());
     IndexState indexState = indexStateManager.getCurrent();
 
     try {
@@ -565,16 +592,21 @@ public class ShardState implements Closeable {
       if (!Files.exists(indexDirFile)) {
         Files.createDirectories(indexDirFile);
       }
+      startupStatus.startPhase(IndexStartupStatus.Phase.RESTORE);
       nrtDataManager.restoreIfNeeded(indexDirFile);
       origIndexDir =
-          indexState
-              .getDirectoryFactory()
-              .open(
-                  indexDirFile, indexState.getGlobalState().getConfiguration().getPreloadConfig());
+          MergeDirectIODirectory.maybeWrap(
+              indexState
+                  .getDirectoryFactory()
+                  .open(
+                      indexDirFile,
+                      indexState.getGlobalState().getConfiguration().getPreloadConfig()),
+              indexState);
 
       // nocommit don't allow RAMDir
       // nocommit remove NRTCachingDir too?
-      if (!(origIndexDir instanceof MMapDirectory)) {
+      startupStatus.startPhase(IndexStartupStatus.Phase.OPEN);
+      if (!(FilterDirectory.unwrap(origIndexDir) instanceof MMapDirectory)) {
         double maxMergeSizeMB = indexState.getNrtCachingDirectoryMaxMergeSizeMB();
         double maxSizeMB = indexState.getNrtCachingDirectoryMaxSizeMB();
         if (maxMergeSizeMB > 0 && maxSizeMB > 0) {
@@ -656,11 +688,14 @@ public class ShardState implements Closeable {
               writer, true, new ShardSearcherFactory(true, true), taxoWriter);
 
       restartReopenThread();
+      addSearcherRefreshListeners(indexState);
 
       startSearcherPruningThread(indexState.getGlobalState().getShutdownLatch());
       started = true;
+      startupStatus.started();
     } finally {
       if (!started) {
+        startupStatus.failed();
         IOUtils.closeWhileHandlingException(
             reopenThread,
             manager,
@@ -689,6 +724,7 @@ public class ShardState implements Closeable {
     if (isStarted()) {
       throw new IllegalStateException("index \"" + name + "\" was already started");
     }
+    startupStatus = new IndexStartupStatus(indexStateManager.getCurrent().getName());
     IndexState indexState = indexStateManager.getCurrent();
     // nocommit share code better w/ start and startReplica!
 
@@ -697,14 +733,19 @@ public class ShardState implements Closeable {
       if (!Files.exists(indexDirFile)) {
         Files.createDirectories(indexDirFile);
       }
+      startupStatus.startPhase(IndexStartupStatus.Phase.RESTORE);
       nrtDataManager.restoreIfNeeded(indexDirFile);
       origIndexDir =
-          indexState
-              .getDirectoryFactory()
-              .open(
-                  indexDirFile, indexState.getGlobalState().getConfiguration().getPreloadConfig());
-
-      if (!(origIndexDir instanceof MMapDirectory)) {
+          MergeDirectIODirectory.maybeWrap(
+              indexState
+                  .getDirectoryFactory()
+                  .open(
+                      indexDirFile,
+                      indexState.getGlobalState().getConfiguration().getPreloadConfig()),
+              indexState);
+
+      startupStatus.startPhase(IndexStartupStatus.Phase.OPEN);
+      if (!(FilterDirectory.unwrap(origIndexDir) instanceof MMapDirectory)) {
         double maxMergeSizeMB = indexState.getNrtCachingDirectoryMaxMergeSizeMB();
         double maxSizeMB = indexState.getNrtCachingDirectoryMaxSizeMB();
         if (maxMergeSizeMB > 0 && maxSizeMB > 0) {
@@ -788,23 +829,20 @@ public class ShardState implements Closeable {
                 @Override
                 public IndexSearcher newSearcher(IndexReader r, IndexReader previousReader) {
                   IndexSearcher searcher =
-                      MyIndexSearcher.create(
-                          r,
-                          searchExecutor,
-                          new MyIndexSearcher.SlicingParams(
-                              indexState.getSliceMaxDocs(),
-                              indexState.getSliceMaxSegments(),
-                              indexState.getVirtualShards()));
+                      MyIndexSearcher.create(r, searchExecutor, indexState.getSearchSlicer());
                   searcher.setSimilarity(indexState.searchSimilarity);
                   return searcher;
                 }
               });
       restartReopenThread();
+      addSearcherRefreshListeners(indexState);
 
       startSearcherPruningThread(indexState.getGlobalState().getShutdownLatch());
       started = true;
+      startupStatus.started();
     } finally {
       if (!started) {
+        startupStatus.failed();
         IOUtils.closeWhileHandlingException(
             reopenThread,
             nrtPrimaryNode,
@@ -850,9 +888,10 @@ public class ShardState implements Closeable {
     }
 
     if (ssdvState == null) {
-      // Lock building SSDV state with different lock, so it won't block readers accessing
-      // the cache. Uses a single lock for now, could be made better by scoping it to the
-      // field and reader key.
+      // Lock building SSDV state with a separate per field lock, so it won't block readers
+      // accessing the cache or the building of other fields.
+      Object ordinalBuilderLock =
+          ordinalBuilderLocks.computeIfAbsent(dimConfig.indexFieldName, k -> new Object());
       synchronized (ordinalBuilderLock) {
         // make sure state was not built while we were waiting for the lock
         synchronized (ssdvStates) {
@@ -864,6 +903,7 @@ public class ShardState implements Closeable {
           ssdvState = readerSSDVStates.get(dimConfig.indexFieldName);
         }
         if (ssdvState == null) {
+          long buildStartNs = System.nanoTime();
           ssdvState =
               new DefaultSortedSetDocValuesReaderState(
                   reader, dimConfig.indexFieldName, indexState.getFacetsConfig()) {
@@ -885,6 +925,9 @@ public class ShardState implements Closeable {
                   return result;
                 }
               };
+          IndexMetrics.globalOrdinalBuildTime
+              .labelValues(indexState.getName(), dimConfig.indexFieldName, "facet")
+              .observe((System.nanoTime() - buildStartNs) / 1_000_000.0);
 
           // add state to cache
           synchronized (ssdvStates) {
@@ -915,6 +958,7 @@ public class ShardState implements Closeable {
     if (isStarted()) {
       throw new IllegalStateException("index \"" + name + "\" was already started");
     }
+    startupStatus = new IndexStartupStatus(indexStateManager.getCurrent().getName());
     IndexState indexState = indexStateManager.getCurrent();
     NrtsearchConfig configuration = indexState.getGlobalState().getConfiguration();
 
@@ -924,12 +968,19 @@ public class ShardState implements Closeable {
       if (!Files.exists(indexDirFile)) {
         Files.createDirectories(indexDirFile);
       }
-      nrtDataManager.restoreIfNeeded(indexDirFile);
+      startupStatus.startPhase(IndexStartupStatus.Phase.RESTORE);
+      LazyRestoreConfig lazyRestoreConfig = configuration.getLazyRestoreConfig();
+      nrtDataManager.restoreIfNeeded(indexDirFile, lazyRestoreConfig.getEnabled());
       origIndexDir =
-          indexState.getDirectoryFactory().open(indexDirFile, configuration.getPreloadConfig());
+          nrtDataManager.maybeOpenRemoteDirectory(
+              indexState.getDirectoryFactory().open(indexDirFile, configuration.getPreloadConfig()),
+              indexDirFile,
+              indexState.getName(),
+              lazyRestoreConfig);
       // nocommit don't allow RAMDir
       // nocommit remove NRTCachingDir too?
-      if (!(origIndexDir instanceof MMapDirectory)) {
+      startupStatus.startPhase(IndexStartupStatus.Phase.OPEN);
+      if (!(FilterDirectory.unwrap(origIndexDir) instanceof MMapDirectory)) {
         double maxMergeSizeMB = indexState.getNrtCachingDirectoryMaxMergeSizeMB();
         double maxSizeMB = indexState.getNrtCachingDirectoryMaxSizeMB();
         if (maxMergeSizeMB > 0 && maxSizeMB > 0) {
@@ -960,7 +1011,7 @@ public class ShardState implements Closeable {
               indexDir,
               new ShardSearcherFactory(true, false),
               verbose ? System.out : new PrintStream(OutputStream.nullOutputStream()),
-              configuration.getFileCopyConfig().getAckedCopy(),
+              configuration.getFileCopyConfig(),
               configuration.getDecInitialCommit(),
               configuration.getFilterIncompatibleSegmentReaders(),
               configuration.getLowPriorityCopyPercentage());
@@ -971,8 +1022,10 @@ public class ShardState implements Closeable {
       }
 
       if (configuration.getSyncInitialNrtPoint()) {
+        startupStatus.startPhase(IndexStartupStatus.Phase.SYNC);
         nrtReplicaNode.syncFromCurrentPrimary(
             configuration.getInitialSyncPrimaryWaitMs(), configuration.getInitialSyncMaxTimeMs());
+        startupStatus.startPhase(IndexStartupStatus.Phase.OPEN);
       }
 
       startSearcherPruningThread(indexState.getGlobalState().getShutdownLatch());
@@ -994,11 +1047,13 @@ public class ShardState implements Closeable {
               }
             }
           });
+      addSearcherRefreshListeners(indexState);
       keepAlive = new KeepAlive(this);
       new Thread(keepAlive, "KeepAlive").start();
 
       WarmerConfig warmerConfig = configuration.getWarmerConfig();
       if (warmerConfig.isWarmOnStartup() && indexState.getWarmer() != null) {
+        startupStatus.startPhase(IndexStartupStatus.Phase.WARM);
         try {
           indexState.getWarmer().warmFromS3(indexState, warmerConfig.getWarmingParallelism());
         } catch (SearchHandlerException | InterruptedException e) {
@@ -1006,8 +1061,10 @@ public class ShardState implements Closeable {
         }
       }
       started = true;
+      startupStatus.started();
     } finally {
       if (!started) {
+        startupStatus.failed();
         IOUtils.closeWhileHandlingException(
             reopenThread,
             nrtReplicaNode,
@@ -1023,6 +1080,17 @@ public class ShardState implements Closeable {
     }
   }
 
+  private void addSearcherRefreshListeners(IndexState indexState) {
+    addRefreshListener(versionWaiter);
+    SearchResponseCache searchResponseCache =
+        indexState.getGlobalState().getSearchResponseCache();
+    if (searchResponseCache != null) {
+      addRefreshListener(
+          searchResponseCache.createRefreshListener(
+              indexState.getName(), this::getCurrentSearcherVersion));
+    }
+  }
+
   public void addRefreshListener(ReferenceManager.RefreshListener listener) {
     if (nrtPrimaryNode != null) {
       nrtPrimaryNode.getSearcherManager().addListener(listener);
@@ -1033,6 +1101,30 @@ public class ShardState implements Closeable {
     }
   }
 
+  /**
+   * Get a future that completes once a searcher with at least the given version is visible for
+   * this shard. This allows callers to park requests for a future searcher version, instead of
+   * blocking a thread until the next refresh.
+   *
+   * @param version minimum searcher version
+   * @param timeoutMs max time to wait, or &lt;= 0 for no timeout
+   * @return future completed when the version is visible
+   * @throws IOException on error getting the current searcher version
+   */
+  public CompletableFuture<Void> waitForSearcherVersion(long version, long timeoutMs)
+      throws IOException {
+    return versionWaiter.waitForVersion(version, timeoutMs);
+  }
+
+  private long getCurrentSearcherVersion() throws IOException {
+    SearcherTaxonomyManager.SearcherAndTaxonomy current = acquire();
+    try {
+      return ((DirectoryReader) current.searcher().getIndexReader()).getVersion();
+    } finally {
+      release(current);
+    }
+  }
+
   public void removeRefreshListener(ReferenceManager.RefreshListener listener) {
     if (nrtPrimaryNode != null) {
       nrtPrimaryNode.getSearcherManager().removeListener(listener);
@@ -47,11 +47,12 @@ import org.apache.lucene.search.TopDocsCollector;
 import org.apache.lucene.search.Weight;
 import org.apache.lucene.search.join.BitSetProducer;
 import org.apache.lucene.search.join.ParentChildrenBlockJoinQuery;
-import org.apache.lucene.search.join.QueryBitSetProducer;
+import org.apache.lucene.util.BitSet;
 
 /**
  * InnerHit fetch task does a mini-scale search per hit against all child documents for this hit.
- * Parallelism is at the fetchTask level.
+ * Hits from the same segment are processed together, iterating the matching child documents once
+ * for all parent hits. Batches of hits may be processed in parallel.
  */
 public class InnerHitFetchTask implements FetchTask {
   private static final double NS_PER_MS = Math.pow(10, 6);
@@ -63,6 +64,7 @@ public class InnerHitFetchTask implements FetchTask {
   private final InnerHitContext innerHitContext;
   private final IndexSearcher searcher;
   private final BitSetProducer parentFilter;
+  private final Weight childFilterWeight;
   private final Weight innerHitWeight;
 
   private final DoubleAdder getFieldsTimeMs = new DoubleAdder();
@@ -81,46 +83,80 @@ public class InnerHitFetchTask implements FetchTask {
             .rewrite(innerHitContext.getQuery())
             .createWeight(
                 searcher, needScore ? ScoreMode.TOP_SCORES : ScoreMode.COMPLETE_NO_SCORES, 1f);
+    // This is just a children selection query. And score is not needed for this filter query.
+    this.childFilterWeight =
+        searcher
+            .rewrite(innerHitContext.getChildFilterQuery())
+            .createWeight(searcher, ScoreMode.COMPLETE_NO_SCORES, 1f);
     this.parentFilter =
-        new QueryBitSetProducer(searcher.rewrite(innerHitContext.getParentFilterQuery()));
+        innerHitContext
+            .getIndexState()
+            .getShard(0)
+            .getParentBitSetCache()
+            .getBitSetProducer(innerHitContext.getParentFilterQuery());
   }
 
   /**
-   * Collect all inner hits for each parent hit. Normally, {@link IndexSearcher} will create weight
-   * each time we search. But for innerHit, child query weight is reusable. Therefore, for max
-   * efficiency, we will not use search from the {@link IndexSearcher}. Instead, we create two
-   * weights separately - the non-reusable {@link ParentChildrenBlockJoinQuery}'s weight and the
-   * reusable innerHitQuery weight, and then intersect the {@link DocIdSetIterator}s created from
-   * them.
+   * Collect all inner hits for a parent hit.
+   *
+   * @see #processSegmentHits(SearchContext, LeafReaderContext, List)
    */
+  @Override
   public void processHit(
       SearchContext searchContext, LeafReaderContext hitLeaf, SearchResponse.Hit.Builder hit)
       throws IOException {
-    long startTime = System.nanoTime();
+    processSegmentHits(searchContext, hitLeaf, List.of(hit));
+  }
 
-    // This is just a children selection query for each parent hit. And score is not needed for this
-    // filter query.
-    ParentChildrenBlockJoinQuery parentChildrenBlockJoinQuery =
-        new ParentChildrenBlockJoinQuery(
-            parentFilter, innerHitContext.getChildFilterQuery(), hit.getLuceneDocId());
-    Weight filterWeight =
-        parentChildrenBlockJoinQuery.createWeight(searcher, ScoreMode.COMPLETE_NO_SCORES, 1f);
-    // All child documents are guaranteed to be stored in the same leaf as the parent document.
-    // Therefore, a single collector without reduce is sufficient to collect all.
-    TopDocsCollector<?> topDocsCollector =
-        innerHitContext.getTopDocsCollectorManager().newCollector();
-
-    intersectWeights(filterWeight, innerHitWeight, topDocsCollector, hitLeaf);
-    TopDocs topDocs = topDocsCollector.topDocs();
-
-    if (innerHitContext.getStartHit() > 0) {
-      topDocs =
-          SearchHandler.getHitsFromOffset(
-              topDocs, innerHitContext.getStartHit(), innerHitContext.getTopHits());
+  /**
+   * Collect all inner hits for each parent hit in a segment. Normally, {@link IndexSearcher} will
+   * create weight each time we search. But for innerHit, the child filter and innerHitQuery weights
+   * are reusable. Therefore, for max efficiency, we will not use search from the {@link
+   * IndexSearcher}. Instead, we intersect the {@link DocIdSetIterator}s of the two weights once per
+   * segment, and advance through the child documents of each parent hit in doc id order. The child
+   * documents of a parent are those between the previous parent document and the parent, the same
+   * as {@link ParentChildrenBlockJoinQuery}.
+   */
+  @Override
+  public void processSegmentHits(
+      SearchContext searchContext, LeafReaderContext segment, List<SearchResponse.Hit.Builder> hits)
+      throws IOException {
+    ChildIterator childIterator = null;
+    BitSet parents = parentFilter.getBitSet(segment);
+    int lastParentDoc = -1;
+    for (SearchResponse.Hit.Builder hit : hits) {
+      long startTime = System.nanoTime();
+      int parentDoc = hit.getLuceneDocId() - segment.docBase;
+      // All child documents are guaranteed to be stored in the same leaf as the parent document.
+      // Therefore, a single collector without reduce is sufficient to collect all.
+      TopDocsCollector<?> topDocsCollector =
+          innerHitContext.getTopDocsCollectorManager().newCollector();
+      if (parents != null) {
+        // the iterator only moves forward, recreate it if a parent is repeated
+        if (childIterator == null || parentDoc <= lastParentDoc) {
+          childIterator = createChildIterator(segment);
+        }
+        lastParentDoc = parentDoc;
+        if (childIterator != null) {
+          int firstChild = parentDoc == 0 ? 0 : parents.prevSetBit(parentDoc - 1) + 1;
+          childIterator.collect(topDocsCollector, segment, firstChild, parentDoc);
+        }
+      }
+      TopDocs topDocs = topDocsCollector.topDocs();
+
+      if (innerHitContext.getStartHit() > 0) {
+        topDocs =
+            SearchHandler.getHitsFromOffset(
+                topDocs, innerHitContext.getStartHit(), innerHitContext.getTopHits());
+      }
+      firstPassSearchTimeMs.add(((System.nanoTime() - startTime) / NS_PER_MS));
+
+      fillInnerHits(hit, topDocs);
     }
-    firstPassSearchTimeMs.add(((System.nanoTime() - startTime) / NS_PER_MS));
+  }
 
-    startTime = System.nanoTime();
+  private void fillInnerHits(SearchResponse.Hit.Builder hit, TopDocs topDocs) {
+    long startTime = System.nanoTime();
     HitsResult.Builder innerHitResultBuilder = HitsResult.newBuilder();
     TotalHits totalInnerHits =
         TotalHits.newBuilder()
@@ -154,41 +190,65 @@ public class InnerHitFetchTask implements FetchTask {
     getFieldsTimeMs.add(((System.nanoTime() - startTime) / NS_PER_MS));
   }
 
-  private void intersectWeights(
-      Weight filterWeight,
-      Weight innerHitWeight,
-      TopDocsCollector<?> topDocsCollector,
-      LeafReaderContext hitLeaf)
-      throws IOException {
-    ScorerSupplier filterScorerSupplier = filterWeight.scorerSupplier(hitLeaf);
+  /**
+   * Create an iterator over the child documents in a segment that match both the child filter and
+   * the innerHit query.
+   *
+   * @return child iterator, or null if there are no matching documents in the segment
+   */
+  private ChildIterator createChildIterator(LeafReaderContext segment) throws IOException {
+    ScorerSupplier filterScorerSupplier = childFilterWeight.scorerSupplier(segment);
     if (filterScorerSupplier == null) {
-      return;
+      return null;
     }
-    Scorer filterScorer = filterScorerSupplier.get(0);
+    Scorer filterScorer = filterScorerSupplier.get(Long.MAX_VALUE);
 
-    ScorerSupplier innerHitScorerSupplier = innerHitWeight.scorerSupplier(hitLeaf);
+    ScorerSupplier innerHitScorerSupplier = innerHitWeight.scorerSupplier(segment);
     if (innerHitScorerSupplier == null) {
-      return;
+      return null;
     }
-    Scorer innerHitScorer = innerHitScorerSupplier.get(0);
+    Scorer innerHitScorer = innerHitScorerSupplier.get(Long.MAX_VALUE);
 
     DocIdSetIterator iterator =
         ConjunctionUtils.intersectIterators(
             Arrays.asList(filterScorer.iterator(), innerHitScorer.iterator()));
+    return new ChildIterator(iterator, innerHitScorer);
+  }
 
-    LeafCollector leafCollector = topDocsCollector.getLeafCollector(hitLeaf);
-    // filterWeight is always COMPLETE_NO_SCORES
-    try {
-      leafCollector.setScorer(innerHitScorer);
-    } catch (CollectionTerminatedException exception) {
-      // Same as the indexSearcher, innerHit shall swallow this exception. No doc to collect in this
-      // case.
-      return;
-    }
+  /**
+   * Iterator over matching child documents, shared by all parent hits in a segment. The innerHit
+   * collectors use a total hits threshold of {@link Integer#MAX_VALUE}, so they never set a min
+   * competitive score that would affect the shared scorer.
+   */
+  private record ChildIterator(DocIdSetIterator iterator, Scorer innerHitScorer) {
 
-    int docId;
-    while ((docId = iterator.nextDoc()) != DocIdSetIterator.NO_MORE_DOCS) {
-      leafCollector.collect(docId);
+    /** Collect the matching child documents in the range [firstChild, parentDoc). */
+    void collect(
+        TopDocsCollector<?> topDocsCollector,
+        LeafReaderContext segment,
+        int firstChild,
+        int parentDoc)
+        throws IOException {
+      int docId = iterator.docID();
+      if (docId < firstChild) {
+        docId = iterator.advance(firstChild);
+      }
+      if (docId >= parentDoc) {
+        return;
+      }
+
+      LeafCollector leafCollector = topDocsCollector.getLeafCollector(segment);
+      try {
+        // filter scorer is always COMPLETE_NO_SCORES
+        leafCollector.setScorer(innerHitScorer);
+        while (docId < parentDoc) {
+          leafCollector.collect(docId);
+          docId = iterator.nextDoc();
+        }
+      } catch (CollectionTerminatedException exception) {
+        // Same as the indexSearcher, innerHit shall swallow this exception. No more docs to
+        // collect for this parent.
+      }
     }
   }
 
@@ -203,4 +263,10 @@ public class InnerHitFetchTask implements FetchTask {
     }
     return builder.build();
   }
+
+  /** Batches of hits may be processed in parallel, since all per request state is thread safe. */
+  @Override
+  public boolean supportsParallelHits() {
+    return true;
+  }
 }
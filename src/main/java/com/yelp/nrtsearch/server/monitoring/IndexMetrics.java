@@ -17,6 +17,7 @@ package com.yelp.nrtsearch.server.monitoring;
 
 import io.prometheus.metrics.core.metrics.Counter;
 import io.prometheus.metrics.core.metrics.Gauge;
+import io.prometheus.metrics.core.metrics.Summary;
 import io.prometheus.metrics.model.registry.PrometheusRegistry;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -86,6 +87,66 @@ public class IndexMetrics {
           .help("Number times the IndexWriter has flushed.")
           .labelNames("index")
           .build();
+  public static final Gauge addDocumentsInFlightChunks =
+      Gauge.builder()
+          .name("nrt_add_documents_in_flight_chunks")
+          .help("Number of addDocuments indexing chunks submitted and not yet completed.")
+          .labelNames("index")
+          .build();
+  public static final Counter addDocumentsPausedCount =
+      Counter.builder()
+          .name("nrt_add_documents_paused_count")
+          .help("Number of times an addDocuments stream stopped reading messages due to pressure.")
+          .labelNames("index", "reason")
+          .build();
+  public static final Summary globalOrdinalBuildTime =
+      Summary.builder()
+          .name("nrt_global_ordinal_build_time_ms")
+          .help("Time to build global ordinals for a new index reader (ms).")
+          .quantile(0.5, 0.05)
+          .quantile(0.95, 0.01)
+          .quantile(0.99, 0.01)
+          .labelNames("index", "field", "type")
+          .build();
+  public static final Counter globalOrdinalSegments =
+      Counter.builder()
+          .name("nrt_global_ordinal_segments")
+          .help("Number of segments reused or merged when building field global ordinals.")
+          .labelNames("index", "field", "state")
+          .build();
+  public static final Summary refreshWarmingTime =
+      Summary.builder()
+          .name("nrt_refresh_warming_time_ms")
+          .help("Time to warm the new segments of a refreshed index reader (ms).")
+          .quantile(0.5, 0.05)
+          .quantile(0.95, 0.01)
+          .quantile(0.99, 0.01)
+          .labelNames("index")
+          .build();
+  public static final Counter refreshWarmingQueries =
+      Counter.builder()
+          .name("nrt_refresh_warming_queries")
+          .help("Number of queries run to warm refreshed index readers.")
+          .labelNames("index", "result")
+          .build();
+  public static final Counter mergeDirectIOBytes =
+      Counter.builder()
+          .name("nrt_merge_direct_io_bytes")
+          .help("Size of merge files read or written with direct I/O.")
+          .labelNames("index", "operation")
+          .build();
+  public static final Counter mergeDirectIOFiles =
+      Counter.builder()
+          .name("nrt_merge_direct_io_files")
+          .help("Number of merge files read or written with direct I/O.")
+          .labelNames("index", "operation")
+          .build();
+  public static final Gauge startupPhaseTime =
+      Gauge.builder()
+          .name("nrt_index_startup_phase_time_ms")
+          .help("Time spent in each phase of the last index startup (ms).")
+          .labelNames("index", "phase")
+          .build();
 
   public static void updateReaderStats(String index, IndexReader reader) {
     numDocs.labelValues(index).set(reader.numDocs());
@@ -162,6 +223,15 @@ public class IndexMetrics {
     registry.register(sliceSegments);
     registry.register(sliceDocs);
     registry.register(flushCount);
+    registry.register(addDocumentsInFlightChunks);
+    registry.register(addDocumentsPausedCount);
+    registry.register(globalOrdinalBuildTime);
+    registry.register(globalOrdinalSegments);
+    registry.register(refreshWarmingTime);
+    registry.register(refreshWarmingQueries);
+    registry.register(mergeDirectIOBytes);
+    registry.register(mergeDirectIOFiles);
+    registry.register(startupPhaseTime);
   }
 
   private static int getSegmentDocsQuantile(double quantile, List<LeafReaderContext> segments) {
@@ -119,6 +119,35 @@ public class NrtMetrics {
           .labelNames("index")
           .build();
 
+  public static final Gauge searcherVersionWaiters =
+      Gauge.builder()
+          .name("nrt_searcher_version_waiters")
+          .help("Number of requests waiting for a searcher version to become visible.")
+          .labelNames("index")
+          .build();
+  public static final Summary searcherVersionWaitTime =
+      Summary.builder()
+          .name("nrt_searcher_version_wait_time_ms")
+          .help("Time requests waited for a searcher version to become visible (ms).")
+          .quantile(0.5, 0.05)
+          .quantile(0.95, 0.01)
+          .quantile(0.99, 0.01)
+          .labelNames("index")
+          .build();
+
+  public static final Counter lazyRestoreFetchedMB =
+      Counter.builder()
+          .name("nrt_lazy_restore_fetched_mb")
+          .help("Total data fetched from the remote backend for lazily restored index files.")
+          .labelNames("index", "type")
+          .build();
+  public static final Gauge lazyRestorePendingMB =
+      Gauge.builder()
+          .name("nrt_lazy_restore_pending_mb")
+          .help("Size of lazily restored index files that are not yet fully local.")
+          .labelNames("index")
+          .build();
+
   /**
    * Add all nrt metrics to the collector registry.
    *
@@ -137,5 +166,9 @@ public class NrtMetrics {
     registry.register(nrtMergeCopyStartCount);
     registry.register(nrtMergeCopyEndCount);
     registry.register(nrtAckedCopyMB);
+    registry.register(searcherVersionWaiters);
+    registry.register(searcherVersionWaitTime);
+    registry.register(lazyRestoreFetchedMB);
+    registry.register(lazyRestorePendingMB);
   }
 }
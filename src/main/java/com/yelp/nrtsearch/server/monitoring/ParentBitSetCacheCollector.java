@@ -0,0 +1,86 @@
+/*
+ * Copyright 2025 Yelp Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.yelp.nrtsearch.server.monitoring;
+
+import com.yelp.nrtsearch.server.search.cache.ParentBitSetCache;
+import com.yelp.nrtsearch.server.state.GlobalState;
+import io.prometheus.metrics.core.metrics.Gauge;
+import io.prometheus.metrics.model.registry.MultiCollector;
+import io.prometheus.metrics.model.snapshots.MetricSnapshot;
+import io.prometheus.metrics.model.snapshots.MetricSnapshots;
+import java.util.ArrayList;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/** Collector for metrics of the per index nested document parent bit set caches. */
+public class ParentBitSetCacheCollector implements MultiCollector {
+  private static final Logger logger = LoggerFactory.getLogger(ParentBitSetCacheCollector.class);
+
+  private static final Gauge parentBitSetCacheHits =
+      Gauge.builder()
+          .name("nrt_parent_bitset_cache_hits")
+          .help("Total number of parent bit set cache hits.")
+          .labelNames("index")
+          .build();
+  private static final Gauge parentBitSetCacheMisses =
+      Gauge.builder()
+          .name("nrt_parent_bitset_cache_misses")
+          .help("Total number of parent bit set cache misses.")
+          .labelNames("index")
+          .build();
+  private static final Gauge parentBitSetCacheSize =
+      Gauge.builder()
+          .name("nrt_parent_bitset_cache_size")
+          .help("Number of segment bit sets in parent bit set cache.")
+          .labelNames("index")
+          .build();
+  private static final Gauge parentBitSetCacheSizeBytes =
+      Gauge.builder()
+          .name("nrt_parent_bitset_cache_size_bytes")
+          .help("Memory used by parent bit set cache.")
+          .labelNames("index")
+          .build();
+
+  private final GlobalState globalState;
+
+  public ParentBitSetCacheCollector(GlobalState globalState) {
+    this.globalState = globalState;
+  }
+
+  @Override
+  public MetricSnapshots collect() {
+    List<MetricSnapshot> metrics = new ArrayList<>();
+
+    try {
+      for (String indexName : globalState.getIndexNames()) {
+        ParentBitSetCache cache =
+            globalState.getIndexOrThrow(indexName).getShard(0).getParentBitSetCache();
+        parentBitSetCacheHits.labelValues(indexName).set(cache.getHitCount());
+        parentBitSetCacheMisses.labelValues(indexName).set(cache.getMissCount());
+        parentBitSetCacheSize.labelValues(indexName).set(cache.getCacheSize());
+        parentBitSetCacheSizeBytes.labelValues(indexName).set(cache.getSizeBytes());
+      }
+      metrics.add(parentBitSetCacheHits.collect());
+      metrics.add(parentBitSetCacheMisses.collect());
+      metrics.add(parentBitSetCacheSize.collect());
+      metrics.add(parentBitSetCacheSizeBytes.collect());
+    } catch (Exception e) {
+      logger.warn("Error getting parent bit set cache metrics: ", e);
+    }
+    return new MetricSnapshots(metrics);
+  }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2025 Yelp Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.yelp.nrtsearch.server.monitoring;
+
+import com.yelp.nrtsearch.server.search.cache.SearchResponseCache;
+import com.yelp.nrtsearch.server.state.GlobalState;
+import io.prometheus.metrics.core.metrics.Gauge;
+import io.prometheus.metrics.model.registry.MultiCollector;
+import io.prometheus.metrics.model.snapshots.MetricSnapshot;
+import io.prometheus.metrics.model.snapshots.MetricSnapshots;
+import java.util.ArrayList;
+import java.util.List;
+
+/** Class to manage collection of metrics related to the shard request cache. */
+public class RequestCacheCollector implements MultiCollector {
+  private static final Gauge requestCacheHits =
+      Gauge.builder()
+          .name("nrt_request_cache_hits")
+          .help("Total number of request cache hits.")
+          .build();
+  private static final Gauge requestCacheMisses =
+      Gauge.builder()
+          .name("nrt_request_cache_misses")
+          .help("Total number of request cache misses.")
+          .build();
+  private static final Gauge requestCacheSize =
+      Gauge.builder()
+          .name("nrt_request_cache_size")
+          .help("Total number of entries in request cache.")
+          .build();
+  private static final Gauge requestCacheSizeBytes =
+      Gauge.builder()
+          .name("nrt_request_cache_size_bytes")
+          .help("Total memory used by request cache.")
+          .build();
+  private static final Gauge requestCacheEvictionCount =
+      Gauge.builder()
+          .name("nrt_request_cache_eviction_count")
+          .help("Total number of request cache evictions due to the memory limit.")
+          .build();
+  private static final Gauge requestCacheEvictedBytes =
+      Gauge.builder()
+          .name("nrt_request_cache_evicted_bytes")
+          .help("Total size of request cache entries evicted due to the memory limit.")
+          .build();
+  private static final Gauge requestCacheInvalidatedBytes =
+      Gauge.builder()
+          .name("nrt_request_cache_invalidated_bytes")
+          .help("Total size of request cache entries invalidated by index refresh.")
+          .build();
+
+  private final GlobalState globalState;
+
+  public RequestCacheCollector(GlobalState globalState) {
+    this.globalState = globalState;
+  }
+
+  @Override
+  public MetricSnapshots collect() {
+    SearchResponseCache cache = globalState.getSearchResponseCache();
+    if (cache == null) {
+      return new MetricSnapshots();
+    }
+
+    requestCacheHits.set(cache.getHitCount());
+    requestCacheMisses.set(cache.getMissCount());
+    requestCacheSize.set(cache.getCacheSize());
+    requestCacheSizeBytes.set(cache.getSizeBytes());
+    requestCacheEvictionCount.set(cache.getEvictionCount());
+    requestCacheEvictedBytes.set(cache.getEvictedBytes());
+    requestCacheInvalidatedBytes.set(cache.getInvalidatedBytes());
+
+    List<MetricSnapshot> metrics = new ArrayList<>();
+    metrics.add(requestCacheHits.collect());
+    metrics.add(requestCacheMisses.collect());
+    metrics.add(requestCacheSize.collect());
+    metrics.add(requestCacheSizeBytes.collect());
+    metrics.add(requestCacheEvictionCount.collect());
+    metrics.add(requestCacheEvictedBytes.collect());
+    metrics.add(requestCacheInvalidatedBytes.collect());
+
+    return new MetricSnapshots(metrics);
+  }
+}
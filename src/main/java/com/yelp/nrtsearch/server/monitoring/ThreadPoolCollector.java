@@ -15,8 +15,11 @@
  */
 package com.yelp.nrtsearch.server.monitoring;
 
+import com.yelp.nrtsearch.server.concurrent.QueueDelayThreadPoolExecutor;
+import com.yelp.nrtsearch.server.concurrent.WeightedFairQueue;
 import io.prometheus.metrics.core.metrics.Counter;
 import io.prometheus.metrics.core.metrics.Gauge;
+import io.prometheus.metrics.core.metrics.Histogram;
 import io.prometheus.metrics.model.registry.MultiCollector;
 import io.prometheus.metrics.model.snapshots.MetricSnapshot;
 import io.prometheus.metrics.model.snapshots.MetricSnapshots;
@@ -29,7 +32,9 @@ import java.util.concurrent.ThreadPoolExecutor;
 
 /**
  * Collector implementation to gather metrics for {@link ThreadPoolExecutor}. Records thread and
- * queue usage, as well as rejection count. Executors must be added with {@link #addPool(String,
+ * queue usage, as well as rejection count. For a {@link QueueDelayThreadPoolExecutor}, also
+ * records queue delay and admission control state. For a {@link WeightedFairQueue}, also records
+ * the tasks of each index group. Executors must be added with {@link #addPool(String,
  * ThreadPoolExecutor)}.
  */
 public class ThreadPoolCollector implements MultiCollector {
@@ -70,6 +75,43 @@ public class ThreadPoolCollector implements MultiCollector {
           .help("Capacity left in pool task queue.")
           .labelNames("pool")
           .build();
+  private static final Gauge poolOverloaded =
+      Gauge.builder()
+          .name("nrt_thread_pool_overloaded")
+          .help("If the pool queue delay is above the admission control target, 1 or 0.")
+          .labelNames("pool")
+          .build();
+  private static final Gauge groupQueueSize =
+      Gauge.builder()
+          .name("nrt_thread_pool_group_queue_size")
+          .help("Current number of queued tasks for an index group.")
+          .labelNames("pool", "group")
+          .build();
+  private static final Gauge groupActive =
+      Gauge.builder()
+          .name("nrt_thread_pool_group_active")
+          .help("Number of threads running tasks for an index group.")
+          .labelNames("pool", "group")
+          .build();
+  private static final Gauge groupCompleted =
+      Gauge.builder()
+          .name("nrt_thread_pool_group_completed")
+          .help("Number of completed tasks for an index group.")
+          .labelNames("pool", "group")
+          .build();
+
+  public static final Histogram queueDelay =
+      Histogram.builder()
+          .name("nrt_thread_pool_queue_delay_seconds")
+          .help("Time tasks wait in the pool queue before starting.")
+          .labelNames("pool")
+          .build();
+  public static final Counter shedCount =
+      Counter.builder()
+          .name("nrt_thread_pool_shed_count")
+          .help("Count of requests shed by admission control.")
+          .labelNames("pool")
+          .build();
 
   /** Wrapper class to record the rejection count for a {@link ThreadPoolExecutor}. */
   public static class RejectionCounterWrapper implements RejectedExecutionHandler {
@@ -117,6 +159,18 @@ public class ThreadPoolCollector implements MultiCollector {
       poolQueueRemaining
           .labelValues(poolLabel)
           .set(entry.getValue().getQueue().remainingCapacity());
+      if (entry.getValue() instanceof QueueDelayThreadPoolExecutor queueDelayExecutor) {
+        poolOverloaded
+            .labelValues(poolLabel)
+            .set(queueDelayExecutor.getAdmissionController().isOverloaded() ? 1 : 0);
+      }
+      if (entry.getValue().getQueue() instanceof WeightedFairQueue weightedFairQueue) {
+        for (WeightedFairQueue.TaskGroup group : weightedFairQueue.getGroups()) {
+          groupQueueSize.labelValues(poolLabel, group.getName()).set(group.getQueueSize());
+          groupActive.labelValues(poolLabel, group.getName()).set(group.getActiveCount());
+          groupCompleted.labelValues(poolLabel, group.getName()).set(group.getCompletedCount());
+        }
+      }
     }
 
     metrics.add(poolSize.collect());
@@ -125,6 +179,10 @@ public class ThreadPoolCollector implements MultiCollector {
     metrics.add(poolTasks.collect());
     metrics.add(poolQueueSize.collect());
     metrics.add(poolQueueRemaining.collect());
+    metrics.add(poolOverloaded.collect());
+    metrics.add(groupQueueSize.collect());
+    metrics.add(groupActive.collect());
+    metrics.add(groupCompleted.collect());
 
     return new MetricSnapshots(metrics);
   }
@@ -0,0 +1,226 @@
+/*
+ * Copyright 2025 Yelp Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.yelp.nrtsearch.server.nrt;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.UnsafeByteOperations;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import org.apache.lucene.misc.store.DirectIODirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.store.IOContext;
+import org.apache.lucene.store.IndexInput;
+import org.apache.lucene.store.NRTCachingDirectory;
+
+/**
+ * Reads an index file as a sequence of chunks to send to replicas. Chunks are provided as {@link
+ * ByteString}s that wrap the read data without an additional copy. Index files are write once, so
+ * the data backing a chunk never changes once read.
+ *
+ * <p>When mapping is requested for a file stored in an {@link FSDirectory}, the file is memory
+ * mapped in windows, and each chunk is a slice of the mapped buffer. No heap memory is used for the
+ * file data, which is only copied when the chunk is serialized to the transport. Mapped windows
+ * cannot be unmapped while chunks may still reference them, so they are only released by the
+ * garbage collector. Until then, they hold address space and keep deleted files on disk. Mapping
+ * should only be used when the number of chunks waiting to be sent is bounded, such as with acked
+ * file copy. Otherwise, or for other directories and files held in the memory of an {@link
+ * NRTCachingDirectory}, each chunk is read into its own array, which is wrapped instead of copied.
+ */
+public abstract class FileChunkReader implements Closeable {
+  // number of chunks in each memory mapped region of a file
+  static final long MAP_WINDOW_CHUNKS = 1024;
+  // maximum size of a memory mapped region, unless a single chunk is larger
+  static final long MAX_MAP_WINDOW_BYTES = 16 * 1024 * 1024;
+
+  protected final int chunkSize;
+  protected final long length;
+  protected long position;
+
+  /**
+   * Open reader for an index file.
+   *
+   * @param directory index directory
+   * @param fileName file name
+   * @param fpStart file position to start reading from
+   * @param chunkSize maximum size of each chunk
+   * @param mapFile if a file on disk may be memory mapped, only when sent chunks are bounded
+   * @return file chunk reader
+   * @throws IOException on error opening file
+   */
+  public static FileChunkReader open(
+      Directory directory, String fileName, long fpStart, int chunkSize, boolean mapFile)
+      throws IOException {
+    if (chunkSize <= 0) {
+      throw new IllegalArgumentException("chunkSize must be > 0");
+    }
+    if (mapFile && getFileSystemDirectory(directory, fileName) instanceof FSDirectory fsDirectory) {
+      FileChannel channel =
+          FileChannel.open(fsDirectory.getDirectory().resolve(fileName), StandardOpenOption.READ);
+      try {
+        return new MappedFileChunkReader(channel, fpStart, chunkSize);
+      } catch (Throwable t) {
+        channel.close();
+        throw t;
+      }
+    }
+    IndexInput input = directory.openInput(fileName, IOContext.DEFAULT);
+    try {
+      return new IndexInputChunkReader(input, fpStart, chunkSize);
+    } catch (Throwable t) {
+      input.close();
+      throw t;
+    }
+  }
+
+  /**
+   * Get the directory containing the file on disk. Once written to disk, a file is never moved back
+   * into the {@link NRTCachingDirectory} memory cache. Files in a {@link DirectIODirectory} are
+   * stored in its delegate.
+   */
+  private static Directory getFileSystemDirectory(Directory directory, String fileName) {
+    if (directory instanceof NRTCachingDirectory cachingDirectory) {
+      if (Arrays.asList(cachingDirectory.listCachedFiles()).contains(fileName)) {
+        return directory;
+      }
+      directory = cachingDirectory.getDelegate();
+    }
+    if (directory instanceof DirectIODirectory directIODirectory) {
+      return directIODirectory.getDelegate();
+    }
+    return directory;
+  }
+
+  protected FileChunkReader(long length, long fpStart, int chunkSize) {
+    if (fpStart < 0 || fpStart > length) {
+      throw new IllegalArgumentException(
+          "Invalid file position: " + fpStart + ", file length: " + length);
+    }
+    this.length = length;
+    this.position = fpStart;
+    this.chunkSize = chunkSize;
+  }
+
+  /** Get the file length. */
+  public long length() {
+    return length;
+  }
+
+  /** Get the position of the next chunk in the file. */
+  public long getFilePointer() {
+    return position;
+  }
+
+  /** Get if there are more chunks to read. */
+  public boolean hasNext() {
+    return position < length;
+  }
+
+  /**
+   * Read the next chunk of the file.
+   *
+   * @return chunk data
+   * @throws IOException on error reading file
+   */
+  public ByteString nextChunk() throws IOException {
+    if (!hasNext()) {
+      throw new IllegalStateException("No more chunks, file length: " + length);
+    }
+    int size = (int) Math.min(chunkSize, length - position);
+    ByteString chunk = readChunk(size);
+    position += size;
+    return chunk;
+  }
+
+  /**
+   * Read a chunk of the given size, starting at the current position.
+   *
+   * @param size chunk size
+   * @return chunk data
+   * @throws IOException on error reading file
+   */
+  protected abstract ByteString readChunk(int size) throws IOException;
+
+  /** Reader that wraps slices of a memory mapped file. */
+  static class MappedFileChunkReader extends FileChunkReader {
+    private final FileChannel channel;
+    private final long windowSize;
+    private MappedByteBuffer window;
+    private long windowStart;
+
+    MappedFileChunkReader(FileChannel channel, long fpStart, int chunkSize) throws IOException {
+      super(channel.size(), fpStart, chunkSize);
+      this.channel = channel;
+      this.windowSize =
+          Math.max(chunkSize, Math.min(MAP_WINDOW_CHUNKS * chunkSize, MAX_MAP_WINDOW_BYTES));
+    }
+
+    /** Get the maximum size of each memory mapped region. */
+    long getWindowSize() {
+      return windowSize;
+    }
+
+    @Override
+    protected ByteString readChunk(int size) throws IOException {
+      if (window == null || position + size > windowStart + window.capacity()) {
+        // the previous window is released by GC once no chunks reference it
+        windowStart = position;
+        window =
+            channel.map(
+                FileChannel.MapMode.READ_ONLY,
+                windowStart,
+                Math.min(windowSize, length - windowStart));
+      }
+      return UnsafeByteOperations.unsafeWrap(
+          window.slice((int) (position - windowStart), size).asReadOnlyBuffer());
+    }
+
+    @Override
+    public void close() throws IOException {
+      // chunks may still reference the window, it cannot be explicitly unmapped
+      window = null;
+      channel.close();
+    }
+  }
+
+  /** Reader that copies each chunk from an {@link IndexInput} into a new array. */
+  static class IndexInputChunkReader extends FileChunkReader {
+    private final IndexInput input;
+
+    IndexInputChunkReader(IndexInput input, long fpStart, int chunkSize) throws IOException {
+      super(input.length(), fpStart, chunkSize);
+      this.input = input;
+      input.seek(fpStart);
+    }
+
+    @Override
+    protected ByteString readChunk(int size) throws IOException {
+      byte[] bytes = new byte[size];
+      input.readBytes(bytes, 0, size);
+      // the array is never modified, so it is safe to use without a defensive copy
+      return UnsafeByteOperations.unsafeWrap(bytes);
+    }
+
+    @Override
+    public void close() throws IOException {
+      input.close();
+    }
+  }
+}
@@ -16,6 +16,7 @@
 package com.yelp.nrtsearch.server.nrt;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.yelp.nrtsearch.server.config.FileCopyConfig;
 import com.yelp.nrtsearch.server.grpc.FileMetadata;
 import com.yelp.nrtsearch.server.grpc.FilesMetadata;
 import com.yelp.nrtsearch.server.grpc.GetNodesResponse;
@@ -49,7 +50,7 @@ public class NRTReplicaNode extends ReplicaNode {
   private final String indexName;
   private final String indexId;
   private final String nodeName;
-  private final boolean ackedCopy;
+  private final FileCopyConfig fileCopyConfig;
   private final boolean filterIncompatibleSegmentReaders;
   final NrtCopyThread nrtCopyThread;
 
@@ -67,7 +68,7 @@ public class NRTReplicaNode extends ReplicaNode {
       Directory indexDir,
       SearcherFactory searcherFactory,
       PrintStream printStream,
-      boolean ackedCopy,
+      FileCopyConfig fileCopyConfig,
       boolean decInitialCommit,
       boolean filterIncompatibleSegmentReaders,
       int lowPriorityCopyPercentage)
@@ -78,7 +79,7 @@ public class NRTReplicaNode extends ReplicaNode {
     this.indexName = indexName;
     this.indexId = indexId;
     this.nodeName = nodeName;
-    this.ackedCopy = ackedCopy;
+    this.fileCopyConfig = fileCopyConfig;
     this.hostPort = hostPort;
     replicaDeleterManager = decInitialCommit ? new ReplicaDeleterManager(this) : null;
     this.filterIncompatibleSegmentReaders = filterIncompatibleSegmentReaders;
@@ -173,7 +174,9 @@ public class NRTReplicaNode extends ReplicaNode {
         onceDone,
         indexName,
         indexId,
-        ackedCopy);
+        fileCopyConfig.getAckedCopy(),
+        fileCopyConfig.getParallelism(),
+        fileCopyConfig.getMaxInFlightBytes());
   }
 
   private CopyState getCopyStateFromPrimary() throws IOException {
@@ -16,9 +16,11 @@
 package com.yelp.nrtsearch.server.nrt;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.yelp.nrtsearch.server.config.LazyRestoreConfig;
 import com.yelp.nrtsearch.server.grpc.RestoreIndex;
 import com.yelp.nrtsearch.server.nrt.state.NrtFileMetaData;
 import com.yelp.nrtsearch.server.nrt.state.NrtPointState;
+import com.yelp.nrtsearch.server.remote.RemoteBackedDirectory;
 import com.yelp.nrtsearch.server.remote.RemoteBackend;
 import com.yelp.nrtsearch.server.remote.RemoteUtils;
 import com.yelp.nrtsearch.server.utils.FileUtils;
@@ -28,6 +30,7 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -37,6 +40,7 @@ import java.util.Map;
 import org.apache.lucene.index.IndexFileNames;
 import org.apache.lucene.replicator.nrt.CopyState;
 import org.apache.lucene.replicator.nrt.FileMetaData;
+import org.apache.lucene.store.Directory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -68,6 +72,9 @@ public class NrtDataManager implements Closeable {
   // Set during restoreIfNeeded, then only accessed by UploadManagerThread
   private volatile NrtPointState lastPointState = null;
 
+  // Set during lazy restoreIfNeeded, consumed by maybeOpenRemoteDirectory
+  private Map<String, NrtFileMetaData> lazyRestoreFiles = null;
+
   // use synchronized access
   private UploadTask currentUploadTask = null;
   private UploadTask nextUploadTask = null;
@@ -172,6 +179,19 @@ public class NrtDataManager implements Closeable {
    * @throws IOException if an error occurs while restoring the index data
    */
   public void restoreIfNeeded(Path shardDataDir) throws IOException {
+    restoreIfNeeded(shardDataDir, false);
+  }
+
+  /**
+   * Restore the index data if it is available in the remote backend. When restoring lazily, only
+   * the segments file is written locally. The index files must then be read through the directory
+   * from {@link #maybeOpenRemoteDirectory(Directory, Path, String, LazyRestoreConfig)}.
+   *
+   * @param shardDataDir Path to the shard index data directory
+   * @param lazy if index files should be read from the remote backend on demand
+   * @throws IOException if an error occurs while restoring the index data
+   */
+  public void restoreIfNeeded(Path shardDataDir, boolean lazy) throws IOException {
     if (restoreIndex == null) {
       return;
     }
@@ -180,15 +200,27 @@ public class NrtDataManager implements Closeable {
     }
 
     if (hasRestoreData()) {
-      logger.info("Restoring index data for service: {}, index: {}", serviceName, indexIdentifier);
+      logger.info(
+          "Restoring index data for service: {}, index: {}, lazy: {}",
+          serviceName,
+          indexIdentifier,
+          lazy);
       InputStream pointStateStream = remoteBackend.downloadPointState(serviceName, indexIdentifier);
       byte[] pointStateBytes = pointStateStream.readAllBytes();
       NrtPointState pointState = RemoteUtils.pointStateFromUtf8(pointStateBytes);
 
       long start = System.nanoTime();
       try {
-        remoteBackend.downloadIndexFiles(
-            serviceName, indexIdentifier, shardDataDir, pointState.files);
+        if (lazy) {
+          // remove any stale local copies, so all reads go through the remote directory
+          for (String fileName : pointState.files.keySet()) {
+            Files.deleteIfExists(shardDataDir.resolve(fileName));
+          }
+          lazyRestoreFiles = pointState.files;
+        } else {
+          remoteBackend.downloadIndexFiles(
+              serviceName, indexIdentifier, shardDataDir, pointState.files);
+        }
         writeSegmentsFile(pointState.infosBytes, pointState.gen, shardDataDir);
       } finally {
         logger.info(
@@ -202,6 +234,36 @@ public class NrtDataManager implements Closeable {
     }
   }
 
+  /**
+   * Open a directory to read index files that were lazily restored from the remote backend. If
+   * the last restore was not lazy, the local directory is returned.
+   *
+   * @param localDir local index directory
+   * @param shardDataDir Path to the shard index data directory
+   * @param indexName index name
+   * @param config lazy restore config
+   * @return directory to use for the index
+   * @throws IOException on error opening directory
+   */
+  public Directory maybeOpenRemoteDirectory(
+      Directory localDir, Path shardDataDir, String indexName, LazyRestoreConfig config)
+      throws IOException {
+    if (lazyRestoreFiles == null) {
+      return localDir;
+    }
+    Map<String, NrtFileMetaData> files = lazyRestoreFiles;
+    lazyRestoreFiles = null;
+    return new RemoteBackedDirectory(
+        localDir,
+        shardDataDir,
+        remoteBackend,
+        serviceName,
+        indexIdentifier,
+        indexName,
+        files,
+        config);
+  }
+
   @VisibleForTesting
   static void writeSegmentsFile(byte[] segmentBytes, long gen, Path shardDataDir)
       throws IOException {
@@ -21,8 +21,10 @@ import com.yelp.nrtsearch.server.grpc.ReplicationServerClient;
 import com.yelp.nrtsearch.server.monitoring.NrtMetrics;
 import io.grpc.stub.StreamObserver;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
@@ -35,9 +37,17 @@ import org.apache.lucene.replicator.nrt.FileMetaData;
 import org.apache.lucene.replicator.nrt.Node;
 import org.apache.lucene.replicator.nrt.NodeCommunicationException;
 import org.apache.lucene.replicator.nrt.ReplicaNode;
+import org.apache.lucene.util.IOUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Job to copy files from the primary to a replica. Up to the configured parallelism, files are
+ * transferred concurrently on separate streams, as long as the total remaining bytes of the files
+ * being transferred is within the max in flight bytes. Each call to {@link #visit()} still only
+ * writes a single chunk, so the {@link NrtCopyThread} continues to choose which job makes progress
+ * based on job priority.
+ */
 public class SimpleCopyJob extends CopyJob {
   private static final Logger logger = LoggerFactory.getLogger(SimpleCopyJob.class);
 
@@ -46,7 +56,12 @@ public class SimpleCopyJob extends CopyJob {
   private final String indexName;
   private final String indexId;
   private final boolean ackedCopy;
+  private final int parallelism;
+  private final long maxInFlightBytes;
+  private final List<CopyOneFile> activeCopies = new ArrayList<>();
   private Iterator<Map.Entry<String, FileMetaData>> iter;
+  private Map.Entry<String, FileMetaData> nextFile;
+  private int nextActiveIndex;
 
   public SimpleCopyJob(
       String reason,
@@ -58,7 +73,9 @@ public class SimpleCopyJob extends CopyJob {
       OnceDone onceDone,
       String indexName,
       String indexId,
-      boolean ackedCopy)
+      boolean ackedCopy,
+      int parallelism,
+      long maxInFlightBytes)
       throws IOException {
     super(reason, files, dest, highPriority, onceDone);
     this.copyState = copyState;
@@ -66,6 +83,8 @@ public class SimpleCopyJob extends CopyJob {
     this.indexName = indexName;
     this.indexId = indexId;
     this.ackedCopy = ackedCopy;
+    this.parallelism = parallelism;
+    this.maxInFlightBytes = maxInFlightBytes;
   }
 
   @Override
@@ -78,9 +97,14 @@ public class SimpleCopyJob extends CopyJob {
   public void start() throws IOException {
     if (iter == null) {
       iter = toCopy.iterator();
-      // This means we resumed an already in-progress copy; we do this one first:
+      // This means we resumed already in-progress copies; we do these first:
+      for (CopyOneFile copy : activeCopies) {
+        totBytes += copy.metaData.length();
+      }
       if (current != null) {
         totBytes += current.metaData.length();
+        activeCopies.add(current);
+        current = null;
       }
       for (Map.Entry<String, FileMetaData> ent : toCopy) {
         FileMetaData metaData = ent.getValue();
@@ -213,46 +237,157 @@ public class SimpleCopyJob extends CopyJob {
     }
   }
 
+  /**
+   * Transfer from a previous job, carrying over all of its in-progress file copies that are also
+   * needed by this job. The lucene implementation only carries over a single in-progress copy.
+   */
+  @Override
+  public synchronized void transferAndCancel(CopyJob prevJob) throws IOException {
+    SimpleCopyJob prev = (SimpleCopyJob) prevJob;
+    synchronized (prev) {
+      if (prev.exc == null) {
+        Iterator<Map.Entry<String, FileMetaData>> it = toCopy.iterator();
+        while (it.hasNext()) {
+          String fileName = it.next().getKey();
+          CopyOneFile copy = prev.removeActiveCopy(fileName);
+          if (copy != null) {
+            dest.message(
+                "xfer: carry over in-progress file "
+                    + fileName
+                    + " ("
+                    + copy.tmpName
+                    + ") bytesCopied="
+                    + copy.getBytesCopied()
+                    + " of "
+                    + copy.bytesToCopy);
+            activeCopies.add(copy);
+            // So it's not in our copy list anymore:
+            it.remove();
+          }
+        }
+      }
+      super.transferAndCancel(prevJob);
+    }
+  }
+
+  @Override
+  public synchronized void cancel(String reason, Throwable exc) throws IOException {
+    super.cancel(reason, exc);
+    closeActiveCopies();
+  }
+
   /** Do an iota of work; returns true if all copying is done */
   public synchronized boolean visit() throws IOException {
     if (exc != null) {
-      // We were externally cancelled:
+      // We were externally cancelled, or transferred to a newer job:
+      closeActiveCopies();
       return true;
     }
-    if (current == null) {
-      if (!iter.hasNext()) {
-        return true;
-      }
-      Map.Entry<String, FileMetaData> next = iter.next();
-      FileMetaData metaData = next.getValue();
-      String fileName = next.getKey();
-      Iterator<RawFileChunk> rawFileChunkIterator;
-      try {
-        if (ackedCopy) {
-          FileChunkStreamingIterator fcsi = new FileChunkStreamingIterator(indexName);
-          primaryAddres.recvRawFileV2(fileName, 0, indexName, indexId, fcsi);
-          rawFileChunkIterator = fcsi;
-        } else {
-          rawFileChunkIterator = primaryAddres.recvRawFile(fileName, 0, indexName, indexId);
-        }
-      } catch (Throwable t) {
-        cancel("exc during start", t);
-        throw new NodeCommunicationException("exc during start", t);
-      }
-      current = new CopyOneFile(rawFileChunkIterator, dest, fileName, metaData);
+    startCopies();
+    if (activeCopies.isEmpty()) {
+      return true;
     }
-    if (current.visit()) {
+    CopyOneFile copy = nextActiveCopy();
+    if (copy.visit()) {
       // This file is done copying
-      copiedFiles.put(current.name, current.tmpName);
-      totBytesCopied += current.getBytesCopied();
+      activeCopies.remove(copy);
+      copiedFiles.put(copy.name, copy.tmpName);
+      totBytesCopied += copy.getBytesCopied();
       assert totBytesCopied <= totBytes
           : "totBytesCopied=" + totBytesCopied + " totBytes=" + totBytes;
-      current = null;
-      return false;
     }
     return false;
   }
 
+  /**
+   * Start copying the next files, while there are fewer active copies than the parallelism and the
+   * remaining bytes of the active copies are within the max in flight bytes. A file is always
+   * started if there are no active copies, regardless of its size.
+   */
+  private void startCopies() throws IOException {
+    while (activeCopies.size() < parallelism) {
+      if (nextFile == null) {
+        if (!iter.hasNext()) {
+          return;
+        }
+        nextFile = iter.next();
+      }
+      if (!activeCopies.isEmpty()
+          && getInFlightBytes() + nextFile.getValue().length() > maxInFlightBytes) {
+        return;
+      }
+      activeCopies.add(startCopy(nextFile.getKey(), nextFile.getValue()));
+      nextFile = null;
+    }
+  }
+
+  private CopyOneFile startCopy(String fileName, FileMetaData metaData) throws IOException {
+    Iterator<RawFileChunk> rawFileChunkIterator;
+    try {
+      if (ackedCopy) {
+        FileChunkStreamingIterator fcsi = new FileChunkStreamingIterator(indexName);
+        primaryAddres.recvRawFileV2(fileName, 0, indexName, indexId, fcsi);
+        rawFileChunkIterator = fcsi;
+      } else {
+        rawFileChunkIterator = primaryAddres.recvRawFile(fileName, 0, indexName, indexId);
+      }
+    } catch (Throwable t) {
+      cancel("exc during start", t);
+      throw new NodeCommunicationException("exc during start", t);
+    }
+    return new CopyOneFile(rawFileChunkIterator, dest, fileName, metaData);
+  }
+
+  /**
+   * Get the next active copy to visit, in round-robin order. Copies with a chunk available are
+   * preferred, so that waiting on one stream does not block progress on the others.
+   */
+  private CopyOneFile nextActiveCopy() {
+    int size = activeCopies.size();
+    int index = nextActiveIndex % size;
+    for (int i = 0; i < size; ++i) {
+      int candidate = (nextActiveIndex + i) % size;
+      if (activeCopies.get(candidate).isChunkAvailable()) {
+        index = candidate;
+        break;
+      }
+    }
+    nextActiveIndex = index + 1;
+    return activeCopies.get(index);
+  }
+
+  /** Get the bytes of active copies that have not yet been received. */
+  private long getInFlightBytes() {
+    long inFlightBytes = 0;
+    for (CopyOneFile copy : activeCopies) {
+      inFlightBytes += copy.metaData.length() - copy.getBytesCopied();
+    }
+    return inFlightBytes;
+  }
+
+  private synchronized CopyOneFile removeActiveCopy(String fileName) {
+    Iterator<CopyOneFile> it = activeCopies.iterator();
+    while (it.hasNext()) {
+      CopyOneFile copy = it.next();
+      if (copy.name.equals(fileName)) {
+        it.remove();
+        return copy;
+      }
+    }
+    return null;
+  }
+
+  private void closeActiveCopies() {
+    for (CopyOneFile copy : activeCopies) {
+      IOUtils.closeWhileHandlingException(copy);
+      if (Node.VERBOSE_FILES) {
+        dest.message("remove partial file " + copy.tmpName);
+      }
+      IOUtils.deleteFilesIgnoringExceptions(dest.getDirectory(), copy.tmpName);
+    }
+    activeCopies.clear();
+  }
+
   @Override
   public String toString() {
     return "SimpleCopyJob(ord="
@@ -269,6 +404,8 @@ public class SimpleCopyJob extends CopyJob {
         + totBytes
         + ") filesCopied="
         + copiedFiles.size()
+        + " activeFiles="
+        + activeCopies.size()
         + ")";
   }
 
@@ -331,6 +468,11 @@ public class SimpleCopyJob extends CopyJob {
       logger.debug("File streaming onCompleted");
     }
 
+    /** Get if the next chunk has already been received, or the stream is finished. */
+    public boolean isChunkAvailable() {
+      return next != null || !pendingChunks.isEmpty();
+    }
+
     @Override
     public boolean hasNext() {
       // set next chunk
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2025 Yelp Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.yelp.nrtsearch.server.plugins;
+
+import com.yelp.nrtsearch.server.search.slicing.SearchSlicer;
+import com.yelp.nrtsearch.server.search.slicing.SearchSlicerProvider;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Plugin interface for providing custom {@link SearchSlicer} implementations. The registered
+ * slicers can be used by an index by setting the sliceStrategy live setting to the slicer name.
+ */
+public interface SearchSlicerPlugin {
+
+  /**
+   * Provide a map of custom {@link SearchSlicer} implementations to register. The name must not
+   * conflict with a standard slicer or one registered by another plugin.
+   *
+   * @return map of slicer name to slicer provider
+   */
+  default Map<String, SearchSlicerProvider> getSearchSlicers() {
+    return Collections.emptyMap();
+  }
+}
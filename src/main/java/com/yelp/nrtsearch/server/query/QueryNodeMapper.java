@@ -72,7 +72,6 @@ import org.apache.lucene.search.RegexpQuery;
 import org.apache.lucene.search.TermQuery;
 import org.apache.lucene.search.TermRangeQuery;
 import org.apache.lucene.search.WildcardQuery;
-import org.apache.lucene.search.join.QueryBitSetProducer;
 import org.apache.lucene.search.join.ScoreMode;
 import org.apache.lucene.search.join.ToParentBlockJoinQuery;
 import org.apache.lucene.search.suggest.document.CompletionQuery;
@@ -208,7 +207,9 @@ public class QueryNodeMapper {
             .build();
     Query parentQuery = getNestedPathQuery(state, IndexState.ROOT);
     return new ToParentBlockJoinQuery(
-        childQuery, new QueryBitSetProducer(parentQuery), getScoreMode(nestedQuery));
+        childQuery,
+        state.getShard(0).getParentBitSetCache().getBitSetProducer(parentQuery),
+        getScoreMode(nestedQuery));
   }
 
   private ScoreMode getScoreMode(com.yelp.nrtsearch.server.grpc.NestedQuery nestedQuery) {
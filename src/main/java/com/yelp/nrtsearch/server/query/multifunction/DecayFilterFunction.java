@@ -37,6 +37,17 @@ public abstract class DecayFilterFunction extends FilterFunction {
     }
   }
 
+  /** Decay functions produce a score between 0 and 1, which is scaled by the weight. */
+  @Override
+  public double getMaxScore() {
+    return Math.max(0.0, getWeight());
+  }
+
+  @Override
+  public double getMinScore() {
+    return Math.min(0.0, getWeight());
+  }
+
   protected DecayFunction getDecayType(MultiFunctionScoreQuery.DecayType decayType) {
     return switch (decayType) {
       case DECAY_TYPE_GUASSIAN -> new GuassianDecayFunction();
@@ -131,6 +131,23 @@ public abstract class FilterFunction {
     return weight;
   }
 
+  /**
+   * Get an upper bound for the weighted function score of any document. This allows the {@link
+   * MultiFunctionScoreQuery} to provide max score bounds, so that non-competitive documents can be
+   * skipped. Functions with no known bound return {@link Double#POSITIVE_INFINITY}.
+   */
+  public double getMaxScore() {
+    return Double.POSITIVE_INFINITY;
+  }
+
+  /**
+   * Get a lower bound for the weighted function score of any document. Functions with no known
+   * bound return {@link Double#NEGATIVE_INFINITY}.
+   */
+  public double getMinScore() {
+    return Double.NEGATIVE_INFINITY;
+  }
+
   /**
    * Get the function implementation as applies to an index leaf segment.
    *
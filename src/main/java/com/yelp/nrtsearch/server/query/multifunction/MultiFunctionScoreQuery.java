@@ -56,6 +56,7 @@ public class MultiFunctionScoreQuery extends Query {
   private final BoostMode boostMode;
   private final float minScore;
   private final boolean minExcluded;
+  private final double maxFunctionScore;
 
   private static boolean hasPassedMinScore(
       float currentScore, float minimalScore, boolean minimalExcluded) {
@@ -118,6 +119,72 @@ public class MultiFunctionScoreQuery extends Query {
       throw new IllegalArgumentException(
           "minScore must be a non-negative number, but got " + minScore);
     }
+    this.maxFunctionScore = computeMaxFunctionScore(functions, scoreMode, boostMode);
+  }
+
+  /**
+   * Compute an upper bound for the combined function score of any document, which can be used to
+   * bound the final document score. Returns {@link Double#POSITIVE_INFINITY} if any function is
+   * unbounded, such as a script function, or if the bound cannot be used with the boost mode.
+   *
+   * @param functions filter functions
+   * @param scoreMode mode to combine function scores
+   * @param boostMode mode to combine function and document scores
+   * @return function score upper bound
+   */
+  static double computeMaxFunctionScore(
+      FilterFunction[] functions, FunctionScoreMode scoreMode, BoostMode boostMode) {
+    if (functions.length == 0) {
+      // the inner query score is used as is, so the scorer passes through the inner query bounds.
+      // The inner score is not computed in replace mode.
+      return boostMode == BoostMode.BOOST_MODE_REPLACE ? Double.POSITIVE_INFINITY : 1.0;
+    }
+    boolean nonNegative = true;
+    for (FilterFunction function : functions) {
+      if (Double.isInfinite(function.getMaxScore()) || Double.isNaN(function.getMaxScore())) {
+        return Double.POSITIVE_INFINITY;
+      }
+      nonNegative &= function.getMinScore() >= 0;
+    }
+    // multiplying a document score by a negative function score would invert the bound
+    if (!nonNegative && boostMode == BoostMode.BOOST_MODE_MULTIPLY) {
+      return Double.POSITIVE_INFINITY;
+    }
+    switch (scoreMode) {
+      case SCORE_MODE_MULTIPLY:
+        if (!nonNegative) {
+          return Double.POSITIVE_INFINITY;
+        }
+        // functions with a filter contribute a factor of 1 to documents not matching the filter
+        double multiplyMax = 1.0;
+        for (FilterFunction function : functions) {
+          multiplyMax *=
+              function.hasFilterQuery()
+                  ? Math.max(1.0, function.getMaxScore())
+                  : function.getMaxScore();
+        }
+        return multiplyMax;
+      case SCORE_MODE_SUM:
+        // the score is 1 if no function applies to a document
+        double sumMax = 0.0;
+        boolean alwaysMatched = false;
+        for (FilterFunction function : functions) {
+          if (function.hasFilterQuery()) {
+            sumMax += Math.max(0.0, function.getMaxScore());
+          } else {
+            sumMax += function.getMaxScore();
+            alwaysMatched = true;
+          }
+        }
+        return alwaysMatched ? sumMax : Math.max(1.0, sumMax);
+      default:
+        return Double.POSITIVE_INFINITY;
+    }
+  }
+
+  /** If the function score has an upper bound, so that document scores can be bounded. */
+  boolean hasMaxFunctionScore() {
+    return Double.isFinite(maxFunctionScore);
   }
 
   @Override
@@ -165,13 +232,16 @@ public class MultiFunctionScoreQuery extends Query {
                 1.0f);
       }
     }
-    Weight innerWeight =
-        innerQuery.createWeight(
-            searcher,
-            boostMode == BoostMode.BOOST_MODE_REPLACE
-                ? ScoreMode.COMPLETE_NO_SCORES
-                : ScoreMode.COMPLETE,
-            boost);
+    // when document scores are bounded, the inner query may skip documents that cannot compete
+    ScoreMode innerScoreMode;
+    if (boostMode == BoostMode.BOOST_MODE_REPLACE) {
+      innerScoreMode = ScoreMode.COMPLETE_NO_SCORES;
+    } else if (scoreMode == ScoreMode.TOP_SCORES && hasMaxFunctionScore()) {
+      innerScoreMode = ScoreMode.TOP_SCORES;
+    } else {
+      innerScoreMode = ScoreMode.COMPLETE;
+    }
+    Weight innerWeight = innerQuery.createWeight(searcher, innerScoreMode, boost);
     return new MultiFunctionWeight(this, innerWeight, filterWeights);
   }
 
@@ -282,7 +352,8 @@ public class MultiFunctionScoreQuery extends Query {
           }
 
           Scorer scorer =
-              new MultiFunctionScorer(innerScorer, scoreMode, boostMode, leafFunctions, docSets);
+              new MultiFunctionScorer(
+                  innerScorer, scoreMode, boostMode, leafFunctions, docSets, maxFunctionScore);
           if (isMinScoreWrapperUsed()) {
             scorer = new MinScoreWrapper(scorer, minScore, minExcluded);
           }
@@ -407,6 +478,12 @@ public class MultiFunctionScoreQuery extends Query {
       return in.advanceShallow(target);
     }
 
+    @Override
+    public void setMinCompetitiveScore(float minScore) throws IOException {
+      // this scorer only removes matches, so skipping by the wrapped scorer is still valid
+      in.setMinCompetitiveScore(minScore);
+    }
+
     @Override
     public int docID() {
       return in.docID();
@@ -415,13 +492,16 @@ public class MultiFunctionScoreQuery extends Query {
 
   /**
    * Scorer that computes the function score value for segment document, and uses it to modify the
-   * query document score.
+   * query document score. When the function score has an upper bound, the max score of the inner
+   * scorer is used to provide max score bounds, and the min competitive score is passed to the
+   * inner scorer, so that documents that cannot be competitive may be skipped.
    */
   public static class MultiFunctionScorer extends FilterScorer {
     private final FunctionScoreMode scoreMode;
     private final BoostMode boostMode;
     private final LeafFunction[] leafFunctions;
     private final Bits[] docSets;
+    private final double maxFunctionScore;
 
     public MultiFunctionScorer(
         Scorer innerScorer,
@@ -429,11 +509,32 @@ public class MultiFunctionScoreQuery extends Query {
         BoostMode boostMode,
         LeafFunction[] leafFunctions,
         Bits[] docSets) {
+      this(innerScorer, scoreMode, boostMode, leafFunctions, docSets, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param innerScorer scorer for the main query
+     * @param scoreMode mode to combine function scores
+     * @param boostMode mode to combine function and document scores
+     * @param leafFunctions functions for this segment
+     * @param docSets documents each function applies to
+     * @param maxFunctionScore upper bound of the combined function score, or infinity if unbounded
+     */
+    public MultiFunctionScorer(
+        Scorer innerScorer,
+        FunctionScoreMode scoreMode,
+        BoostMode boostMode,
+        LeafFunction[] leafFunctions,
+        Bits[] docSets,
+        double maxFunctionScore) {
       super(innerScorer);
       this.scoreMode = scoreMode;
       this.boostMode = boostMode;
       this.leafFunctions = leafFunctions;
       this.docSets = docSets;
+      this.maxFunctionScore = maxFunctionScore;
     }
 
     @Override
@@ -493,9 +594,53 @@ public class MultiFunctionScoreQuery extends Query {
       };
     }
 
+    @Override
+    public int advanceShallow(int target) throws IOException {
+      if (Double.isInfinite(maxFunctionScore)) {
+        return super.advanceShallow(target);
+      }
+      return in.advanceShallow(target);
+    }
+
     @Override
     public float getMaxScore(int upTo) throws IOException {
-      return Float.MAX_VALUE;
+      if (Double.isInfinite(maxFunctionScore)) {
+        return Float.MAX_VALUE;
+      }
+      if (leafFunctions.length == 0) {
+        return in.getMaxScore(upTo);
+      }
+      double maxScore =
+          switch (boostMode) {
+            case BOOST_MODE_MULTIPLY -> in.getMaxScore(upTo) * maxFunctionScore;
+            case BOOST_MODE_SUM -> in.getMaxScore(upTo) + maxFunctionScore;
+            case BOOST_MODE_REPLACE -> maxFunctionScore;
+            default -> Double.POSITIVE_INFINITY;
+          };
+      // round up, since the score is computed as a double and converted to a float
+      return Math.nextUp((float) Math.min(maxScore, Float.MAX_VALUE));
+    }
+
+    @Override
+    public void setMinCompetitiveScore(float minScore) throws IOException {
+      if (Double.isInfinite(maxFunctionScore)) {
+        return;
+      }
+      if (leafFunctions.length == 0) {
+        in.setMinCompetitiveScore(minScore);
+        return;
+      }
+      // round down, so that no document with a competitive final score is skipped
+      double innerMinScore =
+          switch (boostMode) {
+            case BOOST_MODE_MULTIPLY ->
+                maxFunctionScore > 0 ? minScore / maxFunctionScore : 0.0;
+            case BOOST_MODE_SUM -> minScore - maxFunctionScore;
+            default -> 0.0;
+          };
+      if (innerMinScore > 0) {
+        in.setMinCompetitiveScore(Math.nextDown((float) innerMinScore));
+      }
     }
   }
 
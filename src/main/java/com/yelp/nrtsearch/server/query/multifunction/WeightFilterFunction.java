@@ -58,6 +58,16 @@ public class WeightFilterFunction extends FilterFunction {
     return 0;
   }
 
+  @Override
+  public double getMaxScore() {
+    return getWeight();
+  }
+
+  @Override
+  public double getMinScore() {
+    return getWeight();
+  }
+
   @Override
   public LeafFunction getLeafFunction(LeafReaderContext leafContext) throws IOException {
     return leafFunction;
@@ -18,8 +18,11 @@ package com.yelp.nrtsearch.server.query.vector;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.Objects;
+import org.apache.lucene.index.FloatVectorValues;
+import org.apache.lucene.index.KnnVectorValues;
 import org.apache.lucene.index.LeafReader;
 import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.VectorSimilarityFunction;
 import org.apache.lucene.search.DocIdSetIterator;
 import org.apache.lucene.search.Explanation;
 import org.apache.lucene.search.IndexSearcher;
@@ -178,6 +181,7 @@ public abstract class ExactVectorQuery extends Query {
    */
   public static class ExactFloatVectorQuery extends ExactVectorQuery {
     private final float[] queryVector;
+    private final VectorSimilarityFunction rawSimilarityFunction;
 
     /**
      * Constructor.
@@ -186,8 +190,60 @@ public abstract class ExactVectorQuery extends Query {
      * @param queryVector the query vector
      */
     public ExactFloatVectorQuery(String field, float[] queryVector) {
-      super(field, reader -> reader.getFloatVectorValues(field).scorer(queryVector));
+      this(field, queryVector, null);
+    }
+
+    /**
+     * Constructor. If a similarity function is provided, documents are scored by comparing the
+     * query vector with the raw float vectors. Otherwise, the scorer provided by the vectors format
+     * is used, which may compute the similarity from quantized vectors.
+     *
+     * @param field the field to search
+     * @param queryVector the query vector
+     * @param rawSimilarityFunction similarity function to score raw vectors with, or null
+     */
+    public ExactFloatVectorQuery(
+        String field, float[] queryVector, VectorSimilarityFunction rawSimilarityFunction) {
+      super(
+          field,
+          reader ->
+              rawSimilarityFunction == null
+                  ? reader.getFloatVectorValues(field).scorer(queryVector)
+                  : rawVectorScorer(
+                      reader.getFloatVectorValues(field), queryVector, rawSimilarityFunction));
       this.queryVector = queryVector;
+      this.rawSimilarityFunction = rawSimilarityFunction;
+    }
+
+    /**
+     * Create a {@link VectorScorer} that computes the similarity with the raw float vector of each
+     * document.
+     *
+     * @param vectorValues segment vector values, or null
+     * @param queryVector the query vector
+     * @param similarityFunction similarity function
+     * @return scorer, or null if the segment has no vector values
+     */
+    private static VectorScorer rawVectorScorer(
+        FloatVectorValues vectorValues,
+        float[] queryVector,
+        VectorSimilarityFunction similarityFunction) {
+      if (vectorValues == null) {
+        return null;
+      }
+      KnnVectorValues.DocIndexIterator iterator = vectorValues.iterator();
+      return new VectorScorer() {
+        @Override
+        public float score() throws IOException {
+          return similarityFunction.compare(
+              queryVector, vectorValues.vectorValue(iterator.index()));
+        }
+
+        @Override
+        public DocIdSetIterator iterator() {
+          return iterator;
+        }
+      };
     }
 
     @Override
@@ -209,12 +265,14 @@ public abstract class ExactVectorQuery extends Query {
         return false;
       }
       ExactFloatVectorQuery other = (ExactFloatVectorQuery) obj;
-      return Objects.equals(field, other.field) && Arrays.equals(queryVector, other.queryVector);
+      return Objects.equals(field, other.field)
+          && Arrays.equals(queryVector, other.queryVector)
+          && rawSimilarityFunction == other.rawSimilarityFunction;
     }
 
     @Override
     public int hashCode() {
-      return Objects.hash(classHash(), field, Arrays.hashCode(queryVector));
+      return Objects.hash(classHash(), field, Arrays.hashCode(queryVector), rawSimilarityFunction);
     }
   }
 
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2025 Yelp Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.yelp.nrtsearch.server.query.vector;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.QueryRescorer;
+import org.apache.lucene.search.TopDocs;
+
+/**
+ * Rescorer that re-ranks vector search hits using the similarity computed by an {@link
+ * ExactVectorQuery}. This is used to oversample the hits from a search of a quantized vector graph,
+ * and select the top hits using the similarity to the raw float vectors.
+ */
+public class ExactVectorRescorer extends QueryRescorer {
+  private final int numCandidates;
+
+  /**
+   * Constructor.
+   *
+   * @param exactVectorQuery query to compute the exact similarity for each hit
+   * @param numCandidates number of top vector search hits to rescore
+   */
+  public ExactVectorRescorer(ExactVectorQuery exactVectorQuery, int numCandidates) {
+    super(exactVectorQuery);
+    this.numCandidates = numCandidates;
+  }
+
+  /** Get the number of top vector search hits to rescore. */
+  public int getNumCandidates() {
+    return numCandidates;
+  }
+
+  /**
+   * Get the number of top vector search hits to rescore with the given rescorer.
+   *
+   * @param rescorer rescorer, or null
+   * @return number of hits to rescore, or 0 if there is no rescorer
+   */
+  static int getNumCandidates(ExactVectorRescorer rescorer) {
+    return rescorer == null ? 0 : rescorer.numCandidates;
+  }
+
+  /**
+   * Select the top candidates from the merged per leaf vector search results, and rescore them to
+   * produce the top k hits.
+   *
+   * @param searcher index searcher used for the vector search
+   * @param perLeafResults vector search hits for each leaf
+   * @param k number of top hits to return
+   * @return top k hits, scored by exact similarity
+   * @throws UncheckedIOException on error reading vector data
+   */
+  TopDocs mergeAndRescore(IndexSearcher searcher, TopDocs[] perLeafResults, int k) {
+    TopDocs candidates = TopDocs.merge(numCandidates, perLeafResults);
+    try {
+      return rescore(searcher, candidates, k);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  protected float combine(float firstPassScore, boolean secondPassMatches, float secondPassScore) {
+    // every vector search hit has a vector, keep the original score just in case
+    return secondPassMatches ? secondPassScore : firstPassScore;
+  }
+}
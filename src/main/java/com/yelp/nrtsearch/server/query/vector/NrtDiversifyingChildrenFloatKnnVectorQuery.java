@@ -15,6 +15,9 @@
  */
 package com.yelp.nrtsearch.server.query.vector;
 
+import java.io.IOException;
+import java.util.Objects;
+import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.TopDocs;
 import org.apache.lucene.search.TotalHits;
@@ -25,11 +28,15 @@ import org.apache.lucene.search.join.DiversifyingChildrenFloatKnnVectorQuery;
  * A {@link DiversifyingChildrenFloatKnnVectorQuery} that has its functionality slightly modified.
  * The {@link TotalHits} from the vector search are available after the query has been rewritten
  * using the {@link WithVectorTotalHits} interface. The results merging has also been modified to
- * produce the top k hits from the top numCandidates hits from each leaf.
+ * produce the top k hits from the top numCandidates hits from each leaf. If an {@link
+ * ExactVectorRescorer} is given, the top k hits are selected by rescoring the merged candidates.
  */
 public class NrtDiversifyingChildrenFloatKnnVectorQuery
     extends DiversifyingChildrenFloatKnnVectorQuery implements WithVectorTotalHits {
   private final int topHits;
+  private final BitSetProducer parentsFilter;
+  private final ExactVectorRescorer rescorer;
+  private final IndexSearcher rescoreSearcher;
   private TotalHits totalHits;
 
   public NrtDiversifyingChildrenFloatKnnVectorQuery(
@@ -39,8 +46,34 @@ public class NrtDiversifyingChildrenFloatKnnVectorQuery
       int k,
       int numCandidates,
       BitSetProducer parentsFilter) {
+    this(field, target, filter, k, numCandidates, parentsFilter, null);
+  }
+
+  public NrtDiversifyingChildrenFloatKnnVectorQuery(
+      String field,
+      float[] target,
+      Query filter,
+      int k,
+      int numCandidates,
+      BitSetProducer parentsFilter,
+      ExactVectorRescorer rescorer) {
+    this(field, target, filter, k, numCandidates, parentsFilter, rescorer, null);
+  }
+
+  private NrtDiversifyingChildrenFloatKnnVectorQuery(
+      String field,
+      float[] target,
+      Query filter,
+      int k,
+      int numCandidates,
+      BitSetProducer parentsFilter,
+      ExactVectorRescorer rescorer,
+      IndexSearcher rescoreSearcher) {
     super(field, target, filter, numCandidates, parentsFilter);
     this.topHits = k;
+    this.parentsFilter = parentsFilter;
+    this.rescorer = rescorer;
+    this.rescoreSearcher = rescoreSearcher;
   }
 
   @Override
@@ -48,10 +81,51 @@ public class NrtDiversifyingChildrenFloatKnnVectorQuery
     return totalHits;
   }
 
+  @Override
+  public Query rewrite(IndexSearcher indexSearcher) throws IOException {
+    if (rescorer == null || rescoreSearcher == indexSearcher) {
+      return super.rewrite(indexSearcher);
+    }
+    // rescoring the merged results needs the searcher, rewrite a copy bound to this searcher
+    NrtDiversifyingChildrenFloatKnnVectorQuery boundQuery =
+        new NrtDiversifyingChildrenFloatKnnVectorQuery(
+            getField(),
+            getTargetCopy(),
+            getFilter(),
+            topHits,
+            getK(),
+            parentsFilter,
+            rescorer,
+            indexSearcher);
+    Query rewritten = boundQuery.rewrite(indexSearcher);
+    totalHits = boundQuery.totalHits;
+    return rewritten;
+  }
+
   @Override
   protected TopDocs mergeLeafResults(TopDocs[] perLeafResults) {
-    TopDocs topDocs = TopDocs.merge(topHits, perLeafResults);
+    TopDocs topDocs =
+        rescorer == null
+            ? TopDocs.merge(topHits, perLeafResults)
+            : rescorer.mergeAndRescore(rescoreSearcher, perLeafResults, topHits);
     totalHits = topDocs.totalHits;
     return topDocs;
   }
+
+  @Override
+  public boolean equals(Object o) {
+    if (!super.equals(o)) {
+      return false;
+    }
+    NrtDiversifyingChildrenFloatKnnVectorQuery other =
+        (NrtDiversifyingChildrenFloatKnnVectorQuery) o;
+    return topHits == other.topHits
+        && ExactVectorRescorer.getNumCandidates(rescorer)
+            == ExactVectorRescorer.getNumCandidates(other.rescorer);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(super.hashCode(), topHits, ExactVectorRescorer.getNumCandidates(rescorer));
+  }
 }
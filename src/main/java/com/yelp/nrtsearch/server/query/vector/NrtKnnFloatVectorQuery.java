@@ -15,6 +15,9 @@
  */
 package com.yelp.nrtsearch.server.query.vector;
 
+import java.io.IOException;
+import java.util.Objects;
+import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.KnnFloatVectorQuery;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.TopDocs;
@@ -24,10 +27,13 @@ import org.apache.lucene.search.TotalHits;
  * A {@link KnnFloatVectorQuery} that has its functionality slightly modified. The {@link TotalHits}
  * from the vector search are available after the query has been rewritten using the {@link
  * WithVectorTotalHits} interface. The results merging has also been modified to produce the top k
- * hits from the top numCandidates hits from each leaf.
+ * hits from the top numCandidates hits from each leaf. If an {@link ExactVectorRescorer} is given,
+ * the top k hits are selected by rescoring the merged candidates.
  */
 public class NrtKnnFloatVectorQuery extends KnnFloatVectorQuery implements WithVectorTotalHits {
   private final int topHits;
+  private final ExactVectorRescorer rescorer;
+  private final IndexSearcher rescoreSearcher;
   private TotalHits totalHits;
 
   /**
@@ -41,8 +47,41 @@ public class NrtKnnFloatVectorQuery extends KnnFloatVectorQuery implements WithV
    */
   public NrtKnnFloatVectorQuery(
       String field, float[] target, int k, Query filter, int numCandidates) {
+    this(field, target, k, filter, numCandidates, null);
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param field field name
+   * @param target query vector
+   * @param k number of top hits to return
+   * @param filter filter to use for vector search, or null
+   * @param numCandidates number of candidates to retrieve from each leaf
+   * @param rescorer rescorer to select the top k hits from the merged candidates, or null
+   */
+  public NrtKnnFloatVectorQuery(
+      String field,
+      float[] target,
+      int k,
+      Query filter,
+      int numCandidates,
+      ExactVectorRescorer rescorer) {
+    this(field, target, k, filter, numCandidates, rescorer, null);
+  }
+
+  private NrtKnnFloatVectorQuery(
+      String field,
+      float[] target,
+      int k,
+      Query filter,
+      int numCandidates,
+      ExactVectorRescorer rescorer,
+      IndexSearcher rescoreSearcher) {
     super(field, target, numCandidates, filter);
     this.topHits = k;
+    this.rescorer = rescorer;
+    this.rescoreSearcher = rescoreSearcher;
   }
 
   @Override
@@ -50,10 +89,43 @@ public class NrtKnnFloatVectorQuery extends KnnFloatVectorQuery implements WithV
     return totalHits;
   }
 
+  @Override
+  public Query rewrite(IndexSearcher indexSearcher) throws IOException {
+    if (rescorer == null || rescoreSearcher == indexSearcher) {
+      return super.rewrite(indexSearcher);
+    }
+    // rescoring the merged results needs the searcher, rewrite a copy bound to this searcher
+    NrtKnnFloatVectorQuery boundQuery =
+        new NrtKnnFloatVectorQuery(
+            getField(), getTargetCopy(), topHits, getFilter(), getK(), rescorer, indexSearcher);
+    Query rewritten = boundQuery.rewrite(indexSearcher);
+    totalHits = boundQuery.totalHits;
+    return rewritten;
+  }
+
   @Override
   protected TopDocs mergeLeafResults(TopDocs[] perLeafResults) {
-    TopDocs topDocs = TopDocs.merge(topHits, perLeafResults);
+    TopDocs topDocs =
+        rescorer == null
+            ? TopDocs.merge(topHits, perLeafResults)
+            : rescorer.mergeAndRescore(rescoreSearcher, perLeafResults, topHits);
     totalHits = topDocs.totalHits;
     return topDocs;
   }
+
+  @Override
+  public boolean equals(Object o) {
+    if (!super.equals(o)) {
+      return false;
+    }
+    NrtKnnFloatVectorQuery other = (NrtKnnFloatVectorQuery) o;
+    return topHits == other.topHits
+        && ExactVectorRescorer.getNumCandidates(rescorer)
+            == ExactVectorRescorer.getNumCandidates(other.rescorer);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(super.hashCode(), topHits, ExactVectorRescorer.getNumCandidates(rescorer));
+  }
 }
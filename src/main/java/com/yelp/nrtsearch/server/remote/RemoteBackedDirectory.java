@@ -0,0 +1,594 @@
+/*
+ * Copyright 2025 Yelp Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.yelp.nrtsearch.server.remote;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.yelp.nrtsearch.server.config.LazyRestoreConfig;
+import com.yelp.nrtsearch.server.monitoring.NrtMetrics;
+import com.yelp.nrtsearch.server.nrt.state.NrtFileMetaData;
+import com.yelp.nrtsearch.server.utils.FileUtils;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.lucene.codecs.CodecUtil;
+import org.apache.lucene.index.CorruptIndexException;
+import org.apache.lucene.store.BufferedIndexInput;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FilterDirectory;
+import org.apache.lucene.store.IOContext;
+import org.apache.lucene.store.IndexInput;
+import org.apache.lucene.util.NamedThreadFactory;
+import org.apache.lucene.util.ThreadInterruptedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Directory that serves index files restored from the {@link RemoteBackend} before they are
+ * downloaded. Reads of a remote file fetch the containing blocks from the backend with range
+ * requests, and store them in a sparse file in a local block cache. Background threads download
+ * the remaining blocks of each file, smallest files first, and move the completed file into the
+ * index directory. Once all files are local, the directory behaves the same as its delegate.
+ *
+ * <p>New files are always written to the delegate directory. Present blocks are only tracked in
+ * memory, so the block cache is cleared when the directory is opened.
+ */
+public class RemoteBackedDirectory extends FilterDirectory {
+  private static final Logger logger = LoggerFactory.getLogger(RemoteBackedDirectory.class);
+  public static final String BLOCK_CACHE_DIR_NAME = "remote_block_cache";
+  static final String ON_DEMAND = "on_demand";
+  static final String HYDRATION = "hydration";
+  private static final double BYTES_PER_MB = 1024.0 * 1024.0;
+
+  private final Path indexPath;
+  private final Path cachePath;
+  private final RemoteBackend remoteBackend;
+  private final String serviceName;
+  private final String indexIdentifier;
+  private final String indexName;
+  private final int blockSize;
+  private final Map<String, RemoteFile> remoteFiles = new ConcurrentHashMap<>();
+  private final AtomicLong pendingBytes = new AtomicLong();
+  private final ExecutorService hydrationExecutor;
+  private final long startTimeNs = System.nanoTime();
+  private volatile boolean closed = false;
+
+  /**
+   * Constructor.
+   *
+   * @param in local index directory
+   * @param indexPath path of local index directory
+   * @param remoteBackend remote backend containing index files
+   * @param serviceName service name
+   * @param indexIdentifier unique index identifier
+   * @param indexName index name, used for metrics
+   * @param files metadata of the index files to read from the remote backend
+   * @param config lazy restore config
+   * @throws IOException on error creating the block cache
+   */
+  public RemoteBackedDirectory(
+      Directory in,
+      Path indexPath,
+      RemoteBackend remoteBackend,
+      String serviceName,
+      String indexIdentifier,
+      String indexName,
+      Map<String, NrtFileMetaData> files,
+      LazyRestoreConfig config)
+      throws IOException {
+    super(in);
+    this.indexPath = indexPath;
+    this.cachePath = indexPath.resolveSibling(BLOCK_CACHE_DIR_NAME);
+    this.remoteBackend = remoteBackend;
+    this.serviceName = serviceName;
+    this.indexIdentifier = indexIdentifier;
+    this.indexName = indexName;
+    this.blockSize = config.getBlockSize();
+
+    if (Files.exists(cachePath)) {
+      FileUtils.deleteAllFilesInDir(cachePath);
+    }
+    Files.createDirectories(cachePath);
+
+    for (Map.Entry<String, NrtFileMetaData> entry : files.entrySet()) {
+      remoteFiles.put(entry.getKey(), new RemoteFile(entry.getKey(), entry.getValue()));
+      pendingBytes.addAndGet(entry.getValue().length);
+    }
+    updatePendingMetric();
+
+    if (config.getHydrationThreads() > 0 && !remoteFiles.isEmpty()) {
+      hydrationExecutor =
+          new ThreadPoolExecutor(
+              config.getHydrationThreads(),
+              config.getHydrationThreads(),
+              0,
+              TimeUnit.SECONDS,
+              new LinkedBlockingQueue<>(),
+              new NamedThreadFactory("remote-hydration-"));
+      List<RemoteFile> hydrationOrder = new ArrayList<>(remoteFiles.values());
+      hydrationOrder.sort(Comparator.comparingLong(f -> f.length));
+      for (RemoteFile remoteFile : hydrationOrder) {
+        hydrationExecutor.execute(() -> hydrate(remoteFile));
+      }
+      hydrationExecutor.shutdown();
+    } else {
+      hydrationExecutor = null;
+    }
+    logger.info(
+        "Opened remote backed directory for index: {}, remote files: {}, size: {}MB",
+        indexName,
+        remoteFiles.size(),
+        pendingBytes.get() / BYTES_PER_MB);
+  }
+
+  /** Get the names of index files that are not yet fully local. */
+  public Set<String> getRemoteFileNames() {
+    Set<String> names = new TreeSet<>();
+    for (RemoteFile remoteFile : remoteFiles.values()) {
+      if (!remoteFile.isLocal()) {
+        names.add(remoteFile.name);
+      }
+    }
+    return names;
+  }
+
+  /** Get the total size of index files that are not yet fully local. */
+  public long getPendingBytes() {
+    return pendingBytes.get();
+  }
+
+  /**
+   * Wait for background hydration of all remote files to finish.
+   *
+   * @param timeout max time to wait
+   * @param unit time unit
+   * @return if hydration finished before the timeout
+   * @throws InterruptedException if interrupted while waiting
+   */
+  @VisibleForTesting
+  boolean awaitHydration(long timeout, TimeUnit unit) throws InterruptedException {
+    return hydrationExecutor == null || hydrationExecutor.awaitTermination(timeout, unit);
+  }
+
+  private RemoteFile getRemoteFile(String name) {
+    RemoteFile remoteFile = remoteFiles.get(name);
+    if (remoteFile == null || remoteFile.isLocal()) {
+      return null;
+    }
+    return remoteFile;
+  }
+
+  @Override
+  public String[] listAll() throws IOException {
+    Set<String> files = new TreeSet<>(List.of(in.listAll()));
+    files.addAll(getRemoteFileNames());
+    return files.toArray(new String[0]);
+  }
+
+  @Override
+  public long fileLength(String name) throws IOException {
+    RemoteFile remoteFile = getRemoteFile(name);
+    if (remoteFile != null) {
+      return remoteFile.length;
+    }
+    return in.fileLength(name);
+  }
+
+  @Override
+  public IndexInput openInput(String name, IOContext context) throws IOException {
+    RemoteFile remoteFile = getRemoteFile(name);
+    if (remoteFile != null) {
+      return new RemoteBlockIndexInput(
+          "RemoteBlockIndexInput(path=\"" + indexPath.resolve(name) + "\")",
+          remoteFile,
+          0,
+          remoteFile.length);
+    }
+    return in.openInput(name, context);
+  }
+
+  @Override
+  public void deleteFile(String name) throws IOException {
+    RemoteFile remoteFile = remoteFiles.remove(name);
+    if (remoteFile != null) {
+      boolean wasLocal = remoteFile.delete();
+      if (!wasLocal) {
+        pendingBytes.addAndGet(-remoteFile.length);
+        updatePendingMetric();
+        return;
+      }
+    }
+    in.deleteFile(name);
+  }
+
+  @Override
+  public void rename(String source, String dest) throws IOException {
+    // the replica replaced a remote file with a copy from the primary
+    RemoteFile remoteFile = remoteFiles.remove(dest);
+    if (remoteFile != null && !remoteFile.delete()) {
+      pendingBytes.addAndGet(-remoteFile.length);
+      updatePendingMetric();
+    }
+    in.rename(source, dest);
+  }
+
+  @Override
+  public void sync(Collection<String> names) throws IOException {
+    // remote files are synced once hydrated
+    List<String> localNames = new ArrayList<>();
+    for (String name : names) {
+      if (getRemoteFile(name) == null) {
+        localNames.add(name);
+      }
+    }
+    in.sync(localNames);
+  }
+
+  @Override
+  public void close() throws IOException {
+    closed = true;
+    if (hydrationExecutor != null) {
+      hydrationExecutor.shutdownNow();
+      try {
+        hydrationExecutor.awaitTermination(10, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    for (RemoteFile remoteFile : remoteFiles.values()) {
+      remoteFile.closeChannel();
+    }
+    remoteFiles.clear();
+    NrtMetrics.lazyRestorePendingMB.labelValues(indexName).set(0);
+    super.close();
+  }
+
+  private void hydrate(RemoteFile remoteFile) {
+    if (closed) {
+      return;
+    }
+    try {
+      if (remoteFile.hydrate()) {
+        in.syncMetaData();
+        long remaining = pendingBytes.addAndGet(-remoteFile.length);
+        updatePendingMetric();
+        if (remaining == 0) {
+          logger.info(
+              "All remote files hydrated for index: {} in {}ms",
+              indexName,
+              (System.nanoTime() - startTimeNs) / 1_000_000.0);
+        }
+      }
+    } catch (Throwable t) {
+      if (closed || remoteFile.isDeleted()) {
+        logger.debug("Hydration stopped for index file: {}", remoteFile.name, t);
+      } else {
+        // blocks not yet present continue to be fetched on demand
+        logger.warn("Error hydrating index file: {}, index: {}", remoteFile.name, indexName, t);
+      }
+    }
+  }
+
+  private void updatePendingMetric() {
+    NrtMetrics.lazyRestorePendingMB.labelValues(indexName).set(pendingBytes.get() / BYTES_PER_MB);
+  }
+
+  /** Index file that is read in blocks from the remote backend. */
+  class RemoteFile {
+    final String name;
+    final NrtFileMetaData metaData;
+    final long length;
+    final int numBlocks;
+    private final Path blockCacheFile;
+
+    // use synchronized access
+    private final BitSet presentBlocks = new BitSet();
+    private final Map<Integer, CompletableFuture<Void>> pendingBlocks = new HashMap<>();
+    private FileChannel channel;
+    private boolean local = false;
+    private boolean deleted = false;
+
+    RemoteFile(String name, NrtFileMetaData metaData) {
+      this.name = name;
+      this.metaData = metaData;
+      this.length = metaData.length;
+      this.numBlocks = (int) ((length + blockSize - 1) / blockSize);
+      this.blockCacheFile = cachePath.resolve(name);
+    }
+
+    synchronized boolean isLocal() {
+      return local;
+    }
+
+    synchronized boolean isDeleted() {
+      return deleted;
+    }
+
+    synchronized boolean isBlockPresent(int block) {
+      return presentBlocks.get(block);
+    }
+
+    /**
+     * Read bytes from the file, fetching any missing blocks from the remote backend.
+     *
+     * @param position file position to start reading from
+     * @param dst buffer to fill
+     * @throws IOException on error reading data
+     */
+    void read(long position, ByteBuffer dst) throws IOException {
+      if (!dst.hasRemaining()) {
+        return;
+      }
+      if (position + dst.remaining() > length) {
+        throw new EOFException(
+            "read past EOF: " + name + ", position: " + position + ", length: " + length);
+      }
+      int firstBlock = (int) (position / blockSize);
+      int lastBlock = (int) ((position + dst.remaining() - 1) / blockSize);
+      for (int block = firstBlock; block <= lastBlock; ++block) {
+        ensureBlock(block, ON_DEMAND);
+      }
+      FileChannel fileChannel = getChannel();
+      long readPosition = position;
+      while (dst.hasRemaining()) {
+        int read = fileChannel.read(dst, readPosition);
+        if (read < 0) {
+          throw new EOFException("Unexpected end of block cache file: " + blockCacheFile);
+        }
+        readPosition += read;
+      }
+    }
+
+    /**
+     * Make sure a block is present in the block cache, fetching it if needed. If another thread is
+     * already fetching the block, wait for it to complete.
+     */
+    private void ensureBlock(int block, String type) throws IOException {
+      CompletableFuture<Void> future;
+      boolean fetch = false;
+      synchronized (this) {
+        if (presentBlocks.get(block)) {
+          return;
+        }
+        future = pendingBlocks.get(block);
+        if (future == null) {
+          future = new CompletableFuture<>();
+          pendingBlocks.put(block, future);
+          fetch = true;
+        }
+      }
+      if (fetch) {
+        try {
+          fetchBlock(block, type);
+          synchronized (this) {
+            presentBlocks.set(block);
+            pendingBlocks.remove(block);
+          }
+          future.complete(null);
+        } catch (Throwable t) {
+          synchronized (this) {
+            pendingBlocks.remove(block);
+          }
+          future.completeExceptionally(t);
+          throw t;
+        }
+      } else {
+        try {
+          future.get();
+        } catch (InterruptedException e) {
+          throw new ThreadInterruptedException(e);
+        } catch (ExecutionException e) {
+          throw new IOException("Error fetching block " + block + " of index file: " + name, e);
+        }
+      }
+    }
+
+    private void fetchBlock(int block, String type) throws IOException {
+      long blockStart = (long) block * blockSize;
+      int blockLength = (int) Math.min(blockSize, length - blockStart);
+      byte[] data;
+      try (InputStream inputStream =
+          remoteBackend.downloadIndexFileRange(
+              serviceName, indexIdentifier, name, metaData, blockStart, blockLength)) {
+        data = inputStream.readNBytes(blockLength);
+      }
+      if (data.length != blockLength) {
+        throw new EOFException(
+            "Remote index file "
+                + name
+                + " truncated, expected "
+                + blockLength
+                + " bytes at offset "
+                + blockStart
+                + ", got "
+                + data.length);
+      }
+      ByteBuffer buffer = ByteBuffer.wrap(data);
+      FileChannel fileChannel = getChannel();
+      long writePosition = blockStart;
+      while (buffer.hasRemaining()) {
+        writePosition += fileChannel.write(buffer, writePosition);
+      }
+      NrtMetrics.lazyRestoreFetchedMB.labelValues(indexName, type).inc(blockLength / BYTES_PER_MB);
+    }
+
+    private synchronized FileChannel getChannel() throws IOException {
+      if (deleted) {
+        throw new NoSuchFileException("Remote index file was deleted: " + name);
+      }
+      if (channel == null) {
+        channel =
+            FileChannel.open(
+                blockCacheFile,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+      }
+      return channel;
+    }
+
+    /**
+     * Fetch all missing blocks, verify the file checksum, and move the file into the index
+     * directory.
+     *
+     * @return if the file is now local, false if it was deleted
+     * @throws IOException on error fetching or moving file
+     */
+    boolean hydrate() throws IOException {
+      for (int block = 0; block < numBlocks; ++block) {
+        if (closed || isDeleted()) {
+          return false;
+        }
+        ensureBlock(block, HYDRATION);
+      }
+      try (IndexInput input = new RemoteBlockIndexInput("hydrate(" + name + ")", this, 0, length)) {
+        long checksum = CodecUtil.checksumEntireFile(input);
+        if (checksum != metaData.checksum) {
+          synchronized (this) {
+            presentBlocks.clear();
+          }
+          throw new CorruptIndexException(
+              "Checksum mismatch for hydrated file, expected: "
+                  + metaData.checksum
+                  + ", actual: "
+                  + checksum,
+              input);
+        }
+      }
+      synchronized (this) {
+        if (deleted) {
+          return false;
+        }
+        // open inputs continue to read through the channel after the move
+        getChannel().force(true);
+        Files.move(blockCacheFile, indexPath.resolve(name), StandardCopyOption.ATOMIC_MOVE);
+        local = true;
+      }
+      return true;
+    }
+
+    /**
+     * Mark the file as deleted, and clean up its block cache data.
+     *
+     * @return if the file was already moved into the index directory
+     * @throws IOException on error deleting cache file
+     */
+    boolean delete() throws IOException {
+      synchronized (this) {
+        deleted = true;
+        closeChannel();
+        if (local) {
+          return true;
+        }
+      }
+      Files.deleteIfExists(blockCacheFile);
+      return false;
+    }
+
+    synchronized void closeChannel() {
+      if (channel != null) {
+        try {
+          channel.close();
+        } catch (IOException e) {
+          logger.warn("Error closing block cache file: {}", blockCacheFile, e);
+        }
+        channel = null;
+      }
+    }
+  }
+
+  /** Input that reads a remote file through the block cache. */
+  static class RemoteBlockIndexInput extends BufferedIndexInput {
+    private final RemoteFile remoteFile;
+    private final long offset;
+    private final long length;
+
+    RemoteBlockIndexInput(String resourceDesc, RemoteFile remoteFile, long offset, long length) {
+      super(resourceDesc);
+      this.remoteFile = remoteFile;
+      this.offset = offset;
+      this.length = length;
+    }
+
+    @Override
+    protected void readInternal(ByteBuffer b) throws IOException {
+      long position = getFilePointer();
+      if (position + b.remaining() > length) {
+        throw new EOFException("read past EOF: " + this);
+      }
+      remoteFile.read(offset + position, b);
+    }
+
+    @Override
+    protected void seekInternal(long pos) throws IOException {
+      if (pos > length) {
+        throw new EOFException("read past EOF: pos=" + pos + " vs length=" + length + ": " + this);
+      }
+    }
+
+    @Override
+    public long length() {
+      return length;
+    }
+
+    @Override
+    public IndexInput slice(String sliceDescription, long offset, long length) throws IOException {
+      if (offset < 0 || length < 0 || offset + length > this.length) {
+        throw new IllegalArgumentException(
+            "slice() "
+                + sliceDescription
+                + " out of bounds: offset="
+                + offset
+                + ",length="
+                + length
+                + ",fileLength="
+                + this.length
+                + ": "
+                + this);
+      }
+      return new RemoteBlockIndexInput(
+          getFullSliceDescription(sliceDescription), remoteFile, this.offset + offset, length);
+    }
+
+    @Override
+    public void close() {
+      // the block cache file is owned by the directory
+    }
+  }
+}
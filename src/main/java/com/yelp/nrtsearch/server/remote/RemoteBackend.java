@@ -140,6 +140,27 @@ public interface RemoteBackend extends PluginDownloader {
       String service, String indexIdentifier, Path indexDir, Map<String, NrtFileMetaData> files)
       throws IOException;
 
+  /**
+   * Download a range of bytes of an index file from the remote backend.
+   *
+   * @param service service name
+   * @param indexIdentifier unique index identifier
+   * @param fileName index file name
+   * @param fileMetaData index file metadata
+   * @param offset offset of the first byte of the range
+   * @param length number of bytes in the range
+   * @return input stream of the range data
+   * @throws IOException on error downloading range
+   */
+  InputStream downloadIndexFileRange(
+      String service,
+      String indexIdentifier,
+      String fileName,
+      NrtFileMetaData fileMetaData,
+      long offset,
+      long length)
+      throws IOException;
+
   /**
    * Upload NRT point state to the remote backend.
    *
@@ -30,6 +30,7 @@ import com.amazonaws.services.s3.transfer.TransferManager;
 import com.amazonaws.services.s3.transfer.TransferManagerBuilder;
 import com.amazonaws.services.s3.transfer.Upload;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.RateLimiter;
 import com.yelp.nrtsearch.server.config.NrtsearchConfig;
 import com.yelp.nrtsearch.server.nrt.state.NrtFileMetaData;
 import com.yelp.nrtsearch.server.nrt.state.NrtPointState;
@@ -80,6 +81,8 @@ public class S3Backend implements RemoteBackend {
   private final AmazonS3 s3;
   private final String serviceBucket;
   private final TransferManager transferManager;
+  // shared by all index file downloads, null if not limited
+  private final RateLimiter downloadRateLimiter;
 
   /**
    * Pair of file names, one for the local file and one for the backend file.
@@ -96,7 +99,11 @@ public class S3Backend implements RemoteBackend {
    * @param s3 s3 client
    */
   public S3Backend(NrtsearchConfig configuration, AmazonS3 s3) {
-    this(configuration.getBucketName(), configuration.getSavePluginBeforeUnzip(), s3);
+    this(
+        configuration.getBucketName(),
+        configuration.getSavePluginBeforeUnzip(),
+        s3,
+        configuration.getIndexStartConfig().getMaxDownloadBytesPerSecond());
   }
 
   /**
@@ -107,7 +114,26 @@ public class S3Backend implements RemoteBackend {
    * @param s3 s3 client
    */
   public S3Backend(String serviceBucket, boolean savePluginBeforeUnzip, AmazonS3 s3) {
+    this(serviceBucket, savePluginBeforeUnzip, s3, 0);
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param serviceBucket bucket name
+   * @param savePluginBeforeUnzip save plugin before unzipping
+   * @param s3 s3 client
+   * @param maxDownloadBytesPerSecond limit on the total rate of index file downloads, or 0 for no
+   *     limit
+   */
+  public S3Backend(
+      String serviceBucket,
+      boolean savePluginBeforeUnzip,
+      AmazonS3 s3,
+      long maxDownloadBytesPerSecond) {
     this.s3 = s3;
+    this.downloadRateLimiter =
+        maxDownloadBytesPerSecond > 0 ? RateLimiter.create(maxDownloadBytesPerSecond) : null;
     this.executor = (ThreadPoolExecutor) Executors.newFixedThreadPool(NUM_S3_THREADS);
     this.saveBeforeUnzip = savePluginBeforeUnzip;
     this.serviceBucket = serviceBucket;
@@ -414,7 +440,8 @@ public class S3Backend implements RemoteBackend {
       Path localFile = indexDir.resolve(pair.fileName);
       GetObjectRequest request = new GetObjectRequest(serviceBucket, backendKey);
       request.setGeneralProgressListener(
-          new S3ProgressListenerImpl(service, indexIdentifier, "download_index_files"));
+          new S3ProgressListenerImpl(
+              service, indexIdentifier, "download_index_files", downloadRateLimiter));
       try {
         Download download = transferManager.download(request, localFile.toFile());
         downloadList.add(download);
@@ -442,6 +469,31 @@ public class S3Backend implements RemoteBackend {
     }
   }
 
+  @Override
+  public InputStream downloadIndexFileRange(
+      String service,
+      String indexIdentifier,
+      String fileName,
+      NrtFileMetaData fileMetaData,
+      long offset,
+      long length)
+      throws IOException {
+    if (offset < 0 || length <= 0) {
+      throw new IllegalArgumentException(
+          "Invalid range, offset: " + offset + ", length: " + length);
+    }
+    String backendKey =
+        getIndexDataPrefix(service, indexIdentifier)
+            + getIndexBackendFileName(fileName, fileMetaData);
+    GetObjectRequest request =
+        new GetObjectRequest(serviceBucket, backendKey).withRange(offset, offset + length - 1);
+    try {
+      return s3.getObject(request).getObjectContent();
+    } catch (AmazonS3Exception e) {
+      throw new IOException("Error downloading range of index file from s3: " + backendKey, e);
+    }
+  }
+
   @VisibleForTesting
   static List<FileNamePair> getFileNamePairs(Map<String, NrtFileMetaData> files) {
     List<FileNamePair> fileList = new LinkedList<>();
@@ -15,9 +15,12 @@
  */
 package com.yelp.nrtsearch.server.remote.s3;
 
+import com.amazonaws.event.DeliveryMode;
 import com.amazonaws.event.ProgressEvent;
+import com.amazonaws.event.ProgressEventType;
 import com.amazonaws.services.s3.transfer.PersistableTransfer;
 import com.amazonaws.services.s3.transfer.internal.S3ProgressListener;
+import com.google.common.util.concurrent.RateLimiter;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.concurrent.Semaphore;
@@ -27,9 +30,11 @@ import org.slf4j.LoggerFactory;
 
 /**
  * {@link S3ProgressListener} that logs the status of a s3 transfer using the {@link
- * com.amazonaws.services.s3.transfer.TransferManager}.
+ * com.amazonaws.services.s3.transfer.TransferManager}. If a {@link RateLimiter} is provided,
+ * permits are acquired for each received byte. The listener is safe to call synchronously, so this
+ * blocks the thread reading the response data.
  */
-public class S3ProgressListenerImpl implements S3ProgressListener {
+public class S3ProgressListenerImpl implements S3ProgressListener, DeliveryMode {
   private static final Logger logger = LoggerFactory.getLogger(S3ProgressListenerImpl.class);
 
   private static final long LOG_THRESHOLD_BYTES = 1024 * 1024 * 500; // 500 MB
@@ -38,6 +43,7 @@ public class S3ProgressListenerImpl implements S3ProgressListener {
   private final String serviceName;
   private final String resource;
   private final String operation;
+  private final RateLimiter rateLimiter;
 
   private final Semaphore lock = new Semaphore(1);
   private final AtomicLong totalBytesTransferred = new AtomicLong();
@@ -45,9 +51,20 @@ public class S3ProgressListenerImpl implements S3ProgressListener {
   private LocalDateTime lastLoggedTime = LocalDateTime.now();
 
   public S3ProgressListenerImpl(String serviceName, String resource, String operation) {
+    this(serviceName, resource, operation, null);
+  }
+
+  public S3ProgressListenerImpl(
+      String serviceName, String resource, String operation, RateLimiter rateLimiter) {
     this.serviceName = serviceName;
     this.resource = resource;
     this.operation = operation;
+    this.rateLimiter = rateLimiter;
+  }
+
+  @Override
+  public boolean isSyncCallSafe() {
+    return true;
   }
 
   @Override
@@ -55,6 +72,11 @@ public class S3ProgressListenerImpl implements S3ProgressListener {
 
   @Override
   public void progressChanged(ProgressEvent progressEvent) {
+    if (rateLimiter != null
+        && progressEvent.getEventType() == ProgressEventType.RESPONSE_BYTE_TRANSFER_EVENT
+        && progressEvent.getBytesTransferred() > 0) {
+      rateLimiter.acquire((int) Math.min(progressEvent.getBytesTransferred(), Integer.MAX_VALUE));
+    }
     long totalBytes = totalBytesTransferred.addAndGet(progressEvent.getBytesTransferred());
 
     boolean acquired = lock.tryAcquire();
@@ -69,6 +69,18 @@ public abstract class RuntimeScript {
     return segmentDocLookup;
   }
 
+  /**
+   * Get a handle to the doc values of a field for the current document. Scripts should resolve
+   * handles once per segment and reuse them for each document, which avoids the field lookup and
+   * value boxing of {@link #getDoc()}.
+   *
+   * @param field field name
+   * @return field doc values handle
+   */
+  public SegmentDocLookup.FieldHandle getFieldHandle(String field) {
+    return segmentDocLookup.getFieldHandle(field);
+  }
+
   /** Factory interface for creating a RuntimeScript bound to a lucene segment. */
   public interface SegmentFactory {
 
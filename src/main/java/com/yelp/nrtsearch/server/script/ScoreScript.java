@@ -120,6 +120,18 @@ public abstract class ScoreScript extends DoubleValues {
     return segmentDocLookup;
   }
 
+  /**
+   * Get a handle to the doc values of a field for the current document. Scripts should resolve
+   * handles once per segment and reuse them for each document, which avoids the field lookup and
+   * value boxing of {@link #getDoc()}.
+   *
+   * @param field field name
+   * @return field doc values handle
+   */
+  public SegmentDocLookup.FieldHandle getFieldHandle(String field) {
+    return segmentDocLookup.getFieldHandle(field);
+  }
+
   /**
    * Factory required from the compilation of a ScoreScript. Used to produce request level {@link
    * DoubleValuesSource}. See script compile contract {@link ScriptContext}.
@@ -21,7 +21,12 @@ import com.yelp.nrtsearch.server.highlights.HighlightFetchTask;
 import com.yelp.nrtsearch.server.innerhit.InnerHitFetchTask;
 import com.yelp.nrtsearch.server.logging.HitsLoggerFetchTask;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.DoubleAdder;
 import java.util.stream.Collectors;
 import org.apache.lucene.index.LeafReaderContext;
 
@@ -46,6 +51,11 @@ public class FetchTasks {
    *
    * <p>2) The {@link FetchTask#processAllHits(SearchContext, List)} method is called for each
    * {@link FetchTask} in order
+   *
+   * <p>Per hit processing is done in batches of hits from the same lucene segment, using {@link
+   * FetchTask#processSegmentHits(SearchContext, LeafReaderContext, List)}. Tasks that return true
+   * from {@link FetchTask#supportsParallelHits()} may have batches processed concurrently on the
+   * fetch executor, after all other per hit tasks are complete.
    */
   public interface FetchTask {
     /**
@@ -71,6 +81,37 @@ public class FetchTasks {
     default void processHit(
         SearchContext searchContext, LeafReaderContext hitLeaf, SearchResponse.Hit.Builder hit)
         throws IOException {}
+
+    /**
+     * Process a batch of hits that are all in the same lucene segment. Hits are in order of lucene
+     * doc ID. The default implementation calls {@link #processHit(SearchContext,
+     * LeafReaderContext, SearchResponse.Hit.Builder)} for each hit. Tasks may override this to
+     * share per segment work between hits.
+     *
+     * @param searchContext search context
+     * @param segment lucene segment for all hits
+     * @param hits hit builders for query response, in lucene doc id order
+     * @throws IOException on error reading data
+     */
+    default void processSegmentHits(
+        SearchContext searchContext,
+        LeafReaderContext segment,
+        List<SearchResponse.Hit.Builder> hits)
+        throws IOException {
+      for (SearchResponse.Hit.Builder hit : hits) {
+        processHit(searchContext, segment, hit);
+      }
+    }
+
+    /**
+     * Get if this task may process different batches of hits concurrently. Tasks that opt in must
+     * be thread safe, and only modify the hits in the batch they are given.
+     *
+     * @return if batches of hits may be processed in parallel
+     */
+    default boolean supportsParallelHits() {
+      return false;
+    }
   }
 
   private final List<FetchTask> taskList;
@@ -81,6 +122,8 @@ public class FetchTasks {
   private List<InnerHitFetchTask> innerHitFetchTaskList;
   private HitsLoggerFetchTask hitsLoggerFetchTask;
 
+  private final Map<String, DoubleAdder> taskTimeMs = new ConcurrentHashMap<>();
+
   public HighlightFetchTask getHighlightFetchTask() {
     return highlightFetchTask;
   }
@@ -147,7 +190,9 @@ public class FetchTasks {
   public void processAllHits(SearchContext searchContext, List<SearchResponse.Hit.Builder> hits)
       throws IOException {
     for (FetchTask task : taskList) {
+      long startTime = System.nanoTime();
       task.processAllHits(searchContext, hits);
+      addTaskTime(task, startTime);
     }
     // highlight and innerHit doesn't support processAllHits now
     // hitsLogger should be the last fetch task to run because it might need shared data from other
@@ -170,16 +215,120 @@ public class FetchTasks {
   public void processHit(
       SearchContext searchContext, LeafReaderContext segment, SearchResponse.Hit.Builder hit)
       throws IOException {
-    for (FetchTask task : taskList) {
-      task.processHit(searchContext, segment, hit);
+    processSegmentHits(searchContext, segment, List.of(hit));
+  }
+
+  /**
+   * Invoke the {@link FetchTask#processSegmentHits(SearchContext, LeafReaderContext, List)} method
+   * for a batch of hits on all query {@link FetchTask}s.
+   *
+   * @param searchContext search context
+   * @param segment lucene segment for all hits
+   * @param hits hit builders for query response, in lucene doc id order
+   * @throws IOException on error reading data
+   */
+  public void processSegmentHits(
+      SearchContext searchContext, LeafReaderContext segment, List<SearchResponse.Hit.Builder> hits)
+      throws IOException {
+    for (FetchTask task : getPerHitTasks()) {
+      processSegmentHits(task, searchContext, segment, hits);
     }
+  }
+
+  /**
+   * Invoke the {@link FetchTask#processSegmentHits(SearchContext, LeafReaderContext, List)} method
+   * for a batch of hits on the query {@link FetchTask}s that do not support parallel processing of
+   * hits.
+   *
+   * @param searchContext search context
+   * @param segment lucene segment for all hits
+   * @param hits hit builders for query response, in lucene doc id order
+   * @throws IOException on error reading data
+   */
+  public void processSequentialSegmentHits(
+      SearchContext searchContext, LeafReaderContext segment, List<SearchResponse.Hit.Builder> hits)
+      throws IOException {
+    for (FetchTask task : getPerHitTasks()) {
+      if (!task.supportsParallelHits()) {
+        processSegmentHits(task, searchContext, segment, hits);
+      }
+    }
+  }
+
+  /**
+   * Invoke the {@link FetchTask#processSegmentHits(SearchContext, LeafReaderContext, List)} method
+   * for a batch of hits on the query {@link FetchTask}s that support parallel processing of hits.
+   * This may be called concurrently for different batches of hits.
+   *
+   * @param searchContext search context
+   * @param segment lucene segment for all hits
+   * @param hits hit builders for query response, in lucene doc id order
+   * @throws IOException on error reading data
+   */
+  public void processParallelSegmentHits(
+      SearchContext searchContext, LeafReaderContext segment, List<SearchResponse.Hit.Builder> hits)
+      throws IOException {
+    for (FetchTask task : getPerHitTasks()) {
+      if (task.supportsParallelHits()) {
+        processSegmentHits(task, searchContext, segment, hits);
+      }
+    }
+  }
+
+  /** Get if any query {@link FetchTask} supports parallel processing of hits. */
+  public boolean hasParallelHitTasks() {
+    return getPerHitTasks().stream().anyMatch(FetchTask::supportsParallelHits);
+  }
+
+  /**
+   * Get the total time taken by each fetch task, summed over all hits. Since batches of hits may
+   * be processed in parallel, the total may exceed the elapsed time of the fetch.
+   *
+   * @return map of task name to time taken in ms
+   */
+  public Map<String, Double> getTaskTimeMs() {
+    Map<String, Double> timeMs = new HashMap<>();
+    for (Map.Entry<String, DoubleAdder> entry : taskTimeMs.entrySet()) {
+      timeMs.put(entry.getKey(), entry.getValue().doubleValue());
+    }
+    return timeMs;
+  }
+
+  /** Get all tasks that process individual hits, in execution order. */
+  private List<FetchTask> getPerHitTasks() {
+    List<FetchTask> tasks = new ArrayList<>(taskList);
     if (highlightFetchTask != null) {
-      highlightFetchTask.processHit(searchContext, segment, hit);
+      tasks.add(highlightFetchTask);
     }
     if (innerHitFetchTaskList != null) {
-      for (InnerHitFetchTask innerHitFetchTask : innerHitFetchTaskList) {
-        innerHitFetchTask.processHit(searchContext, segment, hit);
-      }
+      tasks.addAll(innerHitFetchTaskList);
+    }
+    return tasks;
+  }
+
+  private void processSegmentHits(
+      FetchTask task,
+      SearchContext searchContext,
+      LeafReaderContext segment,
+      List<SearchResponse.Hit.Builder> hits)
+      throws IOException {
+    long startTime = System.nanoTime();
+    task.processSegmentHits(searchContext, segment, hits);
+    addTaskTime(task, startTime);
+  }
+
+  private void addTaskTime(FetchTask task, long startTime) {
+    taskTimeMs
+        .computeIfAbsent(getTaskName(task), k -> new DoubleAdder())
+        .add((System.nanoTime() - startTime) / 1000000.0);
+  }
+
+  private static String getTaskName(FetchTask task) {
+    if (task instanceof HighlightFetchTask) {
+      return "highlight";
+    } else if (task instanceof InnerHitFetchTask innerHitFetchTask) {
+      return "inner_hit:" + innerHitFetchTask.getInnerHitContext().getInnerHitName();
     }
+    return task.getClass().getSimpleName();
   }
 }
@@ -0,0 +1,466 @@
+/*
+ * Copyright 2025 Yelp Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.yelp.nrtsearch.server.search;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.SortedDocValues;
+import org.apache.lucene.index.SortedSetDocValues;
+import org.apache.lucene.index.TermsEnum;
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.BytesRefBuilder;
+import org.apache.lucene.util.LongBitSet;
+import org.apache.lucene.util.LongValues;
+import org.apache.lucene.util.PagedBytes;
+import org.apache.lucene.util.PriorityQueue;
+import org.apache.lucene.util.packed.PackedInts;
+import org.apache.lucene.util.packed.PackedLongValues;
+
+/**
+ * {@link GlobalOrdinalLookup} for a multi segment reader, which can be built incrementally from the
+ * lookup of a previous reader. Global ordinals are assigned in term order, the same as a lucene
+ * {@link org.apache.lucene.index.OrdinalMap}, but terms are copied into a dictionary owned by the
+ * lookup and segment ordinal mappings are tracked by segment core.
+ *
+ * <p>When building from a previous lookup, only the terms of new segments are merged with the
+ * previous dictionary. Segments present in both readers keep their mapping, translated to the new
+ * global ordinals without any term comparisons. Terms only present in segments that were removed
+ * are dropped from the new dictionary.
+ *
+ * <p>The dictionary term bytes are stored in a list of chunks, shared between lookups. A new build
+ * points to the previous chunks for terms already in the dictionary, and only copies the terms of
+ * new segments into a new chunk. The chunks are compacted into one when there are too many of
+ * them, or when most of their bytes belong to terms that were dropped from the dictionary.
+ */
+public class IncrementalGlobalOrdinalLookup extends GlobalOrdinalLookup {
+  // page size must fit the largest doc value term with its length prefix
+  private static final int PAGE_BITS = 15;
+  // max byte chunks to reference before compacting the dictionary
+  private static final int MAX_CHUNKS = 16;
+
+  private final String field;
+  private final List<PagedBytes.Reader> chunks;
+  // bytes written to all chunks, and bytes of the terms still in the dictionary
+  private final long chunkBytes;
+  private final long liveBytes;
+  private final PackedLongValues termChunks;
+  private final PackedLongValues termPointers;
+  private final PackedLongValues[] segmentMappings;
+  private final Map<IndexReader.CacheKey, PackedLongValues> coreMappings;
+  private final int reusedSegments;
+
+  private IncrementalGlobalOrdinalLookup(
+      String field,
+      TermDictionary dictionary,
+      PackedLongValues[] segmentMappings,
+      Map<IndexReader.CacheKey, PackedLongValues> coreMappings,
+      int reusedSegments) {
+    this.field = field;
+    this.chunks = dictionary.chunks;
+    this.chunkBytes = dictionary.chunkBytes;
+    this.liveBytes = dictionary.liveBytes;
+    this.termChunks = dictionary.termChunks;
+    this.termPointers = dictionary.termPointers;
+    this.segmentMappings = segmentMappings;
+    this.coreMappings = coreMappings;
+    this.reusedSegments = reusedSegments;
+  }
+
+  /**
+   * Build global ordinal lookup for a reader.
+   *
+   * @param reader index reader
+   * @param field field name
+   * @param multiValued if the field uses {@link SortedSetDocValues}, instead of {@link
+   *     SortedDocValues}
+   * @param previous lookup built for a previous reader, or null
+   * @return global ordinal lookup
+   * @throws IOException on error reading segment terms
+   */
+  public static IncrementalGlobalOrdinalLookup build(
+      IndexReader reader,
+      String field,
+      boolean multiValued,
+      IncrementalGlobalOrdinalLookup previous)
+      throws IOException {
+    List<LeafReaderContext> leaves = reader.leaves();
+    IndexReader.CacheKey[] coreKeys = new IndexReader.CacheKey[leaves.size()];
+    PackedLongValues[] previousMappings = new PackedLongValues[leaves.size()];
+    int reusedSegments = 0;
+    for (int i = 0; i < leaves.size(); ++i) {
+      IndexReader.CacheHelper coreCacheHelper = leaves.get(i).reader().getCoreCacheHelper();
+      if (coreCacheHelper != null) {
+        coreKeys[i] = coreCacheHelper.getKey();
+        if (previous != null) {
+          previousMappings[i] = previous.coreMappings.get(coreKeys[i]);
+          if (previousMappings[i] != null) {
+            reusedSegments++;
+          }
+        }
+      }
+    }
+
+    if (reusedSegments == 0) {
+      previous = null;
+    } else if (reusedSegments == leaves.size()
+        && reusedSegments == previous.coreMappings.size()) {
+      // only deletes changed, terms are the same
+      Map<IndexReader.CacheKey, PackedLongValues> coreMappings = new HashMap<>();
+      for (int i = 0; i < leaves.size(); ++i) {
+        coreMappings.put(coreKeys[i], previousMappings[i]);
+      }
+      return new IncrementalGlobalOrdinalLookup(
+          field, new TermDictionary(previous), previousMappings, coreMappings, reusedSegments);
+    }
+
+    List<TermSource> sources = new ArrayList<>();
+    PackedLongValues.Builder[] newMappingBuilders = new PackedLongValues.Builder[leaves.size()];
+    for (int i = 0; i < leaves.size(); ++i) {
+      if (previousMappings[i] == null) {
+        newMappingBuilders[i] = PackedLongValues.monotonicBuilder(PackedInts.COMPACT);
+        TermsEnum termsEnum = getTermsEnum(leaves.get(i).reader(), field, multiValued);
+        if (termsEnum != null) {
+          sources.add(new SegmentTermSource(termsEnum, newMappingBuilders[i]));
+        }
+      }
+    }
+
+    DictionaryTermSource dictionarySource = null;
+    if (previous != null) {
+      LongBitSet liveTerms = null;
+      if (reusedSegments < previous.coreMappings.size()) {
+        // some segments were removed, only keep terms still used by a segment
+        liveTerms = new LongBitSet(Math.max(1, previous.getNumOrdinals()));
+        for (PackedLongValues mapping : previousMappings) {
+          if (mapping != null) {
+            PackedLongValues.Iterator it = mapping.iterator();
+            while (it.hasNext()) {
+              liveTerms.set(it.next());
+            }
+          }
+        }
+      }
+      dictionarySource = new DictionaryTermSource(previous, liveTerms);
+      sources.add(dictionarySource);
+    }
+
+    TermDictionary.Builder dictionaryBuilder =
+        previous != null
+            ? new TermDictionary.Builder(previous.chunks, previous.chunkBytes)
+            : new TermDictionary.Builder(List.of(), 0);
+    TermDictionary dictionary = mergeTerms(sources, dictionarySource, dictionaryBuilder);
+    if (dictionary.needsCompaction()) {
+      dictionary = dictionary.compact();
+    }
+
+    PackedLongValues[] segmentMappings = new PackedLongValues[leaves.size()];
+    Map<IndexReader.CacheKey, PackedLongValues> coreMappings = new HashMap<>();
+    PackedLongValues remap = dictionarySource != null ? dictionarySource.remap.build() : null;
+    for (int i = 0; i < leaves.size(); ++i) {
+      if (previousMappings[i] != null) {
+        PackedLongValues.Builder builder = PackedLongValues.monotonicBuilder(PackedInts.COMPACT);
+        PackedLongValues.Iterator it = previousMappings[i].iterator();
+        while (it.hasNext()) {
+          builder.add(remap.get(it.next()));
+        }
+        segmentMappings[i] = builder.build();
+      } else {
+        segmentMappings[i] = newMappingBuilders[i].build();
+      }
+      if (coreKeys[i] != null) {
+        coreMappings.put(coreKeys[i], segmentMappings[i]);
+      }
+    }
+    return new IncrementalGlobalOrdinalLookup(
+        field, dictionary, segmentMappings, coreMappings, reusedSegments);
+  }
+
+  private static TermsEnum getTermsEnum(LeafReader leafReader, String field, boolean multiValued)
+      throws IOException {
+    if (multiValued) {
+      SortedSetDocValues docValues = leafReader.getSortedSetDocValues(field);
+      return docValues == null ? null : docValues.termsEnum();
+    }
+    SortedDocValues docValues = leafReader.getSortedDocValues(field);
+    return docValues == null ? null : docValues.termsEnum();
+  }
+
+  private static TermDictionary mergeTerms(
+      List<TermSource> sources,
+      DictionaryTermSource dictionarySource,
+      TermDictionary.Builder dictionary)
+      throws IOException {
+    PriorityQueue<TermSource> queue =
+        new PriorityQueue<>(Math.max(1, sources.size())) {
+          @Override
+          protected boolean lessThan(TermSource a, TermSource b) {
+            int cmp = a.current.compareTo(b.current);
+            // on equal terms, the previous dictionary comes first so its bytes can be reused
+            return cmp < 0 || (cmp == 0 && a == dictionarySource);
+          }
+        };
+    for (TermSource source : sources) {
+      if (source.next()) {
+        queue.add(source);
+      }
+    }
+
+    BytesRefBuilder scratch = new BytesRefBuilder();
+    long globalOrd = 0;
+    while (queue.size() > 0) {
+      scratch.copyBytes(queue.top().current);
+      BytesRef term = scratch.get();
+      if (queue.top() == dictionarySource) {
+        dictionary.addPrevious(term, dictionarySource.chunk(), dictionarySource.pointer());
+      } else {
+        dictionary.addNew(term);
+      }
+      do {
+        TermSource top = queue.top();
+        top.assign(globalOrd);
+        if (top.next()) {
+          queue.updateTop();
+        } else {
+          queue.pop();
+        }
+      } while (queue.size() > 0 && queue.top().current.bytesEquals(term));
+      globalOrd++;
+    }
+    return dictionary.build();
+  }
+
+  /** Get the number of segments whose mapping was reused from the previous lookup. */
+  public int getReusedSegments() {
+    return reusedSegments;
+  }
+
+  /** Get the number of segments whose terms were merged to build this lookup. */
+  public int getMergedSegments() {
+    return segmentMappings.length - reusedSegments;
+  }
+
+  /** Get the number of byte chunks referenced by the term dictionary. */
+  public int getDictionaryChunks() {
+    return chunks.size();
+  }
+
+  @Override
+  public LongValues getSegmentMapping(int segmentIndex) {
+    return segmentMappings[segmentIndex];
+  }
+
+  @Override
+  public String lookupGlobalOrdinal(long ord) throws IOException {
+    if (termPointers.size() == 0) {
+      throw new IllegalStateException("No ordinals for field: " + field);
+    }
+    BytesRef term = new BytesRef();
+    fillTerm(term, ord);
+    return term.utf8ToString();
+  }
+
+  @Override
+  public long getNumOrdinals() {
+    return termPointers.size();
+  }
+
+  private void fillTerm(BytesRef term, long ord) {
+    chunks.get((int) termChunks.get(ord)).fill(term, termPointers.get(ord));
+  }
+
+  /** Term bytes chunks, and the chunk and pointer of each term in global ordinal order. */
+  private static class TermDictionary {
+    private final List<PagedBytes.Reader> chunks;
+    private final long chunkBytes;
+    private final long liveBytes;
+    private final PackedLongValues termChunks;
+    private final PackedLongValues termPointers;
+
+    TermDictionary(
+        List<PagedBytes.Reader> chunks,
+        long chunkBytes,
+        long liveBytes,
+        PackedLongValues termChunks,
+        PackedLongValues termPointers) {
+      this.chunks = chunks;
+      this.chunkBytes = chunkBytes;
+      this.liveBytes = liveBytes;
+      this.termChunks = termChunks;
+      this.termPointers = termPointers;
+    }
+
+    TermDictionary(IncrementalGlobalOrdinalLookup lookup) {
+      this(
+          lookup.chunks,
+          lookup.chunkBytes,
+          lookup.liveBytes,
+          lookup.termChunks,
+          lookup.termPointers);
+    }
+
+    /** If there are too many chunks, or over half of the chunk bytes are for dropped terms. */
+    boolean needsCompaction() {
+      return chunks.size() > MAX_CHUNKS || chunkBytes > 2 * liveBytes;
+    }
+
+    /** Copy all terms into a single chunk. */
+    TermDictionary compact() {
+      Builder builder = new Builder(List.of(), 0);
+      BytesRef term = new BytesRef();
+      for (long ord = 0; ord < termPointers.size(); ++ord) {
+        chunks.get((int) termChunks.get(ord)).fill(term, termPointers.get(ord));
+        builder.addNew(term);
+      }
+      return builder.build();
+    }
+
+    /** Builds a dictionary that references the previous chunks, plus one chunk of new terms. */
+    static class Builder {
+      private final List<PagedBytes.Reader> previousChunks;
+      private final long previousChunkBytes;
+      private final PagedBytes newBytes = new PagedBytes(PAGE_BITS);
+      private final PackedLongValues.Builder termChunks =
+          PackedLongValues.packedBuilder(PackedInts.COMPACT);
+      private final PackedLongValues.Builder termPointers =
+          PackedLongValues.deltaPackedBuilder(PackedInts.COMPACT);
+      private long liveBytes = 0;
+
+      Builder(List<PagedBytes.Reader> previousChunks, long previousChunkBytes) {
+        this.previousChunks = previousChunks;
+        this.previousChunkBytes = previousChunkBytes;
+      }
+
+      /** Add a term whose bytes are already in one of the previous chunks. */
+      void addPrevious(BytesRef term, long chunk, long pointer) {
+        termChunks.add(chunk);
+        termPointers.add(pointer);
+        liveBytes += storedSize(term);
+      }
+
+      /** Add a term, copying its bytes into the new chunk. */
+      void addNew(BytesRef term) {
+        termChunks.add(previousChunks.size());
+        termPointers.add(newBytes.copyUsingLengthPrefix(term));
+        liveBytes += storedSize(term);
+      }
+
+      TermDictionary build() {
+        List<PagedBytes.Reader> chunks = new ArrayList<>(previousChunks);
+        long chunkBytes = previousChunkBytes;
+        long newChunkBytes = newBytes.getPointer();
+        if (newChunkBytes > 0) {
+          chunks.add(newBytes.freeze(true));
+          chunkBytes += newChunkBytes;
+        }
+        return new TermDictionary(
+            chunks, chunkBytes, liveBytes, termChunks.build(), termPointers.build());
+      }
+
+      private static long storedSize(BytesRef term) {
+        // length prefix is one byte for short terms, otherwise two
+        return term.length + (term.length < 128 ? 1 : 2);
+      }
+    }
+  }
+
+  /** Sorted source of terms to merge into the global dictionary. */
+  private abstract static class TermSource {
+    BytesRef current;
+
+    /** Advance to the next term, returning false if there are no more terms. */
+    abstract boolean next() throws IOException;
+
+    /** Assign the global ordinal for the current term. */
+    abstract void assign(long globalOrd);
+  }
+
+  /** Terms from a new segment, recording the segment ordinal mapping. */
+  private static class SegmentTermSource extends TermSource {
+    private final TermsEnum termsEnum;
+    private final PackedLongValues.Builder mapping;
+
+    SegmentTermSource(TermsEnum termsEnum, PackedLongValues.Builder mapping) {
+      this.termsEnum = termsEnum;
+      this.mapping = mapping;
+    }
+
+    @Override
+    boolean next() throws IOException {
+      current = termsEnum.next();
+      return current != null;
+    }
+
+    @Override
+    void assign(long globalOrd) {
+      mapping.add(globalOrd);
+    }
+  }
+
+  /** Live terms from the previous dictionary, recording the previous to new ordinal mapping. */
+  private static class DictionaryTermSource extends TermSource {
+    private final IncrementalGlobalOrdinalLookup previous;
+    private final LongBitSet liveTerms;
+    private final PackedLongValues.Builder remap =
+        PackedLongValues.monotonicBuilder(PackedInts.COMPACT);
+    private final BytesRef term = new BytesRef();
+    private long ord = -1;
+    private long lastGlobalOrd = 0;
+
+    DictionaryTermSource(IncrementalGlobalOrdinalLookup previous, LongBitSet liveTerms) {
+      this.previous = previous;
+      this.liveTerms = liveTerms;
+    }
+
+    @Override
+    boolean next() {
+      long numOrdinals = previous.getNumOrdinals();
+      ord++;
+      while (ord < numOrdinals && liveTerms != null && !liveTerms.get(ord)) {
+        // removed terms are never looked up, keep the mapping monotonic
+        remap.add(lastGlobalOrd);
+        ord++;
+      }
+      if (ord >= numOrdinals) {
+        return false;
+      }
+      previous.fillTerm(term, ord);
+      current = term;
+      return true;
+    }
+
+    /** Chunk of the current term bytes in the previous dictionary. */
+    long chunk() {
+      return previous.termChunks.get(ord);
+    }
+
+    /** Pointer to the current term bytes in its chunk. */
+    long pointer() {
+      return previous.termPointers.get(ord);
+    }
+
+    @Override
+    void assign(long globalOrd) {
+      remap.add(globalOrd);
+      lastGlobalOrd = globalOrd;
+    }
+  }
+}
@@ -77,7 +77,6 @@ import org.apache.lucene.queryparser.classic.QueryParserBase;
 import org.apache.lucene.queryparser.simple.SimpleQueryParser;
 import org.apache.lucene.search.*;
 import org.apache.lucene.search.join.BitSetProducer;
-import org.apache.lucene.search.join.QueryBitSetProducer;
 import org.apache.lucene.search.join.ToChildBlockJoinQuery;
 import org.apache.lucene.util.QueryBuilder;
 
@@ -291,7 +290,8 @@ public class SearchRequestProcessor {
     if (parentNestedPath != null) {
       Query parentQuery =
           QueryNodeMapper.getInstance().getNestedPathQuery(indexState, parentNestedPath);
-      parentBitSetProducer = new QueryBitSetProducer(parentQuery);
+      parentBitSetProducer =
+          indexState.getShard(0).getParentBitSetCache().getBitSetProducer(parentQuery);
       if (filterQuery != null) {
         // Filter query is applied to the parent document only
         filterQuery =
@@ -0,0 +1,199 @@
+/*
+ * Copyright 2025 Yelp Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.yelp.nrtsearch.server.search.cache;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexReaderContext;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.ReaderUtil;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreMode;
+import org.apache.lucene.search.Scorer;
+import org.apache.lucene.search.Weight;
+import org.apache.lucene.search.join.BitSetProducer;
+import org.apache.lucene.search.join.QueryBitSetProducer;
+import org.apache.lucene.util.BitSet;
+
+/**
+ * Cache of the parent document bit sets used to join nested documents, shared by all requests for
+ * an index. Entries are keyed by segment core and parent query, so a bit set is computed once for
+ * each segment, instead of by a new {@link QueryBitSetProducer} for every request. Like {@link
+ * QueryBitSetProducer}, bit sets do not consider deleted documents, which allows them to be shared
+ * by all readers of a segment. The entries for a segment are removed when the segment core is
+ * closed.
+ */
+public class ParentBitSetCache {
+  // marker for a segment with no parent documents
+  private static final Value EMPTY_VALUE = new Value(null);
+
+  private final Map<IndexReader.CacheKey, Map<Query, Value>> cache = new ConcurrentHashMap<>();
+  private final AtomicLong sizeBytes = new AtomicLong();
+  private final AtomicLong hitCount = new AtomicLong();
+  private final AtomicLong missCount = new AtomicLong();
+
+  /** Cached bit set, which may be null. */
+  private record Value(BitSet bitSet) {
+    long ramBytesUsed() {
+      return bitSet == null ? 0 : bitSet.ramBytesUsed();
+    }
+  }
+
+  /**
+   * Get a producer of parent bit sets for a query, that uses this cache.
+   *
+   * @param parentQuery query matching parent documents
+   * @return bit set producer
+   */
+  public BitSetProducer getBitSetProducer(Query parentQuery) {
+    return new CachedBitSetProducer(parentQuery);
+  }
+
+  /**
+   * Get the bit set of documents matching the parent query in a segment, computing it if needed.
+   *
+   * @param parentQuery query matching parent documents
+   * @param context segment context
+   * @return bit set, or null if no documents match
+   * @throws IOException on error computing bit set
+   */
+  BitSet getBitSet(Query parentQuery, LeafReaderContext context) throws IOException {
+    IndexReader.CacheHelper cacheHelper = context.reader().getCoreCacheHelper();
+    if (cacheHelper == null) {
+      missCount.incrementAndGet();
+      return computeBitSet(parentQuery, context);
+    }
+    Map<Query, Value> segmentCache =
+        cache.computeIfAbsent(
+            cacheHelper.getKey(),
+            key -> {
+              cacheHelper.addClosedListener(this::onSegmentClosed);
+              return new ConcurrentHashMap<>();
+            });
+    Value value = segmentCache.get(parentQuery);
+    if (value != null) {
+      hitCount.incrementAndGet();
+      return value.bitSet();
+    }
+    try {
+      value =
+          segmentCache.computeIfAbsent(
+              parentQuery,
+              query -> {
+                missCount.incrementAndGet();
+                try {
+                  BitSet bitSet = computeBitSet(query, context);
+                  Value computed = bitSet == null ? EMPTY_VALUE : new Value(bitSet);
+                  sizeBytes.addAndGet(computed.ramBytesUsed());
+                  return computed;
+                } catch (IOException e) {
+                  throw new UncheckedIOException(e);
+                }
+              });
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+    return value.bitSet();
+  }
+
+  private static BitSet computeBitSet(Query parentQuery, LeafReaderContext context)
+      throws IOException {
+    // same as QueryBitSetProducer
+    IndexReaderContext topLevelContext = ReaderUtil.getTopLevelContext(context);
+    IndexSearcher searcher = new IndexSearcher(topLevelContext);
+    searcher.setQueryCache(null);
+    Query rewritten = searcher.rewrite(parentQuery);
+    Weight weight = searcher.createWeight(rewritten, ScoreMode.COMPLETE_NO_SCORES, 1);
+    Scorer scorer = weight.scorer(context);
+    if (scorer == null) {
+      return null;
+    }
+    return BitSet.of(scorer.iterator(), context.reader().maxDoc());
+  }
+
+  private void onSegmentClosed(IndexReader.CacheKey key) {
+    Map<Query, Value> segmentCache = cache.remove(key);
+    if (segmentCache != null) {
+      for (Value value : segmentCache.values()) {
+        sizeBytes.addAndGet(-value.ramBytesUsed());
+      }
+    }
+  }
+
+  /** Remove all entries. */
+  public void clear() {
+    for (IndexReader.CacheKey key : cache.keySet()) {
+      onSegmentClosed(key);
+    }
+  }
+
+  /** Get the number of lookups that found a cached bit set. */
+  public long getHitCount() {
+    return hitCount.get();
+  }
+
+  /** Get the number of lookups that computed a bit set. */
+  public long getMissCount() {
+    return missCount.get();
+  }
+
+  /** Get the number of cached segment bit sets. */
+  public long getCacheSize() {
+    return cache.values().stream().mapToLong(Map::size).sum();
+  }
+
+  /** Get the memory used by cached bit sets. */
+  public long getSizeBytes() {
+    return sizeBytes.get();
+  }
+
+  /** Bit set producer that gets bit sets from the cache. */
+  private class CachedBitSetProducer implements BitSetProducer {
+    private final Query parentQuery;
+
+    CachedBitSetProducer(Query parentQuery) {
+      this.parentQuery = parentQuery;
+    }
+
+    @Override
+    public BitSet getBitSet(LeafReaderContext context) throws IOException {
+      return ParentBitSetCache.this.getBitSet(parentQuery, context);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      return parentQuery.equals(((CachedBitSetProducer) o).parentQuery);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * getClass().hashCode() + parentQuery.hashCode();
+    }
+
+    @Override
+    public String toString() {
+      return "CachedBitSetProducer(" + parentQuery + ")";
+    }
+  }
+}
@@ -0,0 +1,270 @@
+/*
+ * Copyright 2025 Yelp Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.yelp.nrtsearch.server.search.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.RemovalNotification;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.yelp.nrtsearch.server.config.RequestCacheConfig;
+import com.yelp.nrtsearch.server.grpc.SearchRequest;
+import com.yelp.nrtsearch.server.grpc.SearchResponse;
+import com.yelp.nrtsearch.server.index.IndexState;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.search.ReferenceManager;
+
+/**
+ * Shard request cache, holding serialized {@link SearchResponse}s for the searcher version that
+ * executed the request. Keys are built from the canonical request, after clearing fields that do
+ * not change the response, and the reader that was searched. The cache is bounded by the total
+ * size of the keys and serialized responses, evicting the least recently used entries. Entries for
+ * older searcher versions are invalidated when an index is refreshed, and all entries for an index
+ * are invalidated when its state is updated or it is closed.
+ */
+public class SearchResponseCache {
+  // estimated per entry overhead of key, value and cache segment objects
+  private static final int ENTRY_OVERHEAD_BYTES = 128;
+
+  private final long maxEntryBytes;
+  private final Cache<Key, ByteString> cache;
+  private final AtomicLong sizeBytes = new AtomicLong();
+  private final AtomicLong evictedBytes = new AtomicLong();
+  private final AtomicLong invalidatedBytes = new AtomicLong();
+
+  /**
+   * Cache key.
+   *
+   * @param indexName index name
+   * @param stateId id of the index state used for the search, so entries never match a request
+   *     executed with updated settings or fields
+   * @param readerKey cache key of the searched reader, so entries never match a reader for a
+   *     recreated index
+   * @param version searcher version
+   * @param request canonical serialized request
+   */
+  public record Key(
+      String indexName,
+      long stateId,
+      IndexReader.CacheKey readerKey,
+      long version,
+      ByteString request) {
+
+    int sizeBytes() {
+      return request.size() + indexName.length() * 2;
+    }
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param config request cache config
+   */
+  public SearchResponseCache(RequestCacheConfig config) {
+    this.maxEntryBytes = config.getMaxEntryBytes();
+    this.cache =
+        CacheBuilder.newBuilder()
+            .maximumWeight(config.getMaxMemoryBytes())
+            .weigher(
+                (Key key, ByteString value) ->
+                    (int) Math.min(Integer.MAX_VALUE, entrySizeBytes(key, value)))
+            .removalListener(this::onRemoval)
+            .recordStats()
+            .build();
+  }
+
+  /**
+   * Create the cache key for a request against the given reader. The searcher selection, request
+   * cache flag, timeout and compression options are removed from the request, since they do not
+   * change a complete response. Requests are serialized deterministically, so that map fields have
+   * a consistent order.
+   *
+   * @param indexState index state used for the search
+   * @param reader searched reader
+   * @param searchRequest search request
+   * @return cache key
+   * @throws IOException on error serializing request
+   */
+  public static Key createKey(
+      IndexState indexState, DirectoryReader reader, SearchRequest searchRequest)
+      throws IOException {
+    SearchRequest canonicalRequest =
+        searchRequest.toBuilder()
+            .clearSearcher()
+            .clearRequestCache()
+            .clearTimeoutSec()
+            .clearTimeoutCheckEvery()
+            .clearDisallowPartialResults()
+            .clearResponseCompression()
+            .build();
+    byte[] requestBytes = new byte[canonicalRequest.getSerializedSize()];
+    CodedOutputStream output = CodedOutputStream.newInstance(requestBytes);
+    output.useDeterministicSerialization();
+    canonicalRequest.writeTo(output);
+    output.checkNoSpaceLeft();
+    return new Key(
+        indexState.getName(),
+        indexState.getStateId(),
+        reader.getReaderCacheHelper().getKey(),
+        reader.getVersion(),
+        ByteString.copyFrom(requestBytes));
+  }
+
+  /**
+   * Get the cached response for a key.
+   *
+   * @param key cache key
+   * @return cached response, or null if not present
+   */
+  public SearchResponse get(Key key) {
+    ByteString responseBytes = cache.getIfPresent(key);
+    if (responseBytes == null) {
+      return null;
+    }
+    try {
+      return SearchResponse.parseFrom(responseBytes);
+    } catch (InvalidProtocolBufferException e) {
+      // should not be possible, since we serialized the message
+      cache.invalidate(key);
+      return null;
+    }
+  }
+
+  /**
+   * Add a response to the cache. Diagnostics are not cached, since they only apply to the request
+   * that executed the search. Responses larger than the max entry size are not cached.
+   *
+   * @param key cache key
+   * @param searchResponse search response
+   * @return if the response was added
+   */
+  public boolean put(Key key, SearchResponse searchResponse) {
+    ByteString responseBytes = searchResponse.toBuilder().clearDiagnostics().build().toByteString();
+    long entryBytes = entrySizeBytes(key, responseBytes);
+    if (entryBytes > maxEntryBytes) {
+      return false;
+    }
+    // removal of a replaced or evicted entry is subtracted by the removal listener
+    sizeBytes.addAndGet(entryBytes);
+    cache.put(key, responseBytes);
+    return true;
+  }
+
+  /**
+   * Invalidate all entries for an index with a searcher version older than the given version.
+   *
+   * @param indexName index name
+   * @param currentVersion current searcher version
+   */
+  public void invalidateOlderVersions(String indexName, long currentVersion) {
+    cache
+        .asMap()
+        .keySet()
+        .removeIf(k -> k.indexName().equals(indexName) && k.version() < currentVersion);
+  }
+
+  /**
+   * Invalidate all entries for an index.
+   *
+   * @param indexName index name
+   */
+  public void invalidateIndex(String indexName) {
+    cache.asMap().keySet().removeIf(k -> k.indexName().equals(indexName));
+  }
+
+  /**
+   * Create a refresh listener that invalidates entries for older searcher versions of an index,
+   * once a new searcher is visible.
+   *
+   * @param indexName index name
+   * @param versionSupplier supplier of the current searcher version for the index
+   * @return refresh listener
+   */
+  public ReferenceManager.RefreshListener createRefreshListener(
+      String indexName, VersionSupplier versionSupplier) {
+    return new ReferenceManager.RefreshListener() {
+      @Override
+      public void beforeRefresh() {}
+
+      @Override
+      public void afterRefresh(boolean didRefresh) throws IOException {
+        if (didRefresh) {
+          invalidateOlderVersions(indexName, versionSupplier.getCurrentVersion());
+        }
+      }
+    };
+  }
+
+  /** Provides the version of the current searcher for an index. */
+  @FunctionalInterface
+  public interface VersionSupplier {
+    long getCurrentVersion() throws IOException;
+  }
+
+  /** Get the number of cache hits. */
+  public long getHitCount() {
+    return cache.stats().hitCount();
+  }
+
+  /** Get the number of cache misses. */
+  public long getMissCount() {
+    return cache.stats().missCount();
+  }
+
+  /** Get the number of entries evicted to stay within the memory limit. */
+  public long getEvictionCount() {
+    return cache.stats().evictionCount();
+  }
+
+  /** Get the number of entries in the cache. */
+  public long getCacheSize() {
+    return cache.size();
+  }
+
+  /** Get the estimated memory used by the cache entries. */
+  public long getSizeBytes() {
+    return sizeBytes.get();
+  }
+
+  /** Get the total size of entries evicted to stay within the memory limit. */
+  public long getEvictedBytes() {
+    return evictedBytes.get();
+  }
+
+  /** Get the total size of entries invalidated by index refresh or state update, or replaced. */
+  public long getInvalidatedBytes() {
+    return invalidatedBytes.get();
+  }
+
+  private void onRemoval(RemovalNotification<Key, ByteString> notification) {
+    long entryBytes = entrySizeBytes(notification.getKey(), notification.getValue());
+    sizeBytes.addAndGet(-entryBytes);
+    if (notification.getCause() == RemovalCause.SIZE) {
+      evictedBytes.addAndGet(entryBytes);
+    } else {
+      invalidatedBytes.addAndGet(entryBytes);
+    }
+  }
+
+  private long entrySizeBytes(Key key, ByteString value) {
+    return (long) key.sizeBytes() + value.size() + ENTRY_OVERHEAD_BYTES;
+  }
+}
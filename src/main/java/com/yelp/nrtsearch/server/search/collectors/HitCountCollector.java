@@ -23,9 +23,11 @@ import java.util.Collection;
 import java.util.List;
 import org.apache.lucene.search.Collector;
 import org.apache.lucene.search.CollectorManager;
+import org.apache.lucene.search.IndexSearcher.LeafSlice;
 import org.apache.lucene.search.ScoreDoc;
 import org.apache.lucene.search.TopDocs;
 import org.apache.lucene.search.TotalHitCountCollector;
+import org.apache.lucene.search.TotalHitCountCollectorManager;
 import org.apache.lucene.search.TotalHits;
 import org.apache.lucene.search.TotalHits.Relation;
 
@@ -47,7 +49,8 @@ public class HitCountCollector extends DocCollector {
       List<AdditionalCollectorManager<? extends Collector, ? extends CollectorResult>>
           additionalCollectors) {
     super(context, additionalCollectors);
-    manager = new HitCountCollectorManager();
+    manager =
+        new HitCountCollectorManager(context.getSearcherAndTaxonomy().searcher().getSlices());
   }
 
   @Override
@@ -61,21 +64,32 @@ public class HitCountCollector extends DocCollector {
   @Override
   public void fillLastHit(SearchState.Builder stateBuilder, ScoreDoc lastHit) {}
 
-  /** Collector manager to do parallel collection of hit count. */
+  /**
+   * Collector manager to do parallel collection of hit count. Delegates to the lucene {@link
+   * TotalHitCountCollectorManager}, which does not double count segments that are split into
+   * multiple search slices.
+   */
   public static class HitCountCollectorManager
       implements CollectorManager<TotalHitCountCollector, TopDocs> {
+    private final TotalHitCountCollectorManager delegate;
+
+    /**
+     * Constructor.
+     *
+     * @param leafSlices searcher parallel search slices
+     */
+    public HitCountCollectorManager(LeafSlice[] leafSlices) {
+      this.delegate = new TotalHitCountCollectorManager(leafSlices);
+    }
 
     @Override
     public TotalHitCountCollector newCollector() throws IOException {
-      return new TotalHitCountCollector();
+      return delegate.newCollector();
     }
 
     @Override
     public TopDocs reduce(Collection<TotalHitCountCollector> collectors) throws IOException {
-      long count = 0;
-      for (TotalHitCountCollector collector : collectors) {
-        count += collector.getTotalHits();
-      }
+      long count = delegate.reduce(collectors);
       return new TopDocs(new TotalHits(count, Relation.EQUAL_TO), new ScoreDoc[0]);
     }
   }
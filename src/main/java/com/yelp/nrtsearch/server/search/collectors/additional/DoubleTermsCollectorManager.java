@@ -146,7 +146,7 @@ public class DoubleTermsCollectorManager extends TermsCollectorManager {
       public void collect(int doc) throws IOException {
         docValues.setDocId(doc);
         for (int i = 0; i < docValues.size(); ++i) {
-          Double value = docValues.get(i);
+          double value = docValues.getDouble(i);
           countsMap.addTo(value, 1);
           if (nestedLeafCollectors != null) {
             nestedLeafCollectors.collect(value, doc);
@@ -146,7 +146,7 @@ public class FloatTermsCollectorManager extends TermsCollectorManager {
       public void collect(int doc) throws IOException {
         docValues.setDocId(doc);
         for (int i = 0; i < docValues.size(); ++i) {
-          Float value = docValues.get(i);
+          float value = docValues.getFloat(i);
           countsMap.addTo(value, 1);
           if (nestedLeafCollectors != null) {
             nestedLeafCollectors.collect(value, doc);
@@ -143,7 +143,7 @@ public class IntTermsCollectorManager extends TermsCollectorManager {
       public void collect(int doc) throws IOException {
         docValues.setDocId(doc);
         for (int i = 0; i < docValues.size(); ++i) {
-          Integer value = docValues.get(i);
+          int value = docValues.getInt(i);
           countsMap.addTo(value, 1);
           if (nestedLeafCollectors != null) {
             nestedLeafCollectors.collect(value, doc);
@@ -144,7 +144,7 @@ public class LongTermsCollectorManager extends TermsCollectorManager {
       public void collect(int doc) throws IOException {
         docValues.setDocId(doc);
         for (int i = 0; i < docValues.size(); ++i) {
-          Long value = docValues.get(i);
+          long value = docValues.getLong(i);
           countsMap.addTo(value, 1);
           if (nestedLeafCollectors != null) {
             nestedLeafCollectors.collect(value, doc);
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2025 Yelp Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.yelp.nrtsearch.server.search.slicing;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import org.apache.lucene.index.FieldInfo;
+import org.apache.lucene.index.IndexOptions;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.Terms;
+import org.apache.lucene.search.IndexSearcher.LeafReaderContextPartition;
+import org.apache.lucene.search.IndexSearcher.LeafSlice;
+
+/**
+ * {@link SearchSlicer} that balances slices by the estimated cost of searching each segment,
+ * instead of the segment document count. The cost of a segment is the total number of postings
+ * across all indexed fields, which accounts for segments with deleted documents or a different
+ * term distribution than their size suggests.
+ *
+ * <p>The number of slices is the number needed to hold all documents given the max docs per slice,
+ * and enough to not exceed the max segments per slice. Segments are assigned in order of
+ * decreasing cost to the slice with the lowest total cost. Virtual shards are ignored, and
+ * segments are never split into partitions.
+ */
+public class CostBalancedSlicer implements SearchSlicer {
+  public static final String NAME = "cost_balanced";
+
+  private final SlicingParams params;
+
+  /**
+   * Constructor.
+   *
+   * @param params index slicing parameters
+   */
+  public CostBalancedSlicer(SlicingParams params) {
+    this.params = params;
+  }
+
+  /** Get the index slicing parameters. */
+  public SlicingParams getParams() {
+    return params;
+  }
+
+  /** Segment and its estimated search cost. */
+  private record LeafAndCost(LeafReaderContext leaf, long cost) {}
+
+  /** Segments assigned to a slice, and their total cost. */
+  private static class SliceLeaves {
+    List<LeafReaderContextPartition> partitions = new ArrayList<>();
+    long cost = 0;
+
+    void add(LeafAndCost leafAndCost) {
+      partitions.add(LeafReaderContextPartition.createForEntireSegment(leafAndCost.leaf()));
+      cost += leafAndCost.cost();
+    }
+  }
+
+  @Override
+  public LeafSlice[] slices(List<LeafReaderContext> leaves) {
+    if (leaves.isEmpty()) {
+      return new LeafSlice[0];
+    }
+    List<LeafAndCost> sortedLeaves = new ArrayList<>(leaves.size());
+    long totalDocs = 0;
+    for (LeafReaderContext leaf : leaves) {
+      sortedLeaves.add(new LeafAndCost(leaf, estimateCost(leaf.reader())));
+      totalDocs += leaf.reader().maxDoc();
+    }
+    // Sort by cost, descending:
+    sortedLeaves.sort(Comparator.comparingLong(LeafAndCost::cost).reversed());
+
+    int numSlices = getNumSlices(leaves.size(), totalDocs);
+    PriorityQueue<SliceLeaves> sliceQueue =
+        new PriorityQueue<>(numSlices, Comparator.comparingLong(sl -> sl.cost));
+    for (int i = 0; i < numSlices; ++i) {
+      sliceQueue.add(new SliceLeaves());
+    }
+
+    // Add each segment to the slice with the lowest cost, full slices are not returned to the
+    // queue. There are always enough slices to hold all segments.
+    List<SliceLeaves> fullSlices = new ArrayList<>();
+    for (LeafAndCost leafAndCost : sortedLeaves) {
+      SliceLeaves sliceLeaves = sliceQueue.poll();
+      sliceLeaves.add(leafAndCost);
+      if (sliceLeaves.partitions.size() >= params.sliceMaxSegments()) {
+        fullSlices.add(sliceLeaves);
+      } else {
+        sliceQueue.add(sliceLeaves);
+      }
+    }
+    fullSlices.addAll(sliceQueue);
+
+    // order slices by cost, largest to smallest
+    fullSlices.sort(Comparator.comparingLong((SliceLeaves sl) -> sl.cost).reversed());
+    List<LeafSlice> slices = new ArrayList<>(fullSlices.size());
+    for (SliceLeaves sliceLeaves : fullSlices) {
+      if (!sliceLeaves.partitions.isEmpty()) {
+        sliceLeaves.partitions.sort(Comparator.comparingInt(p -> p.ctx.docBase));
+        slices.add(new LeafSlice(sliceLeaves.partitions));
+      }
+    }
+    return slices.toArray(new LeafSlice[0]);
+  }
+
+  private int getNumSlices(int numLeaves, long totalDocs) {
+    long docsSlices = (totalDocs + params.sliceMaxDocs() - 1) / params.sliceMaxDocs();
+    long segmentsSlices =
+        ((long) numLeaves + params.sliceMaxSegments() - 1) / params.sliceMaxSegments();
+    return (int) Math.min(numLeaves, Math.max(1, Math.max(docsSlices, segmentsSlices)));
+  }
+
+  /**
+   * Estimate the cost of searching a segment, as the total number of postings in all indexed
+   * fields. Segments without postings use their document count.
+   *
+   * @param reader segment reader
+   * @return estimated cost
+   */
+  static long estimateCost(LeafReader reader) {
+    long cost = 0;
+    try {
+      for (FieldInfo fieldInfo : reader.getFieldInfos()) {
+        if (fieldInfo.getIndexOptions() != IndexOptions.NONE) {
+          Terms terms = reader.terms(fieldInfo.name);
+          if (terms != null) {
+            cost += Math.max(terms.getSumDocFreq(), 0);
+          }
+        }
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return Math.max(cost, reader.maxDoc());
+  }
+}
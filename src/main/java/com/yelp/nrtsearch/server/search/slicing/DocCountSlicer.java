@@ -0,0 +1,224 @@
+/*
+ * Copyright 2025 Yelp Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.yelp.nrtsearch.server.search.slicing;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.search.IndexSearcher.LeafReaderContextPartition;
+import org.apache.lucene.search.IndexSearcher.LeafSlice;
+
+/**
+ * Default {@link SearchSlicer}, which groups segments into slices using the segment document
+ * counts. Segments are sorted by size, and added to a slice until it has more than the max docs or
+ * reaches the max segments. When virtual sharding is enabled, segments are first distributed
+ * between the virtual shards, and each shard is sliced independently.
+ */
+public class DocCountSlicer implements SearchSlicer {
+  public static final String NAME = "doc_count";
+
+  private final SlicingParams params;
+
+  /**
+   * Constructor.
+   *
+   * @param params index slicing parameters
+   */
+  public DocCountSlicer(SlicingParams params) {
+    this.params = params;
+  }
+
+  /** Get the index slicing parameters. */
+  public SlicingParams getParams() {
+    return params;
+  }
+
+  @Override
+  public LeafSlice[] slices(List<LeafReaderContext> leaves) {
+    if (params.virtualShards() > 1) {
+      return slicesForShards(
+          leaves,
+          params.virtualShards(),
+          params.sliceMaxDocs(),
+          params.sliceMaxSegments(),
+          params.segmentPartitions());
+    } else {
+      return slices(
+          leaves, params.sliceMaxDocs(), params.sliceMaxSegments(), params.segmentPartitions());
+    }
+  }
+
+  /** Class to hold the segments in a virtual shard and the total live doc count. */
+  private static class VirtualShardLeaves {
+    List<LeafReaderContext> leaves = new ArrayList<>();
+    long numDocs = 0;
+
+    void add(LeafReaderContext leaf) {
+      leaves.add(leaf);
+      numDocs += leaf.reader().numDocs();
+    }
+  }
+
+  /** Class to hold an index slice and the total slice live doc count. */
+  private static class SliceAndSize {
+    LeafSlice slice;
+    long numDocs = 0;
+
+    SliceAndSize(LeafSlice slice) {
+      this.slice = slice;
+      numDocs = slice.getMaxDocs();
+    }
+  }
+
+  private static LeafSlice[] slicesForShards(
+      List<LeafReaderContext> leaves,
+      int virtualShards,
+      int sliceMaxDocs,
+      int sliceMaxSegments,
+      boolean segmentPartitions) {
+    if (leaves.isEmpty()) {
+      return new LeafSlice[0];
+    }
+    // Make a copy so we can sort:
+    List<LeafReaderContext> sortedLeaves = new ArrayList<>(leaves);
+    // Sort by number of live documents, descending:
+    sortedLeaves.sort(Collections.reverseOrder(Comparator.comparingInt(l -> l.reader().numDocs())));
+
+    // Create container for each virtual shard, add them to a min heap by number of live documents
+    PriorityQueue<VirtualShardLeaves> shardQueue =
+        new PriorityQueue<>(sortedLeaves.size(), Comparator.comparingLong(sl -> sl.numDocs));
+    for (int i = 0; i < virtualShards; ++i) {
+      shardQueue.add(new VirtualShardLeaves());
+    }
+
+    // Add each segment in sequence to the virtual shard with the least live documents
+    for (LeafReaderContext leaf : sortedLeaves) {
+      VirtualShardLeaves shardLeaves = shardQueue.poll();
+      shardLeaves.add(leaf);
+      shardQueue.add(shardLeaves);
+    }
+
+    // compute the parallel search slices for each shard independently and combine them
+    PriorityQueue<SliceAndSize> sortedSlices =
+        new PriorityQueue<>(Collections.reverseOrder(Comparator.comparingLong(ss -> ss.numDocs)));
+    while (!shardQueue.isEmpty()) {
+      VirtualShardLeaves shardLeaves = shardQueue.poll();
+      if (!shardLeaves.leaves.isEmpty()) {
+        LeafSlice[] shardSlices =
+            slices(shardLeaves.leaves, sliceMaxDocs, sliceMaxSegments, segmentPartitions);
+        for (LeafSlice leafSlice : shardSlices) {
+          sortedSlices.add(new SliceAndSize(leafSlice));
+        }
+      }
+    }
+
+    // order slices largest to smallest
+    LeafSlice[] slices = new LeafSlice[sortedSlices.size()];
+    for (int i = 0; i < slices.length; ++i) {
+      slices[i] = sortedSlices.poll().slice;
+    }
+    return slices;
+  }
+
+  /**
+   * Static method to segregate LeafReaderContexts amongst multiple slices. Segments with more than
+   * maxDocsPerSlice documents are placed in their own slice. If segmentPartitions is true, these
+   * segments are instead split into doc id range partitions of approximately equal size, with each
+   * partition in its own slice.
+   *
+   * @param leaves index segments
+   * @param maxDocsPerSlice max documents per slice
+   * @param maxSegmentsPerSlice max segments per slice
+   * @param segmentPartitions if large segments should be split into multiple slices
+   * @return search slices
+   */
+  public static LeafSlice[] slices(
+      List<LeafReaderContext> leaves,
+      int maxDocsPerSlice,
+      int maxSegmentsPerSlice,
+      boolean segmentPartitions) {
+    // Make a copy so we can sort:
+    List<LeafReaderContext> sortedLeaves = new ArrayList<>(leaves);
+
+    // Sort by maxDoc, descending:
+    Collections.sort(
+        sortedLeaves, Collections.reverseOrder(Comparator.comparingInt(l -> l.reader().maxDoc())));
+
+    final List<List<LeafReaderContextPartition>> groupedLeaves = new ArrayList<>();
+    long docSum = 0;
+    List<LeafReaderContextPartition> group = null;
+    for (LeafReaderContext ctx : sortedLeaves) {
+      if (ctx.reader().maxDoc() > maxDocsPerSlice) {
+        assert group == null;
+        if (segmentPartitions) {
+          // partitions of the same segment must be searched in different slices
+          for (LeafReaderContextPartition partition : partitionSegment(ctx, maxDocsPerSlice)) {
+            groupedLeaves.add(Collections.singletonList(partition));
+          }
+        } else {
+          groupedLeaves.add(
+              Collections.singletonList(LeafReaderContextPartition.createForEntireSegment(ctx)));
+        }
+      } else {
+        if (group == null) {
+          group = new ArrayList<>();
+          group.add(LeafReaderContextPartition.createForEntireSegment(ctx));
+
+          groupedLeaves.add(group);
+        } else {
+          group.add(LeafReaderContextPartition.createForEntireSegment(ctx));
+        }
+
+        docSum += ctx.reader().maxDoc();
+        if (group.size() >= maxSegmentsPerSlice || docSum > maxDocsPerSlice) {
+          group = null;
+          docSum = 0;
+        }
+      }
+    }
+
+    LeafSlice[] slices = new LeafSlice[groupedLeaves.size()];
+    int upto = 0;
+    for (List<LeafReaderContextPartition> currentLeaf : groupedLeaves) {
+      // LeafSlice constructor has changed in 9.x. This allows to use old constructor.
+      Collections.sort(currentLeaf, Comparator.comparingInt(l -> l.ctx.docBase));
+      slices[upto] = new LeafSlice(currentLeaf);
+      ++upto;
+    }
+
+    return slices;
+  }
+
+  /**
+   * Split a segment into doc id range partitions of approximately equal size, each with no more
+   * than maxDocsPerPartition documents.
+   */
+  private static List<LeafReaderContextPartition> partitionSegment(
+      LeafReaderContext ctx, int maxDocsPerPartition) {
+    int maxDoc = ctx.reader().maxDoc();
+    int numPartitions = (int) ((maxDoc + (long) maxDocsPerPartition - 1) / maxDocsPerPartition);
+    int partitionSize = (int) ((maxDoc + (long) numPartitions - 1) / numPartitions);
+    List<LeafReaderContextPartition> partitions = new ArrayList<>(numPartitions);
+    for (int from = 0; from < maxDoc; from += partitionSize) {
+      int to = (int) Math.min((long) from + partitionSize, maxDoc);
+      partitions.add(LeafReaderContextPartition.createFromAndTo(ctx, from, to));
+    }
+    return partitions;
+  }
+}
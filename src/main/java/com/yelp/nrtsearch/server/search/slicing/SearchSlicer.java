@@ -0,0 +1,40 @@
+/*
+ * Copyright 2025 Yelp Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.yelp.nrtsearch.server.search.slicing;
+
+import java.util.List;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.search.IndexSearcher.LeafSlice;
+
+/**
+ * Strategy used to divide the segments of an index reader into slices that are searched in
+ * parallel. A slicer is provided to each {@link com.yelp.nrtsearch.server.search.MyIndexSearcher}
+ * when it is created, so implementations must be thread safe and should not hold any per reader
+ * state. Custom implementations can be registered with a {@link
+ * com.yelp.nrtsearch.server.plugins.SearchSlicerPlugin}.
+ */
+@FunctionalInterface
+public interface SearchSlicer {
+
+  /**
+   * Divide index segments into parallel search slices. Partitions of the same segment must be in
+   * different slices.
+   *
+   * @param leaves index segments
+   * @return search slices
+   */
+  LeafSlice[] slices(List<LeafReaderContext> leaves);
+}
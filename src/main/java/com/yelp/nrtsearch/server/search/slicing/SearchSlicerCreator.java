@@ -0,0 +1,102 @@
+/*
+ * Copyright 2025 Yelp Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.yelp.nrtsearch.server.search.slicing;
+
+import com.yelp.nrtsearch.server.config.NrtsearchConfig;
+import com.yelp.nrtsearch.server.plugins.Plugin;
+import com.yelp.nrtsearch.server.plugins.SearchSlicerPlugin;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Class to handle the creation of {@link SearchSlicer} instances. Slicer names are mapped to {@link
+ * SearchSlicerProvider}s, which produce a slicer for the index slicing parameters. Until
+ * initialized, the instance only contains the standard slicers.
+ */
+public class SearchSlicerCreator {
+  private static SearchSlicerCreator instance = new SearchSlicerCreator();
+
+  private final Map<String, SearchSlicerProvider> slicerMap = new HashMap<>();
+
+  private SearchSlicerCreator() {
+    register(DocCountSlicer.NAME, DocCountSlicer::new);
+    register(CostBalancedSlicer.NAME, CostBalancedSlicer::new);
+  }
+
+  /**
+   * Get a {@link SearchSlicer} implementation by name. Valid names are any standard slicer
+   * ('doc_count', 'cost_balanced') or any custom slicer registered by a {@link SearchSlicerPlugin}.
+   *
+   * @param name slicer name
+   * @param params index slicing parameters
+   * @return search slicer
+   */
+  public SearchSlicer createSlicer(String name, SlicingParams params) {
+    return getProvider(name).get(params);
+  }
+
+  /**
+   * Verify that a slicer is registered with the given name.
+   *
+   * @param name slicer name
+   * @throws IllegalArgumentException if there is no slicer with this name
+   */
+  public void validateName(String name) {
+    getProvider(name);
+  }
+
+  private SearchSlicerProvider getProvider(String name) {
+    SearchSlicerProvider provider = slicerMap.get(name);
+    if (provider == null) {
+      throw new IllegalArgumentException(
+          "Invalid slice strategy: " + name + ", must be one of: " + slicerMap.keySet());
+    }
+    return provider;
+  }
+
+  private void register(Map<String, SearchSlicerProvider> slicers) {
+    slicers.forEach(this::register);
+  }
+
+  private void register(String name, SearchSlicerProvider slicer) {
+    if (slicerMap.containsKey(name)) {
+      throw new IllegalArgumentException("Search slicer " + name + " already exists");
+    }
+    slicerMap.put(name, slicer);
+  }
+
+  /**
+   * Initialize singleton instance of {@link SearchSlicerCreator}. Registers all the standard
+   * slicers and any additional provided by {@link SearchSlicerPlugin}s.
+   *
+   * @param configuration service configuration
+   * @param plugins list of loaded plugins
+   */
+  public static void initialize(NrtsearchConfig configuration, Iterable<Plugin> plugins) {
+    SearchSlicerCreator creator = new SearchSlicerCreator();
+    for (Plugin plugin : plugins) {
+      if (plugin instanceof SearchSlicerPlugin searchSlicerPlugin) {
+        creator.register(searchSlicerPlugin.getSearchSlicers());
+      }
+    }
+    instance = creator;
+  }
+
+  /** Get singleton instance. */
+  public static SearchSlicerCreator getInstance() {
+    return instance;
+  }
+}
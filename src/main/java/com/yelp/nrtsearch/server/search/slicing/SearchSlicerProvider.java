@@ -0,0 +1,32 @@
+/*
+ * Copyright 2025 Yelp Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.yelp.nrtsearch.server.search.slicing;
+
+/**
+ * Interface for getting a {@link SearchSlicer} implementation initialized with the index slicing
+ * parameters.
+ */
+@FunctionalInterface
+public interface SearchSlicerProvider {
+
+  /**
+   * Get slicer implementation.
+   *
+   * @param params index slicing parameters
+   * @return search slicer
+   */
+  SearchSlicer get(SlicingParams params);
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright 2025 Yelp Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.yelp.nrtsearch.server.search.slicing;
+
+/**
+ * Index parameters used to divide segments into parallel search slices.
+ *
+ * @param sliceMaxDocs max documents per slice
+ * @param sliceMaxSegments max segments per slice
+ * @param virtualShards number of virtual shards
+ * @param segmentPartitions if segments with more than sliceMaxDocs documents are split into doc id
+ *     range partitions, each in its own slice
+ */
+public record SlicingParams(
+    int sliceMaxDocs, int sliceMaxSegments, int virtualShards, boolean segmentPartitions) {
+
+  public SlicingParams(int sliceMaxDocs, int sliceMaxSegments, int virtualShards) {
+    this(sliceMaxDocs, sliceMaxSegments, virtualShards, false);
+  }
+}
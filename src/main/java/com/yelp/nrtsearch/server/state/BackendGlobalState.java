@@ -43,14 +43,22 @@ import com.yelp.nrtsearch.server.state.backend.RemoteStateBackend;
 import com.yelp.nrtsearch.server.state.backend.StateBackend;
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
+import org.apache.lucene.util.IOConsumer;
 import org.apache.lucene.util.IOUtils;
+import org.apache.lucene.util.NamedThreadFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -117,9 +125,9 @@ public class BackendGlobalState extends GlobalState {
               entry.getValue().getId(),
               configuration.getLiveSettingsOverride(entry.getKey()),
               stateBackend);
-      stateManager.load();
       managerMap.put(entry.getKey(), stateManager);
     }
+    forEachParallel(new ArrayList<>(managerMap.values()), IndexStateManager::load);
     immutableState = new ImmutableState(globalStateInfo, managerMap);
     // If any indices should be started, it will be done in the replicationStarted hook
   }
@@ -183,9 +191,9 @@ public class BackendGlobalState extends GlobalState {
                 getConfiguration().getLiveSettingsOverride(indexName),
                 stateBackend);
       }
-      stateManager.load();
       newManagerMap.put(indexName, stateManager);
     }
+    forEachParallel(new ArrayList<>(newManagerMap.values()), IndexStateManager::load);
     ImmutableState newImmutableState = new ImmutableState(newGlobalStateInfo, newManagerMap);
     if (getConfiguration().getIndexStartConfig().getAutoStart()) {
       updateStartedIndices(newImmutableState);
@@ -493,12 +501,73 @@ public class BackendGlobalState extends GlobalState {
    * @throws IOException
    */
   private void updateStartedIndices(ImmutableState newState) throws IOException {
+    List<Map.Entry<String, IndexGlobalState>> indicesToStart = new ArrayList<>();
     for (Map.Entry<String, IndexGlobalState> entry :
         newState.globalStateInfo.getIndicesMap().entrySet()) {
       IndexStateManager indexStateManager = newState.indexStateManagerMap.get(entry.getKey());
       if (entry.getValue().getStarted() && !indexStateManager.getCurrent().isStarted()) {
-        startIndexFromConfig(entry.getKey(), indexStateManager, entry.getValue());
+        indicesToStart.add(entry);
+      }
+    }
+    forEachParallel(
+        indicesToStart,
+        entry ->
+            startIndexFromConfig(
+                entry.getKey(),
+                newState.indexStateManagerMap.get(entry.getKey()),
+                entry.getValue()));
+  }
+
+  /**
+   * Run a task for each item, using up to {@link IndexStartConfig#getParallelism()} threads. All
+   * tasks are run, even if some fail. The first failure is thrown, with any others suppressed.
+   *
+   * @param items items to process
+   * @param task task to run for each item
+   * @throws IOException on task failure
+   */
+  private <T> void forEachParallel(List<T> items, IOConsumer<T> task) throws IOException {
+    int parallelism =
+        Math.min(getConfiguration().getIndexStartConfig().getParallelism(), items.size());
+    if (parallelism <= 1) {
+      for (T item : items) {
+        task.accept(item);
+      }
+      return;
+    }
+
+    ExecutorService executor =
+        Executors.newFixedThreadPool(parallelism, new NamedThreadFactory("index-startup-"));
+    try {
+      List<Future<?>> futures = new ArrayList<>(items.size());
+      for (T item : items) {
+        futures.add(
+            executor.submit(
+                () -> {
+                  task.accept(item);
+                  return null;
+                }));
+      }
+      Throwable failure = null;
+      for (Future<?> future : futures) {
+        try {
+          future.get();
+        } catch (ExecutionException e) {
+          if (failure == null) {
+            failure = e.getCause();
+          } else {
+            failure.addSuppressed(e.getCause());
+          }
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new IOException("Interrupted while starting indices", e);
+        }
+      }
+      if (failure != null) {
+        IOUtils.rethrowAlways(failure);
       }
+    } finally {
+      executor.shutdown();
     }
   }
 
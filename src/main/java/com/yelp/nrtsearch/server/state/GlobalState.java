@@ -28,6 +28,7 @@ import com.yelp.nrtsearch.server.grpc.StopIndexRequest;
 import com.yelp.nrtsearch.server.index.IndexState;
 import com.yelp.nrtsearch.server.index.IndexStateManager;
 import com.yelp.nrtsearch.server.remote.RemoteBackend;
+import com.yelp.nrtsearch.server.search.cache.SearchResponseCache;
 import java.io.Closeable;
 import java.io.IOException;
 import java.nio.file.Files;
@@ -65,6 +66,7 @@ public abstract class GlobalState implements Closeable {
   private final ExecutorService indexExecutor;
   private final ExecutorService fetchExecutor;
   private final ExecutorService searchExecutor;
+  private final SearchResponseCache searchResponseCache;
 
   public static GlobalState createState(NrtsearchConfig configuration, RemoteBackend remoteBackend)
       throws IOException {
@@ -96,6 +98,10 @@ public abstract class GlobalState implements Closeable {
     this.fetchExecutor =
         ExecutorFactory.getInstance().getExecutor(ExecutorFactory.ExecutorType.FETCH);
     this.configuration = configuration;
+    this.searchResponseCache =
+        configuration.getRequestCacheConfig().getEnabled()
+            ? new SearchResponseCache(configuration.getRequestCacheConfig())
+            : null;
   }
 
   public NrtsearchConfig getConfiguration() {
@@ -298,6 +304,35 @@ public abstract class GlobalState implements Closeable {
     return fetchExecutor;
   }
 
+  /**
+   * Get the executor for search operations of an index. This is a view of the search executor that
+   * schedules tasks fairly with other indices, if index isolation is enabled.
+   *
+   * @param indexName index name
+   * @return search executor
+   */
+  public ExecutorService getSearchExecutor(String indexName) {
+    return ExecutorFactory.getInstance()
+        .getIndexExecutor(ExecutorFactory.ExecutorType.SEARCH, indexName);
+  }
+
+  /**
+   * Get the executor for parallel fetch operations of an index. This is a view of the fetch
+   * executor that schedules tasks fairly with other indices, if index isolation is enabled.
+   *
+   * @param indexName index name
+   * @return fetch executor
+   */
+  public ExecutorService getFetchExecutor(String indexName) {
+    return ExecutorFactory.getInstance()
+        .getIndexExecutor(ExecutorFactory.ExecutorType.FETCH, indexName);
+  }
+
+  /** Get the shard request cache for search responses, or null if it is not enabled. */
+  public SearchResponseCache getSearchResponseCache() {
+    return searchResponseCache;
+  }
+
   public String getEphemeralId() {
     return ephemeralId;
   }
@@ -0,0 +1,278 @@
+/*
+ * Copyright 2025 Yelp Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.yelp.nrtsearch.server.warming;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.hash.Hashing;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.Descriptors.FieldDescriptor;
+import com.google.protobuf.Message;
+import com.yelp.nrtsearch.server.grpc.SearchRequest;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Selects warming queries by query shape, instead of sampling requests uniformly. A request shape
+ * is the request with its literal values removed, such as query terms, ranges and numeric
+ * parameters, while the query structure, field names, sorts, collectors and scripts are kept.
+ * Requests with the same shape mostly load the same index data, so storing a few examples of many
+ * shapes warms more of the index than storing duplicates of the most common requests.
+ *
+ * <p>Shapes are tracked with a Space-Saving sketch of bounded size. Each request adds a weight of 1
+ * plus its search time in ms to its shape, so shapes are ranked by the total time spent executing
+ * them. This keeps rare but expensive shapes, which uniform sampling tends to miss. When the sketch
+ * is full, the lowest weight shape is replaced, and the new shape inherits its weight as the error
+ * bound. Each shape keeps a reservoir sample of distinct example requests.
+ *
+ * <p>Only a fixed fraction of requests is added, chosen before the request shape is computed. This
+ * keeps the shape hashing and the sketch lock off the path of most search requests, while the
+ * sampled weights keep the same ranking in expectation.
+ */
+public class QueryShapeSampler {
+  // default number of shapes to track for each stored warming query
+  static final int DEFAULT_SKETCH_SIZE_MULTIPLIER = 4;
+
+  // string fields that contain names, instead of literal values
+  private static final Set<String> STRUCTURAL_STRING_FIELDS =
+      Set.of(
+          "name",
+          "indexname",
+          "source",
+          "lang",
+          "path",
+          "paths",
+          "querynestedpath",
+          "dim",
+          "customhighlightername");
+
+  private final int sketchSize;
+  private final int requestsPerShape;
+  private final double sampleRate;
+  private final Map<Long, ShapeEntry> shapes = new HashMap<>();
+  private final TreeSet<ShapeEntry> shapesByWeight =
+      new TreeSet<>(
+          Comparator.comparingDouble((ShapeEntry e) -> e.weight).thenComparingLong(e -> e.id));
+  private long nextId = 0;
+
+  /**
+   * Create a query shape sampler from the warmer config.
+   *
+   * @param warmerConfig warmer config
+   * @return query shape sampler, or null if the config does not use weighted shape sampling
+   */
+  public static QueryShapeSampler fromConfig(WarmerConfig warmerConfig) {
+    if (warmerConfig.getSamplingStrategy() != WarmerConfig.SamplingStrategy.WEIGHTED_SHAPES
+        || warmerConfig.getMaxWarmingQueries() <= 0) {
+      return null;
+    }
+    int sketchSize = warmerConfig.getShapeSketchSize();
+    if (sketchSize == 0) {
+      sketchSize = warmerConfig.getMaxWarmingQueries() * DEFAULT_SKETCH_SIZE_MULTIPLIER;
+    }
+    return new QueryShapeSampler(
+        sketchSize, warmerConfig.getRequestsPerShape(), warmerConfig.getShapeSampleRate());
+  }
+
+  /**
+   * Constructor, which adds every request.
+   *
+   * @param sketchSize max number of shapes to track
+   * @param requestsPerShape max number of distinct example requests to keep for each shape
+   */
+  public QueryShapeSampler(int sketchSize, int requestsPerShape) {
+    this(sketchSize, requestsPerShape, 1.0);
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param sketchSize max number of shapes to track
+   * @param requestsPerShape max number of distinct example requests to keep for each shape
+   * @param sampleRate fraction of requests to add
+   */
+  public QueryShapeSampler(int sketchSize, int requestsPerShape, double sampleRate) {
+    if (sketchSize <= 0) {
+      throw new IllegalArgumentException("sketchSize must be > 0");
+    }
+    if (requestsPerShape <= 0) {
+      throw new IllegalArgumentException("requestsPerShape must be > 0");
+    }
+    if (sampleRate <= 0 || sampleRate > 1) {
+      throw new IllegalArgumentException("sampleRate must be in (0, 1]");
+    }
+    this.sketchSize = sketchSize;
+    this.requestsPerShape = requestsPerShape;
+    this.sampleRate = sampleRate;
+  }
+
+  /**
+   * Add an executed search request, if it is chosen by the sample rate.
+   *
+   * @param searchRequest search request
+   * @param costMs time taken to execute the request
+   */
+  public void add(SearchRequest searchRequest, double costMs) {
+    if (sampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+      return;
+    }
+    long shape = getShapeHash(searchRequest);
+    double weight = 1.0 + Math.max(costMs, 0.0);
+    synchronized (this) {
+      ShapeEntry entry = shapes.get(shape);
+      if (entry == null) {
+        double baseWeight = 0;
+        if (shapes.size() >= sketchSize) {
+          ShapeEntry evicted = shapesByWeight.pollFirst();
+          shapes.remove(evicted.shape);
+          baseWeight = evicted.weight;
+        }
+        entry = new ShapeEntry(shape, nextId++, baseWeight);
+        shapes.put(shape, entry);
+      } else {
+        shapesByWeight.remove(entry);
+      }
+      entry.weight += weight;
+      entry.addExample(searchRequest, requestsPerShape);
+      shapesByWeight.add(entry);
+    }
+  }
+
+  /**
+   * Get example requests for the highest weight shapes, in order of decreasing shape weight.
+   *
+   * @param maxRequests max number of requests
+   * @return requests
+   */
+  public synchronized List<SearchRequest> getTopRequests(int maxRequests) {
+    List<SearchRequest> requests = new ArrayList<>();
+    for (ShapeEntry entry : shapesByWeight.descendingSet()) {
+      for (SearchRequest request : entry.examples) {
+        if (requests.size() >= maxRequests) {
+          return requests;
+        }
+        requests.add(request);
+      }
+    }
+    return requests;
+  }
+
+  /** Get the number of shapes being tracked. */
+  public synchronized int getNumShapes() {
+    return shapes.size();
+  }
+
+  /** Get the hash of the request shape. */
+  @VisibleForTesting
+  static long getShapeHash(SearchRequest searchRequest) {
+    Message shape = getShape(searchRequest);
+    byte[] shapeBytes = new byte[shape.getSerializedSize()];
+    CodedOutputStream output = CodedOutputStream.newInstance(shapeBytes);
+    output.useDeterministicSerialization();
+    try {
+      shape.writeTo(output);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return Hashing.murmur3_128().hashBytes(shapeBytes).asLong();
+  }
+
+  /** Get the request shape, which has all literal values removed. */
+  @VisibleForTesting
+  static Message getShape(SearchRequest searchRequest) {
+    return canonicalize(
+        searchRequest.toBuilder().clearSearcher().clearRequestCache().clearProfile().build());
+  }
+
+  private static Message canonicalize(Message message) {
+    Message.Builder builder = message.newBuilderForType();
+    boolean mapEntry = message.getDescriptorForType().getOptions().getMapEntry();
+    for (Map.Entry<FieldDescriptor, Object> field : message.getAllFields().entrySet()) {
+      FieldDescriptor descriptor = field.getKey();
+      if (descriptor.getJavaType() == FieldDescriptor.JavaType.MESSAGE) {
+        if (descriptor.isRepeated()) {
+          for (Object value : (List<?>) field.getValue()) {
+            builder.addRepeatedField(descriptor, canonicalize((Message) value));
+          }
+        } else {
+          builder.setField(descriptor, canonicalize((Message) field.getValue()));
+        }
+      } else if (isStructural(descriptor, mapEntry)) {
+        builder.setField(descriptor, field.getValue());
+      }
+    }
+    return builder.build();
+  }
+
+  /**
+   * Get if a non message field describes the request structure. Enum and boolean values are
+   * options, and string fields that contain field names, nested paths, scripts or plugin names are
+   * kept. Map keys are names. All other values are literals.
+   */
+  private static boolean isStructural(FieldDescriptor descriptor, boolean mapEntry) {
+    if (mapEntry && descriptor.getNumber() == 1) {
+      return true;
+    }
+    return switch (descriptor.getJavaType()) {
+      case ENUM, BOOLEAN -> true;
+      case STRING -> {
+        String name = descriptor.getName().replace("_", "").toLowerCase();
+        yield name.endsWith("field")
+            || name.endsWith("fields")
+            || name.endsWith("fieldname")
+            || STRUCTURAL_STRING_FIELDS.contains(name);
+      }
+      default -> false;
+    };
+  }
+
+  private static class ShapeEntry {
+    private final long shape;
+    private final long id;
+    private final List<SearchRequest> examples = new ArrayList<>(1);
+    private double weight;
+    private long numExamples;
+
+    ShapeEntry(long shape, long id, double weight) {
+      this.shape = shape;
+      this.id = id;
+      this.weight = weight;
+    }
+
+    /** Add a reservoir sample of the distinct requests with this shape. */
+    void addExample(SearchRequest searchRequest, int maxExamples) {
+      if (examples.contains(searchRequest)) {
+        return;
+      }
+      long seen = numExamples++;
+      if (examples.size() < maxExamples) {
+        examples.add(searchRequest);
+      } else {
+        long replace = ThreadLocalRandom.current().nextLong(seen + 1);
+        if (replace < maxExamples) {
+          examples.set((int) replace, searchRequest);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2025 Yelp Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.yelp.nrtsearch.server.warming;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.yelp.nrtsearch.server.grpc.SearchRequest;
+import com.yelp.nrtsearch.server.grpc.SearchResponse;
+import com.yelp.nrtsearch.server.index.IndexState;
+import com.yelp.nrtsearch.server.index.ShardState;
+import com.yelp.nrtsearch.server.monitoring.IndexMetrics;
+import com.yelp.nrtsearch.server.search.MyIndexSearcher;
+import com.yelp.nrtsearch.server.search.SearchContext;
+import com.yelp.nrtsearch.server.search.SearchRequestProcessor;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.apache.lucene.facet.taxonomy.SearcherTaxonomyManager;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.MultiReader;
+import org.apache.lucene.search.IndexSearcher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Warms the new segments of a refreshed index reader, before the reader is used for search. A
+ * sample of the queries stored by the index {@link Warmer} is run against only the segments that
+ * were not in the previous reader, which loads their postings, norms and doc values, and populates
+ * the query cache. Warming stops once the time budget is used, so a refresh is delayed by at most
+ * the budget.
+ */
+public class RefreshWarmer {
+  private static final Logger logger = LoggerFactory.getLogger(RefreshWarmer.class);
+
+  private final int maxQueries;
+  private final long budgetNanos;
+
+  /**
+   * Create a refresh warmer from the warmer config.
+   *
+   * @param warmerConfig warmer config
+   * @return refresh warmer, or null if warming on refresh is not enabled
+   */
+  public static RefreshWarmer fromConfig(WarmerConfig warmerConfig) {
+    if (!warmerConfig.isWarmOnRefresh() || warmerConfig.getRefreshWarmingQueries() == 0) {
+      return null;
+    }
+    return new RefreshWarmer(
+        warmerConfig.getRefreshWarmingQueries(), warmerConfig.getRefreshWarmingBudgetMs());
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param maxQueries max number of queries to run for each refresh
+   * @param budgetMs max time to spend warming each refresh
+   */
+  public RefreshWarmer(int maxQueries, long budgetMs) {
+    this.maxQueries = maxQueries;
+    this.budgetNanos = TimeUnit.MILLISECONDS.toNanos(budgetMs);
+  }
+
+  /**
+   * Warm the segments of a new searcher that are not in the previous reader.
+   *
+   * @param indexState index state
+   * @param shardState shard state
+   * @param searcher new searcher
+   * @param previousReader previous reader, or null if this is the first searcher
+   * @return number of queries run
+   */
+  public int warm(
+      IndexState indexState,
+      ShardState shardState,
+      IndexSearcher searcher,
+      IndexReader previousReader) {
+    // the first searcher is warmed on startup, if enabled
+    if (previousReader == null || indexState.getWarmer() == null) {
+      return 0;
+    }
+    List<LeafReader> newLeaves = getNewLeaves(searcher.getIndexReader(), previousReader);
+    if (newLeaves.isEmpty()) {
+      return 0;
+    }
+    List<SearchRequest> requests = indexState.getWarmer().sampleSearchRequests(maxQueries);
+    if (requests.isEmpty()) {
+      return 0;
+    }
+
+    long startNanos = System.nanoTime();
+    long deadlineNanos = startNanos + budgetNanos;
+    int warmed = 0;
+    try (MultiReader newSegmentsReader =
+        new MultiReader(newLeaves.toArray(new IndexReader[0]), false)) {
+      IndexSearcher warmingSearcher =
+          MyIndexSearcher.create(newSegmentsReader, null, indexState.getSearchSlicer());
+      // share the caches of the new searcher
+      warmingSearcher.setSimilarity(searcher.getSimilarity());
+      warmingSearcher.setQueryCache(searcher.getQueryCache());
+      warmingSearcher.setQueryCachingPolicy(searcher.getQueryCachingPolicy());
+      warmingSearcher.setTimeout(() -> System.nanoTime() - deadlineNanos > 0);
+
+      for (SearchRequest request : requests) {
+        if (System.nanoTime() - deadlineNanos > 0) {
+          IndexMetrics.refreshWarmingQueries.labelValues(indexState.getName(), "skipped").inc();
+          continue;
+        }
+        try {
+          runQuery(indexState, shardState, warmingSearcher, request);
+          IndexMetrics.refreshWarmingQueries.labelValues(indexState.getName(), "success").inc();
+          warmed++;
+        } catch (Exception e) {
+          IndexMetrics.refreshWarmingQueries.labelValues(indexState.getName(), "error").inc();
+          logger.debug("Error warming refreshed reader for index: {}", indexState.getName(), e);
+        }
+      }
+    } catch (IOException e) {
+      logger.warn("Error closing warming reader for index: {}", indexState.getName(), e);
+    }
+    IndexMetrics.refreshWarmingTime
+        .labelValues(indexState.getName())
+        .observe((System.nanoTime() - startNanos) / 1_000_000.0);
+    return warmed;
+  }
+
+  /** Run the query phase of a request, without facets, which need the taxonomy reader. */
+  private static void runQuery(
+      IndexState indexState,
+      ShardState shardState,
+      IndexSearcher warmingSearcher,
+      SearchRequest request)
+      throws IOException {
+    SearchRequest warmingRequest = request.toBuilder().clearFacets().setProfile(false).build();
+    SearchContext searchContext =
+        SearchRequestProcessor.buildContextForRequest(
+            warmingRequest,
+            indexState,
+            shardState,
+            new SearcherTaxonomyManager.SearcherAndTaxonomy(warmingSearcher, null),
+            SearchResponse.Diagnostics.newBuilder(),
+            null,
+            true);
+    warmingSearcher.search(
+        searchContext.getQuery(), searchContext.getCollector().getWrappedManager());
+  }
+
+  /** Get the segments of a reader that are not in the previous reader. */
+  @VisibleForTesting
+  static List<LeafReader> getNewLeaves(IndexReader reader, IndexReader previousReader) {
+    Set<IndexReader.CacheKey> previousKeys = new HashSet<>();
+    for (LeafReaderContext context : previousReader.leaves()) {
+      IndexReader.CacheHelper cacheHelper = context.reader().getCoreCacheHelper();
+      if (cacheHelper != null) {
+        previousKeys.add(cacheHelper.getKey());
+      }
+    }
+    List<LeafReader> newLeaves = new ArrayList<>();
+    for (LeafReaderContext context : reader.leaves()) {
+      IndexReader.CacheHelper cacheHelper = context.reader().getCoreCacheHelper();
+      if (cacheHelper == null || !previousKeys.contains(cacheHelper.getKey())) {
+        newLeaves.add(context.reader());
+      }
+    }
+    return newLeaves;
+  }
+}
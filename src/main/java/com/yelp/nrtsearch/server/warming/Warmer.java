@@ -35,6 +35,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import org.apache.lucene.util.NamedThreadFactory;
@@ -50,21 +51,59 @@ public class Warmer {
   private final ReservoirSampler reservoirSampler;
   private final String index;
   private final int maxWarmingQueries;
+  private final QueryShapeSampler shapeSampler;
 
   public Warmer(RemoteBackend remoteBackend, String service, String index, int maxWarmingQueries) {
+    this(remoteBackend, service, index, maxWarmingQueries, null);
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param remoteBackend backend for storing warming queries
+   * @param service service name
+   * @param index index name
+   * @param maxWarmingQueries max number of queries to store
+   * @param shapeSampler sampler to select queries by weighted query shape, or null to use a
+   *     uniform reservoir sample
+   */
+  public Warmer(
+      RemoteBackend remoteBackend,
+      String service,
+      String index,
+      int maxWarmingQueries,
+      QueryShapeSampler shapeSampler) {
     this.remoteBackend = remoteBackend;
     this.service = service;
     this.index = index;
     this.warmingRequests = Collections.synchronizedList(new ArrayList<>(maxWarmingQueries));
     this.reservoirSampler = new ReservoirSampler(maxWarmingQueries);
     this.maxWarmingQueries = maxWarmingQueries;
+    this.shapeSampler = shapeSampler;
   }
 
   public int getNumWarmingRequests() {
+    if (shapeSampler != null) {
+      return getWarmingRequests().size();
+    }
     return warmingRequests.size();
   }
 
   public void addSearchRequest(SearchRequest searchRequest) {
+    addSearchRequest(searchRequest, 0);
+  }
+
+  /**
+   * Add an executed search request as a candidate for warming.
+   *
+   * @param searchRequest search request
+   * @param costMs time taken to execute the request, used to weight query shapes
+   */
+  public void addSearchRequest(SearchRequest searchRequest, double costMs) {
+    if (shapeSampler != null) {
+      shapeSampler.add(searchRequest, costMs);
+      return;
+    }
     ReservoirSampler.SampleResult sampleResult = reservoirSampler.sample();
     if (sampleResult.isSample()) {
       int replace = sampleResult.getReplace();
@@ -76,6 +115,38 @@ public class Warmer {
     }
   }
 
+  /**
+   * Get a sample of the stored warming requests. When selecting by query shape, these are the
+   * requests for the highest weight shapes, otherwise they are a random sample.
+   *
+   * @param count max number of requests
+   * @return sampled requests
+   */
+  public List<SearchRequest> sampleSearchRequests(int count) {
+    if (shapeSampler != null) {
+      return shapeSampler.getTopRequests(Math.min(count, maxWarmingQueries));
+    }
+    List<SearchRequest> requests = getWarmingRequests();
+    if (requests.size() > count) {
+      Collections.shuffle(requests, ThreadLocalRandom.current());
+      return requests.subList(0, count);
+    }
+    return requests;
+  }
+
+  /**
+   * Get a copy of the stored warming requests. When selecting by query shape, requests are in order
+   * of decreasing shape weight, so the most important shapes are warmed first.
+   */
+  public List<SearchRequest> getWarmingRequests() {
+    if (shapeSampler != null) {
+      return shapeSampler.getTopRequests(maxWarmingQueries);
+    }
+    synchronized (warmingRequests) {
+      return new ArrayList<>(warmingRequests);
+    }
+  }
+
   public synchronized void backupWarmingQueriesToS3(String service) throws IOException {
     if (Strings.isNullOrEmpty(service)) {
       service = this.service;
@@ -85,7 +156,7 @@ public class Warmer {
     int count = 0;
     try (Writer writer =
         new OutputStreamWriter(byteArrayOutputStream, StateUtils.getValidatingUTF8Encoder())) {
-      for (SearchRequest searchRequest : warmingRequests) {
+      for (SearchRequest searchRequest : getWarmingRequests()) {
         writer.write(JsonFormat.printer().omittingInsignificantWhitespace().print(searchRequest));
         writer.write("\n");
         count++;
@@ -129,24 +200,29 @@ public class Warmer {
               new NamedThreadFactory("warming-"),
               new ThreadPoolExecutor.CallerRunsPolicy());
     }
+    int count = 0;
+    long startNanos = System.nanoTime();
     try (BufferedReader reader =
         new BufferedReader(
             new InputStreamReader(
                 remoteBackend.downloadWarmingQueries(service, index),
                 StateUtils.getValidatingUTF8Decoder()))) {
       String line;
-      int count = 0;
       while ((line = reader.readLine()) != null) {
         processLine(indexState, searchHandler, threadPoolExecutor, line);
         count++;
       }
-      logger.info("Warmed index: {} with {} warming queries", index, count);
     } finally {
       if (threadPoolExecutor != null) {
         threadPoolExecutor.shutdown();
         threadPoolExecutor.awaitTermination(10, TimeUnit.SECONDS);
       }
     }
+    logger.info(
+        "Warmed index: {} with {} warming queries in {} ms",
+        index,
+        count,
+        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
   }
 
   private void processLine(
@@ -18,14 +18,36 @@ package com.yelp.nrtsearch.server.warming;
 import com.yelp.nrtsearch.server.config.YamlConfigReader;
 
 public class WarmerConfig {
+  /** Strategy for selecting the search requests stored for warming. */
+  public enum SamplingStrategy {
+    /** Uniform reservoir sample of search requests. */
+    RESERVOIR,
+    /** Requests for the query shapes with the highest total search time. */
+    WEIGHTED_SHAPES
+  }
+
   private static final String CONFIG_PREFIX = "warmer.";
   private static final int DEFAULT_MAX_WARMING_QUERIES = 0;
   private static final int DEFAULT_WARMING_PARALLELISM = 1;
   private static final boolean DEFAULT_WARM_ON_STARTUP = false;
+  private static final boolean DEFAULT_WARM_ON_REFRESH = false;
+  private static final int DEFAULT_REFRESH_WARMING_QUERIES = 10;
+  private static final long DEFAULT_REFRESH_WARMING_BUDGET_MS = 200;
+  private static final SamplingStrategy DEFAULT_SAMPLING_STRATEGY = SamplingStrategy.RESERVOIR;
+  private static final int DEFAULT_SHAPE_SKETCH_SIZE = 0;
+  private static final int DEFAULT_REQUESTS_PER_SHAPE = 1;
+  private static final double DEFAULT_SHAPE_SAMPLE_RATE = 0.1;
 
   private final int maxWarmingQueries;
   private final int warmingParallelism;
   private final boolean warmOnStartup;
+  private final boolean warmOnRefresh;
+  private final int refreshWarmingQueries;
+  private final long refreshWarmingBudgetMs;
+  private final SamplingStrategy samplingStrategy;
+  private final int shapeSketchSize;
+  private final int requestsPerShape;
+  private final double shapeSampleRate;
 
   /**
    * Configuration for warmer.
@@ -35,9 +57,98 @@ public class WarmerConfig {
    * @param warmOnStartup if true will try to download queries from S3 and use them to warm
    */
   public WarmerConfig(int maxWarmingQueries, int warmingParallelism, boolean warmOnStartup) {
+    this(
+        maxWarmingQueries,
+        warmingParallelism,
+        warmOnStartup,
+        DEFAULT_WARM_ON_REFRESH,
+        DEFAULT_REFRESH_WARMING_QUERIES,
+        DEFAULT_REFRESH_WARMING_BUDGET_MS);
+  }
+
+  /**
+   * Configuration for warmer.
+   *
+   * @param maxWarmingQueries maximum queries to store for warming
+   * @param warmingParallelism number of parallel queries while warming on startup
+   * @param warmOnStartup if true will try to download queries from S3 and use them to warm
+   * @param warmOnRefresh if true will warm the new segments of a refreshed reader with stored
+   *     queries, before it is used for search
+   * @param refreshWarmingQueries max number of stored queries to run on each refresh
+   * @param refreshWarmingBudgetMs max time to spend warming on each refresh
+   */
+  public WarmerConfig(
+      int maxWarmingQueries,
+      int warmingParallelism,
+      boolean warmOnStartup,
+      boolean warmOnRefresh,
+      int refreshWarmingQueries,
+      long refreshWarmingBudgetMs) {
+    this(
+        maxWarmingQueries,
+        warmingParallelism,
+        warmOnStartup,
+        warmOnRefresh,
+        refreshWarmingQueries,
+        refreshWarmingBudgetMs,
+        DEFAULT_SAMPLING_STRATEGY,
+        DEFAULT_SHAPE_SKETCH_SIZE,
+        DEFAULT_REQUESTS_PER_SHAPE,
+        DEFAULT_SHAPE_SAMPLE_RATE);
+  }
+
+  /**
+   * Configuration for warmer.
+   *
+   * @param maxWarmingQueries maximum queries to store for warming
+   * @param warmingParallelism number of parallel queries while warming on startup
+   * @param warmOnStartup if true will try to download queries from S3 and use them to warm
+   * @param warmOnRefresh if true will warm the new segments of a refreshed reader with stored
+   *     queries, before it is used for search
+   * @param refreshWarmingQueries max number of stored queries to run on each refresh
+   * @param refreshWarmingBudgetMs max time to spend warming on each refresh
+   * @param samplingStrategy strategy for selecting the stored queries
+   * @param shapeSketchSize number of query shapes to track for {@link
+   *     SamplingStrategy#WEIGHTED_SHAPES}, or 0 to use a multiple of maxWarmingQueries
+   * @param requestsPerShape max number of distinct requests to store for each query shape
+   * @param shapeSampleRate fraction of search requests added to the query shape sketch
+   */
+  public WarmerConfig(
+      int maxWarmingQueries,
+      int warmingParallelism,
+      boolean warmOnStartup,
+      boolean warmOnRefresh,
+      int refreshWarmingQueries,
+      long refreshWarmingBudgetMs,
+      SamplingStrategy samplingStrategy,
+      int shapeSketchSize,
+      int requestsPerShape,
+      double shapeSampleRate) {
+    if (refreshWarmingQueries < 0) {
+      throw new IllegalArgumentException("refreshWarmingQueries must be >= 0");
+    }
+    if (refreshWarmingBudgetMs <= 0) {
+      throw new IllegalArgumentException("refreshWarmingBudgetMs must be > 0");
+    }
+    if (shapeSketchSize < 0) {
+      throw new IllegalArgumentException("shapeSketchSize must be >= 0");
+    }
+    if (requestsPerShape <= 0) {
+      throw new IllegalArgumentException("requestsPerShape must be > 0");
+    }
+    if (shapeSampleRate <= 0 || shapeSampleRate > 1) {
+      throw new IllegalArgumentException("shapeSampleRate must be in (0, 1]");
+    }
     this.maxWarmingQueries = maxWarmingQueries;
     this.warmingParallelism = warmingParallelism;
     this.warmOnStartup = warmOnStartup;
+    this.warmOnRefresh = warmOnRefresh;
+    this.refreshWarmingQueries = refreshWarmingQueries;
+    this.refreshWarmingBudgetMs = refreshWarmingBudgetMs;
+    this.samplingStrategy = samplingStrategy;
+    this.shapeSketchSize = shapeSketchSize;
+    this.requestsPerShape = requestsPerShape;
+    this.shapeSampleRate = shapeSampleRate;
   }
 
   public static WarmerConfig fromConfig(YamlConfigReader configReader) {
@@ -48,7 +159,37 @@ public class WarmerConfig {
     boolean warmOnStartup =
         configReader.getBoolean(CONFIG_PREFIX + "warmOnStartup", DEFAULT_WARM_ON_STARTUP);
 
-    return new WarmerConfig(maxWarmingQueries, warmingParallelism, warmOnStartup);
+    boolean warmOnRefresh =
+        configReader.getBoolean(CONFIG_PREFIX + "warmOnRefresh", DEFAULT_WARM_ON_REFRESH);
+    int refreshWarmingQueries =
+        configReader.getInteger(
+            CONFIG_PREFIX + "refreshWarmingQueries", DEFAULT_REFRESH_WARMING_QUERIES);
+    long refreshWarmingBudgetMs =
+        configReader.getLong(
+            CONFIG_PREFIX + "refreshWarmingBudgetMs", DEFAULT_REFRESH_WARMING_BUDGET_MS);
+
+    SamplingStrategy samplingStrategy =
+        SamplingStrategy.valueOf(
+            configReader.getString(
+                CONFIG_PREFIX + "samplingStrategy", DEFAULT_SAMPLING_STRATEGY.name()));
+    int shapeSketchSize =
+        configReader.getInteger(CONFIG_PREFIX + "shapeSketchSize", DEFAULT_SHAPE_SKETCH_SIZE);
+    int requestsPerShape =
+        configReader.getInteger(CONFIG_PREFIX + "requestsPerShape", DEFAULT_REQUESTS_PER_SHAPE);
+    double shapeSampleRate =
+        configReader.getDouble(CONFIG_PREFIX + "shapeSampleRate", DEFAULT_SHAPE_SAMPLE_RATE);
+
+    return new WarmerConfig(
+        maxWarmingQueries,
+        warmingParallelism,
+        warmOnStartup,
+        warmOnRefresh,
+        refreshWarmingQueries,
+        refreshWarmingBudgetMs,
+        samplingStrategy,
+        shapeSketchSize,
+        requestsPerShape,
+        shapeSampleRate);
   }
 
   public int getMaxWarmingQueries() {
@@ -62,4 +203,32 @@ public class WarmerConfig {
   public boolean isWarmOnStartup() {
     return warmOnStartup;
   }
+
+  public boolean isWarmOnRefresh() {
+    return warmOnRefresh;
+  }
+
+  public int getRefreshWarmingQueries() {
+    return refreshWarmingQueries;
+  }
+
+  public long getRefreshWarmingBudgetMs() {
+    return refreshWarmingBudgetMs;
+  }
+
+  public SamplingStrategy getSamplingStrategy() {
+    return samplingStrategy;
+  }
+
+  public int getShapeSketchSize() {
+    return shapeSketchSize;
+  }
+
+  public int getRequestsPerShape() {
+    return requestsPerShape;
+  }
+
+  public double getShapeSampleRate() {
+    return shapeSampleRate;
+  }
 }
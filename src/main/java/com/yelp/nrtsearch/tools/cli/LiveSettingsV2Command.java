@@ -18,6 +18,7 @@ package com.yelp.nrtsearch.tools.cli;
 import com.google.protobuf.BoolValue;
 import com.google.protobuf.DoubleValue;
 import com.google.protobuf.Int32Value;
+import com.google.protobuf.StringValue;
 import com.google.protobuf.UInt64Value;
 import com.yelp.nrtsearch.server.grpc.IndexLiveSettings;
 import com.yelp.nrtsearch.server.grpc.LiveSettingsV2Request;
@@ -76,6 +77,17 @@ public class LiveSettingsV2Command implements Callable<Integer> {
       description = "Max segments per index slice")
   private Integer sliceMaxSegments;
 
+  @CommandLine.Option(
+      names = {"--sliceSegmentPartitions"},
+      description =
+          "If large segments are split into multiple index slices, must be 'true' or 'false'")
+  private String sliceSegmentPartitions;
+
+  @CommandLine.Option(
+      names = {"--sliceStrategy"},
+      description = "Strategy used to divide segments into index slices, such as 'doc_count'")
+  private String sliceStrategy;
+
   @CommandLine.Option(
       names = {"--virtualShards"},
       description = "Number of virtual shards to partition index into")
@@ -128,6 +140,12 @@ public class LiveSettingsV2Command implements Callable<Integer> {
           "If fetch parallelism should be done by groups of fields instead of document, must be 'true' or 'false'")
   private String parallelFetchByField;
 
+  @CommandLine.Option(
+      names = {"--defaultRequestCache"},
+      description =
+          "If search requests use the shard request cache when not specified in the request, must be 'true' or 'false'")
+  private String defaultRequestCache;
+
   @CommandLine.Option(
       names = {"--parallelFetchChunkSize"},
       description = "The number of documents/fields per parallel fetch task")
@@ -173,6 +191,14 @@ public class LiveSettingsV2Command implements Callable<Integer> {
         liveSettingsBuilder.setSliceMaxSegments(
             Int32Value.newBuilder().setValue(sliceMaxSegments).build());
       }
+      if (sliceSegmentPartitions != null) {
+        liveSettingsBuilder.setSliceSegmentPartitions(
+            BoolValue.newBuilder().setValue(parseBoolean(sliceSegmentPartitions)).build());
+      }
+      if (sliceStrategy != null) {
+        liveSettingsBuilder.setSliceStrategy(
+            StringValue.newBuilder().setValue(sliceStrategy).build());
+      }
       if (virtualShards != null) {
         liveSettingsBuilder.setVirtualShards(
             Int32Value.newBuilder().setValue(virtualShards).build());
@@ -209,6 +235,10 @@ public class LiveSettingsV2Command implements Callable<Integer> {
         liveSettingsBuilder.setVerboseMetrics(
             BoolValue.newBuilder().setValue(parseBoolean(verboseMetrics)).build());
       }
+      if (defaultRequestCache != null) {
+        liveSettingsBuilder.setDefaultRequestCache(
+            BoolValue.newBuilder().setValue(parseBoolean(defaultRequestCache)).build());
+      }
       if (parallelFetchByField != null) {
         liveSettingsBuilder.setParallelFetchByField(
             BoolValue.newBuilder().setValue(parseBoolean(parallelFetchByField)).build());
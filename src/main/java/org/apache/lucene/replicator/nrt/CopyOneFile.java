@@ -17,6 +17,7 @@ package org.apache.lucene.replicator.nrt;
 
 import com.google.protobuf.ByteString;
 import com.yelp.nrtsearch.server.grpc.RawFileChunk;
+import com.yelp.nrtsearch.server.nrt.SimpleCopyJob.FileChunkStreamingIterator;
 import java.io.Closeable;
 import java.io.IOException;
 import java.nio.ByteBuffer;
@@ -94,6 +95,18 @@ public class CopyOneFile implements Closeable {
     return bytesCopied;
   }
 
+  /**
+   * Get if the next {@link #visit()} can proceed without waiting for data from the primary. Only
+   * buffered streaming iterators can be checked, any other chunk iterator is assumed to be
+   * available.
+   */
+  public boolean isChunkAvailable() {
+    if (rawFileChunkIterator instanceof FileChunkStreamingIterator streamingIterator) {
+      return streamingIterator.isChunkAvailable();
+    }
+    return true;
+  }
+
   /** Copy another chunk of bytes, returning true once the copy is done */
   public boolean visit() throws IOException {
     if (rawFileChunkIterator.hasNext()) {
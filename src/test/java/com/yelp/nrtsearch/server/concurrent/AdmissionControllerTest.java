@@ -0,0 +1,206 @@
+/*
+ * Copyright 2025 Yelp Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.yelp.nrtsearch.server.concurrent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.yelp.nrtsearch.server.config.ThreadPoolConfiguration.AdmissionControlSettings;
+import io.grpc.Context;
+import io.grpc.Deadline;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.apache.lucene.util.NamedThreadFactory;
+import org.junit.Test;
+
+public class AdmissionControllerTest {
+  private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+  private AdmissionController getController(boolean enabled) {
+    return new AdmissionController("test_pool", new AdmissionControlSettings(enabled, 5, 100), 0);
+  }
+
+  @Test
+  public void testNotOverloadedByBurst() {
+    AdmissionController controller = getController(true);
+    controller.recordQueueDelay(50 * MS, 10 * MS);
+    // queue drained during the interval
+    controller.recordQueueDelay(MS, 50 * MS);
+    controller.recordQueueDelay(50 * MS, 110 * MS);
+    assertFalse(controller.isOverloaded(120 * MS));
+    assertFalse(controller.shouldShed(MS, 120 * MS));
+  }
+
+  @Test
+  public void testOverloaded() {
+    AdmissionController controller = getController(true);
+    for (int i = 1; i <= 11; ++i) {
+      controller.recordQueueDelay(50 * MS, i * 10 * MS);
+    }
+    assertTrue(controller.isOverloaded(120 * MS));
+    assertTrue(controller.getExpectedDelayNanos() > 10 * MS);
+    assertTrue(controller.shouldShed(MS, 120 * MS));
+    assertFalse(controller.shouldShed(1000 * MS, 120 * MS));
+  }
+
+  @Test
+  public void testOverloadRecovers() {
+    AdmissionController controller = getController(true);
+    controller.recordQueueDelay(50 * MS, 100 * MS);
+    assertTrue(controller.isOverloaded(110 * MS));
+    controller.recordQueueDelay(MS, 150 * MS);
+    controller.recordQueueDelay(MS, 200 * MS);
+    assertFalse(controller.isOverloaded(210 * MS));
+  }
+
+  @Test
+  public void testOverloadExpires() {
+    AdmissionController controller = getController(true);
+    controller.recordQueueDelay(50 * MS, 100 * MS);
+    assertTrue(controller.isOverloaded(250 * MS));
+    assertFalse(controller.isOverloaded(300 * MS));
+  }
+
+  @Test
+  public void testStalledQueueOverloaded() {
+    AdmissionController controller = getController(true);
+    // all threads busy with tasks running longer than the interval
+    controller.taskSubmitted(0);
+    controller.recordQueueDelay(0, 0);
+    controller.taskSubmitted(10 * MS);
+    assertFalse(controller.isOverloaded(50 * MS));
+    assertTrue(controller.isOverloaded(150 * MS));
+    // stays overloaded past 2 intervals while the queue does not drain
+    assertTrue(controller.isOverloaded(500 * MS));
+    assertEquals(490 * MS, controller.getExpectedDelayNanos(500 * MS));
+    assertTrue(controller.shouldShed(400 * MS, 500 * MS));
+    assertFalse(controller.shouldShed(1000 * MS, 500 * MS));
+
+    controller.recordQueueDelay(490 * MS, 500 * MS);
+    assertFalse(controller.isOverloaded(510 * MS));
+    assertFalse(controller.shouldShed(MS, 510 * MS));
+  }
+
+  @Test
+  public void testRejectedTaskNotPending() {
+    AdmissionController controller = getController(true);
+    controller.taskSubmitted(0);
+    controller.taskRejected();
+    assertFalse(controller.isOverloaded(500 * MS));
+    assertEquals(0, controller.getExpectedDelayNanos(500 * MS));
+  }
+
+  @Test
+  public void testDisabled() {
+    AdmissionController controller = getController(false);
+    controller.recordQueueDelay(50 * MS, 100 * MS);
+    assertTrue(controller.isOverloaded(110 * MS));
+    assertFalse(controller.shouldShed(MS, 110 * MS));
+  }
+
+  @Test
+  public void testCheckAdmission() {
+    AdmissionController controller =
+        new AdmissionController("test_pool", new AdmissionControlSettings(true, 5, 100));
+    long now = System.nanoTime();
+    for (int i = 0; i < 20; ++i) {
+      controller.recordQueueDelay(500 * MS, now + 200 * MS);
+    }
+    // no deadline
+    controller.checkAdmission("test");
+
+    Context.CancellableContext context =
+        Context.current().withDeadline(Deadline.after(10, TimeUnit.MILLISECONDS), null);
+    try {
+      context.run(
+          () -> {
+            controller.checkAdmission("test");
+            fail();
+          });
+    } catch (StatusRuntimeException e) {
+      assertEquals(Status.Code.RESOURCE_EXHAUSTED, e.getStatus().getCode());
+      assertTrue(
+          e.getMessage().contains("Request shed by admission control: test, pool: test_pool"));
+    } finally {
+      context.cancel(null);
+    }
+  }
+
+  @Test
+  public void testExecutorRecordsQueueDelay() throws Exception {
+    AdmissionController controller = getController(true);
+    QueueDelayThreadPoolExecutor executor =
+        new QueueDelayThreadPoolExecutor(
+            1, new LinkedBlockingQueue<>(), new NamedThreadFactory("test"), controller);
+    try {
+      CountDownLatch blockLatch = new CountDownLatch(1);
+      CountDownLatch doneLatch = new CountDownLatch(1);
+      executor.execute(
+          () -> {
+            try {
+              blockLatch.await();
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+            }
+          });
+      executor.execute(doneLatch::countDown);
+      Thread.sleep(50);
+      blockLatch.countDown();
+      assertTrue(doneLatch.await(10, TimeUnit.SECONDS));
+      assertTrue(controller.getExpectedDelayNanos() > 0);
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void testExecutorSaturatedByLongTasks() throws Exception {
+    AdmissionController controller =
+        new AdmissionController("test_pool", new AdmissionControlSettings(true, 1, 10));
+    QueueDelayThreadPoolExecutor executor =
+        new QueueDelayThreadPoolExecutor(
+            1, new LinkedBlockingQueue<>(), new NamedThreadFactory("test"), controller);
+    try {
+      CountDownLatch startedLatch = new CountDownLatch(1);
+      CountDownLatch blockLatch = new CountDownLatch(1);
+      CountDownLatch doneLatch = new CountDownLatch(1);
+      executor.execute(
+          () -> {
+            startedLatch.countDown();
+            try {
+              blockLatch.await();
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+            }
+          });
+      assertTrue(startedLatch.await(10, TimeUnit.SECONDS));
+      executor.execute(doneLatch::countDown);
+      // the running task takes longer than 2 intervals, and no queued task can start
+      Thread.sleep(50);
+      assertTrue(controller.isOverloaded());
+      assertTrue(controller.getExpectedDelayNanos() >= 50 * MS);
+      blockLatch.countDown();
+      assertTrue(doneLatch.await(10, TimeUnit.SECONDS));
+    } finally {
+      executor.shutdown();
+    }
+  }
+}
@@ -16,7 +16,9 @@
 package com.yelp.nrtsearch.server.concurrent;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 import com.yelp.nrtsearch.server.config.NrtsearchConfig;
 import com.yelp.nrtsearch.server.config.ThreadPoolConfiguration;
@@ -273,4 +275,110 @@ public class ExecutorFactoryTest {
     assertEquals(executor.getCorePoolSize(), 5);
     assertEquals(executor.getQueue().remainingCapacity(), 10);
   }
+
+  @Test
+  public void testQueueDelayExecutor() {
+    init();
+    ExecutorService executor =
+        ExecutorFactory.getInstance().getExecutor(ExecutorFactory.ExecutorType.SEARCH);
+    assertTrue(executor instanceof QueueDelayThreadPoolExecutor);
+    AdmissionController admissionController =
+        ((QueueDelayThreadPoolExecutor) executor).getAdmissionController();
+    assertFalse(admissionController.isEnabled());
+  }
+
+  @Test
+  public void testAdmissionControlEnabled() {
+    init(
+        String.join(
+            "\n", "threadPoolConfiguration:", "  admissionControl:", "    enabled: true"));
+    ExecutorService executor =
+        ExecutorFactory.getInstance().getExecutor(ExecutorFactory.ExecutorType.SEARCH);
+    assertTrue(((QueueDelayThreadPoolExecutor) executor).getAdmissionController().isEnabled());
+  }
+
+  @Test
+  public void testVirtualThreadPool() throws Exception {
+    init(
+        String.join(
+            "\n",
+            "threadPoolConfiguration:",
+            "  server:",
+            "    virtualThreads: true",
+            "    maxThreads: 50",
+            "    maxBufferedItems: 10"));
+    ThreadPoolExecutor executor =
+        (ThreadPoolExecutor)
+            ExecutorFactory.getInstance().getExecutor(ExecutorFactory.ExecutorType.SERVER);
+    assertEquals(50, executor.getCorePoolSize());
+    assertEquals(10, executor.getQueue().remainingCapacity());
+    assertTrue(executor.submit(() -> Thread.currentThread().isVirtual()).get());
+    assertTrue(
+        executor
+            .submit(() -> Thread.currentThread().getName())
+            .get()
+            .startsWith("GrpcServerExecutor-"));
+
+    ExecutorService searchExecutor =
+        ExecutorFactory.getInstance().getExecutor(ExecutorFactory.ExecutorType.SEARCH);
+    assertFalse(searchExecutor.submit(() -> Thread.currentThread().isVirtual()).get());
+  }
+
+  @Test
+  public void testIndexExecutor_isolationDisabled() {
+    init();
+    ExecutorService executor =
+        ExecutorFactory.getInstance().getExecutor(ExecutorFactory.ExecutorType.SEARCH);
+    assertSame(
+        executor,
+        ExecutorFactory.getInstance()
+            .getIndexExecutor(ExecutorFactory.ExecutorType.SEARCH, "test_index"));
+  }
+
+  @Test
+  public void testIndexExecutor_isolationEnabled() throws Exception {
+    init(
+        String.join(
+            "\n",
+            "threadPoolConfiguration:",
+            "  indexIsolation:",
+            "    enabled: true",
+            "    groups:",
+            "      - name: group_a",
+            "        indices: [index_a, index_b]",
+            "        weight: 3"));
+    ExecutorFactory executorFactory = ExecutorFactory.getInstance();
+    ThreadPoolExecutor searchExecutor =
+        (ThreadPoolExecutor) executorFactory.getExecutor(ExecutorFactory.ExecutorType.SEARCH);
+    assertTrue(searchExecutor.getQueue() instanceof WeightedFairQueue);
+    ThreadPoolExecutor indexExecutor =
+        (ThreadPoolExecutor) executorFactory.getExecutor(ExecutorFactory.ExecutorType.INDEX);
+    assertFalse(indexExecutor.getQueue() instanceof WeightedFairQueue);
+
+    IndexGroupExecutor executorA =
+        (IndexGroupExecutor)
+            executorFactory.getIndexExecutor(ExecutorFactory.ExecutorType.SEARCH, "index_a");
+    IndexGroupExecutor executorB =
+        (IndexGroupExecutor)
+            executorFactory.getIndexExecutor(ExecutorFactory.ExecutorType.SEARCH, "index_b");
+    IndexGroupExecutor executorC =
+        (IndexGroupExecutor)
+            executorFactory.getIndexExecutor(ExecutorFactory.ExecutorType.SEARCH, "index_c");
+    assertSame(executorA, executorB);
+    assertSame(searchExecutor, executorA.getExecutor());
+    assertEquals("group_a", executorA.getGroup().getName());
+    assertEquals(3.0, executorA.getGroup().getWeight(), 0);
+    assertEquals("index_c", executorC.getGroup().getName());
+    assertEquals(1.0, executorC.getGroup().getWeight(), 0);
+
+    assertEquals("done", executorC.submit(() -> "done").get());
+    // the group is updated after the future is completed
+    long waitUntil = System.currentTimeMillis() + 10000;
+    while (executorC.getGroup().getCompletedCount() == 0
+        && System.currentTimeMillis() < waitUntil) {
+      Thread.sleep(10);
+    }
+    assertEquals(1, executorC.getGroup().getCompletedCount());
+    assertEquals(0, executorC.getGroup().getActiveCount());
+  }
 }
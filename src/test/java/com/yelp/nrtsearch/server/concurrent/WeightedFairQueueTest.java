@@ -0,0 +1,185 @@
+/*
+ * Copyright 2025 Yelp Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.yelp.nrtsearch.server.concurrent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.yelp.nrtsearch.server.config.ThreadPoolConfiguration.AdmissionControlSettings;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class WeightedFairQueueTest {
+
+  private static class NamedTask implements Runnable {
+    private final String name;
+
+    NamedTask(String name) {
+      this.name = name;
+    }
+
+    @Override
+    public void run() {}
+  }
+
+  private static String groupName(Runnable task) {
+    return ((NamedTask) ((WeightedFairQueue.GroupTask) task).getDelegate()).name;
+  }
+
+  private static void addTasks(WeightedFairQueue queue, WeightedFairQueue.TaskGroup group, int n) {
+    for (int i = 0; i < n; ++i) {
+      assertTrue(queue.offer(group.wrap(new NamedTask(group.getName()))));
+    }
+  }
+
+  @Test
+  public void testWeightedScheduling() {
+    WeightedFairQueue queue = new WeightedFairQueue(100, 1.0);
+    WeightedFairQueue.TaskGroup groupA = queue.getGroup("a", 2.0, 0);
+    WeightedFairQueue.TaskGroup groupB = queue.getGroup("b", 1.0, 0);
+    addTasks(queue, groupA, 10);
+    addTasks(queue, groupB, 10);
+    assertEquals(20, queue.size());
+
+    Map<String, Integer> counts = new HashMap<>();
+    for (int i = 0; i < 6; ++i) {
+      counts.merge(groupName(queue.poll()), 1, Integer::sum);
+    }
+    assertEquals(4, counts.get("a").intValue());
+    assertEquals(2, counts.get("b").intValue());
+    assertEquals(14, queue.size());
+  }
+
+  @Test
+  public void testIdleGroupDoesNotBuildCredit() {
+    WeightedFairQueue queue = new WeightedFairQueue(100, 1.0);
+    WeightedFairQueue.TaskGroup groupA = queue.getGroup("a", 1.0, 0);
+    WeightedFairQueue.TaskGroup groupB = queue.getGroup("b", 1.0, 0);
+    addTasks(queue, groupA, 20);
+    for (int i = 0; i < 10; ++i) {
+      assertEquals("a", groupName(queue.poll()));
+    }
+    // b was idle, so it shares threads equally with a instead of running all its tasks first
+    addTasks(queue, groupB, 20);
+    Map<String, Integer> counts = new HashMap<>();
+    for (int i = 0; i < 10; ++i) {
+      counts.merge(groupName(queue.poll()), 1, Integer::sum);
+    }
+    assertEquals(5, counts.get("a").intValue());
+    assertEquals(5, counts.get("b").intValue());
+  }
+
+  @Test
+  public void testGroupMaxThreads() {
+    WeightedFairQueue queue = new WeightedFairQueue(100, 1.0);
+    WeightedFairQueue.TaskGroup group = queue.getGroup("a", 1.0, 1);
+    addTasks(queue, group, 2);
+
+    Runnable first = queue.poll();
+    assertEquals(1, group.getActiveCount());
+    assertNull(queue.poll());
+    assertNull(queue.peek());
+    assertEquals(1, queue.size());
+
+    first.run();
+    assertEquals(0, group.getActiveCount());
+    assertEquals(1, group.getCompletedCount());
+    Runnable second = queue.poll();
+    assertEquals("a", groupName(second));
+    assertEquals(0, queue.size());
+  }
+
+  @Test
+  public void testDefaultGroup() {
+    WeightedFairQueue queue = new WeightedFairQueue(100, 1.0);
+    Runnable task = new NamedTask("plain");
+    assertTrue(queue.offer(task));
+    assertEquals(
+        1,
+        queue.getGroups().stream()
+            .filter(g -> g.getName().equals(WeightedFairQueue.DEFAULT_GROUP))
+            .findFirst()
+            .orElseThrow()
+            .getQueueSize());
+    assertSame(task, queue.poll());
+  }
+
+  @Test
+  public void testCapacity() {
+    WeightedFairQueue queue = new WeightedFairQueue(2, 1.0);
+    WeightedFairQueue.TaskGroup group = queue.getGroup("a", 1.0, 0);
+    addTasks(queue, group, 2);
+    assertEquals(0, queue.remainingCapacity());
+    assertFalse(queue.offer(group.wrap(new NamedTask("a"))));
+
+    List<Runnable> drained = new ArrayList<>();
+    assertEquals(2, queue.drainTo(drained));
+    assertEquals(2, drained.size());
+    assertEquals(0, queue.size());
+    assertEquals(2, queue.remainingCapacity());
+  }
+
+  @Test
+  public void testRemove() {
+    WeightedFairQueue queue = new WeightedFairQueue(10, 1.0);
+    WeightedFairQueue.TaskGroup group = queue.getGroup("a", 1.0, 0);
+    Runnable task = group.wrap(new NamedTask("a"));
+    assertTrue(queue.offer(task));
+    assertTrue(queue.contains(task));
+    assertTrue(queue.remove(task));
+    assertFalse(queue.remove(task));
+    assertEquals(0, queue.size());
+  }
+
+  @Test
+  public void testWithExecutor() throws Exception {
+    WeightedFairQueue queue = new WeightedFairQueue(100, 1.0);
+    ThreadPoolExecutor executor =
+        new QueueDelayThreadPoolExecutor(
+            2,
+            queue,
+            Thread.ofPlatform().factory(),
+            new AdmissionController("test", new AdmissionControlSettings(false, 5, 100)));
+    executor.prestartAllCoreThreads();
+    try {
+      WeightedFairQueue.TaskGroup group = queue.getGroup("a", 1.0, 1);
+      IndexGroupExecutor groupExecutor = new IndexGroupExecutor(executor, group);
+      CountDownLatch latch = new CountDownLatch(10);
+      for (int i = 0; i < 10; ++i) {
+        groupExecutor.execute(
+            () -> {
+              // group is limited to one running task
+              assertEquals(1, group.getActiveCount());
+              latch.countDown();
+            });
+      }
+      assertTrue(latch.await(10, TimeUnit.SECONDS));
+    } finally {
+      executor.shutdown();
+      assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    }
+    assertEquals(10, queue.getGroup("a", 1.0, 1).getCompletedCount());
+  }
+}
@@ -36,6 +36,8 @@ public class FileCopyConfigTest {
     assertEquals(FileCopyConfig.DEFAULT_CHUNK_SIZE, config.getChunkSize());
     assertEquals(FileCopyConfig.DEFAULT_ACK_EVERY, config.getAckEvery());
     assertEquals(FileCopyConfig.DEFAULT_MAX_IN_FLIGHT, config.getMaxInFlight());
+    assertEquals(FileCopyConfig.DEFAULT_PARALLELISM, config.getParallelism());
+    assertEquals(1024L * 1024 * 1024, config.getMaxInFlightBytes());
   }
 
   @Test
@@ -48,16 +50,30 @@ public class FileCopyConfigTest {
             "  ackedCopy: true",
             "  chunkSize: 100",
             "  ackEvery: 10",
-            "  maxInFlight: 1000");
+            "  maxInFlight: 1000",
+            "  parallelism: 4",
+            "  maxInFlightBytes: 100MB");
     FileCopyConfig config = getConfig(configFile);
     assertTrue(config.getAckedCopy());
     assertEquals(100, config.getChunkSize());
     assertEquals(10, config.getAckEvery());
     assertEquals(1000, config.getMaxInFlight());
+    assertEquals(4, config.getParallelism());
+    assertEquals(100L * 1024 * 1024, config.getMaxInFlightBytes());
   }
 
   @Test(expected = IllegalArgumentException.class)
   public void invalidAckEvery() {
     new FileCopyConfig(true, 100, 1000, 10);
   }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void invalidParallelism() {
+    new FileCopyConfig(true, 100, 10, 1000, 0, 1024);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void invalidMaxInFlightBytes() {
+    new FileCopyConfig(true, 100, 10, 1000, 2, 0);
+  }
 }
@@ -41,6 +41,34 @@ public class IndexStartConfigTest {
     assertEquals(Integer.valueOf(0), startConfig.getDiscoveryPort());
     assertEquals("", startConfig.getDiscoveryFile());
     assertEquals(IndexDataLocationType.LOCAL, startConfig.getDataLocationType());
+    assertEquals(1, startConfig.getParallelism());
+    assertEquals(0, startConfig.getMaxDownloadBytesPerSecond());
+  }
+
+  @Test
+  public void testParallelStartConfig() {
+    String configFile =
+        String.join(
+            "\n",
+            "indexStartConfig:",
+            "  mode: REPLICA",
+            "  dataLocationType: REMOTE",
+            "  parallelism: 8",
+            "  maxDownloadRate: 200MB");
+    IndexStartConfig startConfig = getConfig(configFile);
+    assertEquals(8, startConfig.getParallelism());
+    assertEquals(200L * 1024 * 1024, startConfig.getMaxDownloadBytesPerSecond());
+  }
+
+  @Test
+  public void testInvalidParallelism() {
+    String configFile = String.join("\n", "indexStartConfig:", "  parallelism: 0");
+    try {
+      getConfig(configFile);
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertEquals("indexStartConfig.parallelism must be > 0", e.getMessage());
+    }
   }
 
   @Test
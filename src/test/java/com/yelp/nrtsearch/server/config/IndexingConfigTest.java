@@ -0,0 +1,100 @@
+/*
+ * Copyright 2025 Yelp Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.yelp.nrtsearch.server.config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import org.junit.Test;
+
+public class IndexingConfigTest {
+  private static IndexingConfig getConfig(String configFile) {
+    return IndexingConfig.fromConfig(
+        new YamlConfigReader(new ByteArrayInputStream(configFile.getBytes())));
+  }
+
+  @Test
+  public void testDefault() {
+    String configFile = "nodeName: \"server_foo\"";
+    IndexingConfig config = getConfig(configFile);
+    assertFalse(config.isParallelConversion());
+    assertEquals(IndexingConfig.DEFAULT_CONVERSION_BATCH_SIZE, config.getConversionBatchSize());
+    assertEquals(
+        IndexingConfig.DEFAULT_MAX_IN_FLIGHT_CONVERSION_BATCHES,
+        config.getMaxInFlightConversionBatches());
+    assertFalse(config.getFlowControl());
+    assertEquals(IndexingConfig.DEFAULT_MAX_IN_FLIGHT_CHUNKS, config.getMaxInFlightChunks());
+    assertEquals(
+        IndexingConfig.DEFAULT_MAX_INDEX_QUEUE_UTILIZATION,
+        config.getMaxIndexQueueUtilization(),
+        0);
+    assertEquals(
+        IndexingConfig.DEFAULT_MAX_WRITER_RAM_BUFFER_RATIO, config.getMaxWriterRamBufferRatio(), 0);
+    assertEquals(IndexingConfig.DEFAULT_PRESSURE_RECHECK_MS, config.getPressureRecheckMs());
+  }
+
+  @Test
+  public void testConfig() {
+    String configFile =
+        String.join(
+            "\n",
+            "nodeName: \"server_foo\"",
+            "indexingConfig:",
+            "  conversionBatchSize: 10",
+            "  maxInFlightConversionBatches: 3",
+            "  flowControl: true",
+            "  maxInFlightChunks: 5",
+            "  maxIndexQueueUtilization: 0.5",
+            "  maxWriterRamBufferRatio: 1.5",
+            "  pressureRecheckMs: 20");
+    IndexingConfig config = getConfig(configFile);
+    assertTrue(config.isParallelConversion());
+    assertEquals(10, config.getConversionBatchSize());
+    assertEquals(3, config.getMaxInFlightConversionBatches());
+    assertTrue(config.getFlowControl());
+    assertEquals(5, config.getMaxInFlightChunks());
+    assertEquals(0.5, config.getMaxIndexQueueUtilization(), 0);
+    assertEquals(1.5, config.getMaxWriterRamBufferRatio(), 0);
+    assertEquals(20, config.getPressureRecheckMs());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidBatchSize() {
+    new IndexingConfig(-1, 1, false, 1, 0.9, 2.0, 10);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidMaxInFlight() {
+    new IndexingConfig(10, 0, false, 1, 0.9, 2.0, 10);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidMaxInFlightChunks() {
+    new IndexingConfig(0, 1, true, 0, 0.9, 2.0, 10);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidQueueUtilization() {
+    new IndexingConfig(0, 1, true, 1, 1.5, 2.0, 10);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidRamBufferRatio() {
+    new IndexingConfig(0, 1, true, 1, 0.9, 0, 10);
+  }
+}
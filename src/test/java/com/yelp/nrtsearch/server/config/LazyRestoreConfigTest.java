@@ -0,0 +1,70 @@
+/*
+ * Copyright 2025 Yelp Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.yelp.nrtsearch.server.config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import org.junit.Test;
+
+public class LazyRestoreConfigTest {
+  private static LazyRestoreConfig getConfig(String configFile) {
+    return LazyRestoreConfig.fromConfig(
+        new YamlConfigReader(new ByteArrayInputStream(configFile.getBytes())));
+  }
+
+  @Test
+  public void testDefault() {
+    String configFile = "nodeName: \"server_foo\"";
+    LazyRestoreConfig config = getConfig(configFile);
+    assertFalse(config.getEnabled());
+    assertEquals(1024 * 1024, config.getBlockSize());
+    assertEquals(LazyRestoreConfig.DEFAULT_HYDRATION_THREADS, config.getHydrationThreads());
+  }
+
+  @Test
+  public void testConfig() {
+    String configFile =
+        String.join(
+            "\n",
+            "nodeName: \"server_foo\"",
+            "lazyRestore:",
+            "  enabled: true",
+            "  blockSize: 256KB",
+            "  hydrationThreads: 0");
+    LazyRestoreConfig config = getConfig(configFile);
+    assertTrue(config.getEnabled());
+    assertEquals(256 * 1024, config.getBlockSize());
+    assertEquals(0, config.getHydrationThreads());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testBlockSizeTooLarge() {
+    getConfig(String.join("\n", "nodeName: \"server_foo\"", "lazyRestore:", "  blockSize: 2GB"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidBlockSize() {
+    new LazyRestoreConfig(true, 0, 1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidHydrationThreads() {
+    new LazyRestoreConfig(true, 1024, -1);
+  }
+}
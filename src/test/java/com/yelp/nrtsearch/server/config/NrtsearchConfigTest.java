@@ -218,4 +218,18 @@ public class NrtsearchConfigTest {
     NrtsearchConfig luceneConfig = getForConfig(config);
     assertEquals(DirectoryFactory.MMapGrouping.NONE, luceneConfig.getMMapGrouping());
   }
+
+  @Test
+  public void testAsyncSearcherVersionWait_default() {
+    String config = "nodeName: \"server_foo\"";
+    NrtsearchConfig luceneConfig = getForConfig(config);
+    assertFalse(luceneConfig.getAsyncSearcherVersionWait());
+  }
+
+  @Test
+  public void testAsyncSearcherVersionWait_set() {
+    String config = "asyncSearcherVersionWait: true";
+    NrtsearchConfig luceneConfig = getForConfig(config);
+    assertTrue(luceneConfig.getAsyncSearcherVersionWait());
+  }
 }
@@ -22,6 +22,7 @@ import java.io.ByteArrayInputStream;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.nio.file.Paths;
+import java.util.List;
 import org.junit.Test;
 
 public class ThreadPoolConfigurationTest {
@@ -319,6 +320,43 @@ public class ThreadPoolConfigurationTest {
     assertEquals("customName", threadPoolSettings.threadNamePrefix());
   }
 
+  @Test
+  public void testDocumentConversionThreadPool_default() {
+    String config = "nodeName: node1";
+    ThreadPoolConfiguration threadPoolConfiguration =
+        new ThreadPoolConfiguration(getReaderForConfig(config));
+    ThreadPoolConfiguration.ThreadPoolSettings threadPoolSettings =
+        threadPoolConfiguration.getThreadPoolSettings(
+            ExecutorFactory.ExecutorType.DOCUMENTCONVERSION);
+    assertEquals(
+        threadPoolSettings.maxThreads(),
+        ThreadPoolConfiguration.DEFAULT_DOCUMENT_CONVERSION_THREADS);
+    assertEquals(
+        threadPoolSettings.maxBufferedItems(),
+        ThreadPoolConfiguration.DEFAULT_DOCUMENT_CONVERSION_BUFFERED_ITEMS);
+    assertEquals("DocumentConversionExecutor", threadPoolSettings.threadNamePrefix());
+  }
+
+  @Test
+  public void testDocumentConversionThreadPool_set() {
+    String config =
+        String.join(
+            "\n",
+            "threadPoolConfiguration:",
+            "  documentconversion:",
+            "    maxThreads: 5",
+            "    maxBufferedItems: 10",
+            "    threadNamePrefix: customName");
+    ThreadPoolConfiguration threadPoolConfiguration =
+        new ThreadPoolConfiguration(getReaderForConfig(config));
+    ThreadPoolConfiguration.ThreadPoolSettings threadPoolSettings =
+        threadPoolConfiguration.getThreadPoolSettings(
+            ExecutorFactory.ExecutorType.DOCUMENTCONVERSION);
+    assertEquals(threadPoolSettings.maxThreads(), 5);
+    assertEquals(threadPoolSettings.maxBufferedItems(), 10);
+    assertEquals("customName", threadPoolSettings.threadNamePrefix());
+  }
+
   @Test
   public void partialOverride() {
     String config =
@@ -464,4 +502,177 @@ public class ThreadPoolConfigurationTest {
           e.getMessage());
     }
   }
+
+  @Test
+  public void testVirtualThreads_default() {
+    ThreadPoolConfiguration threadPoolConfiguration =
+        new ThreadPoolConfiguration(getReaderForConfig("nodeName: node1"));
+    for (ExecutorFactory.ExecutorType executorType : ExecutorFactory.ExecutorType.values()) {
+      assertFalse(threadPoolConfiguration.getThreadPoolSettings(executorType).virtualThreads());
+    }
+  }
+
+  @Test
+  public void testVirtualThreads_set() {
+    String config =
+        String.join(
+            "\n",
+            "threadPoolConfiguration:",
+            "  server:",
+            "    virtualThreads: true",
+            "  grpc:",
+            "    virtualThreads: true",
+            "    maxThreads: 100");
+    ThreadPoolConfiguration threadPoolConfiguration =
+        new ThreadPoolConfiguration(getReaderForConfig(config));
+    ThreadPoolConfiguration.ThreadPoolSettings serverSettings =
+        threadPoolConfiguration.getThreadPoolSettings(ExecutorFactory.ExecutorType.SERVER);
+    assertTrue(serverSettings.virtualThreads());
+    assertEquals(ThreadPoolConfiguration.DEFAULT_VIRTUAL_THREADS, serverSettings.maxThreads());
+    ThreadPoolConfiguration.ThreadPoolSettings grpcSettings =
+        threadPoolConfiguration.getThreadPoolSettings(ExecutorFactory.ExecutorType.GRPC);
+    assertTrue(grpcSettings.virtualThreads());
+    assertEquals(100, grpcSettings.maxThreads());
+    assertFalse(
+        threadPoolConfiguration
+            .getThreadPoolSettings(ExecutorFactory.ExecutorType.SEARCH)
+            .virtualThreads());
+  }
+
+  @Test
+  public void testVirtualThreads_notSupported() {
+    String config =
+        String.join("\n", "threadPoolConfiguration:", "  search:", "    virtualThreads: true");
+    try {
+      new ThreadPoolConfiguration(getReaderForConfig(config));
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertTrue(
+          e.getMessage().startsWith("Virtual threads are not supported for executor: search"));
+    }
+  }
+
+  @Test
+  public void testAdmissionControl_default() {
+    ThreadPoolConfiguration threadPoolConfiguration =
+        new ThreadPoolConfiguration(getReaderForConfig("nodeName: node1"));
+    ThreadPoolConfiguration.AdmissionControlSettings settings =
+        threadPoolConfiguration.getAdmissionControlSettings();
+    assertFalse(settings.enabled());
+    assertEquals(
+        ThreadPoolConfiguration.DEFAULT_ADMISSION_TARGET_DELAY_MS, settings.targetDelayMs());
+    assertEquals(ThreadPoolConfiguration.DEFAULT_ADMISSION_INTERVAL_MS, settings.intervalMs());
+  }
+
+  @Test
+  public void testAdmissionControl_set() {
+    String config =
+        String.join(
+            "\n",
+            "threadPoolConfiguration:",
+            "  admissionControl:",
+            "    enabled: true",
+            "    targetDelayMs: 20",
+            "    intervalMs: 500");
+    ThreadPoolConfiguration threadPoolConfiguration =
+        new ThreadPoolConfiguration(getReaderForConfig(config));
+    ThreadPoolConfiguration.AdmissionControlSettings settings =
+        threadPoolConfiguration.getAdmissionControlSettings();
+    assertTrue(settings.enabled());
+    assertEquals(20, settings.targetDelayMs());
+    assertEquals(500, settings.intervalMs());
+  }
+
+  @Test
+  public void testAdmissionControl_invalidInterval() {
+    String config =
+        String.join("\n", "threadPoolConfiguration:", "  admissionControl:", "    intervalMs: 0");
+    try {
+      new ThreadPoolConfiguration(getReaderForConfig(config));
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertEquals("admissionControl.intervalMs must be > 0", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testIndexIsolation_default() {
+    ThreadPoolConfiguration threadPoolConfiguration =
+        new ThreadPoolConfiguration(getReaderForConfig("nodeName: node1"));
+    ThreadPoolConfiguration.IndexIsolationSettings settings =
+        threadPoolConfiguration.getIndexIsolationSettings();
+    assertFalse(settings.enabled());
+    assertEquals(1.0, settings.defaultWeight(), 0);
+    assertTrue(settings.groups().isEmpty());
+  }
+
+  @Test
+  public void testIndexIsolation_set() {
+    String config =
+        String.join(
+            "\n",
+            "threadPoolConfiguration:",
+            "  indexIsolation:",
+            "    enabled: true",
+            "    defaultWeight: 2.0",
+            "    groups:",
+            "      - name: latency",
+            "        indices: [index_a, index_b]",
+            "        weight: 4",
+            "      - name: batch",
+            "        indices: [index_c]",
+            "        maxThreads: 2");
+    ThreadPoolConfiguration.IndexIsolationSettings settings =
+        new ThreadPoolConfiguration(getReaderForConfig(config)).getIndexIsolationSettings();
+    assertTrue(settings.enabled());
+    assertEquals(2.0, settings.defaultWeight(), 0);
+    assertEquals(
+        new ThreadPoolConfiguration.IndexGroupSettings(
+            "latency", List.of("index_a", "index_b"), 4.0, 0),
+        settings.getGroupForIndex("index_b"));
+    assertEquals(
+        new ThreadPoolConfiguration.IndexGroupSettings("batch", List.of("index_c"), 1.0, 2),
+        settings.getGroupForIndex("index_c"));
+    assertEquals(
+        new ThreadPoolConfiguration.IndexGroupSettings("index_d", List.of("index_d"), 2.0, 0),
+        settings.getGroupForIndex("index_d"));
+  }
+
+  @Test
+  public void testIndexIsolation_indexInMultipleGroups() {
+    String config =
+        String.join(
+            "\n",
+            "threadPoolConfiguration:",
+            "  indexIsolation:",
+            "    groups:",
+            "      - name: group_a",
+            "        indices: [index_a]",
+            "      - name: group_b",
+            "        indices: [index_a]");
+    try {
+      new ThreadPoolConfiguration(getReaderForConfig(config));
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertEquals("Index is in multiple groups: index_a", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testIndexIsolation_invalidWeight() {
+    String config =
+        String.join(
+            "\n",
+            "threadPoolConfiguration:",
+            "  indexIsolation:",
+            "    groups:",
+            "      - name: group_a",
+            "        weight: 0");
+    try {
+      new ThreadPoolConfiguration(getReaderForConfig(config));
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertTrue(e.getMessage().contains("weight must be > 0"));
+    }
+  }
 }
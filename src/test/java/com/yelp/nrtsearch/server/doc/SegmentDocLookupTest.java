@@ -0,0 +1,138 @@
+/*
+ * Copyright 2025 Yelp Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.yelp.nrtsearch.server.doc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.yelp.nrtsearch.server.field.AtomFieldDef;
+import com.yelp.nrtsearch.server.field.FieldDef;
+import com.yelp.nrtsearch.server.field.LongFieldDef;
+import com.yelp.nrtsearch.server.field.VirtualFieldDef;
+import java.io.IOException;
+import java.util.Map;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.NumericDocValues;
+import org.junit.Test;
+
+public class SegmentDocLookupTest {
+  private final LeafReaderContext context = mock(LeafReaderContext.class);
+
+  private SegmentDocLookup getLookup(Map<String, FieldDef> fields) {
+    return new SegmentDocLookup(fields::get, context);
+  }
+
+  @Test
+  public void testFieldHandleCached() throws IOException {
+    LongFieldDef fieldDef = mock(LongFieldDef.class);
+    LoadedDocValues<Long> docValues = mock(LoadedDocValues.class);
+    when(fieldDef.getDocValues(context)).thenReturn(docValues);
+    SegmentDocLookup lookup = getLookup(Map.of("field", fieldDef));
+
+    SegmentDocLookup.FieldHandle handle = lookup.getFieldHandle("field");
+    assertSame(handle, lookup.getFieldHandle("field"));
+    assertEquals("field", handle.getFieldName());
+    lookup.setDocId(1);
+    assertSame(docValues, lookup.get("field"));
+    assertSame(docValues, handle.getDocValues());
+    verify(fieldDef, times(1)).getDocValues(context);
+  }
+
+  @Test
+  public void testLoadedOncePerDocument() throws IOException {
+    LongFieldDef fieldDef = mock(LongFieldDef.class);
+    LoadedDocValues<Long> docValues = mock(LoadedDocValues.class);
+    when(fieldDef.getDocValues(context)).thenReturn(docValues);
+    SegmentDocLookup lookup = getLookup(Map.of("field", fieldDef));
+    SegmentDocLookup.FieldHandle handle = lookup.getFieldHandle("field");
+
+    lookup.setDocId(3);
+    handle.getDocValues();
+    lookup.get("field");
+    handle.getDocValues();
+    verify(docValues, times(1)).setDocId(3);
+
+    lookup.setDocId(5);
+    lookup.get("field");
+    handle.getDocValues();
+    verify(docValues, times(1)).setDocId(5);
+  }
+
+  @Test
+  public void testPrimitiveAccess() throws IOException {
+    NumericDocValues numericDocValues = mock(NumericDocValues.class);
+    when(numericDocValues.advanceExact(anyInt())).thenReturn(true, true, false);
+    when(numericDocValues.longValue()).thenReturn(10L, 20L);
+    LongFieldDef fieldDef = mock(LongFieldDef.class);
+    when(fieldDef.getDocValues(context))
+        .thenReturn(new LoadedDocValues.SingleLong(numericDocValues));
+    SegmentDocLookup lookup = getLookup(Map.of("field", fieldDef));
+    SegmentDocLookup.FieldHandle handle = lookup.getFieldHandle("field");
+
+    lookup.setDocId(0);
+    assertEquals(1, handle.size());
+    assertEquals(10L, handle.getLong(0));
+    assertEquals(10.0, handle.getDouble(0), 0);
+
+    lookup.setDocId(1);
+    assertEquals(20L, handle.getLong(0));
+
+    lookup.setDocId(2);
+    assertEquals(0, handle.size());
+    TestUtils.assertNoDocValues(() -> handle.getLong(0));
+  }
+
+  @Test
+  public void testFieldNotExist() {
+    SegmentDocLookup lookup = getLookup(Map.of());
+    try {
+      lookup.getFieldHandle("invalid");
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertEquals("Field does not exist: invalid", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testFieldNotIndexable() {
+    SegmentDocLookup lookup = getLookup(Map.of("virtual", mock(VirtualFieldDef.class)));
+    try {
+      lookup.getFieldHandle("virtual");
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertEquals("Field cannot have doc values: virtual", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testDocValuesError() throws IOException {
+    AtomFieldDef fieldDef = mock(AtomFieldDef.class);
+    when(fieldDef.getDocValues(context)).thenThrow(new IOException("error"));
+    SegmentDocLookup lookup = getLookup(Map.of("atom", fieldDef));
+    try {
+      lookup.getFieldHandle("atom");
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertEquals("Could not get doc values for field: atom", e.getMessage());
+    }
+  }
+}
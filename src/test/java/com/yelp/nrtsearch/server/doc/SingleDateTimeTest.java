@@ -0,0 +1,90 @@
+/*
+ * Copyright 2025 Yelp Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.yelp.nrtsearch.server.doc;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.yelp.nrtsearch.server.grpc.SearchResponse;
+import java.io.IOException;
+import java.time.Instant;
+import org.apache.lucene.index.NumericDocValues;
+import org.junit.Test;
+
+public class SingleDateTimeTest {
+
+  private void verifyUnset(LoadedDocValues.SingleDateTime loadedData) {
+    assertEquals(0, loadedData.size());
+    TestUtils.assertNoDocValues(() -> loadedData.get(0));
+    TestUtils.assertNoDocValues(loadedData::getValue);
+    TestUtils.assertNoDocValues(() -> loadedData.getLong(0));
+    TestUtils.assertNoDocValues(() -> loadedData.toFieldValue(0));
+  }
+
+  private void verifySetToValue(LoadedDocValues.SingleDateTime loadedData, long epochMillis) {
+    assertEquals(1, loadedData.size());
+    assertEquals(Instant.ofEpochMilli(epochMillis), loadedData.get(0));
+    assertEquals(Instant.ofEpochMilli(epochMillis), loadedData.getValue());
+    assertEquals(epochMillis, loadedData.getLong(0));
+    assertEquals(
+        SearchResponse.Hit.FieldValue.newBuilder().setLongValue(epochMillis).build(),
+        loadedData.toFieldValue(0));
+  }
+
+  @Test
+  public void testNotSet() {
+    LoadedDocValues.SingleDateTime loadedData = new LoadedDocValues.SingleDateTime(null);
+    verifyUnset(loadedData);
+  }
+
+  @Test
+  public void testSetValue() throws IOException {
+    NumericDocValues mockDocValues = mock(NumericDocValues.class);
+    when(mockDocValues.advanceExact(anyInt())).thenReturn(true, true, false);
+    when(mockDocValues.longValue()).thenReturn(0L, 1611742000000L);
+
+    LoadedDocValues.SingleDateTime loadedData = new LoadedDocValues.SingleDateTime(mockDocValues);
+    loadedData.setDocId(0);
+    verifySetToValue(loadedData, 0L);
+
+    loadedData.setDocId(1);
+    verifySetToValue(loadedData, 1611742000000L);
+
+    loadedData.setDocId(2);
+    verifyUnset(loadedData);
+  }
+
+  @Test
+  public void testSetDocValuesOutOfBounds() throws IOException {
+    NumericDocValues mockDocValues = mock(NumericDocValues.class);
+    when(mockDocValues.advanceExact(anyInt())).thenReturn(true);
+    when(mockDocValues.longValue()).thenReturn(1000L);
+
+    LoadedDocValues.SingleDateTime loadedData = new LoadedDocValues.SingleDateTime(mockDocValues);
+    loadedData.setDocId(0);
+    verifySetToValue(loadedData, 1000L);
+
+    TestUtils.assertOutOfBounds(() -> loadedData.get(-1));
+    TestUtils.assertOutOfBounds(() -> loadedData.getLong(-1));
+    TestUtils.assertOutOfBounds(() -> loadedData.toFieldValue(-1));
+
+    TestUtils.assertOutOfBounds(() -> loadedData.get(1));
+    TestUtils.assertOutOfBounds(() -> loadedData.getLong(1));
+    TestUtils.assertOutOfBounds(() -> loadedData.toFieldValue(1));
+  }
+}
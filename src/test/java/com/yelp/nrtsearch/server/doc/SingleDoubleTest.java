@@ -16,6 +16,7 @@
 package com.yelp.nrtsearch.server.doc;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -107,4 +108,21 @@ public class SingleDoubleTest {
     TestUtils.assertOutOfBounds(() -> loadedData.getDouble(1));
     TestUtils.assertOutOfBounds(() -> loadedData.toFieldValue(1));
   }
+
+  @Test
+  public void testUnsupportedAccessors() {
+    LoadedDocValues.SingleDouble loadedData = new LoadedDocValues.SingleDouble(null);
+    try {
+      loadedData.getLong(0);
+      fail();
+    } catch (UnsupportedOperationException e) {
+      assertEquals("SingleDouble values cannot be accessed as long", e.getMessage());
+    }
+    try {
+      loadedData.getInt(0);
+      fail();
+    } catch (UnsupportedOperationException e) {
+      assertEquals("SingleDouble values cannot be accessed as int", e.getMessage());
+    }
+  }
 }
@@ -40,6 +40,8 @@ public class SingleIntegerTest {
     assertEquals(value, loadedData.get(0).intValue());
     assertEquals(value, loadedData.getValue());
     assertEquals(value, loadedData.getInt(0));
+    assertEquals(value, loadedData.getLong(0));
+    assertEquals(value, loadedData.getDouble(0), 0.0);
     assertEquals(
         SearchResponse.Hit.FieldValue.newBuilder().setIntValue(value).build(),
         loadedData.toFieldValue(0));
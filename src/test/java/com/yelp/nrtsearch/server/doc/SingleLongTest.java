@@ -40,6 +40,7 @@ public class SingleLongTest {
     assertEquals(value, loadedData.get(0).longValue());
     assertEquals(value, loadedData.getValue());
     assertEquals(value, loadedData.getLong(0));
+    assertEquals(value, loadedData.getDouble(0), 0.0);
     assertEquals(
         SearchResponse.Hit.FieldValue.newBuilder().setLongValue(value).build(),
         loadedData.toFieldValue(0));
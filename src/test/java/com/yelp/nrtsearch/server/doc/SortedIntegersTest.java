@@ -41,6 +41,8 @@ public class SortedIntegersTest {
     for (int i = 0; i < values.length; i++) {
       assertEquals(values[i], loadedData.get(i).intValue());
       assertEquals(values[i], loadedData.getInt(i));
+      assertEquals(values[i], loadedData.getLong(i));
+      assertEquals(values[i], loadedData.getDouble(i), 0.0);
       assertEquals(
           SearchResponse.Hit.FieldValue.newBuilder().setIntValue(values[i]).build(),
           loadedData.toFieldValue(i));
@@ -19,6 +19,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 import com.yelp.nrtsearch.server.ServerTestCase;
+import com.yelp.nrtsearch.server.field.IndexableFieldDef;
 import com.yelp.nrtsearch.server.grpc.AddDocumentRequest;
 import com.yelp.nrtsearch.server.grpc.Facet;
 import com.yelp.nrtsearch.server.grpc.FacetResult;
@@ -27,6 +28,8 @@ import com.yelp.nrtsearch.server.grpc.Query;
 import com.yelp.nrtsearch.server.grpc.RangeQuery;
 import com.yelp.nrtsearch.server.grpc.SearchRequest;
 import com.yelp.nrtsearch.server.grpc.SearchResponse;
+import com.yelp.nrtsearch.server.index.IndexState;
+import com.yelp.nrtsearch.server.index.ShardState;
 import io.grpc.StatusRuntimeException;
 import io.grpc.testing.GrpcCleanupRule;
 import java.io.IOException;
@@ -35,9 +38,16 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.apache.lucene.facet.FacetsCollector;
+import org.apache.lucene.facet.FacetsCollectorManager;
+import org.apache.lucene.facet.taxonomy.SearcherTaxonomyManager;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.NoMergePolicy;
+import org.apache.lucene.search.MatchAllDocsQuery;
 import org.junit.ClassRule;
 import org.junit.Test;
 
@@ -275,6 +285,51 @@ public class DocValuesFacetsTest extends ServerTestCase {
     doQuery(facet);
   }
 
+  @Test
+  public void testParallelCounts() throws Exception {
+    IndexState indexState = getGlobalState().getIndexOrThrow(DEFAULT_TEST_INDEX);
+    ShardState shardState = indexState.getShard(0);
+    SearcherTaxonomyManager.SearcherAndTaxonomy s = shardState.acquire();
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    ExecutorService rejectingExecutor = Executors.newSingleThreadExecutor();
+    rejectingExecutor.shutdown();
+    try {
+      FacetsCollector facetsCollector =
+          s.searcher().search(new MatchAllDocsQuery(), new FacetsCollectorManager());
+      assertTrue(facetsCollector.getMatchingDocs().size() > 1);
+      List<String> fields =
+          List.of("int_field", "long_field", "multi_long_field", "atom_field", "multi_atom_field");
+      for (String field : fields) {
+        IndexableFieldDef<?> fieldDef = (IndexableFieldDef<?>) indexState.getFieldOrThrow(field);
+        FacetValueCounts.Counts<?> sequential =
+            FacetValueCounts.countDocValues(fieldDef, facetsCollector.getMatchingDocs(), null);
+        assertEquals(NUM_DOCS, sequential.getTotalDocs());
+        for (ExecutorService e : List.of(executor, rejectingExecutor)) {
+          FacetValueCounts.Counts<?> parallel =
+              FacetValueCounts.countDocValues(fieldDef, facetsCollector.getMatchingDocs(), e);
+          assertEquals(sequential.getTotalDocs(), parallel.getTotalDocs());
+          assertEquals(sequential.size(), parallel.size());
+          assertEquals(sequential.toCountsMap(), parallel.toCountsMap());
+        }
+      }
+
+      // atom values are counted by ordinal, and resolved to labels
+      IndexableFieldDef<?> atomField =
+          (IndexableFieldDef<?>) indexState.getFieldOrThrow("atom_field");
+      Map<Object, Integer> atomCounts =
+          FacetValueCounts.countDocValues(atomField, facetsCollector.getMatchingDocs(), executor)
+              .toCountsMap();
+      assertEquals(9, atomCounts.size());
+      assertEquals(Integer.valueOf(12), atomCounts.get("0"));
+      for (int i = 1; i < 9; ++i) {
+        assertEquals(Integer.valueOf(11), atomCounts.get(String.valueOf(i)));
+      }
+    } finally {
+      executor.shutdown();
+      shardState.release(s);
+    }
+  }
+
   private static class ExpectedValues {
     public Set<String> labels;
     public double count;
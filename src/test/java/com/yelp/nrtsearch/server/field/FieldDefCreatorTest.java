@@ -15,6 +15,8 @@
  */
 package com.yelp.nrtsearch.server.field;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
@@ -148,5 +150,10 @@ public class FieldDefCreatorTest {
     FieldDefCreator.FieldDefCreatorContext context = FieldDefCreator.createContext(mockGlobalState);
 
     assertSame(config, context.config());
+    assertNull(context.indexName());
+
+    context = FieldDefCreator.createContext(mockGlobalState, "test_index");
+    assertSame(config, context.config());
+    assertEquals("test_index", context.indexName());
   }
 }
@@ -0,0 +1,289 @@
+/*
+ * Copyright 2025 Yelp Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.yelp.nrtsearch.server.field;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import com.google.protobuf.ByteString;
+import com.yelp.nrtsearch.server.ServerTestCase;
+import com.yelp.nrtsearch.server.grpc.AddDocumentRequest;
+import com.yelp.nrtsearch.server.grpc.AddDocumentRequest.MultiValuedField;
+import com.yelp.nrtsearch.server.grpc.FieldDefRequest;
+import com.yelp.nrtsearch.server.grpc.MatchQuery;
+import com.yelp.nrtsearch.server.grpc.Query;
+import com.yelp.nrtsearch.server.grpc.RangeQuery;
+import com.yelp.nrtsearch.server.grpc.SearchRequest;
+import com.yelp.nrtsearch.server.grpc.SearchResponse;
+import com.yelp.nrtsearch.server.grpc.TermQuery;
+import com.yelp.nrtsearch.server.grpc.TypedValues;
+import io.grpc.testing.GrpcCleanupRule;
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+public class TypedValuesIndexingTest extends ServerTestCase {
+
+  @ClassRule public static final GrpcCleanupRule grpcCleanup = new GrpcCleanupRule();
+
+  @Override
+  public FieldDefRequest getIndexDef(String name) throws IOException {
+    return getFieldsFromResourceFile("/field/registerFieldsTypedValues.json");
+  }
+
+  @Override
+  public void initIndex(String name) throws Exception {
+    AddDocumentRequest typedDoc =
+        AddDocumentRequest.newBuilder()
+            .setIndexName(name)
+            .putFields("doc_id", MultiValuedField.newBuilder().addValue("typed").build())
+            .putFields(
+                "int_field",
+                typed(
+                    TypedValues.newBuilder()
+                        .setIntValues(
+                            TypedValues.IntValues.newBuilder().addValues(7).addValues(-3))))
+            .putFields(
+                "long_field",
+                typed(
+                    TypedValues.newBuilder()
+                        .setLongValues(
+                            TypedValues.LongValues.newBuilder().addValues(Long.MAX_VALUE))))
+            .putFields(
+                "float_field",
+                typed(
+                    TypedValues.newBuilder()
+                        .setFloatValues(TypedValues.FloatValues.newBuilder().addValues(1.5F))))
+            .putFields(
+                "double_field",
+                typed(
+                    TypedValues.newBuilder()
+                        .setDoubleValues(TypedValues.DoubleValues.newBuilder().addValues(2.25))))
+            .putFields(
+                "date_field",
+                typed(
+                    TypedValues.newBuilder()
+                        .setEpochMillisValues(
+                            TypedValues.LongValues.newBuilder().addValues(1611742000000L))))
+            .putFields(
+                "float_vector",
+                typed(
+                    TypedValues.newBuilder()
+                        .setFloatVector(
+                            TypedValues.FloatValues.newBuilder()
+                                .addValues(0.1F)
+                                .addValues(-2.0F)
+                                .addValues(5.6F))))
+            .putFields(
+                "byte_vector",
+                typed(
+                    TypedValues.newBuilder()
+                        .setByteVector(ByteString.copyFrom(new byte[] {1, -2, 3}))))
+            .putFields(
+                "atom_field",
+                typed(
+                    TypedValues.newBuilder()
+                        .setIntValues(TypedValues.IntValues.newBuilder().addValues(42))))
+            .build();
+    AddDocumentRequest stringDoc =
+        AddDocumentRequest.newBuilder()
+            .setIndexName(name)
+            .putFields("doc_id", MultiValuedField.newBuilder().addValue("string").build())
+            .putFields(
+                "int_field", MultiValuedField.newBuilder().addValue("7").addValue("-3").build())
+            .putFields(
+                "long_field",
+                MultiValuedField.newBuilder().addValue(String.valueOf(Long.MAX_VALUE)).build())
+            .putFields("float_field", MultiValuedField.newBuilder().addValue("1.5").build())
+            .putFields("double_field", MultiValuedField.newBuilder().addValue("2.25").build())
+            .putFields(
+                "date_field", MultiValuedField.newBuilder().addValue("1611742000000").build())
+            .putFields(
+                "float_vector", MultiValuedField.newBuilder().addValue("[0.1, -2.0, 5.6]").build())
+            .putFields("byte_vector", MultiValuedField.newBuilder().addValue("[1, -2, 3]").build())
+            .putFields("atom_field", MultiValuedField.newBuilder().addValue("42").build())
+            .build();
+    addDocuments(Stream.of(typedDoc, stringDoc));
+  }
+
+  private static MultiValuedField typed(TypedValues.Builder typedValues) {
+    return MultiValuedField.newBuilder().setTypedValues(typedValues).build();
+  }
+
+  @Test
+  public void testTypedMatchesStringValues() {
+    SearchResponse response =
+        getGrpcServer()
+            .getBlockingStub()
+            .search(
+                SearchRequest.newBuilder()
+                    .setIndexName(DEFAULT_TEST_INDEX)
+                    .setTopHits(10)
+                    .addAllRetrieveFields(
+                        List.of(
+                            "doc_id",
+                            "int_field",
+                            "long_field",
+                            "float_field",
+                            "double_field",
+                            "date_field",
+                            "float_vector",
+                            "byte_vector",
+                            "atom_field"))
+                    .build());
+    assertEquals(2, response.getHitsCount());
+    SearchResponse.Hit typedHit = response.getHits(0);
+    SearchResponse.Hit stringHit = response.getHits(1);
+    assertEquals("typed", typedHit.getFieldsOrThrow("doc_id").getFieldValue(0).getTextValue());
+    assertEquals("string", stringHit.getFieldsOrThrow("doc_id").getFieldValue(0).getTextValue());
+    for (String field :
+        List.of(
+            "int_field",
+            "long_field",
+            "float_field",
+            "double_field",
+            "date_field",
+            "float_vector",
+            "byte_vector",
+            "atom_field")) {
+      assertEquals(stringHit.getFieldsOrThrow(field), typedHit.getFieldsOrThrow(field));
+    }
+    assertEquals(2, typedHit.getFieldsOrThrow("int_field").getFieldValueCount());
+    assertEquals(7, typedHit.getFieldsOrThrow("int_field").getFieldValue(0).getIntValue());
+    assertEquals(-3, typedHit.getFieldsOrThrow("int_field").getFieldValue(1).getIntValue());
+  }
+
+  @Test
+  public void testTypedValuesSearchable() {
+    assertHitCount(
+        Query.newBuilder()
+            .setRangeQuery(
+                RangeQuery.newBuilder().setField("int_field").setLower("-5").setUpper("-1"))
+            .build(),
+        2);
+    assertHitCount(
+        Query.newBuilder()
+            .setTermQuery(
+                TermQuery.newBuilder().setField("long_field").setLongValue(Long.MAX_VALUE))
+            .build(),
+        2);
+    assertHitCount(
+        Query.newBuilder()
+            .setMatchQuery(MatchQuery.newBuilder().setField("int_field.text").setQuery("-3"))
+            .build(),
+        2);
+  }
+
+  @Test
+  public void testChildFieldOfDifferentType() {
+    assertHitCount(
+        Query.newBuilder()
+            .setRangeQuery(
+                RangeQuery.newBuilder().setField("int_field.long").setLower("5").setUpper("10"))
+            .build(),
+        2);
+  }
+
+  @Test
+  public void testStringAndTypedValues() {
+    AddDocumentRequest request =
+        AddDocumentRequest.newBuilder()
+            .setIndexName(DEFAULT_TEST_INDEX)
+            .putFields(
+                "int_field",
+                MultiValuedField.newBuilder()
+                    .addValue("1")
+                    .setTypedValues(
+                        TypedValues.newBuilder()
+                            .setIntValues(TypedValues.IntValues.newBuilder().addValues(1)))
+                    .build())
+            .build();
+    Exception e = assertThrows(RuntimeException.class, () -> addDocuments(Stream.of(request)));
+    assertTrue(
+        e.getMessage()
+            .contains("Field: int_field, cannot specify both string values and typed values"));
+  }
+
+  @Test
+  public void testMismatchedNumberType() {
+    AddDocumentRequest request =
+        AddDocumentRequest.newBuilder()
+            .setIndexName(DEFAULT_TEST_INDEX)
+            .putFields(
+                "long_field",
+                typed(
+                    TypedValues.newBuilder()
+                        .setIntValues(TypedValues.IntValues.newBuilder().addValues(1))))
+            .build();
+    Exception e = assertThrows(RuntimeException.class, () -> addDocuments(Stream.of(request)));
+    assertTrue(
+        e.getMessage()
+            .contains("Field: long_field of type LONG does not support typed values: INT_VALUES"));
+  }
+
+  @Test
+  public void testMultipleValuesSingleValueField() {
+    AddDocumentRequest request =
+        AddDocumentRequest.newBuilder()
+            .setIndexName(DEFAULT_TEST_INDEX)
+            .putFields(
+                "double_field",
+                typed(
+                    TypedValues.newBuilder()
+                        .setDoubleValues(
+                            TypedValues.DoubleValues.newBuilder().addValues(1.0).addValues(2.0))))
+            .build();
+    Exception e = assertThrows(RuntimeException.class, () -> addDocuments(Stream.of(request)));
+    assertTrue(
+        e.getMessage()
+            .contains("Cannot index multiple values into single value field: double_field"));
+  }
+
+  @Test
+  public void testVectorDimensionMismatch() {
+    AddDocumentRequest request =
+        AddDocumentRequest.newBuilder()
+            .setIndexName(DEFAULT_TEST_INDEX)
+            .putFields(
+                "float_vector",
+                typed(
+                    TypedValues.newBuilder()
+                        .setFloatVector(
+                            TypedValues.FloatValues.newBuilder().addValues(1.0F).addValues(2.0F))))
+            .build();
+    Exception e = assertThrows(RuntimeException.class, () -> addDocuments(Stream.of(request)));
+    assertTrue(
+        e.getMessage()
+            .contains(
+                "The size of the vector data: 2 should match vectorDimensions field property: 3"));
+  }
+
+  private void assertHitCount(Query query, int expectedHits) {
+    SearchResponse response =
+        getGrpcServer()
+            .getBlockingStub()
+            .search(
+                SearchRequest.newBuilder()
+                    .setIndexName(DEFAULT_TEST_INDEX)
+                    .setTopHits(10)
+                    .setQuery(query)
+                    .build());
+    assertEquals(expectedHits, response.getHitsCount());
+  }
+}
@@ -17,6 +17,7 @@ package com.yelp.nrtsearch.server.field;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
@@ -33,6 +34,8 @@ import com.yelp.nrtsearch.server.grpc.SearchResponse.Diagnostics.VectorDiagnosti
 import com.yelp.nrtsearch.server.grpc.SearchResponse.Hit;
 import com.yelp.nrtsearch.server.grpc.SearchResponse.Hit.FieldValue.Vector;
 import com.yelp.nrtsearch.server.index.IndexState;
+import com.yelp.nrtsearch.server.query.vector.ExactVectorRescorer;
+import com.yelp.nrtsearch.server.query.vector.NrtKnnFloatVectorQuery;
 import io.grpc.StatusRuntimeException;
 import io.grpc.testing.GrpcCleanupRule;
 import java.io.IOException;
@@ -55,6 +58,7 @@ import org.apache.lucene.index.KnnVectorValues;
 import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.index.NoMergePolicy;
 import org.apache.lucene.index.VectorSimilarityFunction;
+import org.apache.lucene.search.TopDocs;
 import org.apache.lucene.util.VectorUtil;
 import org.junit.Assert;
 import org.junit.ClassRule;
@@ -567,6 +571,114 @@ public class VectorFieldDefTest extends ServerTestCase {
         0.001);
   }
 
+  @Test
+  public void testQuantizedVectorSearch_7_rescore() throws IOException {
+    List<Float> queryVector = List.of(0.25f, 0.5f, 0.75f);
+    String field = "quantized_vector_7";
+    SearchResponse searchResponse =
+        getGrpcServer()
+            .getBlockingStub()
+            .search(
+                SearchRequest.newBuilder()
+                    .setIndexName(VECTOR_SEARCH_INDEX_NAME)
+                    .addRetrieveFields(field)
+                    .setStartHit(0)
+                    .setTopHits(10)
+                    .addKnn(
+                        KnnQuery.newBuilder()
+                            .setField(field)
+                            .addAllQueryVector(queryVector)
+                            .setNumCandidates(50)
+                            .setK(5)
+                            .setRescoreOversample(10.0f)
+                            .build())
+                    .build());
+    assertEquals(5, searchResponse.getHitsCount());
+    assertEquals(1, searchResponse.getDiagnostics().getVectorDiagnosticsCount());
+    assertTrue(
+        searchResponse.getDiagnostics().getVectorDiagnostics(0).getTotalHits().getValue() > 0);
+    // scores are exact similarity with the raw float vectors
+    verifyHitsSimilarity(
+        field, queryVector, searchResponse, VectorSimilarityFunction.COSINE, 1.0f, 0.00001);
+    List<VectorSearchResult> trueTopHits =
+        getTrueFloatTopHits(field, 5, queryVector, VectorSimilarityFunction.COSINE, null);
+    for (int i = 0; i < trueTopHits.size(); ++i) {
+      assertEquals(trueTopHits.get(i).score, searchResponse.getHits(i).getScore(), 0.00001);
+    }
+  }
+
+  @Test
+  public void testQuantizedVectorSearch_7_rescoreBoost() {
+    List<Float> queryVector = List.of(0.25f, 0.5f, 0.75f);
+    String field = "quantized_vector_7";
+    SearchResponse searchResponse =
+        getGrpcServer()
+            .getBlockingStub()
+            .search(
+                SearchRequest.newBuilder()
+                    .setIndexName(VECTOR_SEARCH_INDEX_NAME)
+                    .addRetrieveFields(field)
+                    .setStartHit(0)
+                    .setTopHits(10)
+                    .addKnn(
+                        KnnQuery.newBuilder()
+                            .setField(field)
+                            .addAllQueryVector(queryVector)
+                            .setNumCandidates(10)
+                            .setK(5)
+                            .setRescoreOversample(1.5f)
+                            .setBoost(2.0f)
+                            .build())
+                    .build());
+    assertEquals(5, searchResponse.getHitsCount());
+    verifyHitsSimilarity(
+        field, queryVector, searchResponse, VectorSimilarityFunction.COSINE, 2.0f, 0.00001);
+  }
+
+  @Test
+  public void testRescoreQueryEquals() {
+    float[] target = new float[] {0.25f, 0.5f, 0.75f};
+    NrtKnnFloatVectorQuery query = getRescoreQuery(target, 10);
+    assertEquals(getRescoreQuery(target, 10), query);
+    assertEquals(getRescoreQuery(target, 10).hashCode(), query.hashCode());
+    assertNotEquals(getRescoreQuery(target, 20), query);
+    assertNotEquals(new NrtKnnFloatVectorQuery("quantized_vector_7", target, 5, null, 50), query);
+  }
+
+  @Test
+  public void testRescoreQueryReusedAcrossSearches() throws IOException {
+    List<Float> queryVector = List.of(0.25f, 0.5f, 0.75f);
+    NrtKnnFloatVectorQuery query = getRescoreQuery(floatListToArray(queryVector), 50);
+    List<VectorSearchResult> trueTopHits =
+        getTrueFloatTopHits(
+            "quantized_vector_7", 5, queryVector, VectorSimilarityFunction.COSINE, null);
+    IndexState indexState = getGlobalState().getIndexOrThrow(VECTOR_SEARCH_INDEX_NAME);
+    SearcherTaxonomyManager.SearcherAndTaxonomy searcherAndTaxonomy =
+        indexState.getShard(0).acquire();
+    try {
+      // each search rewrites the same query instance, and rescores with its own searcher
+      for (int i = 0; i < 2; ++i) {
+        TopDocs topDocs = searcherAndTaxonomy.searcher().search(query, 5);
+        assertEquals(trueTopHits.size(), topDocs.scoreDocs.length);
+        for (int j = 0; j < trueTopHits.size(); ++j) {
+          assertEquals(trueTopHits.get(j).score, topDocs.scoreDocs[j].score, 0.00001);
+        }
+      }
+      assertEquals(getRescoreQuery(floatListToArray(queryVector), 50), query);
+    } finally {
+      indexState.getShard(0).release(searcherAndTaxonomy);
+    }
+  }
+
+  private NrtKnnFloatVectorQuery getRescoreQuery(float[] target, int numRescoreCandidates) {
+    ExactVectorRescorer rescorer =
+        new ExactVectorRescorer(
+            new com.yelp.nrtsearch.server.query.vector.ExactVectorQuery.ExactFloatVectorQuery(
+                "quantized_vector_7", target, VectorSimilarityFunction.COSINE),
+            numRescoreCandidates);
+    return new NrtKnnFloatVectorQuery("quantized_vector_7", target, 5, null, 50, rescorer);
+  }
+
   @Test
   public void testVectorSearch_boost() {
     singleVectorQueryAndVerify(
@@ -1478,6 +1590,84 @@ public class VectorFieldDefTest extends ServerTestCase {
     }
   }
 
+  @Test
+  public void testInvalidRescoreOversample() {
+    try {
+      getGrpcServer()
+          .getBlockingStub()
+          .search(
+              SearchRequest.newBuilder()
+                  .setIndexName(VECTOR_SEARCH_INDEX_NAME)
+                  .setStartHit(0)
+                  .setTopHits(10)
+                  .addKnn(
+                      KnnQuery.newBuilder()
+                          .setField("quantized_vector_7")
+                          .addAllQueryVector(List.of(0.25f, 0.5f, 0.75f))
+                          .setNumCandidates(10)
+                          .setK(5)
+                          .setRescoreOversample(0.5f)
+                          .build())
+                  .build());
+      fail();
+    } catch (StatusRuntimeException e) {
+      assertTrue(e.getMessage().contains("Vector search rescoreOversample must be >= 1"));
+    }
+  }
+
+  @Test
+  public void testRescoreOversampleMoreThanNumCandidates() {
+    try {
+      getGrpcServer()
+          .getBlockingStub()
+          .search(
+              SearchRequest.newBuilder()
+                  .setIndexName(VECTOR_SEARCH_INDEX_NAME)
+                  .setStartHit(0)
+                  .setTopHits(10)
+                  .addKnn(
+                      KnnQuery.newBuilder()
+                          .setField("quantized_vector_7")
+                          .addAllQueryVector(List.of(0.25f, 0.5f, 0.75f))
+                          .setNumCandidates(10)
+                          .setK(5)
+                          .setRescoreOversample(2.5f)
+                          .build())
+                  .build());
+      fail();
+    } catch (StatusRuntimeException e) {
+      assertTrue(
+          e.getMessage().contains("Vector search k * rescoreOversample must be <= numCandidates"));
+    }
+  }
+
+  @Test
+  public void testRescoreOversampleByteVector() {
+    try {
+      getGrpcServer()
+          .getBlockingStub()
+          .search(
+              SearchRequest.newBuilder()
+                  .setIndexName(VECTOR_SEARCH_INDEX_NAME)
+                  .setStartHit(0)
+                  .setTopHits(10)
+                  .addKnn(
+                      KnnQuery.newBuilder()
+                          .setField("byte_vector_l2_norm")
+                          .setQueryByteVector(ByteString.copyFrom(new byte[] {-50, 5, 100}))
+                          .setNumCandidates(10)
+                          .setK(5)
+                          .setRescoreOversample(2.0f)
+                          .build())
+                  .build());
+      fail();
+    } catch (StatusRuntimeException e) {
+      assertTrue(
+          e.getMessage()
+              .contains("Vector search rescoreOversample is only supported for float vectors"));
+    }
+  }
+
   @Test
   public void testIndexByteOutOfRange() {
     List<AddDocumentRequest> documents = new ArrayList<>();
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2025 Yelp Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.yelp.nrtsearch.server.grpc;
+
+import com.yelp.nrtsearch.server.config.IndexStartConfig;
+import io.grpc.testing.GrpcCleanupRule;
+import java.io.IOException;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ParallelCopyTest {
+  /**
+   * This rule manages automatic graceful shutdown for the registered servers and channels at the
+   * end of test.
+   */
+  @Rule public final GrpcCleanupRule grpcCleanup = new GrpcCleanupRule();
+
+  /**
+   * This rule ensure the temporary folder which maintains indexes are cleaned up after each test
+   */
+  @Rule public final TemporaryFolder folder = new TemporaryFolder();
+
+  @After
+  public void cleanup() {
+    TestServer.cleanupAll();
+  }
+
+  @Test
+  public void parallelCopy() throws IOException, InterruptedException {
+    testReplication(false, 4, "1GB");
+  }
+
+  @Test
+  public void parallelAckedCopy() throws IOException, InterruptedException {
+    testReplication(true, 4, "1GB");
+  }
+
+  @Test
+  public void parallelCopyInFlightLimit() throws IOException, InterruptedException {
+    testReplication(false, 4, "1KB");
+  }
+
+  @Test
+  public void parallelAckedCopyInFlightLimit() throws IOException, InterruptedException {
+    testReplication(true, 4, "1KB");
+  }
+
+  private void testReplication(boolean ackedCopy, int parallelism, String maxInFlightBytes)
+      throws IOException, InterruptedException {
+    String extraConfig =
+        String.join(
+            "\n",
+            "FileCopyConfig:",
+            "  ackedCopy: " + ackedCopy,
+            "  chunkSize: 16",
+            "  ackEvery: 2",
+            "  maxInFlight: 4",
+            "  parallelism: " + parallelism,
+            "  maxInFlightBytes: " + maxInFlightBytes);
+
+    // create multiple segments on the primary
+    TestServer testServerPrimary =
+        TestServer.builder(folder)
+            .withAutoStartConfig(
+                true, Mode.PRIMARY, 0, IndexStartConfig.IndexDataLocationType.LOCAL)
+            .withAdditionalConfig(extraConfig)
+            .build();
+    testServerPrimary.createSimpleIndex("test_index");
+    testServerPrimary.startPrimaryIndex("test_index", -1, null);
+    testServerPrimary.addSimpleDocs("test_index", 1, 2);
+    testServerPrimary.refresh("test_index");
+    testServerPrimary.addSimpleDocs("test_index", 3, 4);
+    testServerPrimary.refresh("test_index");
+    testServerPrimary.verifySimpleDocIds("test_index", 1, 2, 3, 4);
+
+    // replica copies all existing segment files
+    TestServer testServerReplica =
+        TestServer.builder(folder)
+            .withAutoStartConfig(
+                true,
+                Mode.REPLICA,
+                testServerPrimary.getReplicationPort(),
+                IndexStartConfig.IndexDataLocationType.LOCAL)
+            .withAdditionalConfig(extraConfig)
+            .build();
+    testServerReplica.registerWithPrimary("test_index");
+
+    testServerPrimary.addSimpleDocs("test_index", 5, 6);
+    testServerPrimary.refresh("test_index");
+    testServerPrimary.verifySimpleDocs("test_index", 6);
+
+    testServerReplica.waitForReplication("test_index");
+    testServerReplica.verifySimpleDocIds("test_index", 1, 2, 3, 4, 5, 6);
+  }
+}
@@ -1663,6 +1663,8 @@ public class StateBackendServerTest {
             .setAddDocumentsMaxBufferLen(Int32Value.newBuilder().setValue(250).build())
             .setSliceMaxDocs(Int32Value.newBuilder().setValue(100).build())
             .setSliceMaxSegments(Int32Value.newBuilder().setValue(50).build())
+            .setSliceSegmentPartitions(BoolValue.newBuilder().setValue(false).build())
+            .setSliceStrategy(StringValue.newBuilder().setValue("doc_count").build())
             .setVirtualShards(Int32Value.newBuilder().setValue(3).build())
             .setMaxMergedSegmentMB(Int32Value.newBuilder().setValue(150).build())
             .setSegmentsPerTier(Int32Value.newBuilder().setValue(25).build())
@@ -1672,6 +1674,7 @@ public class StateBackendServerTest {
             .setDefaultTerminateAfterMaxRecallCount(Int32Value.newBuilder().setValue(6000).build())
             .setMaxMergePreCopyDurationSec(UInt64Value.newBuilder().setValue(0))
             .setVerboseMetrics(BoolValue.newBuilder().setValue(false).build())
+            .setDefaultRequestCache(BoolValue.newBuilder().setValue(false).build())
             .setParallelFetchByField(BoolValue.newBuilder().setValue(false).build())
             .setParallelFetchChunkSize(Int32Value.newBuilder().setValue(50).build())
             .build();
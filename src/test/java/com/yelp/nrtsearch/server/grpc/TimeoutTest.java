@@ -514,6 +514,7 @@ public class TimeoutTest extends ServerTestCase {
               context.getQueryFields(),
               grpcFacetResults,
               searchThreadPoolExecutor,
+              null,
               Diagnostics.newBuilder());
       DrillSideways.ConcurrentDrillSidewaysResult<SearcherResult> concurrentDrillSidewaysResult =
           drillS.search((DrillDownQuery) context.getQuery(), manager);
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2025 Yelp Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.yelp.nrtsearch.server.handler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.yelp.nrtsearch.server.ServerTestCase;
+import com.yelp.nrtsearch.server.config.IndexingConfig;
+import com.yelp.nrtsearch.server.grpc.AddDocumentRequest;
+import com.yelp.nrtsearch.server.grpc.AddDocumentRequest.MultiValuedField;
+import com.yelp.nrtsearch.server.grpc.FieldDefRequest;
+import com.yelp.nrtsearch.server.grpc.LiveSettingsRequest;
+import com.yelp.nrtsearch.server.grpc.SearchRequest;
+import com.yelp.nrtsearch.server.grpc.SearchResponse;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.testing.GrpcCleanupRule;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+public class AddDocumentsFlowControlTest extends ServerTestCase {
+  private static final int NUM_DOCS = 101;
+
+  @ClassRule public static final GrpcCleanupRule grpcCleanup = new GrpcCleanupRule();
+
+  @Override
+  public String getExtraConfig() {
+    return String.join("\n", "indexingConfig:", "  flowControl: true", "  maxInFlightChunks: 1");
+  }
+
+  @Override
+  public FieldDefRequest getIndexDef(String name) throws IOException {
+    return getFieldsFromResourceFile("/registerFieldsBasicWithId.json");
+  }
+
+  @Override
+  protected LiveSettingsRequest getLiveSettings(String name) {
+    return LiveSettingsRequest.newBuilder()
+        .setIndexName(name)
+        .setAddDocumentsMaxBufferLen(5)
+        .build();
+  }
+
+  @Override
+  public void initIndex(String name) throws Exception {
+    List<AddDocumentRequest> requests = new ArrayList<>();
+    for (int i = 0; i < NUM_DOCS; ++i) {
+      requests.add(
+          AddDocumentRequest.newBuilder()
+              .setIndexName(name)
+              .putFields(
+                  "doc_id", MultiValuedField.newBuilder().addValue(String.valueOf(i)).build())
+              .putFields(
+                  "count", MultiValuedField.newBuilder().addValue(String.valueOf(i)).build())
+              .build());
+    }
+    addDocuments(requests.stream());
+  }
+
+  @Test
+  public void testAllDocumentsIndexed() {
+    SearchResponse response =
+        getGrpcServer()
+            .getBlockingStub()
+            .search(
+                SearchRequest.newBuilder()
+                    .setIndexName(DEFAULT_TEST_INDEX)
+                    .setTopHits(1000)
+                    .build());
+    assertEquals(NUM_DOCS, response.getTotalHits().getValue());
+  }
+
+  @Test
+  public void testRequestsWithoutPressure() {
+    ServerCallStreamObserver<?> callObserver = mock(ServerCallStreamObserver.class);
+    AddDocumentsFlowControl flowControl =
+        new AddDocumentsFlowControl(getGlobalState(), getIndexingConfig(2), callObserver);
+    verify(callObserver, times(1)).disableAutoRequest();
+    flowControl.start();
+    verify(callObserver, times(1)).request(1);
+
+    flowControl.onMessageProcessed(DEFAULT_TEST_INDEX);
+    flowControl.onChunkSubmitted(DEFAULT_TEST_INDEX);
+    flowControl.onMessageProcessed(DEFAULT_TEST_INDEX);
+    assertFalse(flowControl.isPaused());
+    verify(callObserver, times(3)).request(1);
+    flowControl.onChunkCompleted(DEFAULT_TEST_INDEX);
+  }
+
+  @Test
+  public void testPausedForInFlightChunks() {
+    ServerCallStreamObserver<?> callObserver = mock(ServerCallStreamObserver.class);
+    AddDocumentsFlowControl flowControl =
+        new AddDocumentsFlowControl(getGlobalState(), getIndexingConfig(1), callObserver);
+    flowControl.onChunkSubmitted(DEFAULT_TEST_INDEX);
+    flowControl.onMessageProcessed(DEFAULT_TEST_INDEX);
+    assertTrue(flowControl.isPaused());
+    verify(callObserver, never()).request(1);
+
+    flowControl.onChunkCompleted(DEFAULT_TEST_INDEX);
+    assertFalse(flowControl.isPaused());
+    verify(callObserver, times(1)).request(1);
+  }
+
+  @Test
+  public void testNoRequestAfterClose() {
+    ServerCallStreamObserver<?> callObserver = mock(ServerCallStreamObserver.class);
+    AddDocumentsFlowControl flowControl =
+        new AddDocumentsFlowControl(getGlobalState(), getIndexingConfig(1), callObserver);
+    flowControl.onChunkSubmitted(DEFAULT_TEST_INDEX);
+    flowControl.onMessageProcessed(DEFAULT_TEST_INDEX);
+    assertTrue(flowControl.isPaused());
+    flowControl.close();
+    flowControl.onChunkCompleted(DEFAULT_TEST_INDEX);
+    verify(callObserver, never()).request(1);
+  }
+
+  private static IndexingConfig getIndexingConfig(int maxInFlightChunks) {
+    return new IndexingConfig(0, 1, true, maxInFlightChunks, 0.9, 2.0, 10);
+  }
+}
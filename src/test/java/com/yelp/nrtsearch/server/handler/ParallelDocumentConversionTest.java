@@ -0,0 +1,122 @@
+/*
+ * Copyright 2025 Yelp Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.yelp.nrtsearch.server.handler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import com.yelp.nrtsearch.server.ServerTestCase;
+import com.yelp.nrtsearch.server.grpc.AddDocumentRequest;
+import com.yelp.nrtsearch.server.grpc.AddDocumentRequest.MultiValuedField;
+import com.yelp.nrtsearch.server.grpc.FieldDefRequest;
+import com.yelp.nrtsearch.server.grpc.Query;
+import com.yelp.nrtsearch.server.grpc.QuerySortField;
+import com.yelp.nrtsearch.server.grpc.SearchRequest;
+import com.yelp.nrtsearch.server.grpc.SearchResponse;
+import com.yelp.nrtsearch.server.grpc.SortFields;
+import com.yelp.nrtsearch.server.grpc.SortType;
+import io.grpc.testing.GrpcCleanupRule;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+public class ParallelDocumentConversionTest extends ServerTestCase {
+  private static final int NUM_DOCS = 55;
+  private static final int NUM_IDS = 10;
+
+  @ClassRule public static final GrpcCleanupRule grpcCleanup = new GrpcCleanupRule();
+
+  @Override
+  public String getExtraConfig() {
+    return String.join(
+        "\n",
+        "indexingConfig:",
+        "  conversionBatchSize: 2",
+        "  maxInFlightConversionBatches: 3",
+        "threadPoolConfiguration:",
+        "  documentconversion:",
+        "    maxThreads: 4",
+        "    maxBufferedItems: 2");
+  }
+
+  @Override
+  public FieldDefRequest getIndexDef(String name) throws IOException {
+    return getFieldsFromResourceFile("/registerFieldsBasicWithId.json");
+  }
+
+  @Override
+  public void initIndex(String name) throws Exception {
+    List<AddDocumentRequest> requests = new ArrayList<>();
+    // ids are updated multiple times, the last request for each id must win
+    for (int i = 0; i < NUM_DOCS; ++i) {
+      requests.add(
+          AddDocumentRequest.newBuilder()
+              .setIndexName(name)
+              .putFields(
+                  "doc_id",
+                  MultiValuedField.newBuilder().addValue(String.valueOf(i % NUM_IDS)).build())
+              .putFields("count", MultiValuedField.newBuilder().addValue(String.valueOf(i)).build())
+              .build());
+    }
+    addDocuments(requests.stream());
+  }
+
+  @Test
+  public void testDocumentOrderPreserved() {
+    SearchResponse response =
+        getGrpcServer()
+            .getBlockingStub()
+            .search(
+                SearchRequest.newBuilder()
+                    .setIndexName(DEFAULT_TEST_INDEX)
+                    .setTopHits(NUM_DOCS)
+                    .setQuery(Query.newBuilder().build())
+                    .addRetrieveFields("count")
+                    .setQuerySort(
+                        QuerySortField.newBuilder()
+                            .setFields(
+                                SortFields.newBuilder()
+                                    .addSortedFields(
+                                        SortType.newBuilder().setFieldName("count").build())))
+                    .build());
+    assertEquals(NUM_IDS, response.getHitsCount());
+    for (int i = 0; i < NUM_IDS; ++i) {
+      assertEquals(
+          NUM_DOCS - NUM_IDS + i,
+          response.getHits(i).getFieldsOrThrow("count").getFieldValue(0).getIntValue());
+    }
+  }
+
+  @Test
+  public void testConversionError() {
+    List<AddDocumentRequest> requests = new ArrayList<>();
+    for (int i = 0; i < 20; ++i) {
+      requests.add(
+          AddDocumentRequest.newBuilder()
+              .setIndexName(DEFAULT_TEST_INDEX)
+              .putFields("doc_id", MultiValuedField.newBuilder().addValue("error_" + i).build())
+              .putFields(
+                  "count",
+                  MultiValuedField.newBuilder().addValue(i == 13 ? "invalid" : "1").build())
+              .build());
+    }
+    Exception e = assertThrows(RuntimeException.class, () -> addDocuments(requests.stream()));
+    assertTrue(e.getMessage().contains("invalid"));
+  }
+}
@@ -0,0 +1,294 @@
+/*
+ * Copyright 2025 Yelp Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.yelp.nrtsearch.server.highlights;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.google.protobuf.BoolValue;
+import com.google.protobuf.UInt32Value;
+import com.yelp.nrtsearch.server.ServerTestCase;
+import com.yelp.nrtsearch.server.grpc.AddDocumentRequest;
+import com.yelp.nrtsearch.server.grpc.AddDocumentRequest.MultiValuedField;
+import com.yelp.nrtsearch.server.grpc.FieldDefRequest;
+import com.yelp.nrtsearch.server.grpc.Highlight;
+import com.yelp.nrtsearch.server.grpc.Highlight.Settings;
+import com.yelp.nrtsearch.server.grpc.Highlight.Type;
+import com.yelp.nrtsearch.server.grpc.MatchQuery;
+import com.yelp.nrtsearch.server.grpc.Query;
+import com.yelp.nrtsearch.server.grpc.SearchRequest;
+import com.yelp.nrtsearch.server.grpc.SearchResponse;
+import com.yelp.nrtsearch.server.grpc.SearchResponse.Hit;
+import io.grpc.StatusRuntimeException;
+import io.grpc.testing.GrpcCleanupRule;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+public class NRTUnifiedHighlighterTest extends ServerTestCase {
+  private static final String DOC1_COMMENT = "the food here is amazing, service was good";
+  private static final String DOC2_COMMENT =
+      "This is my first time eating at this restaurant. The food here is pretty good, the service"
+          + " could be better. My favorite food was chilly chicken.";
+  private static final String DOC1_HIGHLIGHT =
+      "the <em>food</em> here is amazing, service was good";
+
+  @ClassRule public static final GrpcCleanupRule grpcCleanup = new GrpcCleanupRule();
+
+  protected FieldDefRequest getIndexDef(String name) throws IOException {
+    return getFieldsFromResourceFile("/highlights/register_fields_unified_highlights.json");
+  }
+
+  protected void initIndex(String name) throws Exception {
+    List<AddDocumentRequest> docs = new ArrayList<>();
+    docs.add(
+        AddDocumentRequest.newBuilder()
+            .setIndexName(name)
+            .putFields("doc_id", MultiValuedField.newBuilder().addValue("1").build())
+            .putFields("comment", MultiValuedField.newBuilder().addValue(DOC1_COMMENT).build())
+            .putFields(
+                "comment_multivalue",
+                MultiValuedField.newBuilder()
+                    .addValue("The food is good there, but the service is terrible.")
+                    .addValue("I personally don't like the staff at this place.")
+                    .addValue("Not all food are good.")
+                    .build())
+            .build());
+    docs.add(
+        AddDocumentRequest.newBuilder()
+            .setIndexName(name)
+            .putFields("doc_id", MultiValuedField.newBuilder().addValue("2").build())
+            .putFields("comment", MultiValuedField.newBuilder().addValue(DOC2_COMMENT).build())
+            .putFields(
+                "comment_multivalue",
+                MultiValuedField.newBuilder()
+                    .addValue("High quality food. Fresh and delicious!")
+                    .build())
+            .build());
+    addDocuments(docs.stream());
+  }
+
+  @Test
+  public void testPostingsOffsets() {
+    Map<String, List<String>> fragments =
+        getFragments(doHighlightQuery(unifiedHighlight("comment").build()), "comment");
+    assertThat(fragments.get("1")).containsExactly(DOC1_HIGHLIGHT);
+    assertThat(fragments.get("2")).isNotEmpty();
+    for (String fragment : fragments.get("2")) {
+      assertThat(fragment).contains("<em>food</em>");
+      assertThat(DOC2_COMMENT).contains(fragment.replace("<em>", "").replace("</em>", ""));
+    }
+  }
+
+  @Test
+  public void testEntireText() {
+    Highlight highlight =
+        unifiedHighlight("comment")
+            .setSettings(
+                Settings.newBuilder()
+                    .setHighlighterType(Type.UNIFIED)
+                    .setMaxNumberOfFragments(UInt32Value.of(0)))
+            .build();
+    Map<String, List<String>> fragments = getFragments(doHighlightQuery(highlight), "comment");
+    assertThat(fragments.get("1")).containsExactly(DOC1_HIGHLIGHT);
+    assertThat(fragments.get("2"))
+        .containsExactly(
+            "This is my first time eating at this restaurant. The <em>food</em> here is pretty"
+                + " good, the service could be better. My favorite <em>food</em> was chilly"
+                + " chicken.");
+  }
+
+  @Test
+  public void testSentenceFragments() {
+    Highlight highlight =
+        unifiedHighlight("comment")
+            .setSettings(
+                Settings.newBuilder()
+                    .setHighlighterType(Type.UNIFIED)
+                    .setFragmentSize(UInt32Value.of(10))
+                    .setScoreOrdered(BoolValue.of(false)))
+            .build();
+    Map<String, List<String>> fragments = getFragments(doHighlightQuery(highlight), "comment");
+    assertThat(fragments.get("2"))
+        .containsExactly(
+            "The <em>food</em> here is pretty good, the service could be better.",
+            "My favorite <em>food</em> was chilly chicken.");
+  }
+
+  @Test
+  public void testMaxFragments() {
+    Highlight highlight =
+        unifiedHighlight("comment")
+            .setSettings(
+                Settings.newBuilder()
+                    .setHighlighterType(Type.UNIFIED)
+                    .setFragmentSize(UInt32Value.of(10))
+                    .setMaxNumberOfFragments(UInt32Value.of(1)))
+            .build();
+    Map<String, List<String>> fragments = getFragments(doHighlightQuery(highlight), "comment");
+    assertThat(fragments.get("2")).hasSize(1);
+  }
+
+  @Test
+  public void testCustomTags() {
+    Highlight highlight =
+        unifiedHighlight("comment")
+            .setSettings(
+                Settings.newBuilder()
+                    .setHighlighterType(Type.UNIFIED)
+                    .addPreTags("<b>")
+                    .addPostTags("</b>"))
+            .build();
+    Map<String, List<String>> fragments = getFragments(doHighlightQuery(highlight), "comment");
+    assertThat(fragments.get("1"))
+        .containsExactly("the <b>food</b> here is amazing, service was good");
+  }
+
+  @Test
+  public void testReanalysis() {
+    Map<String, List<String>> fragments =
+        getFragments(
+            doHighlightQuery(unifiedHighlight("comment.analysis").build()), "comment.analysis");
+    assertThat(fragments.get("1")).containsExactly(DOC1_HIGHLIGHT);
+  }
+
+  @Test
+  public void testTermVectors() {
+    Map<String, List<String>> fragments =
+        getFragments(
+            doHighlightQuery(unifiedHighlight("comment.term_vectors").build()),
+            "comment.term_vectors");
+    assertThat(fragments.get("1")).containsExactly(DOC1_HIGHLIGHT);
+  }
+
+  @Test
+  public void testFieldMatch() {
+    Highlight highlight =
+        unifiedHighlight("comment_multivalue")
+            .setSettings(
+                Settings.newBuilder()
+                    .setHighlighterType(Type.UNIFIED)
+                    .setFieldMatch(BoolValue.of(true)))
+            .build();
+    SearchResponse response = doHighlightQuery(highlight);
+    for (Hit hit : response.getHitsList()) {
+      assertThat(hit.getHighlightsMap()).doesNotContainKey("comment_multivalue");
+    }
+  }
+
+  @Test
+  public void testMultivalueField() {
+    Map<String, List<String>> fragments =
+        getFragments(
+            doHighlightQuery(unifiedHighlight("comment_multivalue").build()),
+            "comment_multivalue");
+    assertThat(fragments.get("2"))
+        .containsExactly("High quality <em>food</em>. Fresh and delicious!");
+    assertThat(String.join(" ", fragments.get("1")))
+        .contains("The <em>food</em> is good there")
+        .contains("Not all <em>food</em> are good.");
+  }
+
+  @Test
+  public void testNoMatch() {
+    SearchResponse response =
+        getGrpcServer()
+            .getBlockingStub()
+            .search(
+                SearchRequest.newBuilder()
+                    .setIndexName(DEFAULT_TEST_INDEX)
+                    .setTopHits(2)
+                    .addRetrieveFields("doc_id")
+                    .setQuery(
+                        Query.newBuilder()
+                            .setMatchQuery(
+                                MatchQuery.newBuilder().setField("doc_id").setQuery("1")))
+                    .setHighlight(unifiedHighlight("comment").build())
+                    .build());
+    assertThat(response.getHitsCount()).isEqualTo(1);
+    assertThat(response.getHits(0).getHighlightsMap()).isEmpty();
+  }
+
+  @Test
+  public void testNotStored() {
+    assertThatThrownBy(() -> doHighlightQuery(unifiedHighlight("comment.no_store").build()))
+        .isInstanceOf(StatusRuntimeException.class)
+        .hasMessageContaining(
+            "Field comment.no_store is not stored and cannot support unified-highlighter");
+  }
+
+  @Test
+  public void testTermVectorsWithoutOffsets() {
+    assertThatThrownBy(
+            () ->
+                doHighlightQuery(unifiedHighlight("comment.no_term_vectors_with_offsets").build()))
+        .isInstanceOf(StatusRuntimeException.class)
+        .hasMessageContaining(
+            "Field comment.no_term_vectors_with_offsets has term vectors without positions and"
+                + " offsets and cannot support unified-highlighter");
+  }
+
+  @Test
+  public void testCustomHighlighterName() {
+    Highlight highlight =
+        Highlight.newBuilder()
+            .addFields("comment")
+            .setSettings(
+                Settings.newBuilder()
+                    .setHighlighterType(Type.CUSTOM)
+                    .setCustomHighlighterName(NRTUnifiedHighlighter.HIGHLIGHTER_NAME))
+            .build();
+    Map<String, List<String>> fragments = getFragments(doHighlightQuery(highlight), "comment");
+    assertThat(fragments.get("1")).containsExactly(DOC1_HIGHLIGHT);
+  }
+
+  private static Highlight.Builder unifiedHighlight(String field) {
+    return Highlight.newBuilder()
+        .addFields(field)
+        .setSettings(Settings.newBuilder().setHighlighterType(Type.UNIFIED));
+  }
+
+  private SearchResponse doHighlightQuery(Highlight highlight) {
+    return getGrpcServer()
+        .getBlockingStub()
+        .search(
+            SearchRequest.newBuilder()
+                .setIndexName(DEFAULT_TEST_INDEX)
+                .setStartHit(0)
+                .setTopHits(2)
+                .addRetrieveFields("doc_id")
+                .setQuery(
+                    Query.newBuilder()
+                        .setMatchQuery(
+                            MatchQuery.newBuilder().setField("comment").setQuery("food")))
+                .setHighlight(highlight)
+                .build());
+  }
+
+  private static Map<String, List<String>> getFragments(SearchResponse response, String field) {
+    assertThat(response.getHitsCount()).isEqualTo(2);
+    Map<String, List<String>> fragments = new HashMap<>();
+    for (Hit hit : response.getHitsList()) {
+      String id = hit.getFieldsOrThrow("doc_id").getFieldValue(0).getTextValue();
+      fragments.put(id, hit.getHighlightsOrThrow(field).getFragmentsList());
+    }
+    return fragments;
+  }
+}
@@ -401,6 +401,7 @@ public class BackendStateManagerTest {
         .commitIndexState(
             BackendGlobalState.getUniqueIndexName("test_index", "test_id"), expectedStateInfo);
     verify(mockGlobalState, times(1)).getConfiguration();
+    verify(mockGlobalState, times(1)).getSearchResponseCache();
     verify(mockState, times(1)).isStarted();
     verify(mockState, times(1)).getIndexStateInfo();
     verify(mockState, times(1)).getFieldAndFacetState();
@@ -464,6 +465,7 @@ public class BackendStateManagerTest {
         .commitIndexState(
             BackendGlobalState.getUniqueIndexName("test_index", "test_id"), expectedStateInfo);
     verify(mockGlobalState, times(1)).getConfiguration();
+    verify(mockGlobalState, times(1)).getSearchResponseCache();
     verify(mockState, times(1)).isStarted();
     verify(mockState, times(1)).getIndexStateInfo();
     verify(mockState, times(1)).getFieldAndFacetState();
@@ -545,6 +547,7 @@ public class BackendStateManagerTest {
         .commitIndexState(
             BackendGlobalState.getUniqueIndexName("test_index", "test_id"), expectedStateInfo);
     verify(mockGlobalState, times(1)).getConfiguration();
+    verify(mockGlobalState, times(1)).getSearchResponseCache();
     verify(mockState, times(1)).isStarted();
     verify(mockState, times(1)).getIndexStateInfo();
     verify(mockState, times(1)).getFieldAndFacetState();
@@ -629,6 +632,7 @@ public class BackendStateManagerTest {
         .commitIndexState(
             BackendGlobalState.getUniqueIndexName("test_index", "test_id"), expectedStateInfo);
     verify(mockGlobalState, times(1)).getConfiguration();
+    verify(mockGlobalState, times(1)).getSearchResponseCache();
     verify(mockState, times(1)).isStarted();
     verify(mockState, times(1)).getIndexStateInfo();
     verify(mockState, times(1)).getFieldAndFacetState();
@@ -840,6 +844,7 @@ public class BackendStateManagerTest {
         .commitIndexState(
             BackendGlobalState.getUniqueIndexName("test_index", "test_id"), expectedStateInfo);
     verify(mockGlobalState, times(1)).getConfiguration();
+    verify(mockGlobalState, times(1)).getSearchResponseCache();
     verify(mockState, times(1)).getIndexStateInfo();
     verify(mockState, times(1)).getFieldAndFacetState();
     verify(mockState2, times(1)).getMergedLiveSettings(false);
@@ -907,6 +912,7 @@ public class BackendStateManagerTest {
         .commitIndexState(
             BackendGlobalState.getUniqueIndexName("test_index", "test_id"), expectedStateInfo);
     verify(mockGlobalState, times(1)).getConfiguration();
+    verify(mockGlobalState, times(1)).getSearchResponseCache();
     verify(mockState, times(1)).getIndexStateInfo();
     verify(mockState, times(1)).getFieldAndFacetState();
     verify(mockState2, times(1)).getMergedLiveSettings(false);
@@ -989,6 +995,7 @@ public class BackendStateManagerTest {
         .commitIndexState(
             BackendGlobalState.getUniqueIndexName("test_index", "test_id"), expectedStateInfo);
     verify(mockGlobalState, times(1)).getConfiguration();
+    verify(mockGlobalState, times(1)).getSearchResponseCache();
     verify(mockState, times(1)).getIndexStateInfo();
     verify(mockState, times(1)).getFieldAndFacetState();
     verify(mockState2, times(1)).getMergedLiveSettings(false);
@@ -1074,6 +1081,7 @@ public class BackendStateManagerTest {
         .commitIndexState(
             BackendGlobalState.getUniqueIndexName("test_index", "test_id"), expectedStateInfo);
     verify(mockGlobalState, times(1)).getConfiguration();
+    verify(mockGlobalState, times(1)).getSearchResponseCache();
     verify(mockState, times(1)).getIndexStateInfo();
     verify(mockState, times(1)).getFieldAndFacetState();
     verify(mockState2, times(1)).getMergedLiveSettings(false);
@@ -1163,6 +1171,7 @@ public class BackendStateManagerTest {
     verify(mockBackend, times(1))
         .loadIndexState(BackendGlobalState.getUniqueIndexName("test_index", "test_id"));
     verify(mockGlobalState, times(1)).getConfiguration();
+    verify(mockGlobalState, times(1)).getSearchResponseCache();
     verify(mockState, times(1)).getIndexStateInfo();
     verify(mockState, times(1)).getFieldAndFacetState();
     verify(mockState2, times(1)).getMergedLiveSettings(true);
@@ -1240,6 +1249,7 @@ public class BackendStateManagerTest {
     verify(mockBackend, times(1))
         .loadIndexState(BackendGlobalState.getUniqueIndexName("test_index", "test_id"));
     verify(mockGlobalState, times(1)).getConfiguration();
+    verify(mockGlobalState, times(1)).getSearchResponseCache();
     verify(mockState, times(1)).getIndexStateInfo();
     verify(mockState, times(1)).getFieldAndFacetState();
     verify(mockState2, times(1)).getMergedLiveSettings(true);
@@ -1314,6 +1324,7 @@ public class BackendStateManagerTest {
         .commitIndexState(
             BackendGlobalState.getUniqueIndexName("test_index", "test_id"), expectedState);
     verify(mockGlobalState, times(2)).getConfiguration();
+    verify(mockGlobalState, times(1)).getSearchResponseCache();
     verify(mockState, times(2)).getIndexStateInfo();
     verify(mockState, times(1)).getFieldAndFacetState();
     verify(mockState2, times(1)).getAllFieldsJSON();
@@ -1389,6 +1400,7 @@ public class BackendStateManagerTest {
         .commitIndexState(
             BackendGlobalState.getUniqueIndexName("test_index", "test_id"), expectedState);
     verify(mockGlobalState, times(2)).getConfiguration();
+    verify(mockGlobalState, times(1)).getSearchResponseCache();
     verify(mockState, times(2)).getIndexStateInfo();
     verify(mockState, times(1)).getFieldAndFacetState();
     verify(mockState2, times(1)).getAllFieldsJSON();
@@ -1489,6 +1501,7 @@ public class BackendStateManagerTest {
         .commitIndexState(
             BackendGlobalState.getUniqueIndexName("test_index", "test_id"), expectedState);
     verify(mockGlobalState, times(2)).getConfiguration();
+    verify(mockGlobalState, times(1)).getSearchResponseCache();
     verify(mockState, times(2)).getIndexStateInfo();
     verify(mockState, times(1)).getFieldAndFacetState();
     verify(mockState2, times(1)).getAllFieldsJSON();
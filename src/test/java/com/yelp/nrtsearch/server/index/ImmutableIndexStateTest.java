@@ -22,6 +22,7 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -55,6 +56,8 @@ import com.yelp.nrtsearch.server.grpc.SortType;
 import com.yelp.nrtsearch.server.index.FieldUpdateUtils.UpdatedFieldInfo;
 import com.yelp.nrtsearch.server.nrt.NrtDataManager;
 import com.yelp.nrtsearch.server.plugins.Plugin;
+import com.yelp.nrtsearch.server.search.slicing.CostBalancedSlicer;
+import com.yelp.nrtsearch.server.search.slicing.DocCountSlicer;
 import com.yelp.nrtsearch.server.similarity.SimilarityCreator;
 import com.yelp.nrtsearch.server.state.BackendGlobalState;
 import com.yelp.nrtsearch.server.state.GlobalState;
@@ -137,7 +140,7 @@ public class ImmutableIndexStateTest {
     when(mockGlobalState.getConfiguration()).thenReturn(dummyConfig);
     when(mockGlobalState.getThreadPoolConfiguration())
         .thenReturn(dummyConfig.getThreadPoolConfiguration());
-    when(mockGlobalState.getFetchExecutor()).thenReturn(mock(ExecutorService.class));
+    when(mockGlobalState.getFetchExecutor(anyString())).thenReturn(mock(ExecutorService.class));
     return new ImmutableIndexState(
         mockManager,
         mockGlobalState,
@@ -466,6 +469,46 @@ public class ImmutableIndexStateTest {
     assertSettingException(expectedMsg, b -> b.setDirectory(wrap("Invalid")));
   }
 
+  @Test
+  public void testMergeDirectIO_default() throws IOException {
+    assertFalse(getIndexState(getEmptyState()).getMergeDirectIO());
+  }
+
+  @Test
+  public void testMergeDirectIO_set() throws IOException {
+    assertTrue(
+        getIndexState(
+                getStateWithSettings(
+                    IndexSettings.newBuilder().setMergeDirectIO(wrap(true)).build()))
+            .getMergeDirectIO());
+  }
+
+  @Test
+  public void testMergeDirectIOMinSizeMB_default() throws IOException {
+    assertEquals(
+        ImmutableIndexState.DEFAULT_MERGE_DIRECT_IO_MIN_SIZE_MB,
+        getIndexState(getEmptyState()).getMergeDirectIOMinSizeMB(),
+        0.0);
+  }
+
+  @Test
+  public void testMergeDirectIOMinSizeMB_set() throws IOException {
+    verifyDoubleSetting(
+        0.0,
+        ImmutableIndexState::getMergeDirectIOMinSizeMB,
+        b -> b.setMergeDirectIOMinSizeMB(wrap(0.0)));
+    verifyDoubleSetting(
+        100.0,
+        ImmutableIndexState::getMergeDirectIOMinSizeMB,
+        b -> b.setMergeDirectIOMinSizeMB(wrap(100.0)));
+  }
+
+  @Test
+  public void testMergeDirectIOMinSizeMB_invalid() throws IOException {
+    String expectedMsg = "mergeDirectIOMinSizeMB must be >= 0";
+    assertSettingException(expectedMsg, b -> b.setMergeDirectIOMinSizeMB(wrap(-1.0)));
+  }
+
   @Test
   public void testRefreshSec_default() throws IOException {
     assertEquals(
@@ -618,6 +661,47 @@ public class ImmutableIndexStateTest {
     assertLiveSettingException(expectedMsg, b -> b.setSliceMaxSegments(wrap(0)));
   }
 
+  @Test
+  public void testSliceSegmentPartitions_default() throws IOException {
+    assertFalse(getIndexState(getEmptyState()).getSliceSegmentPartitions());
+  }
+
+  @Test
+  public void testSliceSegmentPartitions_set() throws IOException {
+    verifyBoolLiveSetting(
+        true,
+        ImmutableIndexState::getSliceSegmentPartitions,
+        b -> b.setSliceSegmentPartitions(wrap(true)));
+  }
+
+  @Test
+  public void testSliceStrategy_default() throws IOException {
+    ImmutableIndexState indexState = getIndexState(getEmptyState());
+    assertEquals("doc_count", indexState.getSliceStrategy());
+    assertTrue(indexState.getSearchSlicer() instanceof DocCountSlicer);
+  }
+
+  @Test
+  public void testSliceStrategy_set() throws IOException {
+    ImmutableIndexState indexState =
+        getIndexState(
+            getStateWithLiveSettings(
+                IndexLiveSettings.newBuilder()
+                    .setSliceStrategy(wrap("cost_balanced"))
+                    .setSliceMaxDocs(wrap(100))
+                    .build()));
+    assertEquals("cost_balanced", indexState.getSliceStrategy());
+    CostBalancedSlicer slicer = (CostBalancedSlicer) indexState.getSearchSlicer();
+    assertEquals(100, slicer.getParams().sliceMaxDocs());
+  }
+
+  @Test
+  public void testSliceStrategy_invalid() throws IOException {
+    String expectedMsg =
+        "Invalid slice strategy: invalid, must be one of: [doc_count, cost_balanced]";
+    assertLiveSettingException(expectedMsg, b -> b.setSliceStrategy(wrap("invalid")));
+  }
+
   private ImmutableIndexState getIndexStateForVirtualShading(
       boolean enabled, IndexLiveSettings settings) throws IOException {
     IndexStateManager mockManager = mock(IndexStateManager.class);
@@ -631,7 +715,7 @@ public class ImmutableIndexStateTest {
     when(mockGlobalState.getConfiguration()).thenReturn(dummyConfig);
     when(mockGlobalState.getThreadPoolConfiguration())
         .thenReturn(dummyConfig.getThreadPoolConfiguration());
-    when(mockGlobalState.getFetchExecutor()).thenReturn(mock(ExecutorService.class));
+    when(mockGlobalState.getFetchExecutor(anyString())).thenReturn(mock(ExecutorService.class));
     return new ImmutableIndexState(
         mockManager,
         mockGlobalState,
@@ -833,6 +917,19 @@ public class ImmutableIndexStateTest {
         true, ImmutableIndexState::getVerboseMetrics, b -> b.setVerboseMetrics(wrap(true)));
   }
 
+  @Test
+  public void testDefaultRequestCache_default() throws IOException {
+    assertFalse(getIndexState(getEmptyState()).getDefaultRequestCache());
+  }
+
+  @Test
+  public void testDefaultRequestCache_set() throws IOException {
+    verifyBoolLiveSetting(
+        true,
+        ImmutableIndexState::getDefaultRequestCache,
+        b -> b.setDefaultRequestCache(wrap(true)));
+  }
+
   @Test
   public void testParallelFetchConfig_default() throws IOException {
     IndexState.ParallelFetchConfig parallelFetchConfig =
@@ -900,7 +997,7 @@ public class ImmutableIndexStateTest {
     when(mockGlobalState.getConfiguration()).thenReturn(config);
     when(mockGlobalState.getThreadPoolConfiguration())
         .thenReturn(config.getThreadPoolConfiguration());
-    when(mockGlobalState.getFetchExecutor()).thenReturn(mock(ExecutorService.class));
+    when(mockGlobalState.getFetchExecutor(anyString())).thenReturn(mock(ExecutorService.class));
     IndexState indexState =
         new ImmutableIndexState(
             mockManager,
@@ -976,7 +1073,7 @@ public class ImmutableIndexStateTest {
     when(mockGlobalState.getConfiguration()).thenReturn(dummyConfig);
     when(mockGlobalState.getThreadPoolConfiguration())
         .thenReturn(dummyConfig.getThreadPoolConfiguration());
-    when(mockGlobalState.getFetchExecutor()).thenReturn(mock(ExecutorService.class));
+    when(mockGlobalState.getFetchExecutor(anyString())).thenReturn(mock(ExecutorService.class));
     return new ImmutableIndexState(
         mockManager,
         mockGlobalState,
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2025 Yelp Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.yelp.nrtsearch.server.index;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.yelp.nrtsearch.server.index.IndexStartupStatus.Phase;
+import com.yelp.nrtsearch.server.monitoring.IndexMetrics;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+
+public class IndexStartupStatusTest {
+
+  @Test
+  public void testPhases() throws InterruptedException {
+    IndexStartupStatus status = new IndexStartupStatus("test_index");
+    assertNull(status.getCurrentPhase());
+    assertFalse(status.isDone());
+
+    status.startPhase(Phase.RESTORE);
+    Thread.sleep(5);
+    status.startPhase(Phase.OPEN);
+    status.startPhase(Phase.SYNC);
+    status.startPhase(Phase.OPEN);
+    assertEquals(Phase.OPEN, status.getCurrentPhase());
+    assertFalse(status.isDone());
+    assertTrue(status.toString().startsWith("open "));
+
+    status.started();
+    assertEquals(Phase.STARTED, status.getCurrentPhase());
+    assertTrue(status.isDone());
+    assertEquals(0, status.getCurrentPhaseTimeMs(), 0);
+
+    Map<Phase, Double> phaseTimes = status.getPhaseTimesMs();
+    assertEquals(List.of(Phase.RESTORE, Phase.OPEN, Phase.SYNC), List.copyOf(phaseTimes.keySet()));
+    assertTrue(phaseTimes.get(Phase.RESTORE) >= 5);
+    double phaseSum = phaseTimes.values().stream().mapToDouble(Double::doubleValue).sum();
+    assertTrue(status.getTotalTimeMs() >= phaseSum);
+
+    // total time is fixed once started
+    double totalTime = status.getTotalTimeMs();
+    Thread.sleep(2);
+    assertEquals(totalTime, status.getTotalTimeMs(), 0);
+  }
+
+  @Test
+  public void testRepeatedPhaseMetric() throws InterruptedException {
+    IndexStartupStatus status = new IndexStartupStatus("test_index_repeated");
+    status.startPhase(Phase.OPEN);
+    Thread.sleep(5);
+    status.startPhase(Phase.SYNC);
+    status.startPhase(Phase.OPEN);
+    Thread.sleep(5);
+    status.started();
+
+    double openTimeMs = status.getPhaseTimesMs().get(Phase.OPEN);
+    assertTrue(openTimeMs >= 10);
+    assertEquals(
+        openTimeMs,
+        IndexMetrics.startupPhaseTime.labelValues("test_index_repeated", "open").get(),
+        0);
+  }
+
+  @Test
+  public void testFailed() {
+    IndexStartupStatus status = new IndexStartupStatus("test_index");
+    status.startPhase(Phase.RESTORE);
+    status.failed();
+    assertEquals(Phase.FAILED, status.getCurrentPhase());
+    assertTrue(status.isDone());
+    assertEquals(List.of(Phase.RESTORE), List.copyOf(status.getPhaseTimesMs().keySet()));
+  }
+}
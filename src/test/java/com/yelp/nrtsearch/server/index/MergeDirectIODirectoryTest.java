@@ -0,0 +1,150 @@
+/*
+ * Copyright 2025 Yelp Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.yelp.nrtsearch.server.index;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.sun.nio.file.ExtendedOpenOption;
+import com.yelp.nrtsearch.server.monitoring.IndexMetrics;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.store.IOContext;
+import org.apache.lucene.store.IndexInput;
+import org.apache.lucene.store.IndexOutput;
+import org.apache.lucene.store.MergeInfo;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class MergeDirectIODirectoryTest {
+  private static final String INDEX_NAME = "direct_io_index";
+
+  @Rule public final TemporaryFolder folder = new TemporaryFolder();
+
+  private static IndexState mockIndexState(boolean enabled) {
+    IndexState indexState = mock(IndexState.class);
+    when(indexState.getName()).thenReturn(INDEX_NAME);
+    when(indexState.getMergeDirectIO()).thenReturn(enabled);
+    when(indexState.getMergeDirectIOMinSizeMB()).thenReturn(1.0);
+    return indexState;
+  }
+
+  private static IOContext mergeContext(long estimatedBytes) {
+    return IOContext.merge(new MergeInfo(100, estimatedBytes, false, -1));
+  }
+
+  private static boolean supportsDirectIO(Path path) {
+    Path file = path.resolve("direct_io_check");
+    try (FileChannel ignored =
+        FileChannel.open(
+            file,
+            StandardOpenOption.CREATE_NEW,
+            StandardOpenOption.WRITE,
+            ExtendedOpenOption.DIRECT)) {
+      return true;
+    } catch (IOException | UnsupportedOperationException e) {
+      return false;
+    } finally {
+      try {
+        Files.deleteIfExists(file);
+      } catch (IOException ignored) {
+      }
+    }
+  }
+
+  @Test
+  public void testNotWrappedWhenDisabled() throws IOException {
+    try (Directory directory = FSDirectory.open(folder.getRoot().toPath())) {
+      assertSame(directory, MergeDirectIODirectory.maybeWrap(directory, mockIndexState(false)));
+    }
+  }
+
+  @Test
+  public void testWrappedWhenEnabled() throws IOException {
+    try (Directory directory = FSDirectory.open(folder.getRoot().toPath())) {
+      Directory wrapped = MergeDirectIODirectory.maybeWrap(directory, mockIndexState(true));
+      assertTrue(wrapped instanceof MergeDirectIODirectory);
+      assertSame(directory, ((MergeDirectIODirectory) wrapped).getDelegate());
+    }
+  }
+
+  @Test
+  public void testNotWrappedForNonFileSystemDirectory() throws IOException {
+    try (Directory directory = new ByteBuffersDirectory()) {
+      assertSame(directory, MergeDirectIODirectory.maybeWrap(directory, mockIndexState(true)));
+    }
+  }
+
+  @Test
+  public void testMergeFileMetrics() throws IOException {
+    Path path = folder.getRoot().toPath();
+    assumeTrue("File system does not support direct I/O", supportsDirectIO(path));
+
+    double writeFiles = IndexMetrics.mergeDirectIOFiles.labelValues(INDEX_NAME, "write").get();
+    double writeBytes = IndexMetrics.mergeDirectIOBytes.labelValues(INDEX_NAME, "write").get();
+    double readFiles = IndexMetrics.mergeDirectIOFiles.labelValues(INDEX_NAME, "read").get();
+    double readBytes = IndexMetrics.mergeDirectIOBytes.labelValues(INDEX_NAME, "read").get();
+
+    byte[] data = new byte[10000];
+    new Random(1234).nextBytes(data);
+    try (MergeDirectIODirectory directory =
+        new MergeDirectIODirectory(FSDirectory.open(path), INDEX_NAME, 0)) {
+      try (IndexOutput output = directory.createOutput("_0.cfs", mergeContext(data.length))) {
+        output.writeBytes(data, data.length);
+        output.writeInt(1);
+        output.writeLong(2);
+      }
+      try (IndexInput input = directory.openInput("_0.cfs", mergeContext(data.length))) {
+        byte[] read = new byte[data.length];
+        input.readBytes(read, 0, read.length);
+        assertArrayEquals(data, read);
+        assertEquals(1, input.readInt());
+        assertEquals(2, input.readLong());
+      }
+      // not a merge, so does not use direct I/O
+      try (IndexOutput output = directory.createOutput("_1.cfs", IOContext.DEFAULT)) {
+        output.writeBytes(data, data.length);
+      }
+    }
+
+    long fileLength = data.length + Integer.BYTES + Long.BYTES;
+    assertEquals(
+        writeFiles + 1, IndexMetrics.mergeDirectIOFiles.labelValues(INDEX_NAME, "write").get(), 0);
+    assertEquals(
+        writeBytes + fileLength,
+        IndexMetrics.mergeDirectIOBytes.labelValues(INDEX_NAME, "write").get(),
+        0);
+    assertEquals(
+        readFiles + 1, IndexMetrics.mergeDirectIOFiles.labelValues(INDEX_NAME, "read").get(), 0);
+    assertEquals(
+        readBytes + fileLength,
+        IndexMetrics.mergeDirectIOBytes.labelValues(INDEX_NAME, "read").get(),
+        0);
+  }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2025 Yelp Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.yelp.nrtsearch.server.index;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Test;
+
+public class SearcherVersionWaiterTest {
+  private final AtomicLong currentVersion = new AtomicLong(10);
+  private final SearcherVersionWaiter waiter =
+      new SearcherVersionWaiter("test_index", currentVersion::get);
+
+  @Test
+  public void testVersionAlreadyVisible() throws Exception {
+    CompletableFuture<Void> future = waiter.waitForVersion(10, -1);
+    assertTrue(future.isDone());
+    future = waiter.waitForVersion(5, -1);
+    assertTrue(future.isDone());
+    assertEquals(0, waiter.getNumWaiters());
+  }
+
+  @Test
+  public void testCompletedOnRefresh() throws Exception {
+    CompletableFuture<Void> future1 = waiter.waitForVersion(11, -1);
+    CompletableFuture<Void> future2 = waiter.waitForVersion(12, -1);
+    assertFalse(future1.isDone());
+    assertFalse(future2.isDone());
+    assertEquals(2, waiter.getNumWaiters());
+
+    currentVersion.set(11);
+    waiter.afterRefresh(true);
+    assertTrue(future1.isDone());
+    assertFalse(future2.isDone());
+    assertEquals(1, waiter.getNumWaiters());
+
+    currentVersion.set(15);
+    waiter.afterRefresh(true);
+    assertTrue(future2.isDone());
+    assertEquals(0, waiter.getNumWaiters());
+  }
+
+  @Test
+  public void testNoRefresh() throws Exception {
+    CompletableFuture<Void> future = waiter.waitForVersion(11, -1);
+    currentVersion.set(11);
+    waiter.afterRefresh(false);
+    assertFalse(future.isDone());
+    waiter.afterRefresh(true);
+    assertTrue(future.isDone());
+  }
+
+  @Test
+  public void testTimeout() throws Exception {
+    CompletableFuture<Void> future = waiter.waitForVersion(11, 10);
+    try {
+      future.get();
+      fail();
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause() instanceof TimeoutException);
+    }
+  }
+
+  @Test
+  public void testClose() throws Exception {
+    CompletableFuture<Void> future = waiter.waitForVersion(11, -1);
+    waiter.close();
+    try {
+      future.get();
+      fail();
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause() instanceof IllegalStateException);
+      assertEquals(
+          "Index test_index closed while waiting for searcher version", e.getCause().getMessage());
+    }
+    assertEquals(0, waiter.getNumWaiters());
+  }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2025 Yelp Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.yelp.nrtsearch.server.innerhit;
+
+import com.google.protobuf.BoolValue;
+import com.google.protobuf.Int32Value;
+import com.yelp.nrtsearch.server.grpc.IndexLiveSettings;
+import io.grpc.testing.GrpcCleanupRule;
+import org.junit.ClassRule;
+
+/**
+ * Run the inner hit tests with the inner hit fetch tasks for each hit processed in parallel on the
+ * fetch executor.
+ */
+public class ParallelInnerHitTest extends innerHitTest {
+  @ClassRule public static final GrpcCleanupRule grpcCleanup = new GrpcCleanupRule();
+
+  @Override
+  protected String getExtraConfig() {
+    return String.join("\n", "threadPoolConfiguration:", "  fetch:", "    maxThreads: 4");
+  }
+
+  @Override
+  protected void initIndex(String name) throws Exception {
+    super.initIndex(name);
+    // fetch fields on the request thread, so that only the fetch tasks use the fetch executor
+    getGlobalState()
+        .getIndexStateManagerOrThrow(name)
+        .updateLiveSettings(
+            IndexLiveSettings.newBuilder()
+                .setParallelFetchByField(BoolValue.newBuilder().setValue(true).build())
+                .setParallelFetchChunkSize(Int32Value.newBuilder().setValue(1).build())
+                .build(),
+            false);
+  }
+}
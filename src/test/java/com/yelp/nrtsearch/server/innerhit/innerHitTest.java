@@ -246,6 +246,46 @@ public class innerHitTest extends ServerTestCase {
         .isEqualTo("hamburger");
   }
 
+  @Test
+  public void testFetchTaskTimeDiagnostics() {
+    SearchResponse response =
+        getGrpcServer()
+            .getBlockingStub()
+            .search(
+                SearchRequest.newBuilder()
+                    .setIndexName(DEFAULT_TEST_INDEX)
+                    .setStartHit(0)
+                    .setTopHits(10)
+                    .addAllRetrieveFields(List.of("branch_id"))
+                    .putInnerHits(
+                        "menu",
+                        InnerHit.newBuilder()
+                            .setQueryNestedPath("food")
+                            .setStartHit(0)
+                            .setTopHits(10)
+                            .addAllRetrieveFields(List.of("food.name"))
+                            .build())
+                    .putInnerHits(
+                        "staff",
+                        InnerHit.newBuilder()
+                            .setQueryNestedPath("employees")
+                            .setStartHit(0)
+                            .setTopHits(10)
+                            .addAllRetrieveFields(List.of("employees.name"))
+                            .build())
+                    .build());
+
+    assertThat(response.getHitsCount()).isEqualTo(2);
+    for (SearchResponse.Hit hit : response.getHitsList()) {
+      assertThat(hit.getInnerHitsMap().get("menu").getHitsCount()).isEqualTo(2);
+      assertThat(hit.getInnerHitsMap().get("staff").getHitsCount()).isEqualTo(2);
+    }
+    Map<String, Double> fetchTaskTimeMs = response.getDiagnostics().getFetchTaskTimeMsMap();
+    assertThat(fetchTaskTimeMs.size()).isEqualTo(2);
+    assertThat(fetchTaskTimeMs.get("inner_hit:menu")).isGreaterThan(0.0);
+    assertThat(fetchTaskTimeMs.get("inner_hit:staff")).isGreaterThan(0.0);
+  }
+
   @Test
   public void testEmptyChildQuery() {
     SearchResponse response =
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2025 Yelp Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.yelp.nrtsearch.server.nrt;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.google.protobuf.ByteString;
+import com.yelp.nrtsearch.server.index.MergeDirectIODirectory;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+import org.apache.lucene.misc.store.DirectIODirectory;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.store.IOContext;
+import org.apache.lucene.store.IndexOutput;
+import org.apache.lucene.store.NRTCachingDirectory;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class FileChunkReaderTest {
+  private static final String FILE_NAME = "test_file";
+
+  @Rule public final TemporaryFolder folder = new TemporaryFolder();
+
+  private static byte[] writeFile(Directory directory, int size) throws IOException {
+    byte[] data = new byte[size];
+    new Random(1234).nextBytes(data);
+    try (IndexOutput output = directory.createOutput(FILE_NAME, IOContext.DEFAULT)) {
+      output.writeBytes(data, data.length);
+    }
+    return data;
+  }
+
+  private static void verifyChunks(
+      Directory directory, byte[] data, long fpStart, int chunkSize, Class<?> expectedClass)
+      throws IOException {
+    try (FileChunkReader reader =
+        FileChunkReader.open(directory, FILE_NAME, fpStart, chunkSize, true)) {
+      assertEquals(expectedClass, reader.getClass());
+      assertEquals(data.length, reader.length());
+      ByteString.Output output = ByteString.newOutput();
+      long position = fpStart;
+      while (reader.hasNext()) {
+        assertEquals(position, reader.getFilePointer());
+        ByteString chunk = reader.nextChunk();
+        assertTrue(chunk.size() <= chunkSize);
+        if (reader.hasNext()) {
+          assertEquals(chunkSize, chunk.size());
+        }
+        chunk.writeTo(output);
+        position += chunk.size();
+      }
+      assertEquals(data.length, reader.getFilePointer());
+      byte[] expected = Arrays.copyOfRange(data, (int) fpStart, data.length);
+      assertArrayEquals(expected, output.toByteString().toByteArray());
+      try {
+        reader.nextChunk();
+        fail();
+      } catch (IllegalStateException e) {
+        assertTrue(e.getMessage().contains("No more chunks"));
+      }
+    }
+  }
+
+  @Test
+  public void testMappedFile() throws IOException {
+    try (Directory directory = FSDirectory.open(folder.getRoot().toPath())) {
+      byte[] data = writeFile(directory, 1000);
+      verifyChunks(directory, data, 0, 64, FileChunkReader.MappedFileChunkReader.class);
+      verifyChunks(directory, data, 100, 64, FileChunkReader.MappedFileChunkReader.class);
+      verifyChunks(directory, data, 0, 2000, FileChunkReader.MappedFileChunkReader.class);
+      verifyChunks(directory, data, 1000, 64, FileChunkReader.MappedFileChunkReader.class);
+    }
+  }
+
+  @Test
+  public void testMappingDisabled() throws IOException {
+    try (Directory directory = FSDirectory.open(folder.getRoot().toPath())) {
+      writeFile(directory, 1000);
+      try (FileChunkReader reader = FileChunkReader.open(directory, FILE_NAME, 0, 64, false)) {
+        assertEquals(FileChunkReader.IndexInputChunkReader.class, reader.getClass());
+      }
+    }
+  }
+
+  @Test
+  public void testMappedFileMultipleWindows() throws IOException {
+    try (Directory directory = FSDirectory.open(folder.getRoot().toPath())) {
+      byte[] data = writeFile(directory, (int) (FileChunkReader.MAP_WINDOW_CHUNKS * 3 + 7));
+      verifyChunks(directory, data, 0, 1, FileChunkReader.MappedFileChunkReader.class);
+      verifyChunks(directory, data, 5, 3, FileChunkReader.MappedFileChunkReader.class);
+    }
+  }
+
+  @Test
+  public void testMappedFileWindowSize() throws IOException {
+    try (Directory directory = FSDirectory.open(folder.getRoot().toPath())) {
+      writeFile(directory, 1000);
+      assertEquals(64 * FileChunkReader.MAP_WINDOW_CHUNKS, getWindowSize(directory, 64));
+      assertEquals(FileChunkReader.MAX_MAP_WINDOW_BYTES, getWindowSize(directory, 1024 * 1024));
+      assertEquals(32 * 1024 * 1024, getWindowSize(directory, 32 * 1024 * 1024));
+    }
+  }
+
+  private static long getWindowSize(Directory directory, int chunkSize) throws IOException {
+    try (FileChunkReader reader = FileChunkReader.open(directory, FILE_NAME, 0, chunkSize, true)) {
+      return ((FileChunkReader.MappedFileChunkReader) reader).getWindowSize();
+    }
+  }
+
+  @Test
+  public void testNRTCachingDirectory() throws IOException {
+    try (Directory directory =
+        new NRTCachingDirectory(FSDirectory.open(folder.getRoot().toPath()), 5, 60)) {
+      byte[] data = writeFile(directory, 1000);
+      verifyChunks(directory, data, 10, 64, FileChunkReader.MappedFileChunkReader.class);
+    }
+  }
+
+  @Test
+  public void testDirectIODirectory() throws IOException {
+    try (Directory directory =
+        new NRTCachingDirectory(
+            new MergeDirectIODirectory(
+                FSDirectory.open(folder.getRoot().toPath()),
+                "test_index",
+                DirectIODirectory.DEFAULT_MIN_BYTES_DIRECT),
+            0,
+            0)) {
+      byte[] data = writeFile(directory, 1000);
+      verifyChunks(directory, data, 10, 64, FileChunkReader.MappedFileChunkReader.class);
+    }
+  }
+
+  @Test
+  public void testIndexInput() throws IOException {
+    try (Directory directory = new ByteBuffersDirectory()) {
+      byte[] data = writeFile(directory, 1000);
+      verifyChunks(directory, data, 0, 64, FileChunkReader.IndexInputChunkReader.class);
+      verifyChunks(directory, data, 100, 64, FileChunkReader.IndexInputChunkReader.class);
+      verifyChunks(directory, data, 0, 2000, FileChunkReader.IndexInputChunkReader.class);
+    }
+  }
+
+  @Test
+  public void testInvalidPosition() throws IOException {
+    try (Directory directory = new ByteBuffersDirectory()) {
+      writeFile(directory, 100);
+      try {
+        FileChunkReader.open(directory, FILE_NAME, 101, 10, true);
+        fail();
+      } catch (IllegalArgumentException e) {
+        assertEquals("Invalid file position: 101, file length: 100", e.getMessage());
+      }
+    }
+  }
+
+  @Test
+  public void testEmptyFile() throws IOException {
+    try (Directory directory = FSDirectory.open(folder.getRoot().toPath())) {
+      writeFile(directory, 0);
+      try (FileChunkReader reader = FileChunkReader.open(directory, FILE_NAME, 0, 10, true)) {
+        assertFalse(reader.hasNext());
+      }
+    }
+  }
+}
@@ -21,19 +21,32 @@ import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
 
 import com.google.protobuf.ByteString;
 import com.yelp.nrtsearch.server.grpc.FileInfo;
 import com.yelp.nrtsearch.server.grpc.RawFileChunk;
+import com.yelp.nrtsearch.server.grpc.ReplicationServerClient;
 import com.yelp.nrtsearch.server.nrt.SimpleCopyJob.FileChunkStreamingIterator;
 import io.grpc.stub.StreamObserver;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.apache.lucene.replicator.nrt.FileMetaData;
+import org.apache.lucene.replicator.nrt.ReplicaNode;
+import org.apache.lucene.store.IndexOutput;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
 
@@ -80,6 +93,25 @@ public class SimpleCopyJobTest {
     verifyNoMoreInteractions(mockObserver);
   }
 
+  @Test
+  public void testChunkAvailable() {
+    @SuppressWarnings("unchecked")
+    StreamObserver<FileInfo> mockObserver = (StreamObserver<FileInfo>) mock(StreamObserver.class);
+
+    FileChunkStreamingIterator fcsi = new FileChunkStreamingIterator("test_index");
+    fcsi.init(mockObserver);
+    assertFalse(fcsi.isChunkAvailable());
+    sendData(fcsi, 10, 2, 100);
+    assertTrue(fcsi.isChunkAvailable());
+    fcsi.next();
+    assertTrue(fcsi.isChunkAvailable());
+    fcsi.next();
+    assertFalse(fcsi.isChunkAvailable());
+    fcsi.onCompleted();
+    assertTrue(fcsi.isChunkAvailable());
+    assertFalse(fcsi.hasNext());
+  }
+
   @Test
   public void testSkipAcksOnComplete() {
     doSkippedAckedTest(10, 1000, 1000);
@@ -88,6 +120,120 @@ public class SimpleCopyJobTest {
     doSkippedAckedTest(10, 1000, 1);
   }
 
+  @Test
+  public void testParallelCopyLimits() throws Exception {
+    doParallelCopyTest(1, Long.MAX_VALUE);
+    doParallelCopyTest(4, Long.MAX_VALUE);
+    doParallelCopyTest(4, 1500);
+    doParallelCopyTest(8, 1000);
+  }
+
+  private void doParallelCopyTest(int parallelism, long maxInFlightBytes) throws Exception {
+    Random random = new Random(1234);
+    Map<String, FileMetaData> files = new HashMap<>();
+    CountingPrimary primary = new CountingPrimary();
+    for (int i = 0; i < 20; ++i) {
+      String fileName = "file_" + i;
+      int length = 100 + random.nextInt(900);
+      long checksum = random.nextLong();
+      byte[] data = new byte[length];
+      random.nextBytes(data);
+      ByteBuffer.wrap(data).putLong(length - Long.BYTES, checksum);
+      primary.fileData.put(fileName, data);
+      files.put(fileName, new FileMetaData(new byte[0], new byte[0], length, checksum));
+    }
+
+    ReplicationServerClient mockClient = mock(ReplicationServerClient.class);
+    when(mockClient.recvRawFile(anyString(), eq(0L), eq("test_index"), eq("test_id")))
+        .thenAnswer(invocation -> primary.recvRawFile(invocation.getArgument(0)));
+    ReplicaNode mockNode = mock(ReplicaNode.class);
+    when(mockNode.getFilesToCopy(any())).thenReturn(new ArrayList<>(files.entrySet()));
+    when(mockNode.createTempOutput(anyString(), eq("copy"), any()))
+        .thenAnswer(
+            invocation -> {
+              IndexOutput mockOutput = mock(IndexOutput.class);
+              String fileName = invocation.getArgument(0);
+              when(mockOutput.getChecksum()).thenReturn(files.get(fileName).checksum());
+              return mockOutput;
+            });
+
+    SimpleCopyJob copyJob =
+        new SimpleCopyJob(
+            "test",
+            mockClient,
+            null,
+            mockNode,
+            files,
+            false,
+            null,
+            "test_index",
+            "test_id",
+            false,
+            parallelism,
+            maxInFlightBytes);
+    copyJob.start();
+    copyJob.runBlocking();
+
+    long totalBytes = 0;
+    for (FileMetaData metaData : files.values()) {
+      totalBytes += metaData.length() - Long.BYTES;
+    }
+    assertEquals(totalBytes, copyJob.getTotalBytesCopied());
+    assertEquals(0, primary.openCopies);
+    assertTrue(primary.peakOpenCopies <= parallelism);
+    assertTrue(primary.peakInFlightBytes <= maxInFlightBytes);
+    if (parallelism > 1) {
+      assertTrue(primary.peakOpenCopies > 1);
+    }
+  }
+
+  /** Fake primary that tracks the open file copies, and the file bytes not yet sent. */
+  private static class CountingPrimary {
+    private static final int CHUNK_SIZE = 64;
+
+    private final Map<String, byte[]> fileData = new HashMap<>();
+    private int openCopies;
+    private int peakOpenCopies;
+    private long inFlightBytes;
+    private long peakInFlightBytes;
+
+    Iterator<RawFileChunk> recvRawFile(String fileName) {
+      byte[] data = fileData.get(fileName);
+      openCopies++;
+      inFlightBytes += data.length;
+      peakOpenCopies = Math.max(peakOpenCopies, openCopies);
+      peakInFlightBytes = Math.max(peakInFlightBytes, inFlightBytes);
+      return new Iterator<>() {
+        private int position;
+        private boolean done;
+
+        @Override
+        public boolean hasNext() {
+          if (position < data.length) {
+            return true;
+          }
+          if (!done) {
+            done = true;
+            openCopies--;
+          }
+          return false;
+        }
+
+        @Override
+        public RawFileChunk next() {
+          int size = Math.min(CHUNK_SIZE, data.length - position);
+          RawFileChunk chunk =
+              RawFileChunk.newBuilder()
+                  .setContent(ByteString.copyFrom(data, position, size))
+                  .build();
+          position += size;
+          inFlightBytes -= size;
+          return chunk;
+        }
+      };
+    }
+  }
+
   private void doAckedTest(int chunkSize, int numChunks, int ackEvery) {
     @SuppressWarnings("unchecked")
     StreamObserver<FileInfo> mockObserver = (StreamObserver<FileInfo>) mock(StreamObserver.class);
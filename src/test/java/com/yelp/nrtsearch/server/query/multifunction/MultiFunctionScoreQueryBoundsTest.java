@@ -0,0 +1,317 @@
+/*
+ * Copyright 2025 Yelp Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.yelp.nrtsearch.server.query.multifunction;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.yelp.nrtsearch.server.grpc.MultiFunctionScoreQuery.BoostMode;
+import com.yelp.nrtsearch.server.grpc.MultiFunctionScoreQuery.FunctionScoreMode;
+import java.io.IOException;
+import java.util.Random;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.search.Explanation;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreMode;
+import org.apache.lucene.search.Scorer;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TopScoreDocCollectorManager;
+import org.apache.lucene.search.TotalHits;
+import org.apache.lucene.search.Weight;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class MultiFunctionScoreQueryBoundsTest {
+  private static final String[] TERMS = {"a", "b", "c", "d", "e", "f", "g", "h"};
+  private static final int NUM_DOCS = 20000;
+  private static final Query INNER_QUERY = new TermQuery(new Term("text", "a"));
+  private static final Query FILTER_QUERY = new TermQuery(new Term("category", "1"));
+
+  private static Directory directory;
+  private static DirectoryReader reader;
+  private static IndexSearcher searcher;
+
+  @BeforeClass
+  public static void setUpIndex() throws IOException {
+    directory = new ByteBuffersDirectory();
+    Random random = new Random(1234);
+    try (IndexWriter writer =
+        new IndexWriter(directory, new IndexWriterConfig(new StandardAnalyzer()))) {
+      for (int i = 0; i < NUM_DOCS; ++i) {
+        StringBuilder text = new StringBuilder();
+        int length = 1 + random.nextInt(20);
+        for (int j = 0; j < length; ++j) {
+          text.append(TERMS[random.nextInt(TERMS.length)]).append(' ');
+        }
+        Document document = new Document();
+        document.add(new TextField("text", text.toString(), Field.Store.NO));
+        document.add(new StringField("category", String.valueOf(i % 3), Field.Store.NO));
+        writer.addDocument(document);
+      }
+      writer.forceMerge(1);
+    }
+    reader = DirectoryReader.open(directory);
+    searcher = new IndexSearcher(reader);
+  }
+
+  @AfterClass
+  public static void tearDownIndex() throws IOException {
+    reader.close();
+    directory.close();
+  }
+
+  /** Function with no score bound, like a script function. */
+  private static class UnboundedFilterFunction extends FilterFunction {
+    UnboundedFilterFunction() {
+      super(null, 1.0f);
+    }
+
+    @Override
+    public LeafFunction getLeafFunction(LeafReaderContext leafContext) {
+      return new LeafFunction() {
+        @Override
+        public double score(int docId, float innerQueryScore) {
+          return docId % 7;
+        }
+
+        @Override
+        public Explanation explainScore(int docId, Explanation innerQueryScore) {
+          return Explanation.match(docId % 7, "doc id mod 7");
+        }
+      };
+    }
+
+    @Override
+    protected FilterFunction doRewrite(boolean filterQueryRewritten, Query rewrittenFilterQuery) {
+      return this;
+    }
+
+    @Override
+    protected boolean doEquals(FilterFunction other) {
+      return true;
+    }
+
+    @Override
+    protected int doHashCode() {
+      return 0;
+    }
+  }
+
+  private static FilterFunction[] boundedFunctions() {
+    return new FilterFunction[] {
+      new WeightFilterFunction(null, 2.0f), new WeightFilterFunction(FILTER_QUERY, 3.0f)
+    };
+  }
+
+  @Test
+  public void testMaxFunctionScore_multiply() {
+    assertEquals(
+        6.0,
+        MultiFunctionScoreQuery.computeMaxFunctionScore(
+            boundedFunctions(),
+            FunctionScoreMode.SCORE_MODE_MULTIPLY,
+            BoostMode.BOOST_MODE_MULTIPLY),
+        0.0);
+    // filtered function may not apply, giving a factor of 1
+    assertEquals(
+        1.0,
+        MultiFunctionScoreQuery.computeMaxFunctionScore(
+            new FilterFunction[] {new WeightFilterFunction(FILTER_QUERY, 0.5f)},
+            FunctionScoreMode.SCORE_MODE_MULTIPLY,
+            BoostMode.BOOST_MODE_MULTIPLY),
+        0.0);
+  }
+
+  @Test
+  public void testMaxFunctionScore_sum() {
+    assertEquals(
+        5.0,
+        MultiFunctionScoreQuery.computeMaxFunctionScore(
+            boundedFunctions(), FunctionScoreMode.SCORE_MODE_SUM, BoostMode.BOOST_MODE_SUM),
+        0.0);
+    // score is 1 when no filter matches
+    assertEquals(
+        1.0,
+        MultiFunctionScoreQuery.computeMaxFunctionScore(
+            new FilterFunction[] {new WeightFilterFunction(FILTER_QUERY, 0.5f)},
+            FunctionScoreMode.SCORE_MODE_SUM,
+            BoostMode.BOOST_MODE_SUM),
+        0.0);
+  }
+
+  @Test
+  public void testMaxFunctionScore_negativeWeight() {
+    FilterFunction[] functions = {
+      new WeightFilterFunction(null, 2.0f), new WeightFilterFunction(FILTER_QUERY, -1.0f)
+    };
+    assertEquals(
+        Double.POSITIVE_INFINITY,
+        MultiFunctionScoreQuery.computeMaxFunctionScore(
+            functions, FunctionScoreMode.SCORE_MODE_SUM, BoostMode.BOOST_MODE_MULTIPLY),
+        0.0);
+    assertEquals(
+        2.0,
+        MultiFunctionScoreQuery.computeMaxFunctionScore(
+            functions, FunctionScoreMode.SCORE_MODE_SUM, BoostMode.BOOST_MODE_SUM),
+        0.0);
+    assertEquals(
+        Double.POSITIVE_INFINITY,
+        MultiFunctionScoreQuery.computeMaxFunctionScore(
+            functions, FunctionScoreMode.SCORE_MODE_MULTIPLY, BoostMode.BOOST_MODE_SUM),
+        0.0);
+  }
+
+  @Test
+  public void testMaxFunctionScore_unbounded() {
+    FilterFunction[] functions = {
+      new WeightFilterFunction(null, 2.0f), new UnboundedFilterFunction()
+    };
+    for (FunctionScoreMode scoreMode :
+        new FunctionScoreMode[] {
+          FunctionScoreMode.SCORE_MODE_MULTIPLY, FunctionScoreMode.SCORE_MODE_SUM
+        }) {
+      assertEquals(
+          Double.POSITIVE_INFINITY,
+          MultiFunctionScoreQuery.computeMaxFunctionScore(
+              functions, scoreMode, BoostMode.BOOST_MODE_MULTIPLY),
+          0.0);
+    }
+  }
+
+  @Test
+  public void testMaxFunctionScore_noFunctions() {
+    assertEquals(
+        1.0,
+        MultiFunctionScoreQuery.computeMaxFunctionScore(
+            new FilterFunction[0],
+            FunctionScoreMode.SCORE_MODE_MULTIPLY,
+            BoostMode.BOOST_MODE_MULTIPLY),
+        0.0);
+    assertEquals(
+        Double.POSITIVE_INFINITY,
+        MultiFunctionScoreQuery.computeMaxFunctionScore(
+            new FilterFunction[0],
+            FunctionScoreMode.SCORE_MODE_MULTIPLY,
+            BoostMode.BOOST_MODE_REPLACE),
+        0.0);
+  }
+
+  @Test
+  public void testScorerMaxScore() throws IOException {
+    for (BoostMode boostMode :
+        new BoostMode[] {BoostMode.BOOST_MODE_MULTIPLY, BoostMode.BOOST_MODE_SUM}) {
+      Query query = createQuery(boundedFunctions(), FunctionScoreMode.SCORE_MODE_SUM, boostMode);
+      Weight weight =
+          searcher.createWeight(searcher.rewrite(query), ScoreMode.TOP_SCORES, 1.0f);
+      for (LeafReaderContext context : reader.leaves()) {
+        Scorer scorer = weight.scorer(context);
+        float maxScore = scorer.getMaxScore(DocIdSetIterator.NO_MORE_DOCS);
+        assertTrue(maxScore < Float.MAX_VALUE);
+        while (scorer.iterator().nextDoc() != DocIdSetIterator.NO_MORE_DOCS) {
+          assertTrue(scorer.score() <= maxScore);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testScorerMaxScore_noFunctions() throws IOException {
+    Weight innerWeight =
+        searcher.createWeight(searcher.rewrite(INNER_QUERY), ScoreMode.TOP_SCORES, 1.0f);
+    for (BoostMode boostMode :
+        new BoostMode[] {BoostMode.BOOST_MODE_MULTIPLY, BoostMode.BOOST_MODE_SUM}) {
+      Query query = createQuery(new FilterFunction[0], FunctionScoreMode.SCORE_MODE_SUM, boostMode);
+      Weight weight =
+          searcher.createWeight(searcher.rewrite(query), ScoreMode.TOP_SCORES, 1.0f);
+      for (LeafReaderContext context : reader.leaves()) {
+        // the inner query score is used as is, so the bound is the inner bound
+        assertEquals(
+            innerWeight.scorer(context).getMaxScore(DocIdSetIterator.NO_MORE_DOCS),
+            weight.scorer(context).getMaxScore(DocIdSetIterator.NO_MORE_DOCS),
+            0.0f);
+      }
+      verifyPruning(query, true);
+    }
+  }
+
+  @Test
+  public void testTopScoresPruning_multiply() throws IOException {
+    verifyPruning(
+        createQuery(
+            boundedFunctions(),
+            FunctionScoreMode.SCORE_MODE_MULTIPLY,
+            BoostMode.BOOST_MODE_MULTIPLY),
+        true);
+  }
+
+  @Test
+  public void testTopScoresPruning_sum() throws IOException {
+    verifyPruning(
+        createQuery(
+            boundedFunctions(), FunctionScoreMode.SCORE_MODE_SUM, BoostMode.BOOST_MODE_SUM),
+        true);
+  }
+
+  @Test
+  public void testTopScoresPruning_unbounded() throws IOException {
+    FilterFunction[] functions = {
+      new WeightFilterFunction(null, 2.0f), new UnboundedFilterFunction()
+    };
+    verifyPruning(
+        createQuery(
+            functions, FunctionScoreMode.SCORE_MODE_MULTIPLY, BoostMode.BOOST_MODE_MULTIPLY),
+        false);
+  }
+
+  private static Query createQuery(
+      FilterFunction[] functions, FunctionScoreMode scoreMode, BoostMode boostMode) {
+    return new MultiFunctionScoreQuery(INNER_QUERY, functions, scoreMode, boostMode, 0, false);
+  }
+
+  private static void verifyPruning(Query query, boolean expectPruning) throws IOException {
+    TopDocs exhaustive = searcher.search(query, new TopScoreDocCollectorManager(10, NUM_DOCS));
+    TopDocs pruned = searcher.search(query, new TopScoreDocCollectorManager(10, 10));
+
+    assertEquals(TotalHits.Relation.EQUAL_TO, exhaustive.totalHits.relation());
+    assertEquals(exhaustive.scoreDocs.length, pruned.scoreDocs.length);
+    for (int i = 0; i < exhaustive.scoreDocs.length; ++i) {
+      assertEquals(exhaustive.scoreDocs[i].doc, pruned.scoreDocs[i].doc);
+      assertEquals(exhaustive.scoreDocs[i].score, pruned.scoreDocs[i].score, 0.0f);
+    }
+    if (expectPruning) {
+      assertEquals(TotalHits.Relation.GREATER_THAN_OR_EQUAL_TO, pruned.totalHits.relation());
+      assertTrue(pruned.totalHits.value() < exhaustive.totalHits.value());
+    } else {
+      // every document is still scored
+      assertEquals(exhaustive.totalHits.value(), pruned.totalHits.value());
+    }
+  }
+}
@@ -0,0 +1,248 @@
+/*
+ * Copyright 2025 Yelp Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.yelp.nrtsearch.server.remote;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.yelp.nrtsearch.server.config.LazyRestoreConfig;
+import com.yelp.nrtsearch.server.nrt.state.NrtFileMetaData;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.apache.lucene.codecs.CodecUtil;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.store.IOContext;
+import org.apache.lucene.store.IndexInput;
+import org.apache.lucene.store.IndexOutput;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class RemoteBackedDirectoryTest {
+  private static final String SERVICE_NAME = "test_service";
+  private static final String INDEX_ID = "test_index-id";
+  private static final String INDEX_NAME = "test_index";
+  private static final int BLOCK_SIZE = 1024;
+
+  @Rule public final TemporaryFolder folder = new TemporaryFolder();
+
+  private final Map<String, byte[]> remoteData = new HashMap<>();
+  private final Map<String, NrtFileMetaData> remoteFiles = new HashMap<>();
+  private RemoteBackend remoteBackend;
+  private Path indexPath;
+
+  @Before
+  public void setup() throws IOException {
+    addRemoteFile("_0.cfs", 10000);
+    addRemoteFile("_0.si", 100);
+    addRemoteFile("_1.cfs", 3 * BLOCK_SIZE);
+    indexPath = folder.newFolder("index").toPath();
+
+    remoteBackend = mock(RemoteBackend.class);
+    when(remoteBackend.downloadIndexFileRange(
+            eq(SERVICE_NAME), eq(INDEX_ID), anyString(), any(), anyLong(), anyLong()))
+        .thenAnswer(
+            invocation -> {
+              byte[] data = remoteData.get(invocation.<String>getArgument(2));
+              int offset = (int) invocation.<Long>getArgument(4).longValue();
+              int length = (int) invocation.<Long>getArgument(5).longValue();
+              return new ByteArrayInputStream(data, offset, length);
+            });
+  }
+
+  private void addRemoteFile(String name, int size) throws IOException {
+    byte[] data;
+    try (Directory directory = new ByteBuffersDirectory()) {
+      try (IndexOutput output = directory.createOutput(name, IOContext.DEFAULT)) {
+        CodecUtil.writeHeader(output, "test", 0);
+        byte[] content = new byte[size];
+        new Random(size).nextBytes(content);
+        output.writeBytes(content, content.length);
+        CodecUtil.writeFooter(output);
+      }
+      try (IndexInput input = directory.openInput(name, IOContext.DEFAULT)) {
+        data = new byte[(int) input.length()];
+        input.readBytes(data, 0, data.length);
+      }
+    }
+    remoteData.put(name, data);
+    remoteFiles.put(name, new NrtFileMetaData(data, data, data.length, checksum(data), "id", "t"));
+  }
+
+  private static long checksum(byte[] data) throws IOException {
+    try (Directory directory = new ByteBuffersDirectory()) {
+      try (IndexOutput output = directory.createOutput("file", IOContext.DEFAULT)) {
+        output.writeBytes(data, data.length);
+      }
+      try (IndexInput input = directory.openInput("file", IOContext.DEFAULT)) {
+        return CodecUtil.retrieveChecksum(input);
+      }
+    }
+  }
+
+  private RemoteBackedDirectory getDirectory(int hydrationThreads) throws IOException {
+    return new RemoteBackedDirectory(
+        FSDirectory.open(indexPath),
+        indexPath,
+        remoteBackend,
+        SERVICE_NAME,
+        INDEX_ID,
+        INDEX_NAME,
+        remoteFiles,
+        new LazyRestoreConfig(true, BLOCK_SIZE, hydrationThreads));
+  }
+
+  private static byte[] readAll(Directory directory, String name) throws IOException {
+    try (IndexInput input = directory.openInput(name, IOContext.DEFAULT)) {
+      byte[] data = new byte[(int) input.length()];
+      input.readBytes(data, 0, data.length);
+      return data;
+    }
+  }
+
+  @Test
+  public void testReadOnDemand() throws IOException {
+    try (RemoteBackedDirectory directory = getDirectory(0)) {
+      assertArrayEquals(new String[] {"_0.cfs", "_0.si", "_1.cfs"}, directory.listAll());
+      assertEquals(remoteData.get("_0.cfs").length, directory.fileLength("_0.cfs"));
+      assertEquals(Set.of("_0.cfs", "_0.si", "_1.cfs"), directory.getRemoteFileNames());
+
+      // read a range contained in the second block
+      byte[] expected = remoteData.get("_0.cfs");
+      try (IndexInput input = directory.openInput("_0.cfs", IOContext.DEFAULT)) {
+        input.seek(BLOCK_SIZE + 10);
+        byte[] data = new byte[100];
+        input.readBytes(data, 0, data.length);
+        for (int i = 0; i < data.length; ++i) {
+          assertEquals(expected[BLOCK_SIZE + 10 + i], data[i]);
+        }
+
+        IndexInput slice = input.slice("slice", 2 * BLOCK_SIZE - 5, 10);
+        assertEquals(10, slice.length());
+        assertEquals(expected[2 * BLOCK_SIZE - 5], slice.readByte());
+      }
+      verify(remoteBackend, times(1))
+          .downloadIndexFileRange(
+              SERVICE_NAME, INDEX_ID, "_0.cfs", remoteFiles.get("_0.cfs"), BLOCK_SIZE, BLOCK_SIZE);
+      verify(remoteBackend, times(1))
+          .downloadIndexFileRange(
+              SERVICE_NAME,
+              INDEX_ID,
+              "_0.cfs",
+              remoteFiles.get("_0.cfs"),
+              2 * BLOCK_SIZE,
+              BLOCK_SIZE);
+
+      for (String name : remoteData.keySet()) {
+        assertArrayEquals(remoteData.get(name), readAll(directory, name));
+      }
+      // files are not moved into the index without hydration
+      assertEquals(0, indexPath.toFile().list().length);
+      assertEquals(3, directory.getRemoteFileNames().size());
+    }
+  }
+
+  @Test
+  public void testHydration() throws Exception {
+    try (RemoteBackedDirectory directory = getDirectory(2)) {
+      assertTrue(directory.awaitHydration(30, TimeUnit.SECONDS));
+      assertTrue(directory.getRemoteFileNames().isEmpty());
+      assertEquals(0, directory.getPendingBytes());
+      assertArrayEquals(new String[] {"_0.cfs", "_0.si", "_1.cfs"}, directory.listAll());
+      for (String name : remoteData.keySet()) {
+        assertArrayEquals(remoteData.get(name), Files.readAllBytes(indexPath.resolve(name)));
+        assertArrayEquals(remoteData.get(name), readAll(directory, name));
+      }
+      Path cachePath = indexPath.resolveSibling(RemoteBackedDirectory.BLOCK_CACHE_DIR_NAME);
+      assertFalse(Files.exists(cachePath.resolve("_0.si")));
+
+      directory.deleteFile("_0.si");
+      assertFalse(Files.exists(indexPath.resolve("_0.si")));
+      assertArrayEquals(new String[] {"_0.cfs", "_1.cfs"}, directory.listAll());
+    }
+  }
+
+  @Test
+  public void testChecksumMismatch() throws Exception {
+    NrtFileMetaData metaData = remoteFiles.get("_0.si");
+    remoteFiles.put(
+        "_0.si",
+        new NrtFileMetaData(
+            metaData.header,
+            metaData.footer,
+            metaData.length,
+            metaData.checksum + 1,
+            metaData.primaryId,
+            metaData.timeString));
+    try (RemoteBackedDirectory directory = getDirectory(1)) {
+      assertTrue(directory.awaitHydration(30, TimeUnit.SECONDS));
+      assertEquals(Set.of("_0.si"), directory.getRemoteFileNames());
+      assertEquals(metaData.length, directory.getPendingBytes());
+      assertFalse(Files.exists(indexPath.resolve("_0.si")));
+      assertTrue(Files.exists(indexPath.resolve("_0.cfs")));
+    }
+  }
+
+  @Test
+  public void testDeleteRemoteFile() throws IOException {
+    try (RemoteBackedDirectory directory = getDirectory(0)) {
+      readAll(directory, "_1.cfs");
+      Path cacheFile =
+          indexPath.resolveSibling(RemoteBackedDirectory.BLOCK_CACHE_DIR_NAME).resolve("_1.cfs");
+      assertTrue(Files.exists(cacheFile));
+      long pendingBytes = directory.getPendingBytes();
+
+      directory.deleteFile("_1.cfs");
+      assertFalse(Files.exists(cacheFile));
+      assertEquals(pendingBytes - remoteData.get("_1.cfs").length, directory.getPendingBytes());
+      assertArrayEquals(new String[] {"_0.cfs", "_0.si"}, directory.listAll());
+    }
+  }
+
+  @Test
+  public void testNewFilesWrittenLocally() throws IOException {
+    try (RemoteBackedDirectory directory = getDirectory(0)) {
+      try (IndexOutput output = directory.createOutput("_2.si", IOContext.DEFAULT)) {
+        output.writeInt(10);
+      }
+      directory.sync(List.of("_2.si", "_0.si"));
+      assertTrue(Files.exists(indexPath.resolve("_2.si")));
+      assertArrayEquals(new String[] {"_0.cfs", "_0.si", "_1.cfs", "_2.si"}, directory.listAll());
+      assertEquals(4, directory.fileLength("_2.si"));
+    }
+  }
+}
@@ -40,6 +40,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Stream;
 import org.apache.lucene.index.LeafReaderContext;
 import org.junit.ClassRule;
@@ -197,6 +198,8 @@ public class FetchTasksTest extends ServerTestCase {
           hit.getFieldsOrThrow("all_task").getFieldValue(0).getIntValue());
       assertEquals(fieldVal + 10, hit.getFieldsOrThrow("hits_task").getFieldValue(0).getIntValue());
     }
+    Map<String, Double> fetchTaskTimeMs = response.getDiagnostics().getFetchTaskTimeMsMap();
+    assertEquals(Set.of("TestAllHitsTask", "TestHitsTask"), fetchTaskTimeMs.keySet());
   }
 
   private void assertBaseHit(SearchResponse response) {
@@ -32,10 +32,12 @@ import com.yelp.nrtsearch.server.index.ShardState;
 import io.grpc.testing.GrpcCleanupRule;
 import java.io.IOException;
 import java.util.stream.Stream;
+import org.apache.lucene.document.SortedDocValuesField;
 import org.apache.lucene.facet.taxonomy.SearcherTaxonomyManager;
 import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.NoMergePolicy;
+import org.apache.lucene.util.BytesRef;
 import org.apache.lucene.util.LongValues;
 import org.junit.Before;
 import org.junit.ClassRule;
@@ -158,6 +160,92 @@ public class GlobalOrdinalLookupTest extends ServerTestCase {
     assertEquals("3", ordinalLookup.lookupGlobalOrdinal(1));
   }
 
+  @Test
+  public void testIncrementalSegments() throws Exception {
+    addData("1");
+    addData("3");
+    IndexState indexState = getGlobalState().getIndexOrThrow(DEFAULT_TEST_INDEX);
+    for (String field : new String[] {VALUE_FIELD, VALUE_MULTI_FIELD}) {
+      IncrementalGlobalOrdinalLookup lookup = getIncrementalLookup(indexState, field);
+      assertEquals(2, lookup.getNumOrdinals());
+      assertEquals(2, lookup.getMergedSegments());
+    }
+
+    addData("2");
+    for (String field : new String[] {VALUE_FIELD, VALUE_MULTI_FIELD}) {
+      IncrementalGlobalOrdinalLookup lookup = getIncrementalLookup(indexState, field);
+      assertEquals(2, lookup.getReusedSegments());
+      assertEquals(1, lookup.getMergedSegments());
+      assertEquals(3, lookup.getNumOrdinals());
+      // previous dictionary bytes are reused, only the new term is copied
+      assertEquals(2, lookup.getDictionaryChunks());
+      assertEquals(0, lookup.getSegmentMapping(0).get(0));
+      assertEquals(2, lookup.getSegmentMapping(1).get(0));
+      assertEquals(1, lookup.getSegmentMapping(2).get(0));
+      assertEquals("1", lookup.lookupGlobalOrdinal(0));
+      assertEquals("2", lookup.lookupGlobalOrdinal(1));
+      assertEquals("3", lookup.lookupGlobalOrdinal(2));
+    }
+
+    // fully deleted segment is dropped, and its terms removed from the dictionary
+    ShardState shardState = indexState.getShard(0);
+    shardState.writer.deleteDocuments(
+        SortedDocValuesField.newSlowExactQuery(VALUE_FIELD, new BytesRef("1")));
+    shardState.writer.flush();
+    shardState.maybeRefreshBlocking();
+    addData("0");
+    for (String field : new String[] {VALUE_FIELD, VALUE_MULTI_FIELD}) {
+      IncrementalGlobalOrdinalLookup lookup = getIncrementalLookup(indexState, field);
+      assertEquals(2, lookup.getReusedSegments());
+      assertEquals(1, lookup.getMergedSegments());
+      assertEquals(3, lookup.getNumOrdinals());
+      assertEquals(3, lookup.getDictionaryChunks());
+      assertEquals(2, lookup.getSegmentMapping(0).get(0));
+      assertEquals(1, lookup.getSegmentMapping(1).get(0));
+      assertEquals(0, lookup.getSegmentMapping(2).get(0));
+      assertEquals("0", lookup.lookupGlobalOrdinal(0));
+      assertEquals("2", lookup.lookupGlobalOrdinal(1));
+      assertEquals("3", lookup.lookupGlobalOrdinal(2));
+    }
+
+    // most dictionary bytes belong to dropped terms, chunks are compacted
+    shardState.writer.deleteDocuments(
+        SortedDocValuesField.newSlowExactQuery(VALUE_FIELD, new BytesRef("2")),
+        SortedDocValuesField.newSlowExactQuery(VALUE_FIELD, new BytesRef("3")));
+    shardState.writer.flush();
+    shardState.maybeRefreshBlocking();
+    addData("4");
+    for (String field : new String[] {VALUE_FIELD, VALUE_MULTI_FIELD}) {
+      IncrementalGlobalOrdinalLookup lookup = getIncrementalLookup(indexState, field);
+      assertEquals(1, lookup.getReusedSegments());
+      assertEquals(1, lookup.getMergedSegments());
+      assertEquals(2, lookup.getNumOrdinals());
+      assertEquals(1, lookup.getDictionaryChunks());
+      assertEquals(0, lookup.getSegmentMapping(0).get(0));
+      assertEquals(1, lookup.getSegmentMapping(1).get(0));
+      assertEquals("0", lookup.lookupGlobalOrdinal(0));
+      assertEquals("4", lookup.lookupGlobalOrdinal(1));
+    }
+  }
+
+  private IncrementalGlobalOrdinalLookup getIncrementalLookup(IndexState indexState, String field)
+      throws IOException {
+    SearcherTaxonomyManager.SearcherAndTaxonomy s = null;
+    ShardState shardState = indexState.getShard(0);
+    try {
+      s = shardState.acquire();
+      GlobalOrdinalLookup ordinalLookup =
+          ((GlobalOrdinalable) indexState.getFieldOrThrow(field))
+              .getOrdinalLookup(s.searcher().getIndexReader());
+      assertTrue(ordinalLookup instanceof IncrementalGlobalOrdinalLookup);
+      return (IncrementalGlobalOrdinalLookup) ordinalLookup;
+    } finally {
+      if (s != null) {
+        shardState.release(s);
+      }
+    }
+  }
+
   private void addData(String value) throws Exception {
     IndexWriter writer = getGlobalState().getIndexOrThrow(DEFAULT_TEST_INDEX).getShard(0).writer;
 
@@ -24,6 +24,8 @@ import com.yelp.nrtsearch.server.grpc.FieldDefRequest;
 import com.yelp.nrtsearch.server.grpc.LiveSettingsRequest;
 import com.yelp.nrtsearch.server.index.IndexState;
 import com.yelp.nrtsearch.server.index.ShardState;
+import com.yelp.nrtsearch.server.search.slicing.DocCountSlicer;
+import com.yelp.nrtsearch.server.search.slicing.SlicingParams;
 import io.grpc.testing.GrpcCleanupRule;
 import java.io.IOException;
 import java.util.ArrayList;
@@ -32,6 +34,7 @@ import java.util.Collections;
 import java.util.List;
 import org.apache.lucene.facet.taxonomy.SearcherTaxonomyManager.SearcherAndTaxonomy;
 import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.index.NoMergePolicy;
 import org.apache.lucene.search.IndexSearcher.LeafSlice;
 import org.junit.ClassRule;
@@ -136,7 +139,7 @@ public class MyIndexSearcherTest extends ServerTestCase {
       s = shardState.acquire();
       assertTrue(s.searcher() instanceof MyIndexSearcher);
       MyIndexSearcher searcher = (MyIndexSearcher) s.searcher();
-      MyIndexSearcher.SlicingParams params = searcher.getSlicingParams();
+      SlicingParams params = ((DocCountSlicer) searcher.getSlicer()).getParams();
       assertEquals(maxDocs, params.sliceMaxDocs());
       assertEquals(maxSegments, params.sliceMaxSegments());
     } finally {
@@ -182,4 +185,33 @@ public class MyIndexSearcherTest extends ServerTestCase {
       }
     }
   }
+
+  @Test
+  public void testSliceSegmentPartitions() throws IOException {
+    SearcherAndTaxonomy s = null;
+    ShardState shardState = getGlobalState().getIndexOrThrow(DOCS_INDEX).getShard(0);
+    try {
+      s = shardState.acquire();
+      List<LeafReaderContext> leaves = s.searcher().getIndexReader().leaves();
+      assertEquals(10, DocCountSlicer.slices(leaves, 4, 10, false).length);
+
+      // each 10 doc segment is split into partitions of 4, 4 and 2 docs
+      LeafSlice[] slices = DocCountSlicer.slices(leaves, 4, 10, true);
+      assertEquals(30, slices.length);
+      long totalDocs = 0;
+      for (LeafSlice slice : slices) {
+        assertEquals(1, slice.partitions.length);
+        assertTrue(slice.getMaxDocs() <= 4);
+        totalDocs += slice.getMaxDocs();
+      }
+      assertEquals(NUM_DOCS, totalDocs);
+
+      // segments within the doc limit are not split
+      assertEquals(4, DocCountSlicer.slices(leaves, 25, 10, true).length);
+    } finally {
+      if (s != null) {
+        shardState.release(s);
+      }
+    }
+  }
 }
@@ -24,6 +24,8 @@ import com.yelp.nrtsearch.server.grpc.AddDocumentRequest;
 import com.yelp.nrtsearch.server.grpc.FieldDefRequest;
 import com.yelp.nrtsearch.server.grpc.IndexLiveSettings;
 import com.yelp.nrtsearch.server.index.ShardState;
+import com.yelp.nrtsearch.server.search.slicing.DocCountSlicer;
+import com.yelp.nrtsearch.server.search.slicing.SlicingParams;
 import io.grpc.testing.GrpcCleanupRule;
 import java.io.IOException;
 import java.util.ArrayList;
@@ -117,7 +119,7 @@ public class MyIndexSearcherVirtualShardsTest extends ServerTestCase {
       s = shardState.acquire();
       assertTrue(s.searcher() instanceof MyIndexSearcher);
       MyIndexSearcher searcher = (MyIndexSearcher) s.searcher();
-      MyIndexSearcher.SlicingParams params = searcher.getSlicingParams();
+      SlicingParams params = ((DocCountSlicer) searcher.getSlicer()).getParams();
       assertEquals(111, params.virtualShards());
     } finally {
       if (s != null) {
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2025 Yelp Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.yelp.nrtsearch.server.search.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.join.BitSetProducer;
+import org.apache.lucene.search.join.QueryBitSetProducer;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.util.BitSet;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ParentBitSetCacheTest {
+  private static final Query PARENT_QUERY = new TermQuery(new Term("type", "parent"));
+  private static final Query OTHER_QUERY = new TermQuery(new Term("type", "other"));
+
+  private Directory directory;
+  private IndexWriter writer;
+
+  @Before
+  public void setUp() throws IOException {
+    directory = new ByteBuffersDirectory();
+    writer = new IndexWriter(directory, new IndexWriterConfig(new StandardAnalyzer()));
+    for (int segment = 0; segment < 3; ++segment) {
+      for (int block = 0; block < 10; ++block) {
+        List<Document> docs = new ArrayList<>();
+        for (int child = 0; child < block % 4; ++child) {
+          Document childDoc = new Document();
+          childDoc.add(new StringField("type", "child", Field.Store.NO));
+          docs.add(childDoc);
+        }
+        Document parentDoc = new Document();
+        parentDoc.add(new StringField("type", "parent", Field.Store.NO));
+        docs.add(parentDoc);
+        writer.addDocuments(docs);
+      }
+      writer.commit();
+    }
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    writer.close();
+    directory.close();
+  }
+
+  @Test
+  public void testMatchesQueryBitSetProducer() throws IOException {
+    ParentBitSetCache cache = new ParentBitSetCache();
+    QueryBitSetProducer expectedProducer = new QueryBitSetProducer(PARENT_QUERY);
+    BitSetProducer producer = cache.getBitSetProducer(PARENT_QUERY);
+    try (DirectoryReader reader = DirectoryReader.open(directory)) {
+      assertEquals(3, reader.leaves().size());
+      for (LeafReaderContext context : reader.leaves()) {
+        BitSet expected = expectedProducer.getBitSet(context);
+        BitSet actual = producer.getBitSet(context);
+        assertNotNull(actual);
+        assertEquals(expected.length(), actual.length());
+        assertEquals(expected.cardinality(), actual.cardinality());
+        for (int i = 0; i < expected.length(); ++i) {
+          assertEquals(expected.get(i), actual.get(i));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testCachedAcrossProducers() throws IOException {
+    ParentBitSetCache cache = new ParentBitSetCache();
+    try (DirectoryReader reader = DirectoryReader.open(directory)) {
+      LeafReaderContext context = reader.leaves().get(0);
+      BitSet first = cache.getBitSetProducer(PARENT_QUERY).getBitSet(context);
+      assertEquals(0, cache.getHitCount());
+      assertEquals(1, cache.getMissCount());
+
+      BitSet second = cache.getBitSetProducer(PARENT_QUERY).getBitSet(context);
+      assertSame(first, second);
+      assertEquals(1, cache.getHitCount());
+      assertEquals(1, cache.getMissCount());
+      assertEquals(1, cache.getCacheSize());
+      assertEquals(first.ramBytesUsed(), cache.getSizeBytes());
+    }
+  }
+
+  @Test
+  public void testNoMatches() throws IOException {
+    ParentBitSetCache cache = new ParentBitSetCache();
+    try (DirectoryReader reader = DirectoryReader.open(directory)) {
+      LeafReaderContext context = reader.leaves().get(0);
+      assertNull(cache.getBitSetProducer(OTHER_QUERY).getBitSet(context));
+      assertNull(cache.getBitSetProducer(OTHER_QUERY).getBitSet(context));
+      assertEquals(1, cache.getHitCount());
+      assertEquals(1, cache.getCacheSize());
+      assertEquals(0, cache.getSizeBytes());
+    }
+  }
+
+  @Test
+  public void testSharedByNewReader() throws IOException {
+    ParentBitSetCache cache = new ParentBitSetCache();
+    BitSetProducer producer = cache.getBitSetProducer(PARENT_QUERY);
+    try (DirectoryReader reader = DirectoryReader.open(directory)) {
+      for (LeafReaderContext context : reader.leaves()) {
+        producer.getBitSet(context);
+      }
+      writer.deleteDocuments(new Term("type", "child"));
+      writer.commit();
+      try (DirectoryReader newReader = DirectoryReader.openIfChanged(reader)) {
+        assertNotNull(newReader);
+        for (LeafReaderContext context : newReader.leaves()) {
+          producer.getBitSet(context);
+        }
+      }
+    }
+    assertEquals(3, cache.getHitCount());
+    assertEquals(3, cache.getMissCount());
+  }
+
+  @Test
+  public void testRemovedOnSegmentClose() throws IOException {
+    ParentBitSetCache cache = new ParentBitSetCache();
+    try (DirectoryReader reader = DirectoryReader.open(directory)) {
+      for (LeafReaderContext context : reader.leaves()) {
+        cache.getBitSetProducer(PARENT_QUERY).getBitSet(context);
+        cache.getBitSetProducer(OTHER_QUERY).getBitSet(context);
+      }
+      assertEquals(6, cache.getCacheSize());
+      assertTrue(cache.getSizeBytes() > 0);
+    }
+    assertEquals(0, cache.getCacheSize());
+    assertEquals(0, cache.getSizeBytes());
+  }
+
+  @Test
+  public void testClear() throws IOException {
+    ParentBitSetCache cache = new ParentBitSetCache();
+    try (DirectoryReader reader = DirectoryReader.open(directory)) {
+      for (LeafReaderContext context : reader.leaves()) {
+        cache.getBitSetProducer(PARENT_QUERY).getBitSet(context);
+      }
+      assertEquals(3, cache.getCacheSize());
+      cache.clear();
+      assertEquals(0, cache.getCacheSize());
+      assertEquals(0, cache.getSizeBytes());
+
+      cache.getBitSetProducer(PARENT_QUERY).getBitSet(reader.leaves().get(0));
+      assertEquals(4, cache.getMissCount());
+    }
+  }
+
+  @Test
+  public void testProducerEquals() {
+    ParentBitSetCache cache = new ParentBitSetCache();
+    assertEquals(cache.getBitSetProducer(PARENT_QUERY), cache.getBitSetProducer(PARENT_QUERY));
+    assertEquals(
+        cache.getBitSetProducer(PARENT_QUERY).hashCode(),
+        cache.getBitSetProducer(PARENT_QUERY).hashCode());
+    assertNotEquals(cache.getBitSetProducer(PARENT_QUERY), cache.getBitSetProducer(OTHER_QUERY));
+  }
+}
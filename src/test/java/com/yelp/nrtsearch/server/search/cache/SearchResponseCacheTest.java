@@ -0,0 +1,186 @@
+/*
+ * Copyright 2025 Yelp Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.yelp.nrtsearch.server.search.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import com.google.protobuf.BoolValue;
+import com.google.protobuf.Int32Value;
+import com.yelp.nrtsearch.server.ServerTestCase;
+import com.yelp.nrtsearch.server.grpc.AddDocumentRequest;
+import com.yelp.nrtsearch.server.grpc.FieldDefRequest;
+import com.yelp.nrtsearch.server.grpc.IndexLiveSettings;
+import com.yelp.nrtsearch.server.grpc.SearchRequest;
+import com.yelp.nrtsearch.server.grpc.SearchResponse;
+import io.grpc.testing.GrpcCleanupRule;
+import java.io.IOException;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+public class SearchResponseCacheTest extends ServerTestCase {
+  private static final String VALUE_FIELD = "value";
+
+  @ClassRule public static final GrpcCleanupRule grpcCleanup = new GrpcCleanupRule();
+
+  @Override
+  public FieldDefRequest getIndexDef(String name) throws IOException {
+    return getFieldsFromResourceFile("/search/OrdinalsRegisterFields.json");
+  }
+
+  @Override
+  protected void initIndex(String name) throws Exception {
+    addDocs(0, 10);
+  }
+
+  private void addDocs(int start, int end) throws Exception {
+    Stream<AddDocumentRequest> requests =
+        IntStream.range(start, end)
+            .mapToObj(
+                i ->
+                    AddDocumentRequest.newBuilder()
+                        .setIndexName(DEFAULT_TEST_INDEX)
+                        .putFields(
+                            VALUE_FIELD,
+                            AddDocumentRequest.MultiValuedField.newBuilder()
+                                .addValue(String.valueOf(i))
+                                .build())
+                        .build());
+    addDocuments(requests);
+    getGlobalState().getIndexOrThrow(DEFAULT_TEST_INDEX).getShard(0).maybeRefreshBlocking();
+  }
+
+  private SearchRequest.Builder getRequest(int topHits) {
+    return SearchRequest.newBuilder()
+        .setIndexName(DEFAULT_TEST_INDEX)
+        .setTopHits(topHits)
+        .addRetrieveFields(VALUE_FIELD);
+  }
+
+  private SearchResponse search(SearchRequest request) {
+    return getGrpcServer().getBlockingStub().search(request);
+  }
+
+  private SearchResponseCache getCache() {
+    SearchResponseCache cache = getGlobalState().getSearchResponseCache();
+    assertNotNull(cache);
+    return cache;
+  }
+
+  @Test
+  public void testCacheHit() {
+    SearchRequest request =
+        getRequest(5).setRequestCache(BoolValue.newBuilder().setValue(true)).build();
+    long hits = getCache().getHitCount();
+
+    SearchResponse first = search(request);
+    assertFalse(first.getDiagnostics().getRequestCacheHit());
+    SearchResponse second = search(request);
+    assertTrue(second.getDiagnostics().getRequestCacheHit());
+    assertEquals(hits + 1, getCache().getHitCount());
+    assertEquals(
+        first.toBuilder().clearDiagnostics().build(),
+        second.toBuilder().clearDiagnostics().build());
+
+    // timeout and compression do not change the cached response
+    SearchResponse third =
+        search(request.toBuilder().setTimeoutSec(10).setResponseCompression("gzip").build());
+    assertTrue(third.getDiagnostics().getRequestCacheHit());
+
+    // different request is a different entry
+    SearchResponse other =
+        search(getRequest(3).setRequestCache(BoolValue.newBuilder().setValue(true)).build());
+    assertFalse(other.getDiagnostics().getRequestCacheHit());
+    assertEquals(3, other.getHitsCount());
+  }
+
+  @Test
+  public void testNotCachedByDefault() {
+    SearchRequest request = getRequest(4).build();
+    search(request);
+    assertFalse(search(request).getDiagnostics().getRequestCacheHit());
+
+    SearchRequest disabledRequest =
+        getRequest(4).setRequestCache(BoolValue.newBuilder().setValue(false)).build();
+    search(disabledRequest);
+    assertFalse(search(disabledRequest).getDiagnostics().getRequestCacheHit());
+  }
+
+  @Test
+  public void testProfileNotCached() {
+    SearchRequest request =
+        getRequest(6)
+            .setProfile(true)
+            .setRequestCache(BoolValue.newBuilder().setValue(true))
+            .build();
+    search(request);
+    assertFalse(search(request).getDiagnostics().getRequestCacheHit());
+  }
+
+  @Test
+  public void testInvalidatedOnRefresh() throws Exception {
+    SearchRequest request =
+        getRequest(7).setRequestCache(BoolValue.newBuilder().setValue(true)).build();
+    SearchResponse first = search(request);
+    assertTrue(search(request).getDiagnostics().getRequestCacheHit());
+    long invalidatedBytes = getCache().getInvalidatedBytes();
+
+    addDocs(100, 105);
+    assertTrue(getCache().getInvalidatedBytes() > invalidatedBytes);
+
+    SearchResponse afterRefresh = search(request);
+    assertFalse(afterRefresh.getDiagnostics().getRequestCacheHit());
+    assertEquals(first.getTotalHits().getValue() + 5, afterRefresh.getTotalHits().getValue());
+    assertTrue(
+        afterRefresh.getSearchState().getSearcherVersion()
+            > first.getSearchState().getSearcherVersion());
+    assertTrue(search(request).getDiagnostics().getRequestCacheHit());
+  }
+
+  @Test
+  public void testInvalidatedOnStateUpdate() throws Exception {
+    SearchRequest request =
+        getRequest(8).setRequestCache(BoolValue.newBuilder().setValue(true)).build();
+    search(request);
+    assertTrue(search(request).getDiagnostics().getRequestCacheHit());
+    long invalidatedBytes = getCache().getInvalidatedBytes();
+
+    try {
+      updateDefaultTerminateAfter(3);
+      assertTrue(getCache().getInvalidatedBytes() > invalidatedBytes);
+      SearchResponse afterUpdate = search(request);
+      assertFalse(afterUpdate.getDiagnostics().getRequestCacheHit());
+      assertTrue(afterUpdate.getTerminatedEarly());
+    } finally {
+      updateDefaultTerminateAfter(0);
+    }
+    assertFalse(search(request).getDiagnostics().getRequestCacheHit());
+  }
+
+  private void updateDefaultTerminateAfter(int terminateAfter) throws IOException {
+    getGlobalState()
+        .getIndexStateManagerOrThrow(DEFAULT_TEST_INDEX)
+        .updateLiveSettings(
+            IndexLiveSettings.newBuilder()
+                .setDefaultTerminateAfter(Int32Value.newBuilder().setValue(terminateAfter).build())
+                .build(),
+            false);
+  }
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2025 Yelp Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.yelp.nrtsearch.server.search.collectors.additional;
+
+import static org.junit.Assert.assertEquals;
+
+import com.google.protobuf.BoolValue;
+import com.google.protobuf.Int32Value;
+import com.yelp.nrtsearch.server.ServerTestCase;
+import com.yelp.nrtsearch.server.grpc.AddDocumentRequest;
+import com.yelp.nrtsearch.server.grpc.AddDocumentRequest.MultiValuedField;
+import com.yelp.nrtsearch.server.grpc.BucketResult;
+import com.yelp.nrtsearch.server.grpc.BucketResult.Bucket;
+import com.yelp.nrtsearch.server.grpc.Collector;
+import com.yelp.nrtsearch.server.grpc.FieldDefRequest;
+import com.yelp.nrtsearch.server.grpc.FilterCollector;
+import com.yelp.nrtsearch.server.grpc.IndexLiveSettings;
+import com.yelp.nrtsearch.server.grpc.Query;
+import com.yelp.nrtsearch.server.grpc.RangeQuery;
+import com.yelp.nrtsearch.server.grpc.SearchRequest;
+import com.yelp.nrtsearch.server.grpc.SearchResponse;
+import com.yelp.nrtsearch.server.grpc.TermsCollector;
+import com.yelp.nrtsearch.server.index.ShardState;
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.apache.lucene.facet.taxonomy.SearcherTaxonomyManager.SearcherAndTaxonomy;
+import org.apache.lucene.search.IndexSearcher.LeafSlice;
+import org.junit.Test;
+
+public class SegmentPartitionCollectorsTest extends ServerTestCase {
+  private static final String PARTITIONED_INDEX = "test_index_partitioned";
+  private static final int NUM_DOCS = 100;
+  private static final int SLICE_MAX_DOCS = 10;
+
+  @Override
+  protected List<String> getIndices() {
+    return List.of(DEFAULT_TEST_INDEX, PARTITIONED_INDEX);
+  }
+
+  @Override
+  protected FieldDefRequest getIndexDef(String name) throws IOException {
+    return getFieldsFromResourceFile("/search/collection/filter.json").toBuilder()
+        .setIndexName(name)
+        .build();
+  }
+
+  @Override
+  protected String getExtraConfig() {
+    return "stateConfig:\n  backendType: LOCAL";
+  }
+
+  @Override
+  protected void initIndex(String name) throws Exception {
+    getGlobalState()
+        .getIndexStateManagerOrThrow(name)
+        .updateLiveSettings(
+            IndexLiveSettings.newBuilder()
+                .setSliceMaxDocs(Int32Value.of(SLICE_MAX_DOCS))
+                .setSliceSegmentPartitions(BoolValue.of(PARTITIONED_INDEX.equals(name)))
+                .build(),
+            false);
+
+    // all documents are in a single segment, with a distinct count for each int_value
+    addDocuments(
+        IntStream.range(0, NUM_DOCS)
+            .mapToObj(
+                i ->
+                    AddDocumentRequest.newBuilder()
+                        .setIndexName(name)
+                        .putFields("doc_id", field(String.valueOf(i)))
+                        .putFields("query_field", field(String.valueOf(i)))
+                        .putFields("int_value", field(String.valueOf((int) Math.sqrt(i))))
+                        .build()));
+  }
+
+  private static MultiValuedField field(String value) {
+    return MultiValuedField.newBuilder().addValue(value).build();
+  }
+
+  @Test
+  public void testSegmentPartitions() throws IOException {
+    assertEquals(1, getSlices(DEFAULT_TEST_INDEX).length);
+    LeafSlice[] slices = getSlices(PARTITIONED_INDEX);
+    assertEquals(NUM_DOCS / SLICE_MAX_DOCS, slices.length);
+    for (LeafSlice slice : slices) {
+      assertEquals(1, slice.partitions.length);
+      assertEquals(SLICE_MAX_DOCS, slice.getMaxDocs());
+    }
+  }
+
+  @Test
+  public void testHitCount() {
+    for (int topHits : new int[] {0, 10}) {
+      SearchResponse response = search(PARTITIONED_INDEX, topHits);
+      assertEquals(NUM_DOCS, response.getTotalHits().getValue());
+      assertEquals(topHits, response.getHitsCount());
+    }
+  }
+
+  @Test
+  public void testAdditionalCollectors() {
+    for (int topHits : new int[] {0, 10}) {
+      SearchResponse response = search(DEFAULT_TEST_INDEX, topHits);
+      SearchResponse partitionedResponse = search(PARTITIONED_INDEX, topHits);
+      assertEquals(response.getCollectorResultsMap(), partitionedResponse.getCollectorResultsMap());
+
+      BucketResult terms =
+          partitionedResponse.getCollectorResultsOrThrow("terms").getBucketResult();
+      assertEquals(10, terms.getTotalBuckets());
+      for (int i = 0; i < terms.getBucketsCount(); ++i) {
+        Bucket bucket = terms.getBuckets(i);
+        assertEquals(String.valueOf(9 - i), bucket.getKey());
+        assertEquals(2 * (9 - i) + 1, bucket.getCount());
+      }
+
+      assertEquals(
+          NUM_DOCS - 20,
+          partitionedResponse.getCollectorResultsOrThrow("filter").getFilterResult().getDocCount());
+      BucketResult filteredTerms =
+          partitionedResponse
+              .getCollectorResultsOrThrow("filter")
+              .getFilterResult()
+              .getNestedCollectorResultsOrThrow("terms")
+              .getBucketResult();
+      assertEquals(6, filteredTerms.getTotalBuckets());
+      assertEquals("9", filteredTerms.getBuckets(0).getKey());
+      assertEquals(19, filteredTerms.getBuckets(0).getCount());
+      assertEquals("4", filteredTerms.getBuckets(5).getKey());
+      assertEquals(5, filteredTerms.getBuckets(5).getCount());
+    }
+  }
+
+  private SearchResponse search(String indexName, int topHits) {
+    return getGrpcServer()
+        .getBlockingStub()
+        .search(
+            SearchRequest.newBuilder()
+                .setIndexName(indexName)
+                .setTopHits(topHits)
+                .addRetrieveFields("doc_id")
+                .putCollectors(
+                    "terms",
+                    Collector.newBuilder()
+                        .setTerms(
+                            TermsCollector.newBuilder().setField("int_value").setSize(10).build())
+                        .build())
+                .putCollectors(
+                    "filter",
+                    Collector.newBuilder()
+                        .setFilter(
+                            FilterCollector.newBuilder()
+                                .setQuery(
+                                    Query.newBuilder()
+                                        .setRangeQuery(
+                                            RangeQuery.newBuilder()
+                                                .setField("query_field")
+                                                .setLower("20")
+                                                .build())
+                                        .build())
+                                .build())
+                        .putNestedCollectors(
+                            "terms",
+                            Collector.newBuilder()
+                                .setTerms(
+                                    TermsCollector.newBuilder()
+                                        .setField("int_value")
+                                        .setSize(10)
+                                        .build())
+                                .build())
+                        .build())
+                .build());
+  }
+
+  private LeafSlice[] getSlices(String indexName) throws IOException {
+    ShardState shardState = getGlobalState().getIndexOrThrow(indexName).getShard(0);
+    SearcherAndTaxonomy s = null;
+    try {
+      s = shardState.acquire();
+      return s.searcher().getSlices();
+    } finally {
+      if (s != null) {
+        shardState.release(s);
+      }
+    }
+  }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2025 Yelp Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.yelp.nrtsearch.server.search.slicing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.NoMergePolicy;
+import org.apache.lucene.search.IndexSearcher.LeafSlice;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CostBalancedSlicerTest {
+  private Directory directory;
+  private IndexWriter writer;
+
+  @Before
+  public void setUp() throws IOException {
+    directory = new ByteBuffersDirectory();
+    writer =
+        new IndexWriter(directory, new IndexWriterConfig().setMergePolicy(NoMergePolicy.INSTANCE));
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    writer.close();
+    directory.close();
+  }
+
+  /** Add a segment with the given number of docs, each indexing a number of distinct terms. */
+  private void addSegment(int numDocs, int termsPerDoc) throws IOException {
+    for (int i = 0; i < numDocs; ++i) {
+      Document document = new Document();
+      for (int j = 0; j < termsPerDoc; ++j) {
+        document.add(new StringField("field", "term_" + j, Field.Store.NO));
+      }
+      document.add(new NumericDocValuesField("value", i));
+      writer.addDocument(document);
+    }
+    writer.flush();
+  }
+
+  @Test
+  public void testNoSegments() throws IOException {
+    try (DirectoryReader reader = DirectoryReader.open(writer)) {
+      CostBalancedSlicer slicer = new CostBalancedSlicer(new SlicingParams(100, 10, 1));
+      assertEquals(0, slicer.slices(reader.leaves()).length);
+    }
+  }
+
+  @Test
+  public void testEstimateCost() throws IOException {
+    addSegment(10, 5);
+    addSegment(20, 0);
+    try (DirectoryReader reader = DirectoryReader.open(writer)) {
+      List<Long> costs = new ArrayList<>();
+      for (LeafReaderContext leaf : reader.leaves()) {
+        costs.add(CostBalancedSlicer.estimateCost(leaf.reader()));
+      }
+      Collections.sort(costs);
+      // segment without postings uses the doc count
+      assertEquals(List.of(20L, 50L), costs);
+    }
+  }
+
+  @Test
+  public void testBalancesByCost() throws IOException {
+    addSegment(100, 10);
+    addSegment(100, 1);
+    addSegment(100, 1);
+    addSegment(100, 1);
+    try (DirectoryReader reader = DirectoryReader.open(writer)) {
+      // doc count slicing groups the first three segments, regardless of cost
+      LeafSlice[] docCountSlices = DocCountSlicer.slices(reader.leaves(), 200, 10, false);
+      assertEquals(2, docCountSlices.length);
+      assertEquals(3, docCountSlices[0].partitions.length);
+
+      LeafSlice[] slices =
+          new CostBalancedSlicer(new SlicingParams(200, 10, 1)).slices(reader.leaves());
+      assertEquals(2, slices.length);
+      // expensive segment is alone in the first slice
+      assertEquals(1, slices[0].partitions.length);
+      assertEquals(0, slices[0].partitions[0].ctx.docBase);
+      assertEquals(3, slices[1].partitions.length);
+      assertEquals(300, slices[1].getMaxDocs());
+      for (int i = 1; i < slices[1].partitions.length; ++i) {
+        assertTrue(slices[1].partitions[i - 1].ctx.docBase < slices[1].partitions[i].ctx.docBase);
+      }
+    }
+  }
+
+  @Test
+  public void testMaxSegments() throws IOException {
+    for (int i = 0; i < 5; ++i) {
+      addSegment(10, 1);
+    }
+    try (DirectoryReader reader = DirectoryReader.open(writer)) {
+      LeafSlice[] slices =
+          new CostBalancedSlicer(new SlicingParams(1000, 2, 1)).slices(reader.leaves());
+      assertEquals(3, slices.length);
+      int totalSegments = 0;
+      for (LeafSlice slice : slices) {
+        assertTrue(slice.partitions.length <= 2);
+        totalSegments += slice.partitions.length;
+      }
+      assertEquals(5, totalSegments);
+    }
+  }
+
+  @Test
+  public void testMaxDocs() throws IOException {
+    for (int i = 0; i < 4; ++i) {
+      addSegment(10, 1);
+    }
+    try (DirectoryReader reader = DirectoryReader.open(writer)) {
+      assertEquals(
+          2, new CostBalancedSlicer(new SlicingParams(20, 10, 1)).slices(reader.leaves()).length);
+      // never more slices than segments
+      assertEquals(
+          4, new CostBalancedSlicer(new SlicingParams(1, 10, 1)).slices(reader.leaves()).length);
+    }
+  }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright 2025 Yelp Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.yelp.nrtsearch.server.warming;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.yelp.nrtsearch.server.grpc.Query;
+import com.yelp.nrtsearch.server.grpc.RangeQuery;
+import com.yelp.nrtsearch.server.grpc.SearchRequest;
+import com.yelp.nrtsearch.server.grpc.TermQuery;
+import java.util.List;
+import org.junit.Test;
+
+public class QueryShapeSamplerTest {
+
+  private static SearchRequest termRequest(String field, String value, int topHits) {
+    return SearchRequest.newBuilder()
+        .setIndexName("test_index")
+        .setTopHits(topHits)
+        .addRetrieveFields("id")
+        .setQuery(
+            Query.newBuilder()
+                .setTermQuery(TermQuery.newBuilder().setField(field).setTextValue(value)))
+        .build();
+  }
+
+  private static SearchRequest rangeRequest(String field, String lower) {
+    return SearchRequest.newBuilder()
+        .setIndexName("test_index")
+        .setQuery(
+            Query.newBuilder()
+                .setRangeQuery(RangeQuery.newBuilder().setField(field).setLower(lower)))
+        .build();
+  }
+
+  @Test
+  public void testShapeIgnoresLiterals() {
+    assertEquals(
+        QueryShapeSampler.getShapeHash(termRequest("f1", "a", 10)),
+        QueryShapeSampler.getShapeHash(termRequest("f1", "b", 20)));
+    assertEquals(
+        QueryShapeSampler.getShapeHash(rangeRequest("f1", "1")),
+        QueryShapeSampler.getShapeHash(rangeRequest("f1", "2")));
+  }
+
+  @Test
+  public void testShapeKeepsStructure() {
+    assertNotEquals(
+        QueryShapeSampler.getShapeHash(termRequest("f1", "a", 10)),
+        QueryShapeSampler.getShapeHash(termRequest("f2", "a", 10)));
+    assertNotEquals(
+        QueryShapeSampler.getShapeHash(termRequest("f1", "a", 10)),
+        QueryShapeSampler.getShapeHash(rangeRequest("f1", "a")));
+    assertNotEquals(
+        QueryShapeSampler.getShapeHash(termRequest("f1", "a", 10)),
+        QueryShapeSampler.getShapeHash(
+            termRequest("f1", "a", 10).toBuilder().addRetrieveFields("f2").build()));
+  }
+
+  @Test
+  public void testShape() {
+    SearchRequest expected =
+        SearchRequest.newBuilder()
+            .setIndexName("test_index")
+            .addRetrieveFields("id")
+            .setQuery(Query.newBuilder().setTermQuery(TermQuery.newBuilder().setField("f1")))
+            .build();
+    assertEquals(expected, QueryShapeSampler.getShape(termRequest("f1", "a", 10)));
+  }
+
+  @Test
+  public void testDeduplicatesRequests() {
+    QueryShapeSampler sampler = new QueryShapeSampler(10, 2);
+    for (int i = 0; i < 5; ++i) {
+      sampler.add(termRequest("f1", "a", 10), 1);
+    }
+    assertEquals(List.of(termRequest("f1", "a", 10)), sampler.getTopRequests(10));
+
+    sampler.add(termRequest("f1", "b", 10), 1);
+    sampler.add(termRequest("f1", "c", 10), 1);
+    assertEquals(1, sampler.getNumShapes());
+    List<SearchRequest> requests = sampler.getTopRequests(10);
+    assertEquals(2, requests.size());
+    assertNotEquals(requests.get(0), requests.get(1));
+  }
+
+  @Test
+  public void testOrderedByWeight() {
+    QueryShapeSampler sampler = new QueryShapeSampler(10, 1);
+    for (int i = 0; i < 10; ++i) {
+      sampler.add(termRequest("frequent", String.valueOf(i), 10), 0);
+    }
+    sampler.add(termRequest("expensive", "a", 10), 100);
+    sampler.add(termRequest("rare", "a", 10), 0);
+
+    List<SearchRequest> requests = sampler.getTopRequests(3);
+    assertEquals(3, requests.size());
+    assertEquals("expensive", requests.get(0).getQuery().getTermQuery().getField());
+    assertEquals("frequent", requests.get(1).getQuery().getTermQuery().getField());
+    assertEquals("rare", requests.get(2).getQuery().getTermQuery().getField());
+    assertEquals(2, sampler.getTopRequests(2).size());
+  }
+
+  @Test
+  public void testSketchSizeBound() {
+    QueryShapeSampler sampler = new QueryShapeSampler(3, 1);
+    sampler.add(termRequest("expensive", "a", 10), 100);
+    for (int i = 0; i < 20; ++i) {
+      sampler.add(termRequest("f" + i, "a", 10), 0);
+    }
+    assertEquals(3, sampler.getNumShapes());
+    // the expensive shape is never the lowest weight, so it is not replaced
+    assertEquals(
+        "expensive", sampler.getTopRequests(1).get(0).getQuery().getTermQuery().getField());
+  }
+
+  @Test
+  public void testFromConfig() {
+    assertNull(QueryShapeSampler.fromConfig(new WarmerConfig(10, 1, false)));
+    QueryShapeSampler sampler =
+        QueryShapeSampler.fromConfig(
+            new WarmerConfig(
+                10,
+                1,
+                false,
+                false,
+                10,
+                100,
+                WarmerConfig.SamplingStrategy.WEIGHTED_SHAPES,
+                0,
+                1,
+                1.0));
+    for (int i = 0; i < 50; ++i) {
+      sampler.add(termRequest("f" + i, "a", 10), 0);
+    }
+    assertEquals(10 * QueryShapeSampler.DEFAULT_SKETCH_SIZE_MULTIPLIER, sampler.getNumShapes());
+  }
+
+  @Test
+  public void testInvalidParams() {
+    try {
+      new QueryShapeSampler(0, 1);
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertTrue(e.getMessage().contains("sketchSize must be > 0"));
+    }
+    try {
+      new QueryShapeSampler(1, 0);
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertTrue(e.getMessage().contains("requestsPerShape must be > 0"));
+    }
+    try {
+      new QueryShapeSampler(1, 1, 0);
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertTrue(e.getMessage().contains("sampleRate must be in (0, 1]"));
+    }
+  }
+
+  @Test
+  public void testSampleRate() {
+    QueryShapeSampler sampler = new QueryShapeSampler(1000, 1, 0.1);
+    for (int i = 0; i < 1000; ++i) {
+      sampler.add(termRequest("f" + i, "a", 10), 0);
+    }
+    // expected 100 shapes, with a standard deviation under 10
+    assertTrue(sampler.getNumShapes() > 50);
+    assertTrue(sampler.getNumShapes() < 150);
+  }
+}
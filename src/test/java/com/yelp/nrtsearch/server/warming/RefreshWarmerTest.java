@@ -0,0 +1,154 @@
+/*
+ * Copyright 2025 Yelp Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.yelp.nrtsearch.server.warming;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.yelp.nrtsearch.server.ServerTestCase;
+import com.yelp.nrtsearch.server.grpc.AddDocumentRequest;
+import com.yelp.nrtsearch.server.grpc.FieldDefRequest;
+import com.yelp.nrtsearch.server.grpc.Query;
+import com.yelp.nrtsearch.server.grpc.SearchRequest;
+import com.yelp.nrtsearch.server.grpc.TermQuery;
+import com.yelp.nrtsearch.server.monitoring.IndexMetrics;
+import io.grpc.testing.GrpcCleanupRule;
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.NoMergePolicy;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+public class RefreshWarmerTest extends ServerTestCase {
+  private static final String VALUE_FIELD = "value";
+
+  @ClassRule public static final GrpcCleanupRule grpcCleanup = new GrpcCleanupRule();
+
+  @Override
+  protected String getExtraConfig() {
+    return String.join(
+        "\n",
+        "warmer:",
+        "  maxWarmingQueries: 10",
+        "  warmOnRefresh: true",
+        "  refreshWarmingQueries: 5",
+        "  refreshWarmingBudgetMs: 10000");
+  }
+
+  @Override
+  public FieldDefRequest getIndexDef(String name) throws IOException {
+    return getFieldsFromResourceFile("/search/OrdinalsRegisterFields.json");
+  }
+
+  @Override
+  protected void initIndex(String name) throws Exception {
+    addDocs(0, 10);
+  }
+
+  private void addDocs(int start, int end) throws Exception {
+    Stream<AddDocumentRequest> requests =
+        IntStream.range(start, end)
+            .mapToObj(
+                i ->
+                    AddDocumentRequest.newBuilder()
+                        .setIndexName(DEFAULT_TEST_INDEX)
+                        .putFields(
+                            VALUE_FIELD,
+                            AddDocumentRequest.MultiValuedField.newBuilder()
+                                .addValue(String.valueOf(i % 3))
+                                .build())
+                        .build());
+    addDocuments(requests);
+    getGlobalState().getIndexOrThrow(DEFAULT_TEST_INDEX).getShard(0).maybeRefreshBlocking();
+  }
+
+  @Test
+  public void testWarmsOnRefresh() throws Exception {
+    for (int i = 0; i < 3; ++i) {
+      getGrpcServer()
+          .getBlockingStub()
+          .search(
+              SearchRequest.newBuilder()
+                  .setIndexName(DEFAULT_TEST_INDEX)
+                  .setTopHits(5)
+                  .setQuery(
+                      Query.newBuilder()
+                          .setTermQuery(
+                              TermQuery.newBuilder()
+                                  .setField(VALUE_FIELD)
+                                  .setTextValue(String.valueOf(i))))
+                  .addRetrieveFields(VALUE_FIELD)
+                  .build());
+    }
+    double successCount =
+        IndexMetrics.refreshWarmingQueries.labelValues(DEFAULT_TEST_INDEX, "success").get();
+
+    addDocs(10, 20);
+    assertTrue(
+        IndexMetrics.refreshWarmingQueries.labelValues(DEFAULT_TEST_INDEX, "success").get()
+            >= successCount + 3);
+  }
+
+  @Test
+  public void testFromConfig() {
+    assertNull(RefreshWarmer.fromConfig(new WarmerConfig(10, 1, false)));
+    assertNull(RefreshWarmer.fromConfig(new WarmerConfig(10, 1, false, true, 0, 100)));
+    assertNotNull(RefreshWarmer.fromConfig(new WarmerConfig(10, 1, false, true, 5, 100)));
+  }
+
+  @Test
+  public void testGetNewLeaves() throws IOException {
+    try (Directory directory = new ByteBuffersDirectory();
+        IndexWriter writer =
+            new IndexWriter(
+                directory, new IndexWriterConfig().setMergePolicy(NoMergePolicy.INSTANCE))) {
+      addDoc(writer, "1");
+      writer.commit();
+      try (DirectoryReader firstReader = DirectoryReader.open(directory)) {
+        assertTrue(RefreshWarmer.getNewLeaves(firstReader, firstReader).isEmpty());
+        addDoc(writer, "2");
+        writer.commit();
+        try (DirectoryReader secondReader = DirectoryReader.openIfChanged(firstReader)) {
+          assertNotNull(secondReader);
+          List<LeafReader> newLeaves = RefreshWarmer.getNewLeaves(secondReader, firstReader);
+          assertEquals(1, newLeaves.size());
+          assertSame(secondReader.leaves().get(1).reader(), newLeaves.get(0));
+          assertTrue(RefreshWarmer.getNewLeaves(secondReader, secondReader).isEmpty());
+        }
+      }
+    }
+  }
+
+  private static void addDoc(IndexWriter writer, String id) throws IOException {
+    Document document = new Document();
+    document.add(new StringField("id", id, Field.Store.NO));
+    writer.addDocument(document);
+  }
+}
@@ -87,6 +87,56 @@ public class WarmerTest {
     Assertions.assertThat(lines).containsAll(getTestSearchRequestsAsJsonStrings());
   }
 
+  @Test
+  public void testSampleSearchRequests() {
+    Assertions.assertThat(warmer.sampleSearchRequests(5)).isEmpty();
+
+    List<SearchRequest> testRequests = getTestSearchRequests();
+    testRequests.forEach(warmer::addSearchRequest);
+
+    Assertions.assertThat(warmer.sampleSearchRequests(5))
+        .containsExactlyInAnyOrderElementsOf(testRequests);
+    List<SearchRequest> sample = warmer.sampleSearchRequests(1);
+    Assertions.assertThat(sample).hasSize(1);
+    Assertions.assertThat(testRequests).containsAll(sample);
+  }
+
+  @Test
+  public void testBackupWeightedShapes() throws IOException {
+    Warmer shapeWarmer = new Warmer(remoteBackend, service, index, 2, new QueryShapeSampler(10, 1));
+    List<SearchRequest> testRequests = getTestSearchRequests();
+    shapeWarmer.addSearchRequest(testRequests.get(0), 1);
+    shapeWarmer.addSearchRequest(testRequests.get(0), 1);
+    shapeWarmer.addSearchRequest(testRequests.get(1), 10);
+    Assertions.assertThat(shapeWarmer.getNumWarmingRequests()).isEqualTo(2);
+
+    shapeWarmer.backupWarmingQueriesToS3(service);
+
+    InputStream queriesStream = remoteBackend.downloadWarmingQueries(service, index);
+    List<String> lines = new ArrayList<>();
+    try (BufferedReader reader = new BufferedReader(new InputStreamReader(queriesStream))) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        lines.add(line);
+      }
+    }
+    // ordered by shape weight, without duplicates
+    List<String> expectedLines = getTestSearchRequestsAsJsonStrings();
+    Assertions.assertThat(lines).containsExactly(expectedLines.get(1), expectedLines.get(0));
+  }
+
+  @Test
+  public void testSampleWeightedShapes() {
+    Warmer shapeWarmer = new Warmer(remoteBackend, service, index, 2, new QueryShapeSampler(10, 1));
+    List<SearchRequest> testRequests = getTestSearchRequests();
+    shapeWarmer.addSearchRequest(testRequests.get(0), 1);
+    shapeWarmer.addSearchRequest(testRequests.get(1), 10);
+    // the highest weight shapes are sampled, in order
+    Assertions.assertThat(shapeWarmer.sampleSearchRequests(1)).containsExactly(testRequests.get(1));
+    Assertions.assertThat(shapeWarmer.sampleSearchRequests(5))
+        .containsExactly(testRequests.get(1), testRequests.get(0));
+  }
+
   @Test
   public void testWarmFromS3()
       throws IOException, SearchHandler.SearchHandlerException, InterruptedException {